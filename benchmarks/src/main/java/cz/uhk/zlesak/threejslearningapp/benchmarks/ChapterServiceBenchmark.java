@@ -0,0 +1,89 @@
+package cz.uhk.zlesak.threejslearningapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.uhk.zlesak.threejslearningapp.api.clients.ChapterApiClient;
+import cz.uhk.zlesak.threejslearningapp.api.coalescing.RequestCoalescer;
+import cz.uhk.zlesak.threejslearningapp.cache.ChapterEntityCache;
+import cz.uhk.zlesak.threejslearningapp.cache.ChapterExcerptCache;
+import cz.uhk.zlesak.threejslearningapp.cache.ContentHashIndex;
+import cz.uhk.zlesak.threejslearningapp.cache.ModelMetadataCache;
+import cz.uhk.zlesak.threejslearningapp.domain.chapter.SubChapterForSelect;
+import cz.uhk.zlesak.threejslearningapp.metrics.BackendApiMetrics;
+import cz.uhk.zlesak.threejslearningapp.services.ChapterService;
+import elemental.json.JsonArray;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChapterServiceBenchmark measures parsing of the chapter content into sub-chapters done on every chapter view.
+ * The chapter is served from the ChapterEntityCache, so only the content processing is measured and no backend call is made.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ChapterServiceBenchmark {
+    private static final String CHAPTER_ID = "benchmark-chapter";
+
+    @Param({"100", "1000", "10000"})
+    public int blocks;
+
+    private ChapterService chapterService;
+    private String middleSubChapterId;
+
+    /**
+     * Creates the service with the synthetic chapter already present in the cache.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = SyntheticChapters.objectMapper();
+        ChapterEntityCache chapterEntityCache = new ChapterEntityCache(Long.MAX_VALUE, Duration.ZERO, "none", Duration.ZERO);
+        chapterEntityCache.put(CHAPTER_ID, SyntheticChapters.chapter(CHAPTER_ID, blocks, objectMapper));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ChapterApiClient chapterApiClient = new ChapterApiClient(new RestTemplate(), objectMapper, new BackendApiMetrics(meterRegistry));
+        chapterService = new ChapterService(chapterApiClient, chapterEntityCache, objectMapper, new RequestCoalescer(List.of(), Duration.ofSeconds(10), meterRegistry),
+                new ChapterExcerptCache(Long.MAX_VALUE), new ModelMetadataCache(Long.MAX_VALUE, Duration.ZERO, Duration.ZERO, 1, new ContentHashIndex(1, Duration.ZERO)), 150, event -> {
+        });
+        middleSubChapterId = SyntheticChapters.subChapterId(SyntheticChapters.subChapterCount(blocks) / 2);
+    }
+
+    /**
+     * Splits the whole chapter into sub-chapters, used by the chapter navigation.
+     *
+     * @return sub-chapters content
+     * @throws Exception if the chapter cannot be parsed
+     */
+    @Benchmark
+    public JsonArray subChaptersContent() throws Exception {
+        return chapterService.getSubChaptersContent(CHAPTER_ID);
+    }
+
+    /**
+     * Extracts the content of a sub-chapter in the middle of the chapter, used when the user selects a sub-chapter.
+     *
+     * @return sub-chapter content as JSON string
+     * @throws Exception if the chapter cannot be parsed
+     */
+    @Benchmark
+    public String selectedSubChapterContent() throws Exception {
+        return chapterService.getSelectedSubChapterContent(CHAPTER_ID, middleSubChapterId);
+    }
+
+    /**
+     * Lists the sub-chapter headers, used by the sub-chapter select.
+     *
+     * @return sub-chapters for select
+     * @throws Exception if the chapter cannot be parsed
+     */
+    @Benchmark
+    public List<SubChapterForSelect> subChaptersNames() throws Exception {
+        return chapterService.getSubChaptersNames(CHAPTER_ID);
+    }
+}
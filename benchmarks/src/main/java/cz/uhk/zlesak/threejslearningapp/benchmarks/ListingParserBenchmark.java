@@ -0,0 +1,80 @@
+package cz.uhk.zlesak.threejslearningapp.benchmarks;
+
+import cz.uhk.zlesak.threejslearningapp.common.TextureMapHelper;
+import cz.uhk.zlesak.threejslearningapp.domain.model.ModelForSelect;
+import cz.uhk.zlesak.threejslearningapp.domain.model.QuickModelEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.parsers.ModelListingDataParser;
+import cz.uhk.zlesak.threejslearningapp.domain.parsers.TextureListingDataParser;
+import cz.uhk.zlesak.threejslearningapp.domain.texture.TextureAreaForSelect;
+import cz.uhk.zlesak.threejslearningapp.domain.texture.TextureListingForSelect;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ListingParserBenchmark measures building of the model, texture and texture area selects from the models of a chapter.
+ * The number of sub-chapters and models grows with the number of blocks of the synthetic chapter.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ListingParserBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    public int blocks;
+
+    private Map<String, QuickModelEntity> chapterModels;
+
+    /**
+     * Generates the models of the synthetic chapter.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        chapterModels = SyntheticChapters.chapterModels(blocks);
+    }
+
+    /**
+     * Parses the CSV area definitions of all textures.
+     *
+     * @return texture areas for select
+     */
+    @Benchmark
+    public List<TextureAreaForSelect> textureAreas() {
+        return TextureMapHelper.createTextureAreaForSelectRecordList(chapterModels);
+    }
+
+    /**
+     * Builds the model select items.
+     *
+     * @return models for select
+     */
+    @Benchmark
+    public List<ModelForSelect> modelListing() {
+        return ModelListingDataParser.modelForSelectDataParser(chapterModels);
+    }
+
+    /**
+     * Builds the texture select items of all textures.
+     *
+     * @return textures for select
+     */
+    @Benchmark
+    public List<TextureListingForSelect> allTexturesListing() {
+        return TextureListingDataParser.textureListingForSelectDataParser(chapterModels, true);
+    }
+
+    /**
+     * Builds the texture select items of other textures only.
+     *
+     * @return textures for select
+     */
+    @Benchmark
+    public List<TextureListingForSelect> otherTexturesListing() {
+        return TextureListingDataParser.textureListingForSelectDataParser(chapterModels, false);
+    }
+}
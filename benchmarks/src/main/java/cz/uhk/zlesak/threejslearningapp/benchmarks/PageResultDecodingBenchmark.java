@@ -0,0 +1,99 @@
+package cz.uhk.zlesak.threejslearningapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.uhk.zlesak.threejslearningapp.api.clients.ChapterApiClient;
+import cz.uhk.zlesak.threejslearningapp.api.clients.ModelApiClient;
+import cz.uhk.zlesak.threejslearningapp.api.contracts.IApiClient;
+import cz.uhk.zlesak.threejslearningapp.api.endpoints.BackendEndpointRegistry;
+import cz.uhk.zlesak.threejslearningapp.api.endpoints.BalancingStrategy;
+import cz.uhk.zlesak.threejslearningapp.domain.chapter.ChapterEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.common.PageResult;
+import cz.uhk.zlesak.threejslearningapp.domain.common.QuickFile;
+import cz.uhk.zlesak.threejslearningapp.domain.common.SortDirectionEnum;
+import cz.uhk.zlesak.threejslearningapp.metrics.BackendApiMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PageResultDecodingBenchmark measures the listing calls of the API clients including the PageResult decoding.
+ * The RestTemplate is backed by a request factory answering with a prepared body, so no network is involved
+ * and the measured time consists of the response conversion and the JSON decoding done by the clients.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageResultDecodingBenchmark {
+    private static final int PAGE_SIZE = 10;
+
+    @Param({"100", "1000", "10000"})
+    public int blocks;
+
+    private ChapterApiClient chapterApiClient;
+    private ModelApiClient modelApiClient;
+
+    /**
+     * Creates the API clients answering with the synthetic pages.
+     */
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper objectMapper = SyntheticChapters.objectMapper();
+        BackendApiMetrics metrics = new BackendApiMetrics(new SimpleMeterRegistry());
+        byte[] chapterPage = SyntheticChapters.chapterPageJson(PAGE_SIZE, blocks, objectMapper).getBytes(StandardCharsets.UTF_8);
+        byte[] modelPage = SyntheticChapters.modelPageJson(SyntheticChapters.subChapterCount(blocks), objectMapper).getBytes(StandardCharsets.UTF_8);
+        chapterApiClient = new ChapterApiClient(cannedRestTemplate(chapterPage), objectMapper, metrics);
+        BackendEndpointRegistry endpointRegistry = new BackendEndpointRegistry(List.of(IApiClient.BASE_URL), BalancingStrategy.ROUND_ROBIN, "", Duration.ZERO, IApiClient.BASE_URL, new SimpleMeterRegistry());
+        modelApiClient = new ModelApiClient(cannedRestTemplate(modelPage), objectMapper, metrics, endpointRegistry);
+    }
+
+    /**
+     * Decodes a page of chapters including their content and models.
+     *
+     * @return page of chapters
+     * @throws Exception if the page cannot be decoded
+     */
+    @Benchmark
+    public PageResult<ChapterEntity> chapterPage() throws Exception {
+        return chapterApiClient.getChapters(0, PAGE_SIZE, "Name", SortDirectionEnum.ASC);
+    }
+
+    /**
+     * Decodes a page of models with their textures.
+     *
+     * @return page of models
+     * @throws Exception if the page cannot be decoded
+     */
+    @Benchmark
+    public PageResult<QuickFile> modelPage() throws Exception {
+        return modelApiClient.getFileEntities(0, PAGE_SIZE, "Name", SortDirectionEnum.ASC);
+    }
+
+    /**
+     * Creates a RestTemplate answering every request with the provided JSON body.
+     *
+     * @param body JSON body of the responses
+     * @return RestTemplate not touching the network
+     */
+    private static RestTemplate cannedRestTemplate(byte[] body) {
+        return new RestTemplate((uri, httpMethod) -> {
+            MockClientHttpResponse response = new MockClientHttpResponse(body, HttpStatus.OK);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            response.getHeaders().setContentLength(body.length);
+            MockClientHttpRequest request = new MockClientHttpRequest(httpMethod, uri);
+            request.setResponse(response);
+            return request;
+        });
+    }
+}
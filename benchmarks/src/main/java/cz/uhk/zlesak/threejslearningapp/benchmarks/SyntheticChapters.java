@@ -0,0 +1,304 @@
+package cz.uhk.zlesak.threejslearningapp.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import cz.uhk.zlesak.threejslearningapp.domain.chapter.ChapterEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.common.QuickFileEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.model.QuickModelEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.texture.QuickTextureEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * SyntheticChapters generates deterministic chapter data for the benchmarks.
+ * A chapter with N Editor.js blocks contains a level 1 header every SUB_CHAPTER_BLOCKS blocks, level 2 headers, paragraphs and lists,
+ * every sub-chapter has its own model assigned and every two sub-chapters share the same model, as the editor allows it.
+ * Every model has a main texture and other textures with CSV area definitions.
+ */
+public abstract class SyntheticChapters {
+    /**
+     * Number of blocks of a single sub-chapter including its level 1 header.
+     */
+    public static final int SUB_CHAPTER_BLOCKS = 25;
+    private static final int OTHER_TEXTURES_PER_MODEL = 3;
+    private static final int AREAS_PER_TEXTURE = 12;
+    private static final String PARAGRAPH_TEXT = "Lorem ipsum dolor sit amet, <b>consectetur</b> adipiscing elit, sed do eiusmod tempor incididunt ut labore "
+            + "et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud <i>exercitation</i> ullamco laboris nisi ut aliquip ex ea commodo.";
+
+    /**
+     * Creates the object mapper configured the same way as the one provided by Spring Boot to the API clients.
+     *
+     * @return object mapper
+     */
+    public static ObjectMapper objectMapper() {
+        return Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    /**
+     * Generates the Editor.js content of a chapter.
+     *
+     * @param blocks       number of blocks of the chapter
+     * @param objectMapper object mapper used to serialize the content
+     * @return chapter content as JSON string
+     */
+    public static String content(int blocks, ObjectMapper objectMapper) {
+        ObjectNode content = objectMapper.createObjectNode();
+        content.put("time", 1_700_000_000_000L);
+        content.put("version", "2.31.0");
+        ArrayNode blocksNode = content.putArray("blocks");
+        for (int i = 0; i < blocks; i++) {
+            ObjectNode block = blocksNode.addObject();
+            ObjectNode data;
+            if (i % SUB_CHAPTER_BLOCKS == 0) {
+                int subChapter = i / SUB_CHAPTER_BLOCKS;
+                block.put("id", subChapterId(subChapter));
+                block.put("type", "header");
+                data = block.putObject("data");
+                data.put("text", "Podkapitola " + subChapter);
+                data.put("level", 1);
+                data.put("modelId", modelId(subChapter / 2));
+            } else if (i % 8 == 0) {
+                block.put("id", "h2-" + i);
+                block.put("type", "header");
+                data = block.putObject("data");
+                data.put("text", "Nadpis " + i);
+                data.put("level", 2);
+            } else if (i % 5 == 0) {
+                block.put("id", "list-" + i);
+                block.put("type", "list");
+                data = block.putObject("data");
+                data.put("style", "unordered");
+                ArrayNode items = data.putArray("items");
+                for (int item = 0; item < 4; item++) {
+                    items.addObject().put("content", "Položka " + item).putArray("items");
+                }
+            } else {
+                block.put("id", "p-" + i);
+                block.put("type", "paragraph");
+                data = block.putObject("data");
+                data.put("text", PARAGRAPH_TEXT);
+            }
+        }
+        try {
+            return objectMapper.writeValueAsString(content);
+        } catch (Exception e) {
+            throw new IllegalStateException("Obsah syntetické kapitoly nelze serializovat: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Generates the chapter entity including its content and models.
+     *
+     * @param chapterId    ID of the chapter
+     * @param blocks       number of blocks of the chapter
+     * @param objectMapper object mapper used to serialize the content
+     * @return chapter entity
+     */
+    public static ChapterEntity chapter(String chapterId, int blocks, ObjectMapper objectMapper) {
+        List<QuickModelEntity> models = new ArrayList<>();
+        for (int model = 0; model < modelCount(blocks); model++) {
+            models.add(model(model));
+        }
+        return ChapterEntity.builder()
+                .Id(chapterId)
+                .Name("Kapitola " + chapterId)
+                .CreatorId("benchmark")
+                .Created(Instant.parse("2025-01-01T00:00:00Z"))
+                .Content(content(blocks, objectMapper))
+                .Models(models)
+                .build();
+    }
+
+    /**
+     * Generates the map of sub-chapter IDs to models, the same shape as provided by ChapterService.getChaptersModels.
+     *
+     * @param blocks number of blocks of the chapter
+     * @return map of sub-chapter IDs to models, starting with the main model
+     */
+    public static Map<String, QuickModelEntity> chapterModels(int blocks) {
+        List<QuickModelEntity> models = new ArrayList<>();
+        for (int model = 0; model < modelCount(blocks); model++) {
+            models.add(model(model));
+        }
+        Map<String, QuickModelEntity> chapterModels = new LinkedHashMap<>();
+        chapterModels.put("main", models.getFirst());
+        for (int subChapter = 0; subChapter < subChapterCount(blocks); subChapter++) {
+            chapterModels.put(subChapterId(subChapter), models.get(subChapter / 2));
+        }
+        return chapterModels;
+    }
+
+    /**
+     * Generates the JSON body of a page of chapters as returned by the backend chapter listing.
+     *
+     * @param pageSize     number of chapters on the page
+     * @param blocks       number of blocks of every chapter
+     * @param objectMapper object mapper used to serialize the body
+     * @return JSON body of the page
+     */
+    public static String chapterPageJson(int pageSize, int blocks, ObjectMapper objectMapper) {
+        List<ObjectNode> chapters = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            ChapterEntity chapter = chapter("chapter-" + i, blocks, objectMapper);
+            ObjectNode node = objectMapper.createObjectNode();
+            node.put("id", chapter.getId());
+            node.put("name", chapter.getName());
+            node.put("creatorId", chapter.getCreatorId());
+            node.put("created", chapter.getCreated().toString());
+            node.put("content", chapter.getContent());
+            ArrayNode models = node.putArray("models");
+            chapter.getModels().forEach(model -> models.add(modelNode(model, objectMapper)));
+            chapters.add(node);
+        }
+        return pageJson(chapters, objectMapper);
+    }
+
+    /**
+     * Generates the JSON body of a page of models as returned by the backend model listing.
+     *
+     * @param pageSize     number of models on the page
+     * @param objectMapper object mapper used to serialize the body
+     * @return JSON body of the page
+     */
+    public static String modelPageJson(int pageSize, ObjectMapper objectMapper) {
+        List<ObjectNode> models = new ArrayList<>();
+        for (int i = 0; i < pageSize; i++) {
+            models.add(modelNode(model(i), objectMapper));
+        }
+        return pageJson(models, objectMapper);
+    }
+
+    /**
+     * Returns the ID of the sub-chapter header.
+     *
+     * @param subChapter index of the sub-chapter
+     * @return ID of the level 1 header
+     */
+    public static String subChapterId(int subChapter) {
+        return "h1-" + subChapter;
+    }
+
+    /**
+     * Returns the number of sub-chapters of a chapter.
+     *
+     * @param blocks number of blocks of the chapter
+     * @return number of level 1 headers
+     */
+    public static int subChapterCount(int blocks) {
+        return (blocks + SUB_CHAPTER_BLOCKS - 1) / SUB_CHAPTER_BLOCKS;
+    }
+
+    /**
+     * Returns the number of distinct models of a chapter.
+     *
+     * @param blocks number of blocks of the chapter
+     * @return number of models
+     */
+    private static int modelCount(int blocks) {
+        return (subChapterCount(blocks) + 1) / 2;
+    }
+
+    /**
+     * Returns the ID of the model.
+     *
+     * @param model index of the model
+     * @return model ID
+     */
+    private static String modelId(int model) {
+        return "model-" + model;
+    }
+
+    /**
+     * Generates a model with its main texture and other textures.
+     *
+     * @param model index of the model
+     * @return model entity
+     */
+    private static QuickModelEntity model(int model) {
+        List<QuickTextureEntity> otherTextures = new ArrayList<>();
+        for (int texture = 0; texture < OTHER_TEXTURES_PER_MODEL; texture++) {
+            otherTextures.add(texture(modelId(model) + "-texture-" + texture));
+        }
+        return QuickModelEntity.builder()
+                .metadataId(modelId(model) + "-metadata")
+                .model(QuickFileEntity.builder().id(modelId(model)).name("Model " + model).build())
+                .mainTexture(texture(modelId(model) + "-main"))
+                .otherTextures(otherTextures)
+                .build();
+    }
+
+    /**
+     * Generates a texture with CSV area definitions.
+     *
+     * @param textureId ID of the texture
+     * @return texture entity
+     */
+    private static QuickTextureEntity texture(String textureId) {
+        StringBuilder csv = new StringBuilder();
+        for (int area = 0; area < AREAS_PER_TEXTURE; area++) {
+            csv.append(String.format("#%06x", (area * 0x151515) & 0xffffff)).append(";Oblast ").append(area).append("\r\n");
+        }
+        return QuickTextureEntity.builder()
+                .textureFileId(textureId)
+                .name("Textura " + textureId)
+                .csvContent(csv.toString())
+                .build();
+    }
+
+    /**
+     * Converts the model to its JSON representation used by the backend.
+     *
+     * @param model        model entity
+     * @param objectMapper object mapper used to create the nodes
+     * @return JSON node of the model
+     */
+    private static ObjectNode modelNode(QuickModelEntity model, ObjectMapper objectMapper) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("metadataId", model.getMetadataId());
+        node.putObject("model").put("id", model.getModel().getId()).put("name", model.getModel().getName());
+        node.set("mainTexture", textureNode(model.getMainTexture(), objectMapper));
+        ArrayNode otherTextures = node.putArray("otherTextures");
+        model.getOtherTextures().forEach(texture -> otherTextures.add(textureNode(texture, objectMapper)));
+        return node;
+    }
+
+    /**
+     * Converts the texture to its JSON representation used by the backend.
+     *
+     * @param texture      texture entity
+     * @param objectMapper object mapper used to create the nodes
+     * @return JSON node of the texture
+     */
+    private static ObjectNode textureNode(QuickTextureEntity texture, ObjectMapper objectMapper) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("textureFileId", texture.getTextureFileId());
+        node.put("name", texture.getName());
+        node.put("csvContent", texture.getCsvContent());
+        return node;
+    }
+
+    /**
+     * Wraps the elements to the JSON body of the PageResult.
+     *
+     * @param elements     elements of the page
+     * @param objectMapper object mapper used to serialize the body
+     * @return JSON body of the page
+     */
+    private static String pageJson(List<ObjectNode> elements, ObjectMapper objectMapper) {
+        ObjectNode page = objectMapper.createObjectNode();
+        page.putArray("elements").addAll(elements);
+        page.put("total", elements.size() * 10L);
+        page.put("page", 0);
+        try {
+            return objectMapper.writeValueAsString(page);
+        } catch (Exception e) {
+            throw new IllegalStateException("Syntetickou stránku nelze serializovat: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package cz.uhk.zlesak.threejslearningapp.loadtest.generator;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * HeapProbe reads the heap usage of the tested frontend from its Prometheus actuator endpoint.
+ * Heap used is the sum of all heap memory pools, live data size is the old generation occupancy after the last major collection,
+ * which is the more stable value for computing the memory retained per session.
+ */
+public class HeapProbe {
+    private final HttpClient httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final URI prometheusUri;
+
+    /**
+     * Constructor for HeapProbe.
+     *
+     * @param frontendUrl URL of the tested frontend
+     */
+    public HeapProbe(String frontendUrl) {
+        this.prometheusUri = URI.create(frontendUrl + "/actuator/prometheus");
+    }
+
+    /**
+     * Reads the current heap usage.
+     *
+     * @return heap sample, or empty sample when the endpoint is not reachable
+     */
+    public HeapSample sample() {
+        try {
+            HttpResponse<String> response = httpClient.send(HttpRequest.newBuilder(prometheusUri).timeout(Duration.ofSeconds(10)).GET().build(),
+                    HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                return HeapSample.EMPTY;
+            }
+            long heapUsed = 0;
+            long liveData = -1;
+            for (String line : response.body().split("\n")) {
+                if (line.startsWith("jvm_memory_used_bytes{") && line.contains("area=\"heap\"")) {
+                    heapUsed += value(line);
+                } else if (line.startsWith("jvm_gc_live_data_size_bytes")) {
+                    liveData = value(line);
+                }
+            }
+            return new HeapSample(heapUsed, liveData);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return HeapSample.EMPTY;
+        } catch (Exception e) {
+            System.err.println("Využití haldy nelze načíst z " + prometheusUri + ": " + e.getMessage());
+            return HeapSample.EMPTY;
+        }
+    }
+
+    /**
+     * Parses the value of a Prometheus sample line.
+     *
+     * @param line sample line
+     * @return value of the sample
+     */
+    private static long value(String line) {
+        return (long) Double.parseDouble(line.substring(line.lastIndexOf(' ') + 1).trim());
+    }
+
+    /**
+     * Heap usage at a point in time.
+     *
+     * @param heapUsedBytes heap used in bytes, -1 if unknown
+     * @param liveDataBytes live data size in bytes, -1 if unknown
+     */
+    public record HeapSample(long heapUsedBytes, long liveDataBytes) {
+        static final HeapSample EMPTY = new HeapSample(-1, -1);
+    }
+}
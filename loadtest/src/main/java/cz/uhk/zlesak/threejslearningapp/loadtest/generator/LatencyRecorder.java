@@ -0,0 +1,98 @@
+package cz.uhk.zlesak.threejslearningapp.loadtest.generator;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * LatencyRecorder collects durations of the scenario steps of all sessions.
+ * All samples are kept, a load test run produces at most hundreds of thousands of them, so percentiles are computed exactly.
+ */
+public class LatencyRecorder {
+    private final Map<String, Queue<Long>> samples = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> errors = new ConcurrentHashMap<>();
+    private volatile boolean recording;
+
+    /**
+     * Enables or disables recording, steps run during the ramp up are not recorded.
+     *
+     * @param recording true to record the steps
+     */
+    public void setRecording(boolean recording) {
+        this.recording = recording;
+    }
+
+    /**
+     * Records a successful step.
+     *
+     * @param step       name of the step
+     * @param durationNs duration of the step in nanoseconds
+     */
+    public void success(String step, long durationNs) {
+        if (recording) {
+            samples.computeIfAbsent(step, key -> new ConcurrentLinkedQueue<>()).add(durationNs);
+        }
+    }
+
+    /**
+     * Records a failed step.
+     *
+     * @param step name of the step
+     */
+    public void failure(String step) {
+        if (recording) {
+            errors.computeIfAbsent(step, key -> new AtomicLong()).incrementAndGet();
+        }
+    }
+
+    /**
+     * Computes the statistics of all recorded steps.
+     *
+     * @param measuredSeconds duration of the measured part of the run in seconds
+     * @return statistics ordered by the step name
+     */
+    public List<StepStats> stats(double measuredSeconds) {
+        Set<String> steps = new TreeSet<>(samples.keySet());
+        steps.addAll(errors.keySet());
+        List<StepStats> result = new ArrayList<>();
+        for (String step : steps) {
+            long[] sorted = samples.getOrDefault(step, new ConcurrentLinkedQueue<>()).stream().mapToLong(Long::longValue).sorted().toArray();
+            long failed = errors.getOrDefault(step, new AtomicLong()).get();
+            result.add(new StepStats(step, sorted.length, failed, sorted.length / measuredSeconds,
+                    percentileMs(sorted, 50), percentileMs(sorted, 95), percentileMs(sorted, 99),
+                    sorted.length == 0 ? 0 : sorted[sorted.length - 1] / 1_000_000.0));
+        }
+        return result;
+    }
+
+    /**
+     * Computes the percentile using the nearest rank method.
+     *
+     * @param sorted     sorted durations in nanoseconds
+     * @param percentile requested percentile
+     * @return percentile in milliseconds
+     */
+    private static double percentileMs(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+    }
+
+    /**
+     * Statistics of a single scenario step.
+     *
+     * @param step       name of the step
+     * @param count      number of successful executions
+     * @param errors     number of failed executions
+     * @param throughput successful executions per second
+     * @param p50Ms      median duration in milliseconds
+     * @param p95Ms      95th percentile in milliseconds
+     * @param p99Ms      99th percentile in milliseconds
+     * @param maxMs      maximal duration in milliseconds
+     */
+    public record StepStats(String step, long count, long errors, double throughput, double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+    }
+}
@@ -0,0 +1,160 @@
+package cz.uhk.zlesak.threejslearningapp.loadtest.generator;
+
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserType;
+import com.microsoft.playwright.Playwright;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * LoadGenerator drives many concurrent sessions of the frontend through the typical student scenario.
+ * The sessions are spread over several headless browsers, every browser is driven by its own thread.
+ * All sessions are logged in first (ramp up), then the scenario runs repeatedly for the configured duration.
+ * At the end throughput and tail latency of every step and the heap retained per session are printed.
+ * Example: mvn compile exec:java -Dexec.args="--frontend=http://localhost:8081 --users=50 --workers=5 --duration=PT5M"
+ *
+ * @see LoadSession
+ */
+public class LoadGenerator {
+
+    /**
+     * Main method of the load generator.
+     *
+     * @param args options in the --key=value form, see LoadOptions
+     * @throws InterruptedException if the run is interrupted
+     */
+    public static void main(String[] args) throws InterruptedException {
+        LoadOptions options = LoadOptions.parse(args);
+        LatencyRecorder recorder = new LatencyRecorder();
+        HeapProbe heapProbe = new HeapProbe(options.frontendUrl());
+
+        HeapProbe.HeapSample baseline = heapProbe.sample();
+        int workers = Math.max(1, Math.min(options.workers(), options.users()));
+        CountDownLatch loggedIn = new CountDownLatch(workers);
+        CountDownLatch finished = new CountDownLatch(workers);
+        AtomicInteger openSessions = new AtomicInteger();
+        long[] deadlineNs = new long[1];
+        Object start = new Object();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int worker = 0; worker < workers; worker++) {
+            int sessions = options.users() / workers + (worker < options.users() % workers ? 1 : 0);
+            int workerIndex = worker;
+            Thread thread = Thread.ofPlatform().name("load-worker-" + worker).start(() -> {
+                boolean loginDone = false;
+                boolean runDone = false;
+                try (Playwright playwright = Playwright.create();
+                     Browser browser = playwright.chromium().launch(new BrowserType.LaunchOptions()
+                             .setHeadless(true)
+                             .setArgs(List.of("--use-angle=swiftshader", "--enable-unsafe-swiftshader")))) {
+                    List<LoadSession> workerSessions = new ArrayList<>();
+                    for (int session = 0; session < sessions; session++) {
+                        LoadSession loadSession = new LoadSession(browser, options, recorder, workerIndex * 10_000L + session);
+                        if (loadSession.login()) {
+                            workerSessions.add(loadSession);
+                            openSessions.incrementAndGet();
+                        } else {
+                            loadSession.close();
+                        }
+                    }
+                    loggedIn.countDown();
+                    loginDone = true;
+                    synchronized (start) {
+                        while (deadlineNs[0] == 0) {
+                            start.wait();
+                        }
+                    }
+                    while (System.nanoTime() < deadlineNs[0] && !workerSessions.isEmpty()) {
+                        for (LoadSession session : workerSessions) {
+                            if (System.nanoTime() >= deadlineNs[0]) {
+                                break;
+                            }
+                            session.runIteration();
+                        }
+                    }
+                    finished.countDown();
+                    runDone = true;
+                    synchronized (start) {
+                        while (deadlineNs[0] != -1) {
+                            start.wait();
+                        }
+                    }
+                    workerSessions.forEach(LoadSession::close);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (RuntimeException e) {
+                    System.err.println("Worker " + workerIndex + " selhal: " + e.getMessage());
+                } finally {
+                    if (!loginDone) {
+                        loggedIn.countDown();
+                    }
+                    if (!runDone) {
+                        finished.countDown();
+                    }
+                }
+            });
+            threads.add(thread);
+        }
+
+        loggedIn.await();
+        System.out.printf("Přihlášeno %d z %d sezení, měření běží %s%n", openSessions.get(), options.users(), options.duration());
+        recorder.setRecording(true);
+        long measureStartNs = System.nanoTime();
+        synchronized (start) {
+            deadlineNs[0] = measureStartNs + options.duration().toNanos();
+            start.notifyAll();
+        }
+
+        finished.await();
+        recorder.setRecording(false);
+        double measuredSeconds = (System.nanoTime() - measureStartNs) / (double) TimeUnit.SECONDS.toNanos(1);
+        HeapProbe.HeapSample loaded = heapProbe.sample();
+
+        synchronized (start) {
+            deadlineNs[0] = -1;
+            start.notifyAll();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        printReport(recorder.stats(measuredSeconds), measuredSeconds, openSessions.get(), baseline, loaded);
+    }
+
+    /**
+     * Prints the report of the run.
+     *
+     * @param stats           statistics of the scenario steps
+     * @param measuredSeconds duration of the measured part of the run in seconds
+     * @param sessions        number of sessions open during the measurement
+     * @param baseline        heap usage before the sessions were opened
+     * @param loaded          heap usage with all sessions open
+     */
+    private static void printReport(List<LatencyRecorder.StepStats> stats, double measuredSeconds, int sessions,
+                                    HeapProbe.HeapSample baseline, HeapProbe.HeapSample loaded) {
+        System.out.printf(Locale.ROOT, "%nMěřeno %.1f s, %d sezení%n", measuredSeconds, sessions);
+        System.out.printf(Locale.ROOT, "%-20s %8s %7s %9s %9s %9s %9s %9s%n", "krok", "počet", "chyby", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+        for (LatencyRecorder.StepStats step : stats) {
+            System.out.printf(Locale.ROOT, "%-20s %8d %7d %9.2f %9.1f %9.1f %9.1f %9.1f%n",
+                    step.step(), step.count(), step.errors(), step.throughput(), step.p50Ms(), step.p95Ms(), step.p99Ms(), step.maxMs());
+        }
+        if (sessions > 0 && baseline.heapUsedBytes() >= 0 && loaded.heapUsedBytes() >= 0) {
+            System.out.printf(Locale.ROOT, "%nHalda: %d MB před testem, %d MB se sezeními, %.1f kB na sezení%n",
+                    baseline.heapUsedBytes() >> 20, loaded.heapUsedBytes() >> 20,
+                    (loaded.heapUsedBytes() - baseline.heapUsedBytes()) / 1024.0 / sessions);
+        }
+        if (sessions > 0 && baseline.liveDataBytes() >= 0 && loaded.liveDataBytes() >= 0) {
+            System.out.printf(Locale.ROOT, "Živá data po GC: %d MB před testem, %d MB se sezeními, %.1f kB na sezení%n",
+                    baseline.liveDataBytes() >> 20, loaded.liveDataBytes() >> 20,
+                    (loaded.liveDataBytes() - baseline.liveDataBytes()) / 1024.0 / sessions);
+        }
+        if (baseline.heapUsedBytes() < 0 || loaded.heapUsedBytes() < 0) {
+            System.out.println("Využití haldy není k dispozici, endpoint /actuator/prometheus frontendu není dostupný.");
+        }
+    }
+}
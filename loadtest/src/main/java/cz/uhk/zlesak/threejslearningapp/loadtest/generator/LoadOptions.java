@@ -0,0 +1,49 @@
+package cz.uhk.zlesak.threejslearningapp.loadtest.generator;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Options of the load generator parsed from --key=value command line arguments.
+ *
+ * @param frontendUrl        URL of the tested frontend
+ * @param users              number of concurrently open sessions
+ * @param workers            number of browsers driving the sessions, every browser runs in its own thread
+ * @param duration           duration of the measured part of the run
+ * @param chapters           number of chapters served by the mock backend
+ * @param models             number of models served by the mock backend
+ * @param subChapterSwitches number of sub-chapter switches after a chapter is opened
+ * @param username           user the sessions log in as
+ * @param password           password of the user
+ */
+public record LoadOptions(String frontendUrl, int users, int workers, Duration duration, int chapters, int models,
+                          int subChapterSwitches, String username, String password) {
+
+    /**
+     * Parses the options from the command line arguments, missing options get their default values.
+     *
+     * @param args command line arguments in the --key=value form
+     * @return parsed options
+     */
+    public static LoadOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Neplatný argument " + arg + ", očekávaný tvar je --klic=hodnota");
+            }
+            values.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        String frontendUrl = values.getOrDefault("frontend", "http://localhost:8081");
+        return new LoadOptions(
+                frontendUrl.endsWith("/") ? frontendUrl.substring(0, frontendUrl.length() - 1) : frontendUrl,
+                Integer.parseInt(values.getOrDefault("users", "20")),
+                Integer.parseInt(values.getOrDefault("workers", "4")),
+                Duration.parse(values.getOrDefault("duration", "PT2M")),
+                Integer.parseInt(values.getOrDefault("chapters", "20")),
+                Integer.parseInt(values.getOrDefault("models", "10")),
+                Integer.parseInt(values.getOrDefault("sub-chapter-switches", "3")),
+                values.getOrDefault("username", "user"),
+                values.getOrDefault("password", "user"));
+    }
+}
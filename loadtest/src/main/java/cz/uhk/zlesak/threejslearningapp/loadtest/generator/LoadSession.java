@@ -0,0 +1,143 @@
+package cz.uhk.zlesak.threejslearningapp.loadtest.generator;
+
+import com.microsoft.playwright.APIResponse;
+import com.microsoft.playwright.Browser;
+import com.microsoft.playwright.BrowserContext;
+import com.microsoft.playwright.Page;
+import com.microsoft.playwright.options.WaitForSelectorState;
+
+import java.util.Random;
+
+/**
+ * LoadSession is a single simulated user with its own browser context, i.e. its own HTTP and Vaadin session.
+ * The session stays open for the whole run, so the frontend holds the state of all sessions at once.
+ * One iteration of the scenario lists the chapters, opens a chapter, switches between its sub-chapters and streams a model with its texture.
+ * A session is always driven by the thread owning its browser, Playwright objects are not thread safe.
+ */
+public class LoadSession {
+    private static final String VAADIN_IDLE = "() => !!(window.Vaadin && window.Vaadin.Flow && window.Vaadin.Flow.clients)"
+            + " && Object.values(window.Vaadin.Flow.clients).every(client => !client.isActive || !client.isActive())";
+    private static final double STEP_TIMEOUT_MS = 60_000;
+
+    private final LoadOptions options;
+    private final LatencyRecorder recorder;
+    private final Random random;
+    private final BrowserContext context;
+    private final Page page;
+
+    /**
+     * Constructor for LoadSession opening a new browser context.
+     *
+     * @param browser  browser the session runs in
+     * @param options  options of the load test
+     * @param recorder recorder of the step durations
+     * @param seed     seed of the random choice of chapters and models
+     */
+    public LoadSession(Browser browser, LoadOptions options, LatencyRecorder recorder, long seed) {
+        this.options = options;
+        this.recorder = recorder;
+        this.random = new Random(seed);
+        this.context = browser.newContext(new Browser.NewContextOptions().setBaseURL(options.frontendUrl()));
+        this.context.setDefaultTimeout(STEP_TIMEOUT_MS);
+        this.page = context.newPage();
+    }
+
+    /**
+     * Logs the session in.
+     *
+     * @return true if the login succeeded
+     */
+    public boolean login() {
+        return step("login", () -> {
+            page.navigate("/login");
+            page.fill("input[name='username']", options.username());
+            page.fill("input[name='password']", options.password());
+            page.press("input[name='password']", "Enter");
+            page.waitForURL(url -> !url.contains("/login"));
+            waitForVaadin();
+        });
+    }
+
+    /**
+     * Runs one iteration of the scenario.
+     */
+    public void runIteration() {
+        step("chapters.list", () -> {
+            page.navigate("/chapters");
+            waitForVaadin();
+        });
+
+        String chapterId = "chapter-" + random.nextInt(Math.max(1, options.chapters()));
+        boolean opened = step("chapter.open", () -> {
+            page.navigate("/chapter/" + chapterId);
+            page.waitForSelector("canvas", new Page.WaitForSelectorOptions().setState(WaitForSelectorState.ATTACHED));
+            waitForVaadin();
+        });
+
+        if (opened) {
+            for (int i = 0; i < options.subChapterSwitches(); i++) {
+                step("subchapter.switch", () -> {
+                    page.locator("vaadin-select").first().click();
+                    int items = page.locator("vaadin-select-item").count();
+                    page.locator("vaadin-select-item").nth(items > 1 ? 1 + random.nextInt(items - 1) : 0).click();
+                    waitForVaadin();
+                });
+            }
+        }
+
+        String modelId = "model-" + random.nextInt(Math.max(1, options.models()));
+        step("model.stream", () -> download("/api/model/" + modelId + "/stream?advanced=true"));
+        step("texture.stream", () -> download("/api/texture/" + modelId + "-main/stream"));
+    }
+
+    /**
+     * Closes the browser context and thereby the session.
+     */
+    public void close() {
+        context.close();
+    }
+
+    /**
+     * Downloads a file through the frontend stream endpoint using the cookies of the session.
+     *
+     * @param path path of the stream endpoint
+     */
+    private void download(String path) {
+        APIResponse response = page.request().get(path);
+        try {
+            if (!response.ok()) {
+                throw new IllegalStateException("Stahování " + path + " skončilo stavem " + response.status());
+            }
+            response.body();
+        } finally {
+            response.dispose();
+        }
+    }
+
+    /**
+     * Waits until all Vaadin requests of the page are processed.
+     */
+    private void waitForVaadin() {
+        page.waitForFunction(VAADIN_IDLE);
+    }
+
+    /**
+     * Runs a step of the scenario and records its duration.
+     *
+     * @param name name of the step
+     * @param step step to run
+     * @return true if the step succeeded
+     */
+    private boolean step(String name, Runnable step) {
+        long startNs = System.nanoTime();
+        try {
+            step.run();
+            recorder.success(name, System.nanoTime() - startNs);
+            return true;
+        } catch (RuntimeException e) {
+            recorder.failure(name);
+            System.err.println("Krok " + name + " selhal: " + e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package cz.uhk.zlesak.threejslearningapp.loadtest.mockbackend;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+
+/**
+ * MockBackendApplication is a local stand-in for the Kotlin backend used by the load tests.
+ * It serves the chapter, model and texture endpoints called by the API clients of the frontend with generated data,
+ * latency and data sizes are configured by MockBackendProperties.
+ * The frontend is pointed to the mock by the BACKEND_URLS environment variable.
+ *
+ * @see MockBackendProperties
+ */
+@SpringBootApplication
+@EnableConfigurationProperties(MockBackendProperties.class)
+public class MockBackendApplication {
+
+    /**
+     * Main method starting the mock backend.
+     *
+     * @param args command line arguments
+     */
+    public static void main(String[] args) {
+        SpringApplication.run(MockBackendApplication.class, args);
+    }
+}
@@ -0,0 +1,203 @@
+package cz.uhk.zlesak.threejslearningapp.loadtest.mockbackend;
+
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * MockBackendController serves the backend endpoints called by ChapterApiClient, ModelApiClient and TextureApiClient.
+ * Every call is delayed by the configured latency, file downloads can be throttled to the configured bandwidth.
+ * The download endpoints are called by the browser directly as well, so they allow cross origin requests.
+ */
+@RestController
+@RequestMapping("/api")
+@CrossOrigin(origins = "*", exposedHeaders = {HttpHeaders.CONTENT_LENGTH, HttpHeaders.CONTENT_DISPOSITION})
+public class MockBackendController {
+    private static final int CHUNK_SIZE = 8192;
+
+    private final MockData mockData;
+    private final MockBackendProperties properties;
+
+    /**
+     * Constructor for MockBackendController.
+     *
+     * @param mockData   generated data served by the mock
+     * @param properties latency and bandwidth settings
+     */
+    public MockBackendController(MockData mockData, MockBackendProperties properties) {
+        this.mockData = mockData;
+        this.properties = properties;
+    }
+
+    /**
+     * Returns the chapter by its ID.
+     *
+     * @param chapterId ID of the chapter
+     * @return chapter or 404
+     */
+    @GetMapping("/chapter/{chapterId}")
+    public ResponseEntity<ObjectNode> getChapter(@PathVariable String chapterId) {
+        injectLatency();
+        ObjectNode chapter = mockData.getChapter(chapterId);
+        return chapter == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(chapter);
+    }
+
+    /**
+     * Returns a page of chapters.
+     *
+     * @param page  zero based page number
+     * @param limit page size
+     * @return page of chapters
+     */
+    @GetMapping("/chapter/list")
+    public ObjectNode getChapters(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int limit) {
+        injectLatency();
+        return mockData.getChapterPage(page, limit);
+    }
+
+    /**
+     * Searches chapters by their name.
+     *
+     * @param keyword searched text
+     * @return found chapters
+     */
+    @GetMapping("/chapter/search-fulltext")
+    public ObjectNode searchChapters(@RequestParam(required = false) String keyword) {
+        injectLatency();
+        return mockData.searchChapters(keyword);
+    }
+
+    /**
+     * Accepts a created chapter and returns it with a generated ID, the chapter is not stored.
+     *
+     * @param chapter created chapter
+     * @return created chapter with its ID
+     */
+    @PostMapping("/chapter/create")
+    public ObjectNode createChapter(@RequestBody ObjectNode chapter) {
+        injectLatency();
+        chapter.put("id", UUID.randomUUID().toString());
+        return chapter;
+    }
+
+    /**
+     * Returns a page of models.
+     *
+     * @param page  zero based page number
+     * @param limit page size
+     * @return page of models
+     */
+    @GetMapping("/model/list-by")
+    public ObjectNode getModels(@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "10") int limit) {
+        injectLatency();
+        return mockData.getModelPage(page, limit);
+    }
+
+    /**
+     * Returns the metadata of the model by its ID.
+     *
+     * @param modelId ID of the model
+     * @return model metadata or 404
+     */
+    @GetMapping("/model/metadata/{modelId}")
+    public ResponseEntity<ObjectNode> getModelMetadata(@PathVariable String modelId) {
+        injectLatency();
+        ObjectNode model = mockData.getModel(modelId);
+        return model == null ? ResponseEntity.notFound().build() : ResponseEntity.ok(model);
+    }
+
+    /**
+     * Downloads the OBJ file of the model.
+     *
+     * @param modelId  ID of the model
+     * @param response servlet response the file is written to
+     * @throws IOException if the client aborts the download
+     */
+    @GetMapping("/model/download/{modelId}")
+    public void downloadModel(@PathVariable String modelId, HttpServletResponse response) throws IOException {
+        injectLatency();
+        if (!mockData.hasModel(modelId)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        writeFile(response, mockData.getModelFile(), MediaType.TEXT_PLAIN_VALUE, modelId);
+    }
+
+    /**
+     * Downloads the PNG file of the texture.
+     *
+     * @param textureId ID of the texture
+     * @param response  servlet response the file is written to
+     * @throws IOException if the client aborts the download
+     */
+    @GetMapping("/texture/download/{textureId}")
+    public void downloadTexture(@PathVariable String textureId, HttpServletResponse response) throws IOException {
+        injectLatency();
+        if (!mockData.hasTexture(textureId)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        writeFile(response, mockData.getTextureFile(), MediaType.IMAGE_PNG_VALUE, textureId);
+    }
+
+    /**
+     * Writes the file to the response in chunks, throttled to the configured bandwidth.
+     *
+     * @param response    servlet response
+     * @param file        file content
+     * @param contentType content type of the file
+     * @param fileName    file name sent in the Content-Disposition header
+     * @throws IOException if the client aborts the download
+     */
+    private void writeFile(HttpServletResponse response, byte[] file, String contentType, String fileName) throws IOException {
+        response.setContentType(contentType);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + "\"");
+        response.setContentLengthLong(file.length);
+        OutputStream out = response.getOutputStream();
+        long bytesPerSecond = properties.getDownloadBytesPerSecond();
+        long startNs = System.nanoTime();
+        for (int offset = 0; offset < file.length; offset += CHUNK_SIZE) {
+            int length = Math.min(CHUNK_SIZE, file.length - offset);
+            out.write(file, offset, length);
+            if (bytesPerSecond > 0) {
+                long expectedNs = TimeUnit.SECONDS.toNanos(offset + length) / bytesPerSecond;
+                sleepNanos(expectedNs - (System.nanoTime() - startNs));
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * Delays the call by a latency chosen uniformly from the configured interval.
+     */
+    private void injectLatency() {
+        long min = properties.getLatencyMin().toNanos();
+        long max = Math.max(min, properties.getLatencyMax().toNanos());
+        sleepNanos(min == max ? min : ThreadLocalRandom.current().nextLong(min, max + 1));
+    }
+
+    /**
+     * Sleeps for the provided time, non positive values return immediately.
+     *
+     * @param nanos time to sleep in nanoseconds
+     */
+    private static void sleepNanos(long nanos) {
+        if (nanos <= 0) {
+            return;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(nanos);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
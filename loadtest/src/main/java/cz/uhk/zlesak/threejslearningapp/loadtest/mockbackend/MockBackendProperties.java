@@ -0,0 +1,55 @@
+package cz.uhk.zlesak.threejslearningapp.loadtest.mockbackend;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+/**
+ * MockBackendProperties holds the latency and size injection settings of the mock backend.
+ */
+@Data
+@ConfigurationProperties("mock-backend")
+public class MockBackendProperties {
+    /**
+     * Minimal latency injected into every call.
+     */
+    private Duration latencyMin = Duration.ofMillis(20);
+    /**
+     * Maximal latency injected into every call.
+     */
+    private Duration latencyMax = Duration.ofMillis(80);
+    /**
+     * Number of chapters served by the mock, chapter IDs are chapter-0 to chapter-(N-1).
+     */
+    private int chapterCount = 20;
+    /**
+     * Number of Editor.js blocks of every chapter.
+     */
+    private int chapterBlocks = 500;
+    /**
+     * Number of models served by the mock, model IDs are model-0 to model-(N-1).
+     */
+    private int modelCount = 10;
+    /**
+     * Number of other textures of every model, every model has a main texture as well.
+     */
+    private int otherTexturesPerModel = 2;
+    /**
+     * Number of CSV area definitions of every texture.
+     */
+    private int areasPerTexture = 12;
+    /**
+     * Approximate size of the OBJ file of every model.
+     */
+    private DataSize modelBytes = DataSize.ofMegabytes(2);
+    /**
+     * Approximate size of the PNG file of every texture.
+     */
+    private DataSize textureBytes = DataSize.ofKilobytes(512);
+    /**
+     * Bandwidth of a single download in bytes per second, 0 means unlimited.
+     */
+    private long downloadBytesPerSecond = 0;
+}
@@ -0,0 +1,401 @@
+package cz.uhk.zlesak.threejslearningapp.loadtest.mockbackend;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * MockData generates the data served by the mock backend once at startup.
+ * The data is deterministic, so repeated load test runs work with the same chapters and files.
+ * Every chapter has a level 1 header every SUB_CHAPTER_BLOCKS blocks, every sub-chapter refers to one of the models.
+ */
+@Slf4j
+@Component
+public class MockData {
+    private static final int SUB_CHAPTER_BLOCKS = 25;
+    private static final String PARAGRAPH_TEXT = "Lorem ipsum dolor sit amet, <b>consectetur</b> adipiscing elit, sed do eiusmod tempor incididunt ut labore "
+            + "et dolore magna aliqua. Ut enim ad minim veniam, quis nostrud <i>exercitation</i> ullamco laboris nisi ut aliquip ex ea commodo.";
+
+    private final ObjectMapper objectMapper;
+    private final MockBackendProperties properties;
+    private final List<ObjectNode> models = new ArrayList<>();
+    private final List<ObjectNode> chapters = new ArrayList<>();
+    @Getter
+    private final byte[] modelFile;
+    @Getter
+    private final byte[] textureFile;
+    private final String modelFileHash;
+    private final String textureFileHash;
+
+    /**
+     * Constructor for MockData generating all the served data.
+     *
+     * @param objectMapper object mapper used to build the JSON data
+     * @param properties   size settings of the generated data
+     */
+    public MockData(ObjectMapper objectMapper, MockBackendProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        modelFile = objFile(properties.getModelBytes().toBytes());
+        textureFile = pngFile(properties.getTextureBytes().toBytes());
+        modelFileHash = sha256(modelFile);
+        textureFileHash = sha256(textureFile);
+        for (int model = 0; model < properties.getModelCount(); model++) {
+            models.add(model(model));
+        }
+        for (int chapter = 0; chapter < properties.getChapterCount(); chapter++) {
+            chapters.add(chapter(chapter));
+        }
+        log.info("Mock backend připraven: {} kapitol po {} blocích, {} modelů, model {} B, textura {} B",
+                chapters.size(), properties.getChapterBlocks(), models.size(), modelFile.length, textureFile.length);
+    }
+
+    /**
+     * Returns the chapter by its ID.
+     *
+     * @param chapterId ID of the chapter
+     * @return chapter JSON or null if the chapter does not exist
+     */
+    public ObjectNode getChapter(String chapterId) {
+        int index = indexOf(chapterId, "chapter-", chapters.size());
+        return index < 0 ? null : chapters.get(index);
+    }
+
+    /**
+     * Returns a page of chapters.
+     *
+     * @param page  zero based page number
+     * @param limit page size
+     * @return PageResult JSON
+     */
+    public ObjectNode getChapterPage(int page, int limit) {
+        return page(chapters, page, limit);
+    }
+
+    /**
+     * Returns chapters whose name contains the keyword, wrapped the same way as the backend full text search.
+     *
+     * @param keyword searched text
+     * @return JSON object with the chapters array
+     */
+    public ObjectNode searchChapters(String keyword) {
+        ObjectNode result = objectMapper.createObjectNode();
+        ArrayNode found = result.putArray("chapters");
+        String lowerKeyword = keyword == null ? "" : keyword.toLowerCase();
+        chapters.stream()
+                .filter(chapter -> chapter.get("name").asText().toLowerCase().contains(lowerKeyword))
+                .forEach(found::add);
+        return result;
+    }
+
+    /**
+     * Returns a page of models.
+     *
+     * @param page  zero based page number
+     * @param limit page size
+     * @return PageResult JSON
+     */
+    public ObjectNode getModelPage(int page, int limit) {
+        return page(models, page, limit);
+    }
+
+    /**
+     * Returns the metadata of the model by its ID.
+     *
+     * @param modelId ID of the model
+     * @return QuickModelEntity JSON or null if the model does not exist
+     */
+    public ObjectNode getModel(String modelId) {
+        int index = indexOf(modelId, "model-", models.size());
+        return index < 0 ? null : models.get(index);
+    }
+
+    /**
+     * Checks whether the model exists.
+     *
+     * @param modelId ID of the model
+     * @return true if the model is served by the mock
+     */
+    public boolean hasModel(String modelId) {
+        return indexOf(modelId, "model-", models.size()) >= 0;
+    }
+
+    /**
+     * Checks whether the texture exists.
+     *
+     * @param textureId ID of the texture
+     * @return true if the texture is served by the mock
+     */
+    public boolean hasTexture(String textureId) {
+        int separator = textureId.indexOf("-texture-");
+        if (separator < 0) {
+            separator = textureId.indexOf("-main");
+        }
+        return separator > 0 && hasModel(textureId.substring(0, separator));
+    }
+
+    /**
+     * Parses the index from a generated ID.
+     *
+     * @param id     generated ID
+     * @param prefix prefix of the ID
+     * @param size   number of generated items
+     * @return index of the item or -1 if the ID does not belong to any generated item
+     */
+    private static int indexOf(String id, String prefix, int size) {
+        if (id == null || !id.startsWith(prefix)) {
+            return -1;
+        }
+        try {
+            int index = Integer.parseInt(id.substring(prefix.length()));
+            return index >= 0 && index < size ? index : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Wraps a part of the items into the PageResult JSON.
+     *
+     * @param items all items
+     * @param page  zero based page number
+     * @param limit page size
+     * @return PageResult JSON
+     */
+    private ObjectNode page(List<ObjectNode> items, int page, int limit) {
+        ObjectNode result = objectMapper.createObjectNode();
+        ArrayNode elements = result.putArray("elements");
+        int from = Math.max(0, page) * Math.max(1, limit);
+        items.stream().skip(from).limit(Math.max(1, limit)).forEach(elements::add);
+        result.put("total", (long) items.size());
+        result.put("page", page);
+        return result;
+    }
+
+    /**
+     * Generates a chapter with its content and models.
+     *
+     * @param chapter index of the chapter
+     * @return chapter JSON
+     */
+    private ObjectNode chapter(int chapter) {
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("id", "chapter-" + chapter);
+        node.put("name", "Kapitola " + chapter);
+        node.put("creatorId", "mock");
+        node.put("created", "2025-01-01T00:00:00Z");
+        node.put("updated", "2025-01-01T00:00:00Z");
+
+        ArrayNode chapterModels = node.putArray("models");
+        int subChapters = (properties.getChapterBlocks() + SUB_CHAPTER_BLOCKS - 1) / SUB_CHAPTER_BLOCKS;
+        List<String> usedModelIds = new ArrayList<>();
+        for (int subChapter = 0; subChapter < Math.max(1, subChapters); subChapter++) {
+            String modelId = modelIdOf(chapter, subChapter);
+            if (!usedModelIds.contains(modelId)) {
+                usedModelIds.add(modelId);
+                chapterModels.add(models.get(Integer.parseInt(modelId.substring("model-".length()))));
+            }
+        }
+        try {
+            node.put("content", objectMapper.writeValueAsString(content(chapter)));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return node;
+    }
+
+    /**
+     * Returns the model of a sub-chapter, every two sub-chapters share the same model.
+     *
+     * @param chapter    index of the chapter
+     * @param subChapter index of the sub-chapter
+     * @return model ID
+     */
+    private String modelIdOf(int chapter, int subChapter) {
+        return "model-" + ((chapter + subChapter / 2) % Math.max(1, properties.getModelCount()));
+    }
+
+    /**
+     * Generates the Editor.js content of a chapter.
+     *
+     * @param chapter index of the chapter
+     * @return Editor.js JSON
+     */
+    private ObjectNode content(int chapter) {
+        ObjectNode content = objectMapper.createObjectNode();
+        content.put("time", 1_700_000_000_000L);
+        content.put("version", "2.31.0");
+        ArrayNode blocks = content.putArray("blocks");
+        for (int i = 0; i < properties.getChapterBlocks(); i++) {
+            ObjectNode block = blocks.addObject();
+            ObjectNode data;
+            if (i % SUB_CHAPTER_BLOCKS == 0) {
+                int subChapter = i / SUB_CHAPTER_BLOCKS;
+                block.put("id", "h1-" + subChapter);
+                block.put("type", "header");
+                data = block.putObject("data");
+                data.put("text", "Podkapitola " + subChapter);
+                data.put("level", 1);
+                data.put("modelId", modelIdOf(chapter, subChapter));
+            } else if (i % 8 == 0) {
+                block.put("id", "h2-" + i);
+                block.put("type", "header");
+                data = block.putObject("data");
+                data.put("text", "Nadpis " + i);
+                data.put("level", 2);
+            } else {
+                block.put("id", "p-" + i);
+                block.put("type", "paragraph");
+                data = block.putObject("data");
+                data.put("text", PARAGRAPH_TEXT);
+            }
+        }
+        return content;
+    }
+
+    /**
+     * Generates a model with its main texture and other textures, the files carry the content hashes as the backend metadata.
+     *
+     * @param model index of the model
+     * @return QuickModelEntity JSON
+     */
+    private ObjectNode model(int model) {
+        String modelId = "model-" + model;
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("metadataId", modelId + "-metadata");
+        node.putObject("model").put("id", modelId).put("name", "Model " + model).put("contentHash", modelFileHash);
+        node.set("mainTexture", texture(modelId + "-main"));
+        ArrayNode otherTextures = node.putArray("otherTextures");
+        for (int texture = 0; texture < properties.getOtherTexturesPerModel(); texture++) {
+            otherTextures.add(texture(modelId + "-texture-" + texture));
+        }
+        return node;
+    }
+
+    /**
+     * Generates a texture with its CSV area definitions.
+     *
+     * @param textureId ID of the texture
+     * @return QuickTextureEntity JSON
+     */
+    private ObjectNode texture(String textureId) {
+        StringBuilder csv = new StringBuilder();
+        for (int area = 0; area < properties.getAreasPerTexture(); area++) {
+            csv.append(String.format("#%06x", (area * 0x151515) & 0xffffff)).append(";Oblast ").append(area).append("\r\n");
+        }
+        ObjectNode node = objectMapper.createObjectNode();
+        node.put("textureFileId", textureId);
+        node.put("name", "Textura " + textureId);
+        node.put("csvContent", csv.toString());
+        node.put("contentHash", textureFileHash);
+        return node;
+    }
+
+    /**
+     * Computes the content hash of the file the same way as the front end, the hex encoded SHA-256.
+     *
+     * @param file file content
+     * @return content hash
+     */
+    private static String sha256(byte[] file) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(file));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Generates an OBJ file of a subdivided plane with texture coordinates of approximately the requested size.
+     *
+     * @param targetBytes requested size in bytes
+     * @return OBJ file content
+     */
+    private static byte[] objFile(long targetBytes) {
+        int gridSize = 2;
+        while (estimatedObjBytes(gridSize * 2) <= targetBytes) {
+            gridSize *= 2;
+        }
+        while (estimatedObjBytes(gridSize + 1) <= targetBytes) {
+            gridSize++;
+        }
+        StringBuilder obj = new StringBuilder((int) Math.min(Integer.MAX_VALUE - 8, estimatedObjBytes(gridSize)));
+        obj.append("# mock model\n");
+        for (int y = 0; y <= gridSize; y++) {
+            for (int x = 0; x <= gridSize; x++) {
+                obj.append(String.format("v %.4f %.4f 0.0000\n", (double) x / gridSize - 0.5, (double) y / gridSize - 0.5));
+            }
+        }
+        for (int y = 0; y <= gridSize; y++) {
+            for (int x = 0; x <= gridSize; x++) {
+                obj.append(String.format("vt %.4f %.4f\n", (double) x / gridSize, (double) y / gridSize));
+            }
+        }
+        for (int y = 0; y < gridSize; y++) {
+            for (int x = 0; x < gridSize; x++) {
+                int a = y * (gridSize + 1) + x + 1;
+                int b = a + 1;
+                int c = a + gridSize + 1;
+                int d = c + 1;
+                obj.append("f ").append(a).append('/').append(a).append(' ')
+                        .append(b).append('/').append(b).append(' ')
+                        .append(d).append('/').append(d).append('\n');
+                obj.append("f ").append(a).append('/').append(a).append(' ')
+                        .append(d).append('/').append(d).append(' ')
+                        .append(c).append('/').append(c).append('\n');
+            }
+        }
+        return obj.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * Estimates the OBJ size of the grid, a vertex line has about 24 bytes, a texture coordinate line 17 bytes and a face line 30 bytes.
+     *
+     * @param gridSize number of quads per side
+     * @return estimated size in bytes
+     */
+    private static long estimatedObjBytes(int gridSize) {
+        long vertices = (long) (gridSize + 1) * (gridSize + 1);
+        long faces = 2L * gridSize * gridSize;
+        return vertices * (24 + 17) + faces * 30;
+    }
+
+    /**
+     * Generates a PNG texture of random noise, which does not compress, so the file has approximately the requested size.
+     *
+     * @param targetBytes requested size in bytes
+     * @return PNG file content
+     */
+    private static byte[] pngFile(long targetBytes) {
+        int side = (int) Math.max(4, Math.sqrt(targetBytes / 3.0));
+        BufferedImage image = new BufferedImage(side, side, BufferedImage.TYPE_INT_RGB);
+        Random random = new Random(42);
+        for (int y = 0; y < side; y++) {
+            for (int x = 0; x < side; x++) {
+                image.setRGB(x, y, random.nextInt(0x1000000));
+            }
+        }
+        try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+            ImageIO.write(image, "png", out);
+            return out.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Texturu mock backendu nelze vygenerovat", e);
+        }
+    }
+}
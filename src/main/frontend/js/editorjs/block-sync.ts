@@ -0,0 +1,158 @@
+// Synchronizace bloků editoru se serverem po změnách (delta), server drží kanonický seznam bloků
+
+export interface BlocksDelta {
+  baseVersion: number;
+  version: number;
+  reset?: boolean;
+  upserted: any[];
+  removed: string[];
+  order?: string[];
+}
+
+export class BlockSync {
+  private version = 0;
+  private enabled = false;
+  private paused = false;
+  private structural = false;
+  private readonly changed = new Set<string>();
+  private readonly removed = new Set<string>();
+  private timer: number | undefined;
+
+  constructor(
+    private readonly host: HTMLElement,
+    private readonly getEditor: () => any,
+    private readonly debounceMs = 500
+  ) {}
+
+  // Handler pro onChange Editor.js, události mohou přijít i v dávce
+  onChange(events: any): void {
+    if (!this.enabled || this.paused) return;
+    for (const event of Array.isArray(events) ? events : [events]) {
+      const id: string | undefined = event?.detail?.target?.id;
+      if (!id) continue;
+      if (event.type === 'block-removed') {
+        this.changed.delete(id);
+        this.removed.add(id);
+        this.structural = true;
+      } else {
+        this.removed.delete(id);
+        this.changed.add(id);
+        if (event.type !== 'block-changed') this.structural = true;
+      }
+    }
+    this.schedule();
+  }
+
+  // Zapne synchronizaci a pošle úplný stav jako výchozí bod
+  async enable(): Promise<void> {
+    this.enabled = true;
+    await this.sendReset();
+  }
+
+  disable(): void {
+    this.enabled = false;
+    this.clearPending();
+  }
+
+  // Pozastaví sběr změn během vykreslování dat poslaných serverem
+  pause(): void {
+    this.paused = true;
+    this.clearPending();
+  }
+
+  // Obnoví sběr změn, server již zná vykreslený stav ve verzi version, bez verze se serveru pošle úplný stav
+  resume(version?: number): void {
+    this.paused = false;
+    this.clearPending();
+    if (version != null) {
+      this.version = version;
+    } else if (this.enabled) {
+      void this.sendReset();
+    }
+  }
+
+  // Okamžitě vrátí dosud neodeslané změny (např. před uložením), prázdný řetězec pokud žádné nejsou
+  async flush(): Promise<string> {
+    if (this.timer !== undefined) {
+      window.clearTimeout(this.timer);
+      this.timer = undefined;
+    }
+    if (!this.enabled || (!this.changed.size && !this.removed.size && !this.structural)) return '';
+    const delta = await this.collect();
+    return JSON.stringify(delta);
+  }
+
+  // Pošle úplný stav editoru, server podle něj nahradí svůj seznam bloků (např. po ztrátě synchronizace)
+  async sendReset(): Promise<void> {
+    this.clearPending();
+    const editor = this.getEditor();
+    if (!editor) return;
+    const data = await editor.save();
+    const delta: BlocksDelta = {
+      baseVersion: this.version,
+      version: ++this.version,
+      reset: true,
+      upserted: data.blocks ?? [],
+      removed: [],
+      order: (data.blocks ?? []).map((block: any) => block.id)
+    };
+    this.dispatch(delta);
+  }
+
+  private schedule(): void {
+    if (this.timer !== undefined) window.clearTimeout(this.timer);
+    this.timer = window.setTimeout(async () => {
+      this.timer = undefined;
+      const delta = await this.collect();
+      this.dispatch(delta);
+    }, this.debounceMs);
+  }
+
+  private async collect(): Promise<BlocksDelta> {
+    const editor = this.getEditor();
+    const changed = new Set(this.changed);
+    const removed = new Set(this.removed);
+    const structural = this.structural;
+    const baseVersion = this.version;
+    const version = ++this.version;
+    this.clearPending();
+
+    // Události se zpracují podle aktuálního stavu editoru, opožděné události tak nezpůsobí rozdíl oproti serveru
+    for (const id of [...removed]) {
+      if (editor.blocks.getById(id)) {
+        removed.delete(id);
+        changed.add(id);
+      }
+    }
+    let order: string[] | undefined;
+    if (structural) {
+      order = [];
+      for (let i = 0; i < editor.blocks.getBlocksCount(); i++) {
+        order.push(editor.blocks.getBlockByIndex(i).id);
+      }
+    }
+    const upserted: any[] = [];
+    for (const id of changed) {
+      const block = editor.blocks.getById(id);
+      if (!block) continue;
+      const saved = await block.save();
+      if (!saved) continue;
+      upserted.push({ id: saved.id ?? id, type: saved.tool, data: saved.data, ...(saved.tunes ? { tunes: saved.tunes } : {}) });
+    }
+    return { baseVersion, version, upserted, removed: [...removed], order };
+  }
+
+  private dispatch(delta: BlocksDelta): void {
+    this.host.dispatchEvent(new CustomEvent('blocks-delta', { detail: JSON.stringify(delta) }));
+  }
+
+  private clearPending(): void {
+    if (this.timer !== undefined) {
+      window.clearTimeout(this.timer);
+      this.timer = undefined;
+    }
+    this.changed.clear();
+    this.removed.clear();
+    this.structural = false;
+  }
+}
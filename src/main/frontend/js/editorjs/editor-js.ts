@@ -3,7 +3,7 @@ import { customElement, state } from 'lit/decorators.js';
 import { initializeEditor } from './editorjs-init';
 import { attachTextureColorListeners, removeLinksByModelIds } from './texture-utils';
 import { searchInEditor } from './search-utils';
-import { convertEditorJsToMarkdown, convertMarkdownToEditorJs } from 'Frontend/js/editorjs/markdownConvertors/convert';
+import { BlockSync } from './block-sync';
 import TextureColorLinkTool from 'Frontend/js/editorjs/textureColorLinkTool/textureColorLinkTool';
 import { OutputData } from '@editorjs/editorjs';
 
@@ -16,6 +16,7 @@ export class EditorJs extends LitElement {
   private resolveEditorReadyPromise!: () => void;
   private rejectEditorReadyPromise!: (reason?: any) => void;
   private _chapterContentData: OutputData = { time: Date.now(), blocks: [], version: '' };
+  private readonly blockSync = new BlockSync(this, () => this.editor);
 
   constructor() {
     super();
@@ -53,7 +54,7 @@ export class EditorJs extends LitElement {
 
   async firstUpdated() {
     try {
-      this.editor = await initializeEditor(this);
+      this.editor = await initializeEditor(this, { onChange: (_api, event) => this.blockSync.onChange(event) });
       TextureColorLinkTool.setGlobalModelsTexturesAndColors([], [], []);
       this.resolveEditorReadyPromise();
       attachTextureColorListeners();
@@ -70,27 +71,25 @@ export class EditorJs extends LitElement {
   }
 
   // @ts-ignore - Method is used by external components
-  public async getMarkdown(): Promise<string> {
+  public async loadData(jsonData: string, version?: number): Promise<void> {
     await this.editorReadyPromise;
-    if (!this.editor) return '';
     try {
-      const data = await this.editor.save();
-      return await convertEditorJsToMarkdown(data);
+      await this.setData(JSON.parse(jsonData), version);
     } catch (e) {
-      console.error('getMarkdown error:', e);
-      return '';
+      console.error('loadData error:', e);
     }
   }
 
   // @ts-ignore - Method is used by external components
-  public async loadMarkdown(md: string): Promise<void> {
+  public async flushBlocks(): Promise<string> {
     await this.editorReadyPromise;
-    try {
-      const outputData = await convertMarkdownToEditorJs(md);
-      await this.setData(outputData);
-    } catch (e) {
-      console.error('loadMarkdown error:', e);
-    }
+    return this.blockSync.flush();
+  }
+
+  // @ts-ignore - Method is used by external components
+  public async resyncBlocks(): Promise<void> {
+    await this.editorReadyPromise;
+    await this.blockSync.sendReset();
   }
 
   // @ts-ignore - Method is used by external components
@@ -141,12 +140,14 @@ export class EditorJs extends LitElement {
     attachTextureColorListeners();
   }
 
-  async setData(value: OutputData): Promise<void> {
+  // version je verze obsahu na serveru, bez ní server obsah nezná a po vykreslení dostane úplný stav
+  async setData(value: OutputData, version?: number): Promise<void> {
     await this.editorReadyPromise;
     if (!this.editor || !this.editor.blocks) {
       console.error('setData: Editor or editor.blocks not fully initialized even after promise resolved.');
       return;
     }
+    this.blockSync.pause();
     try {
       await this.editor.blocks.clear();
       await this.editor.blocks.render(value);
@@ -154,6 +155,8 @@ export class EditorJs extends LitElement {
     } catch (error) {
       console.error('Error setting editor data:', error);
       throw error;
+    } finally {
+      this.blockSync.resume(version);
     }
   }
 
@@ -167,6 +170,11 @@ export class EditorJs extends LitElement {
       readOnly = !this.editor.readOnly.isEnabled;
     }
     await this.editor.readOnly.toggle(readOnly);
+    if (readOnly) {
+      this.blockSync.disable();
+    } else {
+      await this.blockSync.enable();
+    }
   }
 
   // @ts-ignore - Method is used by external components
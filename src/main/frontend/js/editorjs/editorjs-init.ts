@@ -19,17 +19,20 @@ function initializeEditorJs({
   models = [],
   textures = [],
   colors = [],
-  placeholder = 'Začněte tvořit...'
+  placeholder = 'Začněte tvořit...',
+  onChange
 }: {
   holder: HTMLElement,
   models?: any[],
   textures?: any[],
   colors?: any[],
-  placeholder?: string
+  placeholder?: string,
+  onChange?: (api: any, event: any) => void
 }) {
   return new EditorJS({
     holder,
     placeholder,
+    onChange,
     tools: {
       strikethrough: Strikethrough,
       linkTool: LinkTool,
@@ -134,7 +137,7 @@ async function initializeContainer(parentElement: HTMLElement): Promise<HTMLElem
   return container;
 }
 
-export async function initializeEditor(parentElement: HTMLElement, options: {models?: any[], textures?: any[], colors?: any[], placeholder?: string} = {}): Promise<any> {
+export async function initializeEditor(parentElement: HTMLElement, options: {models?: any[], textures?: any[], colors?: any[], placeholder?: string, onChange?: (api: any, event: any) => void} = {}): Promise<any> {
   let container = await initializeContainer(parentElement);
   try {
     const editor = initializeEditorJs({
@@ -23,6 +23,8 @@ import {
   getSurfaceNormal
 } from './texture-manager.js';
 
+import { isAbortError } from './asset-fetcher.js';
+
 import {
   createResizeHandler,
   createClickHandler,
@@ -63,6 +65,10 @@ class ThreeTest {
     this.ambientLight = null;
     this.lastSelectedTextureId = null;
     this.actionQueue = [];
+    this.loadAbortController = new AbortController();
+    this.progressReportedAt = new Map();
+    this.pendingTimings = [];
+    this.firstFrameReported = false;
     this._resizeObserver = null;
     this.gui = null;
     this.DEBUG_IMAGE = false;
@@ -77,6 +83,7 @@ class ThreeTest {
   }
 
   init = (element) => {
+    const initStart = performance.now();
     this.element = element;
     this.doingActions('Initializing Three.js');
 
@@ -113,6 +120,7 @@ class ThreeTest {
     resizeHandler();
     this.startAnimation();
     this.addClickListener();
+    this.recordTiming('three.init', '', initStart, performance.now());
     this.finishedActions();
   };
 
@@ -211,25 +219,123 @@ class ThreeTest {
 
   showModelById = async (modelId) => {
     this.doingActions('Switching model');
-    const result = await showModelById(
-      modelId,
-      this.models,
-      this.model,
-      this.scene,
-      (obj) => disposeObject(obj),
-      (model) => centerCameraOnModelFn(this.camera, this.controls, model)
-    );
-    this.model = result.model;
-    this.lastSelectedTextureId = result.lastSelectedTextureId;
-    this.finishedActions();
-    this.render();
-    return result;
+    try {
+      const result = await showModelById(
+        modelId,
+        this.models,
+        this.model,
+        this.scene,
+        (obj) => disposeObject(obj),
+        (model) => centerCameraOnModelFn(this.camera, this.controls, model),
+        (url) => this.assetOptions(url),
+        this.recordTiming
+      );
+      this.model = result.model;
+      this.lastSelectedTextureId = result.lastSelectedTextureId;
+      this.render();
+      this.reportFirstFrame(modelId);
+      return result;
+    } catch (e) {
+      if (!isAbortError(e)) {
+        console.error('[JS] Error in showModelById:', e);
+      }
+      return { model: this.model, lastSelectedTextureId: this.lastSelectedTextureId };
+    } finally {
+      this.finishedActions();
+    }
   };
 
   addOtherTextures = async (textureMap, modelId) => {
     this.doingActions('Adding other textures');
-    await addOtherTextures(textureMap, modelId, this.models);
-    this.finishedActions();
+    try {
+      await addOtherTextures(textureMap, modelId, this.models, (url) => this.assetOptions(url));
+    } finally {
+      this.finishedActions();
+    }
+  };
+
+  /**
+   * Vrací volby stahování assetu - signal aktuálního načítání a hlášení průběhu na server
+   */
+  assetOptions = (url) => {
+    const start = performance.now();
+    return {
+      signal: this.loadAbortController.signal,
+      onProgress: (loaded, total) => this.reportProgress(url, loaded, total),
+      onComplete: () => this.recordTiming('asset.download', url, start, performance.now())
+    };
+  };
+
+  /**
+   * Zaznamená čas fáze, časy se odesílají na server dávkově ve flushTimings
+   */
+  recordTiming = (name, asset, start, end) => {
+    this.pendingTimings.push({ name, asset: asset || '', start, end });
+  };
+
+  /**
+   * Po prvním vykresleném snímku s modelem zaznamená jeho čas a odešle všechny zaznamenané časy na server
+   */
+  reportFirstFrame = (modelId) => {
+    if (this.firstFrameReported || !this.model) {
+      this.flushTimings();
+      return;
+    }
+    this.firstFrameReported = true;
+    const start = performance.now();
+    requestAnimationFrame(() => {
+      this.recordTiming('three.first-render', modelId, start, performance.now());
+      this.flushTimings();
+    });
+  };
+
+  /**
+   * Odešle zaznamenané časy na server, časy jsou relativní k okamžiku odeslání
+   */
+  flushTimings = () => {
+    if (this.pendingTimings.length === 0) {
+      return;
+    }
+    const now = performance.now();
+    const timings = this.pendingTimings.map(t => ({
+      name: t.name,
+      asset: t.asset,
+      startMsAgo: now - t.start,
+      endMsAgo: now - t.end
+    }));
+    this.pendingTimings = [];
+    if (this.element && this.element.$server && typeof this.element.$server.reportTimings === 'function') {
+      this.element.$server.reportTimings(timings);
+    }
+  };
+
+  /**
+   * Hlásí průběh stahování assetu na server, nejvýše jednou za 250 ms pro každý asset a vždy po dokončení
+   */
+  reportProgress = (url, loaded, total) => {
+    const now = Date.now();
+    const finished = total > 0 && loaded >= total;
+    const last = this.progressReportedAt.get(url) || 0;
+    if (!finished && now - last < 250) {
+      return;
+    }
+    if (finished) {
+      this.progressReportedAt.delete(url);
+    } else {
+      this.progressReportedAt.set(url, now);
+    }
+    if (this.element && this.element.$server && typeof this.element.$server.loadProgress === 'function') {
+      this.element.$server.loadProgress(url, loaded, total);
+    }
+  };
+
+  /**
+   * Zruší všechna probíhající stahování assetů, další načítání už použijí nový AbortController
+   */
+  cancelLoading = () => {
+    this.loadAbortController.abort();
+    this.loadAbortController = new AbortController();
+    this.progressReportedAt.clear();
   };
 
   removeOtherTexture = async (modelId, textureId) => {
@@ -321,6 +427,7 @@ class ThreeTest {
   };
 
   dispose = () => {
+    this.cancelLoading();
     this.stopAnimation();
     disposeRenderer(this.renderer);
     disposeSceneMaterials(this.scene);
@@ -0,0 +1,70 @@
+// Trvalá cache assetů v Cache Storage prohlížeče, klíčem je hash obsahu z manifestu vydaného serverem
+// Nezměněné modely a textury se tak při opakované návštěvě načtou bez jakéhokoli stahování
+
+const CACHE_NAME = 'threejs-assets-v1';
+const KEY_PREFIX = '/__threejs-assets/';
+const MAX_ENTRIES = 200;
+
+// URL assetu -> hash obsahu, hash je vlastností obsahu, proto je mapa společná pro všechny instance
+const versions = new Map();
+
+/**
+ * Zaregistruje manifest assetů {url: hash} poslaný serverem před jejich načtením
+ */
+export function registerAssetVersions(manifest) {
+  if (!manifest || typeof manifest !== 'object') {
+    return;
+  }
+  for (const [url, hash] of Object.entries(manifest)) {
+    if (hash) {
+      versions.set(url, hash);
+    }
+  }
+}
+
+/**
+ * Vrátí obsah assetu z cache, null pokud asset nemá verzi z manifestu nebo v cache není
+ */
+export async function readCachedAsset(url) {
+  const hash = versions.get(url);
+  if (!hash || !isCacheAvailable()) {
+    return null;
+  }
+  try {
+    const cache = await caches.open(CACHE_NAME);
+    const response = await cache.match(KEY_PREFIX + hash);
+    return response ? await response.arrayBuffer() : null;
+  } catch (e) {
+    console.warn('[JS] Čtení assetu z cache selhalo:', e);
+    return null;
+  }
+}
+
+/**
+ * Uloží stažený asset do cache pod hashem z manifestu, asset bez verze se neukládá
+ * Při překročení počtu záznamů se odstraní nejdříve uložené záznamy
+ */
+export async function storeCachedAsset(url, buffer) {
+  const hash = versions.get(url);
+  if (!hash || !isCacheAvailable()) {
+    return;
+  }
+  try {
+    const cache = await caches.open(CACHE_NAME);
+    await cache.put(KEY_PREFIX + hash, new Response(buffer, {
+      headers: { 'Content-Type': 'application/octet-stream', 'Content-Length': String(buffer.byteLength) }
+    }));
+    const keys = await cache.keys();
+    for (let i = 0; i < keys.length - MAX_ENTRIES; i++) {
+      await cache.delete(keys[i]);
+    }
+  } catch (e) {
+    // Např. překročená kvóta úložiště, asset se příště stáhne znovu
+    console.warn('[JS] Uložení assetu do cache selhalo:', e);
+  }
+}
+
+// Cache Storage je dostupná jen v zabezpečeném kontextu (HTTPS nebo localhost)
+function isCacheAvailable() {
+  return typeof caches !== 'undefined' && window.isSecureContext;
+}
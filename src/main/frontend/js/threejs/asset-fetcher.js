@@ -0,0 +1,93 @@
+import * as THREE from 'three';
+import { readCachedAsset, storeCachedAsset } from './asset-cache.js';
+
+/**
+ * Stáhne asset přes fetch, hlásí průběh v bajtech podle Content-Length a podporuje zrušení přes AbortSignal
+ * Po úspěšném stažení volá onComplete s počtem stažených bajtů
+ * Asset s verzí z manifestu se nejdříve hledá v trvalé cache assetů, nalezený asset se nestahuje (onComplete dostane 0 bajtů)
+ */
+export async function fetchAsset(url, { signal, onProgress, onComplete } = {}) {
+  const cached = await readCachedAsset(url);
+  signal?.throwIfAborted();
+  if (cached) {
+    if (onProgress) {
+      onProgress(cached.byteLength, cached.byteLength);
+    }
+    if (onComplete) {
+      onComplete(0);
+    }
+    return cached;
+  }
+  const buffer = await downloadAsset(url, { signal, onProgress, onComplete });
+  void storeCachedAsset(url, buffer);
+  return buffer;
+}
+
+/**
+ * Stáhne asset ze sítě, hlásí průběh a po dokončení volá onComplete s počtem stažených bajtů
+ */
+async function downloadAsset(url, { signal, onProgress, onComplete }) {
+  const response = await fetch(url, { signal, credentials: 'same-origin' });
+  if (!response.ok) {
+    throw new Error(`Stažení ${url} selhalo se stavem ${response.status}`);
+  }
+
+  const total = Number(response.headers.get('Content-Length')) || 0;
+  if (!response.body || !onProgress) {
+    const buffer = await response.arrayBuffer();
+    if (onProgress) {
+      onProgress(buffer.byteLength, buffer.byteLength);
+    }
+    if (onComplete) {
+      onComplete(buffer.byteLength);
+    }
+    return buffer;
+  }
+
+  const reader = response.body.getReader();
+  const chunks = [];
+  let loaded = 0;
+  for (;;) {
+    const { done, value } = await reader.read();
+    if (done) {
+      break;
+    }
+    chunks.push(value);
+    loaded += value.byteLength;
+    onProgress(loaded, total);
+  }
+
+  const result = new Uint8Array(loaded);
+  let offset = 0;
+  for (const chunk of chunks) {
+    result.set(chunk, offset);
+    offset += chunk.byteLength;
+  }
+  onProgress(loaded, total || loaded);
+  if (onComplete) {
+    onComplete(loaded);
+  }
+  return result.buffer;
+}
+
+/**
+ * Stáhne texturu přes fetchAsset a vytvoří z ní THREE.Texture
+ */
+export async function fetchTexture(url, options = {}) {
+  const buffer = await fetchAsset(url, options);
+  const blobUrl = URL.createObjectURL(new Blob([buffer]));
+  try {
+    const texture = await new THREE.TextureLoader().loadAsync(blobUrl);
+    texture.needsUpdate = true;
+    return texture;
+  } finally {
+    URL.revokeObjectURL(blobUrl);
+  }
+}
+
+/**
+ * Zjistí, zda chyba vznikla zrušením načítání
+ */
+export function isAbortError(error) {
+  return error?.name === 'AbortError';
+}
@@ -1,6 +1,7 @@
 import * as THREE from 'three';
 import { GLTFLoader } from 'three/addons/loaders/GLTFLoader.js';
 import { OBJLoader } from 'three/addons';
+import { fetchAsset, fetchTexture, isAbortError } from './asset-fetcher.js';
 
 /**
  * Načte základní GLTF model
@@ -39,8 +40,11 @@ export async function loadAdvancedModel(objUrl, mainTextureUrl, modelId, models)
 
 /**
  * Zobrazí model podle ID
+ * Assety se stahují přes fetchAsset, assetOptionsFn(url) vrací signal pro zrušení a callback průběhu pro daný asset.
+ * Aktuální model zůstává ve scéně, dokud není nový model stažen, takže zrušené nebo chybné načtení scénu nemění.
+ * recordTimingFn(name, asset, start, end) zaznamenává časy fází pro trasování načtení stránky.
  */
-export async function showModelById(modelId, models, currentModel, scene, disposeObjectFn, centerCameraFn) {
+export async function showModelById(modelId, models, currentModel, scene, disposeObjectFn, centerCameraFn, assetOptionsFn = () => ({}), recordTimingFn = () => {}) {
   const modelObject = models.find(m => m.id === modelId);
 
   if (currentModel && currentModel === modelObject) {
@@ -51,79 +55,72 @@ export async function showModelById(modelId, models, currentModel, scene, dispos
     return { model: currentModel, lastSelectedTextureId: null };
   }
 
-  if (currentModel) {
-    disposeObjectFn(currentModel.modelLoader);
-    try {
-      scene.remove(currentModel.modelLoader);
-    } catch (e) { /* ignore */ }
-  }
-
   const newModel = modelObject;
   let lastSelectedTextureId = null;
+  let loadedObject;
 
   if (modelObject.advanced) {
     if (!modelObject.loadedMainTexture && modelObject.mainTexture) {
-      const textureLoader = new THREE.TextureLoader();
       try {
-        modelObject.loadedMainTexture = await new Promise((resolve, reject) => {
-          textureLoader.load(modelObject.mainTexture, (texture) => {
-            texture.needsUpdate = true;
-            resolve(texture);
-          }, undefined, (err) => {
-            console.error('Error loading main texture:', err);
-            reject(err);
-          });
-        });
+        modelObject.loadedMainTexture = await fetchTexture(modelObject.mainTexture, assetOptionsFn(modelObject.mainTexture));
       } catch (e) {
+        if (isAbortError(e)) {
+          throw e;
+        }
         console.error('Failed to load main texture for advanced model:', e);
         modelObject.loadedMainTexture = null;
       }
     }
 
-    const objLoader = new OBJLoader();
-    await new Promise((resolve, reject) => {
-      objLoader.load(modelObject.model, (obj) => {
-        obj.traverse((child) => {
-          if (child.isMesh) {
-            child.material = new THREE.MeshStandardMaterial({ map: modelObject.loadedMainTexture });
-            child.material.needsUpdate = true;
-          }
-        });
-        newModel.modelLoader = obj;
-        scene.add(newModel.modelLoader);
-        centerCameraFn(newModel);
-        resolve();
-      }, undefined, (error) => {
+    try {
+      const buffer = await fetchAsset(modelObject.model, assetOptionsFn(modelObject.model));
+      const parseStart = performance.now();
+      loadedObject = new OBJLoader().parse(new TextDecoder().decode(buffer));
+      recordTimingFn('model.parse', modelId, parseStart, performance.now());
+    } catch (error) {
+      if (!isAbortError(error)) {
         console.error('Error loading advanced model:', error);
-        reject(error);
-      });
+      }
+      throw error;
+    }
+    loadedObject.traverse((child) => {
+      if (child.isMesh) {
+        child.material = new THREE.MeshStandardMaterial({ map: modelObject.loadedMainTexture });
+        child.material.needsUpdate = true;
+      }
     });
   } else {
-    const loader = new GLTFLoader();
-    await new Promise((resolve, reject) => {
-      loader.load(modelObject.model,
-        (gltf) => {
-          newModel.modelLoader = gltf.scene;
-          if (newModel.modelLoader && newModel.modelLoader.children[0]?.geometry) {
-            try {
-              newModel.modelLoader.children[0].geometry.center();
-            } catch (e) { /* ignore */ }
-          }
-          scene.add(newModel.modelLoader);
-          centerCameraFn(newModel);
-          resolve();
-        },
-        undefined,
-        (error) => {
-          console.error('Error loading basic model:', error);
-          reject(error);
-        }
-      );
-    });
+    try {
+      const buffer = await fetchAsset(modelObject.model, assetOptionsFn(modelObject.model));
+      const parseStart = performance.now();
+      const gltf = await new GLTFLoader().parseAsync(buffer, '');
+      recordTimingFn('model.parse', modelId, parseStart, performance.now());
+      loadedObject = gltf.scene;
+    } catch (error) {
+      if (!isAbortError(error)) {
+        console.error('Error loading basic model:', error);
+      }
+      throw error;
+    }
+    if (loadedObject && loadedObject.children[0]?.geometry) {
+      try {
+        loadedObject.children[0].geometry.center();
+      } catch (e) { /* ignore */ }
+    }
+  }
+
+  if (currentModel) {
+    disposeObjectFn(currentModel.modelLoader);
+    try {
+      scene.remove(currentModel.modelLoader);
+    } catch (e) { /* ignore */ }
   }
 
+  newModel.modelLoader = loadedObject;
+  scene.add(newModel.modelLoader);
+  centerCameraFn(newModel);
+
   await new Promise(resolve => setTimeout(resolve, 100));
 
   return { model: newModel, lastSelectedTextureId };
 }
-
@@ -1,9 +1,10 @@
 import * as THREE from 'three';
+import { fetchTexture, isAbortError } from './asset-fetcher.js';
 
 /**
  * Přidá další textury k modelu
  */
-export async function addOtherTextures(textureMap, modelId, models) {
+export async function addOtherTextures(textureMap, modelId, models, assetOptionsFn = () => ({})) {
   const modelObject = models.find(m => m.id === modelId);
 
   if (!modelObject) {
@@ -30,16 +31,15 @@ export async function addOtherTextures(textureMap, modelId, models) {
     return;
   }
 
-  await Promise.all(entries.map(([id, url]) => {
-    return new Promise((resolve) => {
-      new THREE.TextureLoader().load(url, (texture) => {
-        modelObject.otherTextures.push({ id, texture });
-        resolve();
-      }, undefined, (error) => {
+  await Promise.all(entries.map(async ([id, url]) => {
+    try {
+      const texture = await fetchTexture(url, assetOptionsFn(url));
+      modelObject.otherTextures.push({ id, texture });
+    } catch (error) {
+      if (!isAbortError(error)) {
         console.error(`Error loading texture for id ${id}:`, error);
-        resolve();
-      });
-    });
+      }
+    }
   }));
 }
 
@@ -1,4 +1,5 @@
 import ThreeTest from './ThreeTest.js';
+import { registerAssetVersions } from './asset-cache.js';
 
 // Multi-instance management
 const instances = new WeakMap();
@@ -40,60 +41,91 @@ window.disposeThree = function(element) {
   });
 };
 
-window.loadModel = async function(element, modelUrl, modelId) {
+window.cancelThreeLoading = function(element) {
   const inst = getInstance(element);
   if (inst) {
-    await inst.loadModel(modelUrl, modelId);
+    inst.cancelLoading();
   }
 };
 
-window.loadAdvancedModel = async function(element, objUrl, textureUrl, modelId) {
-  const inst = getInstance(element);
-  if (inst) {
-    await inst.loadAdvancedModel(objUrl, textureUrl, modelId);
-  }
+// Batched command channel, command codes match ThreeJs.CommandType on the Java side
+const commandHandlers = {
+  m: (inst, [modelUrl, modelId]) => inst.loadModel(modelUrl, modelId),
+  a: (inst, [objUrl, textureUrl, modelId]) => inst.loadAdvancedModel(objUrl, textureUrl, modelId),
+  c: (inst) => inst.clear(),
+  t: (inst, [textureMap, modelId]) => inst.addOtherTextures(textureMap, modelId),
+  r: (inst, [modelId, textureId]) => inst.removeOtherTexture(modelId, textureId),
+  s: (inst, [modelId, textureId]) => inst.switchOtherTexture(modelId, textureId),
+  v: (inst, [modelId]) => inst.showModelById(modelId),
+  k: (inst, [modelId, textureId, maskColor]) => inst.applyMaskToMainTexture(modelId, textureId, maskColor),
+  h: (inst, [manifest]) => registerAssetVersions(manifest),
 };
 
-window.clear = async function(element) {
-  const inst = getInstance(element);
-  if (inst) {
-    await inst.clear();
+// Závislosti příkazů: wait = řetězce, na které příkaz čeká, occupy = řetězce, které příkaz obsazuje
+// Registrace modelu (model:id), jeho další textury (textures:id) a zobrazení ve scéně (scene) jsou samostatné řetězce,
+// takže stahování různých modelů a textur běží souběžně a pořadí se zachovává jen mezi závislými příkazy
+function dependenciesOf(code, args) {
+  switch (code) {
+    case 'm':
+      return { wait: ['model:' + args[1]], occupy: ['model:' + args[1]] };
+    case 'a':
+      return { wait: ['model:' + args[2]], occupy: ['model:' + args[2]] };
+    case 't':
+      return { wait: ['model:' + args[1], 'textures:' + args[1]], occupy: ['textures:' + args[1]] };
+    case 'v':
+      return { wait: ['model:' + args[0], 'scene'], occupy: ['scene'] };
+    case 'r':
+    case 's':
+    case 'k':
+      return { wait: ['textures:' + args[0], 'scene'], occupy: ['textures:' + args[0], 'scene'] };
+    default:
+      return null;
   }
-};
+}
 
-window.addOtherTextures = async function(element, textureJson, modelId) {
-  const inst = getInstance(element);
-  if (inst) {
-    await inst.addOtherTextures(textureJson, modelId);
+async function runCommand(element, inst, code, args) {
+  if (getInstance(element) !== inst) {
+    return;
   }
-};
-
-window.removeOtherTexture = async function(element, modelId, textureId) {
-  const inst = getInstance(element);
-  if (inst) {
-    await inst.removeOtherTexture(modelId, textureId);
+  try {
+    await commandHandlers[code](inst, args);
+  } catch (e) {
+    console.error('[JS] Error in three command ' + code + ':', e);
   }
-};
+}
 
-window.switchOtherTexture = async function(element, modelId, textureId) {
+window.dispatchThreeCommands = function(element, batch) {
   const inst = getInstance(element);
-  if (inst) {
-    await inst.switchOtherTexture(modelId, textureId);
+  if (!inst || !Array.isArray(batch)) {
+    return;
   }
-};
-
-window.showModel = async function(element, modelId) {
-  const inst = getInstance(element);
-  if (inst) {
-    await inst.showModelById(modelId);
+  inst.commandChains = inst.commandChains || new Map();
+  for (const [code, ...args] of batch) {
+    if (!commandHandlers[code]) {
+      console.warn('[JS] Unknown three command:', code);
+      continue;
+    }
+    if (code === 'h') {
+      // Manifest assetů se zaregistruje hned, aby jej viděly všechny následující příkazy
+      commandHandlers[code](inst, args);
+      continue;
+    }
+    const barrier = inst.commandBarrier || Promise.resolve();
+    const dependencies = dependenciesOf(code, args);
+    if (!dependencies) {
+      // Ostatní příkazy (např. clear) počkají na všechny rozběhnuté příkazy a následující příkazy počkají na ně
+      const running = [barrier, ...inst.commandChains.values()];
+      inst.commandChains = new Map();
+      inst.commandBarrier = Promise.all(running).then(() => runCommand(element, inst, code, args));
+      continue;
+    }
+    const previous = dependencies.wait.map(key => inst.commandChains.get(key) || barrier);
+    const run = Promise.all(previous).then(() => runCommand(element, inst, code, args));
+    for (const key of dependencies.occupy) {
+      inst.commandChains.set(key, run);
+    }
   }
 };
 
-window.applyMaskToMainTexture = async function(element, modelId, textureId, maskColor) {
-  const inst = getInstance(element);
-  if (inst) {
-    await inst.applyMaskToMainTexture(modelId, textureId, maskColor);
-  }
-};
 window.addEventListener('beforeunload', () => {
 });
@@ -3,11 +3,19 @@ package cz.uhk.zlesak.threejslearningapp;
 import com.vaadin.flow.component.page.AppShellConfigurator;
 import com.vaadin.flow.server.AppShellSettings;
 import com.vaadin.flow.theme.Theme;
+import cz.uhk.zlesak.threejslearningapp.api.compression.ResponseCompressionInterceptor;
+import cz.uhk.zlesak.threejslearningapp.api.endpoints.BackendEndpointInterceptor;
+import cz.uhk.zlesak.threejslearningapp.api.resilience.BackendResilienceInterceptor;
+import cz.uhk.zlesak.threejslearningapp.metrics.BackendApiMetricsInterceptor;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.time.Duration;
+
 /**
  * Main application class for the Three.js Learning App.
  * It sets up the Spring Boot application and provides RestTemplate and I18NProvider beans.
@@ -27,12 +35,33 @@ public class Application implements AppShellConfigurator {
 
     /**
      * Provides a RestTemplate bean for making RESTful web service calls.
+     * Metadata calls negotiate gzip compressed responses through the ResponseCompressionInterceptor.
+     * Every call made through it is measured by the BackendApiMetricsInterceptor, sent to one of the backend instances by the BackendEndpointInterceptor
+     * and guarded by the bulkheads, circuit breakers and retries of the BackendResilienceInterceptor.
+     * The resilience interceptor is the last one, so its retries execute the request again.
      *
+     * @param compressionInterceptor interceptor negotiating and decompressing compressed backend responses
+     * @param metricsInterceptor     interceptor recording metrics of the backend API calls
+     * @param endpointInterceptor    interceptor balancing the backend API calls over the backend instances
+     * @param resilienceInterceptor  interceptor applying the resilience policies to the backend API calls
+     * @param connectTimeout         timeout of opening the connection to the backend
+     * @param readTimeout            timeout of reading from the backend
      * @return a new instance of RestTemplate
      */
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate restTemplate(ResponseCompressionInterceptor compressionInterceptor, BackendApiMetricsInterceptor metricsInterceptor, BackendEndpointInterceptor endpointInterceptor,
+                                     BackendResilienceInterceptor resilienceInterceptor,
+                                     @Value("${backend.timeout.connect:2s}") Duration connectTimeout,
+                                     @Value("${backend.timeout.read:15s}") Duration readTimeout) {
+        SimpleClientHttpRequestFactory requestFactory = new SimpleClientHttpRequestFactory();
+        requestFactory.setConnectTimeout(connectTimeout);
+        requestFactory.setReadTimeout(readTimeout);
+        RestTemplate restTemplate = new RestTemplate(requestFactory);
+        restTemplate.getInterceptors().add(compressionInterceptor);
+        restTemplate.getInterceptors().add(metricsInterceptor);
+        restTemplate.getInterceptors().add(endpointInterceptor);
+        restTemplate.getInterceptors().add(resilienceInterceptor);
+        return restTemplate;
     }
 
     /**
@@ -6,10 +6,11 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.uhk.zlesak.threejslearningapp.api.contracts.IApiClient;
 import cz.uhk.zlesak.threejslearningapp.api.contracts.IChapterApiClient;
 import cz.uhk.zlesak.threejslearningapp.exceptions.ApiCallException;
+import cz.uhk.zlesak.threejslearningapp.exceptions.ChapterVersionConflictException;
+import cz.uhk.zlesak.threejslearningapp.metrics.BackendApiMetrics;
 import cz.uhk.zlesak.threejslearningapp.domain.chapter.ChapterEntity;
 import cz.uhk.zlesak.threejslearningapp.domain.common.PageResult;
 import cz.uhk.zlesak.threejslearningapp.domain.common.SortDirectionEnum;
-import org.apache.commons.lang3.NotImplementedException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.*;
 import org.springframework.stereotype.Component;
@@ -23,12 +24,13 @@ import java.util.Map;
  * ChapterApiClient provides connection to the backend service for managing chapters.
  * It implements the IChapterApiClient interface and provides methods for creating, updating, deleting, and retrieving chapters.
  * It uses RestTemplate for making HTTP requests to the backend service.
- * The base URL for the API is determined by the IApiClient interface
+ * Requests are addressed to the logical base URL of the IApiClient interface and balanced over the backend instances by the BackendEndpointInterceptor.
  */
 @Component
 public class ChapterApiClient implements IChapterApiClient {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final BackendApiMetrics metrics;
     private final String baseUrl;
 
     /**
@@ -37,12 +39,14 @@ public class ChapterApiClient implements IChapterApiClient {
      *
      * @param restTemplate the RestTemplate used for making HTTP requests
      * @param objectMapper the ObjectMapper used for JSON serialization/deserialization
+     * @param metrics      the metrics of the backend API calls, used to measure JSON decoding
      */
     @Autowired
-    public ChapterApiClient(RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public ChapterApiClient(RestTemplate restTemplate, ObjectMapper objectMapper, BackendApiMetrics metrics) {
+        this.metrics = metrics;
         this.restTemplate = restTemplate;
         this.objectMapper = objectMapper;
-        this.baseUrl = IApiClient.getBaseUrl() + "chapter/";
+        this.baseUrl = IApiClient.BASE_URL + "chapter/";
     }
 
     /**
@@ -60,12 +64,12 @@ public class ChapterApiClient implements IChapterApiClient {
         HttpEntity<ChapterEntity> request = new HttpEntity<>(chapter, headers);
 
         try {
-            ResponseEntity<ChapterEntity> response = restTemplate.exchange(
+            ResponseEntity<String> response = restTemplate.exchange(
                     url,
                     HttpMethod.POST,
                     request,
-                    ChapterEntity.class);
-            return objectMapper.readValue(objectMapper.writeValueAsString(response.getBody()), ChapterEntity.class);
+                    String.class);
+            return response.getBody() == null ? null : metrics.timeDecoding("chapter", "chapter/create", () -> objectMapper.readValue(response.getBody(), ChapterEntity.class));
         } catch (HttpStatusCodeException ex) {
             throw new ApiCallException("Chyba při nahrávání kapitoly", null, request.toString(), ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
 
@@ -75,28 +79,75 @@ public class ChapterApiClient implements IChapterApiClient {
     }
 
     /**
-     * API call function to update chapter coming from frontend view
-     * This method is not implemented yet and will throw NotImplementedException.
+     * API call function to endpoint update to update chapter coming from frontend view
+     * The update is sent with the If-Match precondition, so the backend rejects it with 412 when the chapter was changed since it was read.
      *
-     * @param chapterId     ID of the chapter to update
-     * @param chapterEntity ChapterEntity containing updated chapter data
-     * @throws NotImplementedException Throws NotImplementedException as of this moment
+     * @param chapterId       ID of the chapter to update
+     * @param chapterEntity   ChapterEntity containing updated chapter data
+     * @param expectedVersion version (ETag) of the chapter the update is based on
+     * @return Returns updated chapter, null if the backend does not return it
+     * @throws ChapterVersionConflictException Throws exception if the chapter was changed since it was read
+     * @throws Exception Throws exception if anything goes bad when updating the chapter via this API call
      */
     @Override
-    public void updateChapter(String chapterId, ChapterEntity chapterEntity) throws NotImplementedException {
-        throw new NotImplementedException("Update chapter method is not implemented yet.");
+    public ChapterEntity updateChapter(String chapterId, ChapterEntity chapterEntity, String expectedVersion) throws Exception {
+        String url = baseUrl + "update/" + chapterId;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.setIfMatch(expectedVersion);
+        HttpEntity<ChapterEntity> request = new HttpEntity<>(chapterEntity, headers);
+
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.PUT,
+                    request,
+                    String.class);
+            return response.getBody() == null || response.getBody().isBlank() ? null : metrics.timeDecoding("chapter", "chapter/update/{id}", () -> objectMapper.readValue(response.getBody(), ChapterEntity.class));
+        } catch (HttpStatusCodeException ex) {
+            if (ex.getStatusCode().isSameCodeAs(HttpStatus.PRECONDITION_FAILED)) {
+                throw new ChapterVersionConflictException(chapterId, expectedVersion);
+            }
+            throw new ApiCallException("Chyba při úpravě kapitoly", chapterId, request.toString(), ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
+        } catch (Exception e) {
+            throw new Exception("Neočekávaná chyba při volání API pro úpravu kapitoly: " + e.getMessage(), e);
+        }
     }
 
     /**
      * API call function to delete chapter by its ID
-     * This method is not implemented yet and will throw NotImplementedException.
+     * The deletion is sent with the If-Match precondition, so the backend rejects it with 412 when the chapter was changed since it was read.
+     * A chapter that does not exist anymore is considered deleted.
      *
-     * @param chapterId ID of the chapter to delete
-     * @throws NotImplementedException Throws NotImplementedException as of this moment
+     * @param chapterId       ID of the chapter to delete
+     * @param expectedVersion version (ETag) of the chapter the deletion is based on
+     * @throws ChapterVersionConflictException Throws exception if the chapter was changed since it was read
+     * @throws Exception Throws exception if anything goes bad when deleting the chapter via this API call
      */
     @Override
-    public void deleteChapter(String chapterId) throws NotImplementedException {
-        throw new NotImplementedException("Delete chapter method is not implemented yet.");
+    public void deleteChapter(String chapterId, String expectedVersion) throws Exception {
+        String url = baseUrl + "delete/" + chapterId;
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfMatch(expectedVersion);
+        HttpEntity<Void> request = new HttpEntity<>(headers);
+
+        try {
+            restTemplate.exchange(
+                    url,
+                    HttpMethod.DELETE,
+                    request,
+                    String.class);
+        } catch (HttpStatusCodeException ex) {
+            if (ex.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                return;
+            }
+            if (ex.getStatusCode().isSameCodeAs(HttpStatus.PRECONDITION_FAILED)) {
+                throw new ChapterVersionConflictException(chapterId, expectedVersion);
+            }
+            throw new ApiCallException("Chyba při mazání kapitoly", chapterId, request.toString(), ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
+        } catch (Exception e) {
+            throw new Exception("Neočekávaná chyba při volání API pro smazání kapitoly: " + e.getMessage(), e);
+        }
     }
 
     /**
@@ -118,13 +169,13 @@ public class ChapterApiClient implements IChapterApiClient {
         HttpEntity<Void> requestEntity = new HttpEntity<>(headers);
 
         try {
-            ResponseEntity<ChapterEntity> response = restTemplate.exchange(
+            ResponseEntity<String> response = restTemplate.exchange(
                     url,
                     HttpMethod.GET,
                     requestEntity,
-                    ChapterEntity.class
+                    String.class
             );
-            return objectMapper.readValue(objectMapper.writeValueAsString(response.getBody()), ChapterEntity.class);
+            return response.getBody() == null ? null : metrics.timeDecoding("chapter", "chapter/{id}", () -> objectMapper.readValue(response.getBody(), ChapterEntity.class));
         } catch (HttpStatusCodeException ex) {
             throw new ApiCallException("Chyba při získávání kapitoly dle jejího ID", chapterId, requestEntity.toString(), ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
 
@@ -156,7 +207,7 @@ public class ChapterApiClient implements IChapterApiClient {
                     String.class
             );
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return objectMapper.readValue(response.getBody(), objectMapper.getTypeFactory().constructParametricType(PageResult.class, ChapterEntity.class));
+                return metrics.timeDecoding("chapter", "chapter/list", () -> objectMapper.readValue(response.getBody(), objectMapper.getTypeFactory().constructParametricType(PageResult.class, ChapterEntity.class)));
             } else {
                 throw new ApiCallException("Chyba při získávání seznamu kapitol", null, null, response.getStatusCode(), response.getBody(), null);
             }
@@ -167,15 +218,30 @@ public class ChapterApiClient implements IChapterApiClient {
 
     /**
      * API call function to get chapters by author ID
-     * This method is not implemented yet and will throw NotImplementedException.
+     * This method retrieves the IDs of the chapters created by the author from the backend service.
      *
      * @param authorId ID of the author whose chapters are to be retrieved
      * @return List of chapter IDs authored by the specified author
-     * @throws NotImplementedException Throws NotImplementedException as of this moment
+     * @throws ApiCallException Throws an ApiCallException if there is an error during the API call
      */
     @Override
-    public List<String> getChaptersByAuthor(String authorId) throws NotImplementedException {
-        throw new NotImplementedException("Get chapters by author method is not implemented yet.");
+    public List<String> getChaptersByAuthor(String authorId) throws Exception {
+        String url = baseUrl + "list-by-author/" + authorId;
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    null,
+                    String.class
+            );
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                return metrics.timeDecoding("chapter", "chapter/list-by-author/{id}", () -> objectMapper.readValue(response.getBody(), new TypeReference<List<String>>() {}));
+            } else {
+                throw new ApiCallException("Chyba při získávání kapitol autora", null, null, response.getStatusCode(), response.getBody(), null);
+            }
+        } catch (HttpStatusCodeException ex) {
+            throw new ApiCallException("Chyba při získávání kapitol autora", null, null, ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
+        }
     }
 
     /**
@@ -199,7 +265,7 @@ public class ChapterApiClient implements IChapterApiClient {
                     String.class
             );
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                Map<String, List<ChapterEntity>> map = objectMapper.readValue(response.getBody(), new TypeReference<>() {});
+                Map<String, List<ChapterEntity>> map = metrics.timeDecoding("chapter", "chapter/search-fulltext", () -> objectMapper.readValue(response.getBody(), new TypeReference<Map<String, List<ChapterEntity>>>() {}));
                 return map.get("chapters");
             } else {
                 throw new ApiCallException("Chyba při získávání filtrovaných kapitol", null, null, response.getStatusCode(), response.getBody(), null);
@@ -2,10 +2,13 @@ package cz.uhk.zlesak.threejslearningapp.api.clients;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.uhk.zlesak.threejslearningapp.api.contracts.IApiClient;
+import cz.uhk.zlesak.threejslearningapp.api.endpoints.BackendEndpointRegistry;
 import cz.uhk.zlesak.threejslearningapp.api.contracts.IFileApiClient;
+import cz.uhk.zlesak.threejslearningapp.common.FileStreamHandler;
 import cz.uhk.zlesak.threejslearningapp.common.InputStreamMultipartFile;
 import cz.uhk.zlesak.threejslearningapp.domain.common.*;
 import cz.uhk.zlesak.threejslearningapp.exceptions.ApiCallException;
+import cz.uhk.zlesak.threejslearningapp.metrics.BackendApiMetrics;
 import cz.uhk.zlesak.threejslearningapp.domain.model.ModelEntity;
 import cz.uhk.zlesak.threejslearningapp.domain.model.QuickModelEntity;
 import org.apache.commons.lang3.NotImplementedException;
@@ -24,26 +27,32 @@ import java.util.List;
  * ModelApiClient provides connection to the backend service for managing models.
  * It implements the IFileApiClient interface and provides methods for creating, retrieving, uploading, downloading, and deleting model entities.
  * It uses RestTemplate for making HTTP requests to the backend service.
- * The base URL for the API is determined by the IApiClient interface.
+ * Requests are addressed to the logical base URL of the IApiClient interface and balanced over the backend instances by the BackendEndpointInterceptor.
  */
 @Component
 public class ModelApiClient implements IFileApiClient {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final BackendApiMetrics metrics;
+    private final BackendEndpointRegistry endpointRegistry;
     private final String baseUrl;
 
     /**
      * Constructor for ModelApiClient.
      * Initializes the RestTemplate and ObjectMapper, and sets the base URL for API requests.
      *
-     * @param restTemplate the RestTemplate used for making HTTP requests
-     * @param objectMapper the ObjectMapper used for JSON serialization/deserialization
+     * @param restTemplate     the RestTemplate used for making HTTP requests
+     * @param objectMapper     the ObjectMapper used for JSON serialization/deserialization
+     * @param metrics          the metrics of the backend API calls, used to measure JSON decoding
+     * @param endpointRegistry registry of the backend instances, provides the backend URL reachable from the browser
      */
     @Autowired
-    public ModelApiClient(RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public ModelApiClient(RestTemplate restTemplate, ObjectMapper objectMapper, BackendApiMetrics metrics, BackendEndpointRegistry endpointRegistry) {
+        this.metrics = metrics;
+        this.endpointRegistry = endpointRegistry;
         this.objectMapper = objectMapper;
         this.restTemplate = restTemplate;
-        this.baseUrl = IApiClient.getBaseUrl() + "model/";
+        this.baseUrl = IApiClient.BASE_URL + "model/";
     }
 
     /**
@@ -66,11 +75,7 @@ public class ModelApiClient implements IFileApiClient {
                     byte[].class
             );
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                String contentDisposition = response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION);
-                String filename = null;
-                if (contentDisposition != null && contentDisposition.contains("filename=")) {
-                    filename = contentDisposition.substring(contentDisposition.indexOf("filename=") + 9).replace("\"", "");
-                }
+                String filename = getFileName(response.getHeaders());
                 InputStreamMultipartFile file = new InputStreamMultipartFile(new ByteArrayInputStream(response.getBody()), filename, filename);
                 return ModelEntity.builder()
                         .Id(fileEntityId)
@@ -87,6 +92,57 @@ public class ModelApiClient implements IFileApiClient {
         }
     }
 
+    /**
+     * API call function streaming the file of the model entity by its ID.
+     * Unlike getFileEntityById the file is not loaded into memory, the handler reads it directly from the backend response.
+     * When the handler fails, e.g. because the client aborted the download, the backend connection is closed and the rest of the file is not read.
+     *
+     * @param fileEntityId The ID of the model entity to stream.
+     * @param handler      handler consuming the streamed file.
+     * @throws Exception if the file is not found or streaming fails.
+     */
+    public void streamFileEntityById(String fileEntityId, FileStreamHandler handler) throws Exception {
+        String url = baseUrl + "download/" + fileEntityId;
+        try {
+            restTemplate.execute(url, HttpMethod.GET, null, response -> {
+                handler.handle(getFileName(response.getHeaders()), response.getHeaders().getContentLength(), response.getBody());
+                return null;
+            });
+        } catch (HttpStatusCodeException ex) {
+            throw new ApiCallException("Chyba při stahování modelu", null, null, ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
+        }
+    }
+
+    /**
+     * API call function to retrieve the metadata of a model by its ID.
+     * The metadata contain the model file and its textures with their areas, but not the files themselves.
+     *
+     * @param modelId the ID of the model
+     * @return metadata of the model, null if the backend does not know the model
+     * @throws Exception if there is an error during the retrieval of the metadata
+     */
+    public QuickModelEntity getModelMetadata(String modelId) throws Exception {
+        String url = baseUrl + "metadata/" + modelId;
+        try {
+            ResponseEntity<String> response = restTemplate.exchange(
+                    url,
+                    HttpMethod.GET,
+                    null,
+                    String.class
+            );
+            if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
+                return metrics.timeDecoding("model", "model/metadata/{id}", () -> objectMapper.readValue(response.getBody(), QuickModelEntity.class));
+            } else {
+                throw new ApiCallException("Chyba při získávání metadat modelu", null, null, response.getStatusCode(), response.getBody(), null);
+            }
+        } catch (HttpStatusCodeException ex) {
+            if (ex.getStatusCode().isSameCodeAs(HttpStatus.NOT_FOUND)) {
+                return null;
+            }
+            throw new ApiCallException("Chyba při získávání metadat modelu", null, null, ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
+        }
+    }
+
     /**
      * This method is not implemented as of this moment.
      *
@@ -123,7 +179,7 @@ public class ModelApiClient implements IFileApiClient {
                     String.class
             );
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return objectMapper.readValue(response.getBody(), objectMapper.getTypeFactory().constructParametricType(PageResult.class, QuickModelEntity.class));
+                return metrics.timeDecoding("model", "model/list-by", () -> objectMapper.readValue(response.getBody(), objectMapper.getTypeFactory().constructParametricType(PageResult.class, QuickModelEntity.class)));
             } else {
                 throw new ApiCallException("Chyba při získávání seznamu modelů", null, null, response.getStatusCode(), response.getBody(), null);
             }
@@ -167,7 +223,7 @@ public class ModelApiClient implements IFileApiClient {
                     String.class
             );
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                return objectMapper.readValue(response.getBody(), QuickModelEntity.class);
+                return metrics.timeDecoding("model", "model/upload", () -> objectMapper.readValue(response.getBody(), QuickModelEntity.class));
             } else {
                 throw new ApiCallException("Chyba při nahrávání modelu", null, request.toString(), response.getStatusCode(), response.getBody(), null);
             }
@@ -194,6 +250,20 @@ public class ModelApiClient implements IFileApiClient {
      * @return the complete URL to download the model file
      */
     public String getModelFileBeEndpointUrl(String modelId) {
-        return IApiClient.getLocalBaseBeUrl() + "model/download/" + modelId;
+        return endpointRegistry.getPublicBaseUrl() + "model/download/" + modelId;
+    }
+
+    /**
+     * Extracts the file name from the Content-Disposition header of the backend response.
+     *
+     * @param headers headers of the backend response
+     * @return file name or null when the header does not contain it
+     */
+    private static String getFileName(HttpHeaders headers) {
+        String contentDisposition = headers.getFirst(HttpHeaders.CONTENT_DISPOSITION);
+        if (contentDisposition != null && contentDisposition.contains("filename=")) {
+            return contentDisposition.substring(contentDisposition.indexOf("filename=") + 9).replace("\"", "");
+        }
+        return null;
     }
 }
@@ -2,10 +2,13 @@ package cz.uhk.zlesak.threejslearningapp.api.clients;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.uhk.zlesak.threejslearningapp.api.contracts.IApiClient;
+import cz.uhk.zlesak.threejslearningapp.api.endpoints.BackendEndpointRegistry;
 import cz.uhk.zlesak.threejslearningapp.api.contracts.IFileApiClient;
+import cz.uhk.zlesak.threejslearningapp.common.FileStreamHandler;
 import cz.uhk.zlesak.threejslearningapp.common.InputStreamMultipartFile;
 import cz.uhk.zlesak.threejslearningapp.domain.common.*;
 import cz.uhk.zlesak.threejslearningapp.exceptions.ApiCallException;
+import cz.uhk.zlesak.threejslearningapp.metrics.BackendApiMetrics;
 import cz.uhk.zlesak.threejslearningapp.domain.texture.TextureEntity;
 import cz.uhk.zlesak.threejslearningapp.domain.texture.QuickTextureEntity;
 import org.apache.commons.lang3.NotImplementedException;
@@ -24,26 +27,32 @@ import java.util.List;
  * TextureApiClient provides connection to the backend service for managing textures.
  * It implements the IFileApiClient interface and provides methods for creating, retrieving, uploading, downloading, and deleting texture entities.
  * It uses RestTemplate for making HTTP requests to the backend service.
- * The base URL for the API is determined by the IApiClient interface.
+ * Requests are addressed to the logical base URL of the IApiClient interface and balanced over the backend instances by the BackendEndpointInterceptor.
  */
 @Component
 public class TextureApiClient implements IFileApiClient {
     private final RestTemplate restTemplate;
     private final ObjectMapper objectMapper;
+    private final BackendApiMetrics metrics;
+    private final BackendEndpointRegistry endpointRegistry;
     private final String baseUrl;
 
     /**
      * Constructor for TextureApiClient.
      * Initializes the RestTemplate and ObjectMapper, and sets the base URL for API requests.
      *
-     * @param restTemplate the RestTemplate used for making HTTP requests
-     * @param objectMapper the ObjectMapper used for JSON serialization/deserialization
+     * @param restTemplate     the RestTemplate used for making HTTP requests
+     * @param objectMapper     the ObjectMapper used for JSON serialization/deserialization
+     * @param metrics          the metrics of the backend API calls, used to measure JSON decoding
+     * @param endpointRegistry registry of the backend instances, provides the backend URL reachable from the browser
      */
     @Autowired
-    public TextureApiClient(RestTemplate restTemplate, ObjectMapper objectMapper) {
+    public TextureApiClient(RestTemplate restTemplate, ObjectMapper objectMapper, BackendApiMetrics metrics, BackendEndpointRegistry endpointRegistry) {
+        this.metrics = metrics;
+        this.endpointRegistry = endpointRegistry;
         this.objectMapper = objectMapper;
         this.restTemplate = restTemplate;
-        this.baseUrl = IApiClient.getBaseUrl() + "texture/";
+        this.baseUrl = IApiClient.BASE_URL + "texture/";
     }
 
     /**
@@ -65,11 +74,7 @@ public class TextureApiClient implements IFileApiClient {
                     byte[].class
             );
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
-                String contentDisposition = response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION);
-                String filename = null;
-                if (contentDisposition != null && contentDisposition.contains("filename=")) {
-                    filename = contentDisposition.substring(contentDisposition.indexOf("filename=") + 9).replace("\"", "");
-                }
+                String filename = getFileName(response.getHeaders());
                 InputStreamMultipartFile file = new InputStreamMultipartFile(new ByteArrayInputStream(response.getBody()), filename, filename);
                 return TextureEntity.builder()
                         .Id(fileEntityId)
@@ -84,6 +89,27 @@ public class TextureApiClient implements IFileApiClient {
         }
     }
 
+    /**
+     * API call function streaming the file of the texture entity by its ID.
+     * Unlike getFileEntityById the file is not loaded into memory, the handler reads it directly from the backend response.
+     * When the handler fails, e.g. because the client aborted the download, the backend connection is closed and the rest of the file is not read.
+     *
+     * @param fileEntityId The ID of the texture entity to stream.
+     * @param handler      handler consuming the streamed file.
+     * @throws Exception if the file is not found or streaming fails.
+     */
+    public void streamFileEntityById(String fileEntityId, FileStreamHandler handler) throws Exception {
+        String url = baseUrl + "download/" + fileEntityId;
+        try {
+            restTemplate.execute(url, HttpMethod.GET, null, response -> {
+                handler.handle(getFileName(response.getHeaders()), response.getHeaders().getContentLength(), response.getBody());
+                return null;
+            });
+        } catch (HttpStatusCodeException ex) {
+            throw new ApiCallException("Nepodařilo se stáhnout texturu", null, null, ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
+        }
+    }
+
     /**
      * This method is not implemented as the textures are not retrieved by author but the model that they belong to.
      *
@@ -144,7 +170,7 @@ public class TextureApiClient implements IFileApiClient {
                     String.class
             );
             String responseBody = response.getBody();
-            return objectMapper.readValue(responseBody, QuickTextureEntity.class);
+            return metrics.timeDecoding("texture", "texture/upload", () -> objectMapper.readValue(responseBody, QuickTextureEntity.class));
         } catch (HttpStatusCodeException ex) {
             throw new ApiCallException("Chyba při nahrávání textury", null, request.toString(), ex.getStatusCode(), ex.getResponseBodyAsString(), ex);
         }
@@ -168,6 +194,20 @@ public class TextureApiClient implements IFileApiClient {
      * @return The URL for downloading the texture.
      */
     public String getTextureStreamBeEndpointUrl(String textureId) {
-        return IApiClient.getLocalBaseBeUrl() + "texture/download/" + textureId;
+        return endpointRegistry.getPublicBaseUrl() + "texture/download/" + textureId;
+    }
+
+    /**
+     * Extracts the file name from the Content-Disposition header of the backend response.
+     *
+     * @param headers headers of the backend response
+     * @return file name or null when the header does not contain it
+     */
+    private static String getFileName(HttpHeaders headers) {
+        String contentDisposition = headers.getFirst(HttpHeaders.CONTENT_DISPOSITION);
+        if (contentDisposition != null && contentDisposition.contains("filename=")) {
+            return contentDisposition.substring(contentDisposition.indexOf("filename=") + 9).replace("\"", "");
+        }
+        return null;
     }
 }
@@ -0,0 +1,141 @@
+package cz.uhk.zlesak.threejslearningapp.api.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * RequestCoalescer collapses concurrent identical backend reads into a single backend call (single flight).
+ * The first caller of a key executes the call, callers arriving while it is in flight wait for it and share its result or exception.
+ * The waiting is bounded, a caller whose call in flight did not finish within the wait timeout executes the call on its own.
+ * Nothing is kept once the call finishes, caching of the results stays with the shared entity caches.
+ * Coalescing is enabled per endpoint, the endpoints use the normalized form of BackendApiMetrics, e.g. chapter/{id}.
+ * Executed, collapsed and timed out calls are counted per endpoint by the backend.api.coalescing.calls counter.
+ * Downloads of files streamed to the clients are shared by SharedDownloads instead.
+ */
+@Slf4j
+@Component
+public class RequestCoalescer {
+    private final Set<String> endpoints;
+    private final Duration waitTimeout;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for RequestCoalescer.
+     *
+     * @param endpoints     endpoints whose concurrent identical calls are collapsed
+     * @param waitTimeout   maximal time a caller waits for the identical call in flight before executing the call on its own
+     * @param meterRegistry registry the coalescing metrics are recorded to
+     */
+    public RequestCoalescer(@Value("${backend.coalescing.endpoints:}") List<String> endpoints,
+                            @Value("${backend.coalescing.wait-timeout:10s}") Duration waitTimeout, MeterRegistry meterRegistry) {
+        this.endpoints = Set.copyOf(endpoints.stream().map(String::trim).filter(endpoint -> !endpoint.isEmpty()).toList());
+        this.waitTimeout = waitTimeout;
+        this.meterRegistry = meterRegistry;
+        log.info("Slučování souběžných volání backendu pro endpointy: {}", this.endpoints);
+    }
+
+    /**
+     * Executes the backend call, or waits for the identical call already in flight and returns its result.
+     * When the call in flight does not finish within the wait timeout, the call is executed separately.
+     * Calls of endpoints without coalescing are executed directly.
+     *
+     * @param endpoint normalized endpoint of the call
+     * @param key      key identifying identical calls of the endpoint, e.g. the ID or the query
+     * @param call     the backend call
+     * @param <V>      type of the result
+     * @return result of the call
+     * @throws Exception exception thrown by the call
+     */
+    @SuppressWarnings("unchecked")
+    public <V> V execute(String endpoint, String key, BackendCall<V> call) throws Exception {
+        if (!endpoints.contains(endpoint)) {
+            return call.call();
+        }
+        String flightKey = endpoint + " " + key;
+        CompletableFuture<Object> flight = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(flightKey, flight);
+        if (existing != null) {
+            count(endpoint, "collapsed");
+            try {
+                return (V) await(existing);
+            } catch (TimeoutException e) {
+                count(endpoint, "timed-out");
+                log.debug("Souběžné volání {} neskončilo do {}, volání se provede samostatně", flightKey, waitTimeout);
+                return call.call();
+            }
+        }
+
+        count(endpoint, "executed");
+        try {
+            V result = call.call();
+            flight.complete(result);
+            return result;
+        } catch (Exception | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(flightKey, flight);
+        }
+    }
+
+    /**
+     * Waits for the call in flight at most the wait timeout and unwraps its exception.
+     *
+     * @param flight the call in flight
+     * @return result of the call
+     * @throws TimeoutException if the call did not finish within the wait timeout
+     * @throws Exception        exception thrown by the call
+     */
+    private Object await(CompletableFuture<Object> flight) throws Exception {
+        try {
+            return flight.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Counts a call of the endpoint.
+     *
+     * @param endpoint normalized endpoint
+     * @param role     executed for calls sent to the backend, collapsed for calls served by a call in flight,
+     *                 timed-out for collapsed calls executed on their own after the wait timeout
+     */
+    private void count(String endpoint, String role) {
+        Counter.builder("backend.api.coalescing.calls")
+                .description("Počet volání backendu odeslaných a sloučených se stejným probíhajícím voláním")
+                .tag("endpoint", endpoint)
+                .tag("role", role)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Backend call whose result can be shared by concurrent callers.
+     *
+     * @param <V> type of the result
+     */
+    @FunctionalInterface
+    public interface BackendCall<V> {
+        V call() throws Exception;
+    }
+}
@@ -0,0 +1,188 @@
+package cz.uhk.zlesak.threejslearningapp.api.coalescing;
+
+import cz.uhk.zlesak.threejslearningapp.common.FileStreamHandler;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * SharedDownloads shares the downloads of the model and texture files from the backend between the clients streaming the same file at the same time.
+ * The first client starts the download into a SpooledDownload filled by a background task, so the download does not depend on the speed
+ * or on the abort of any client, and all clients, including the first one, stream the bytes from the spool as they arrive.
+ * Clients joining while the download is in progress read it from its beginning, so a download is shared for its whole duration.
+ * A joining client waits for the backend to start sending the file only for a bounded time, then it downloads the file on its own.
+ * The completely downloaded file is handed over to the caller, e.g. to store it in the shared entity cache, before the download is forgotten.
+ * Downloads are shared for the endpoints with coalescing enabled only, see RequestCoalescer, the others are left to the caller.
+ * Started and joined downloads are counted per endpoint by the backend.api.coalescing.calls counter.
+ *
+ * @see SpooledDownload
+ * @see RequestCoalescer
+ */
+@Slf4j
+@Component
+public class SharedDownloads {
+    private final Set<String> endpoints;
+    private final Duration joinTimeout;
+    private final Duration readTimeout;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, SpooledDownload> downloads = new ConcurrentHashMap<>();
+    private final ExecutorService executor = Executors.newCachedThreadPool(Thread.ofPlatform().daemon().name("shared-download-", 0).factory());
+
+    /**
+     * Constructor for SharedDownloads.
+     *
+     * @param endpoints     endpoints whose concurrent downloads of the same file are shared
+     * @param joinTimeout   maximal time a joining client waits for the backend to start sending the file before downloading it on its own
+     * @param readTimeout   maximal time a client waits for the next bytes of the download in progress
+     * @param meterRegistry registry the download sharing metrics are recorded to
+     */
+    public SharedDownloads(@Value("${backend.coalescing.endpoints:}") List<String> endpoints,
+                           @Value("${backend.coalescing.wait-timeout:10s}") Duration joinTimeout,
+                           @Value("${backend.coalescing.download-read-timeout:60s}") Duration readTimeout,
+                           MeterRegistry meterRegistry) {
+        this.endpoints = Set.copyOf(endpoints.stream().map(String::trim).filter(endpoint -> !endpoint.isEmpty()).toList());
+        this.joinTimeout = joinTimeout;
+        this.readTimeout = readTimeout;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Streams the file to the handler from the shared download of the key, starting the download when none is in progress.
+     * The client starting the download waits for the backend to respond and rethrows its exception, e.g. for an unknown file.
+     * A joining client waits only for the join timeout and does not stream anything when the download did not start in time or failed,
+     * so the caller can download the file on its own, the same applies to the endpoints whose downloads are not shared.
+     *
+     * @param endpoint    normalized endpoint of the download, e.g. model/download/{id}
+     * @param key         key identifying the file, e.g. its ID
+     * @param memoryLimit maximal number of bytes of the download held in memory, longer files are spooled to a temporary file
+     * @param download    the backend call downloading the file to the given handler
+     * @param completion  consumer of the completely downloaded file held in memory, called before the download is forgotten
+     * @param handler     handler consuming the streamed file
+     * @return true when the file was streamed to the handler, false when the download is not shared or the joined download did not start in time or failed
+     * @throws Exception if the started download failed before sending the file, or the handler failed
+     */
+    public boolean stream(String endpoint, String key, long memoryLimit, Download download, Completion completion, FileStreamHandler handler) throws Exception {
+        if (!endpoints.contains(endpoint)) {
+            return false;
+        }
+        String downloadKey = endpoint + " " + key;
+        boolean[] started = new boolean[1];
+        SpooledDownload spooled = downloads.compute(downloadKey, (k, existing) -> {
+            if (existing != null && existing.acquire()) {
+                return existing;
+            }
+            started[0] = true;
+            SpooledDownload created = new SpooledDownload(memoryLimit, readTimeout);
+            created.acquire();
+            executor.execute(() -> fill(downloadKey, created, download, completion));
+            return created;
+        });
+        count(endpoint, started[0] ? "executed" : "collapsed");
+
+        // The reference of the client is released by its stream once opened, otherwise by the finally block
+        boolean opened = false;
+        try {
+            if (!started[0]) {
+                try {
+                    if (!spooled.awaitStart(joinTimeout)) {
+                        count(endpoint, "timed-out");
+                        log.debug("Sdílené stahování {} nezačalo do {}, soubor se stáhne samostatně", downloadKey, joinTimeout);
+                        return false;
+                    }
+                } catch (Exception e) {
+                    log.debug("Sdílené stahování {} selhalo, soubor se stáhne samostatně: {}", downloadKey, e.getMessage());
+                    return false;
+                }
+            } else {
+                spooled.awaitStart(null);
+            }
+            InputStream spoolStream = spooled.openStream();
+            opened = true;
+            try (InputStream inputStream = spoolStream) {
+                handler.handle(spooled.getFileName(), spooled.getContentLength(), inputStream);
+            }
+            return true;
+        } finally {
+            if (!opened) {
+                spooled.release();
+            }
+        }
+    }
+
+    /**
+     * Fills the spool from the backend in the background, hands over the complete file and forgets the download.
+     *
+     * @param downloadKey key of the download
+     * @param spooled     the spool to fill
+     * @param download    the backend call downloading the file
+     * @param completion  consumer of the completely downloaded file
+     */
+    private void fill(String downloadKey, SpooledDownload spooled, Download download, Completion completion) {
+        try {
+            download.download(spooled::fill);
+            if (!spooled.isStarted()) {
+                throw new IllegalStateException("Backend neposlal soubor " + downloadKey);
+            }
+            byte[] content = spooled.getCompleteContent();
+            if (content != null) {
+                completion.completed(spooled.getFileName(), content);
+            }
+        } catch (Exception e) {
+            log.debug("Sdílené stahování {} selhalo: {}", downloadKey, e.getMessage());
+            spooled.fail(e);
+        } finally {
+            downloads.remove(downloadKey, spooled);
+            spooled.release();
+        }
+    }
+
+    /**
+     * Stops the downloads in progress on shutdown.
+     */
+    @PreDestroy
+    public void stop() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Counts a download of the endpoint.
+     *
+     * @param endpoint normalized endpoint
+     * @param role     executed for started downloads, collapsed for joined downloads, timed-out for joined downloads that did not start in time
+     */
+    private void count(String endpoint, String role) {
+        Counter.builder("backend.api.coalescing.calls")
+                .description("Počet volání backendu odeslaných a sloučených se stejným probíhajícím voláním")
+                .tag("endpoint", endpoint)
+                .tag("role", role)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    /**
+     * Backend call downloading the file to the handler.
+     */
+    @FunctionalInterface
+    public interface Download {
+        void download(FileStreamHandler handler) throws Exception;
+    }
+
+    /**
+     * Consumer of the completely downloaded file.
+     */
+    @FunctionalInterface
+    public interface Completion {
+        void completed(String fileName, byte[] content) throws Exception;
+    }
+}
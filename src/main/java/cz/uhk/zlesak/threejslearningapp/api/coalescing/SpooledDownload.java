@@ -0,0 +1,338 @@
+package cz.uhk.zlesak.threejslearningapp.api.coalescing;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * SpooledDownload is a file downloaded from the backend into a spool shared by all clients requesting the file at the same time.
+ * The spool is filled by a background task that no client controls, so a slow or aborted client neither slows down nor aborts
+ * the download for the others. Every client reads the spool through its own stream, which returns the bytes as soon as they arrive.
+ * The spool is held in memory up to the given limit, a longer file continues in a temporary file, which is deleted once
+ * the download finished and all streams reading it were closed.
+ *
+ * @see SharedDownloads
+ */
+@Slf4j
+public class SpooledDownload {
+    private static final int INITIAL_CAPACITY = 64 * 1024;
+
+    private final long memoryLimit;
+    private final Duration readTimeout;
+    private final CompletableFuture<Void> started = new CompletableFuture<>();
+    private String fileName;
+    private long contentLength = -1;
+    private byte[] memory = new byte[0];
+    private Path spoolFile;
+    private FileChannel spoolChannel;
+    private long length = 0;
+    private boolean complete = false;
+    private Exception failure;
+    private int references = 1;
+
+    /**
+     * Constructor for SpooledDownload, the created download is referenced by the task filling it.
+     *
+     * @param memoryLimit maximal number of bytes held in memory, longer files are spooled to a temporary file
+     * @param readTimeout maximal time a stream waits for the next bytes of the download
+     */
+    public SpooledDownload(long memoryLimit, Duration readTimeout) {
+        this.memoryLimit = Math.min(memoryLimit, Integer.MAX_VALUE - 8);
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Fills the spool from the backend stream, called by the background task only.
+     *
+     * @param fileName      name of the downloaded file
+     * @param contentLength announced length of the file, negative when unknown
+     * @param inputStream   stream of the file from the backend
+     * @throws IOException if reading the backend stream or writing the spool fails
+     */
+    public void fill(String fileName, long contentLength, InputStream inputStream) throws IOException {
+        synchronized (this) {
+            this.fileName = fileName;
+            this.contentLength = contentLength;
+        }
+        started.complete(null);
+        byte[] buffer = new byte[INITIAL_CAPACITY];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+            append(buffer, read);
+        }
+        synchronized (this) {
+            complete = true;
+            notifyAll();
+        }
+    }
+
+    /**
+     * Marks the download as failed, streams waiting for further bytes fail with the exception.
+     *
+     * @param exception cause of the failure
+     */
+    public synchronized void fail(Exception exception) {
+        if (!complete && failure == null) {
+            failure = exception;
+            notifyAll();
+        }
+        started.completeExceptionally(exception);
+    }
+
+    /**
+     * Waits until the backend started sending the file.
+     *
+     * @param timeout maximal time to wait, null to wait until the backend responds
+     * @return true when the file is being downloaded, false when the timeout passed first
+     * @throws Exception exception of the backend call when the download failed before sending the file
+     */
+    public boolean awaitStart(Duration timeout) throws Exception {
+        try {
+            if (timeout == null) {
+                started.get();
+            } else {
+                started.get(timeout.toMillis(), TimeUnit.MILLISECONDS);
+            }
+            return true;
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof Exception cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Checks whether the backend started sending the file.
+     *
+     * @return true when the download started and did not fail before sending the file
+     */
+    public boolean isStarted() {
+        return started.isDone() && !started.isCompletedExceptionally();
+    }
+
+    /**
+     * Returns the name of the downloaded file, known once the download started.
+     *
+     * @return name of the file
+     */
+    public synchronized String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * Returns the announced length of the downloaded file, known once the download started.
+     *
+     * @return length of the file, negative when unknown
+     */
+    public synchronized long getContentLength() {
+        return contentLength;
+    }
+
+    /**
+     * Returns the content of the completely downloaded file held in memory.
+     *
+     * @return downloaded bytes, or null when the download did not complete or was spooled to a temporary file
+     */
+    public synchronized byte[] getCompleteContent() {
+        return complete && memory != null ? Arrays.copyOf(memory, (int) length) : null;
+    }
+
+    /**
+     * Adds a reference to the download, e.g. for a client joining it.
+     *
+     * @return false when the download was already released and its spool discarded
+     */
+    public synchronized boolean acquire() {
+        if (references == 0) {
+            return false;
+        }
+        references++;
+        return true;
+    }
+
+    /**
+     * Releases a reference to the download, the spool is discarded when the last reference is released.
+     */
+    public synchronized void release() {
+        if (references == 0 || --references > 0) {
+            return;
+        }
+        memory = null;
+        if (spoolChannel != null) {
+            try {
+                spoolChannel.close();
+                Files.deleteIfExists(spoolFile);
+            } catch (IOException e) {
+                log.warn("Nepodařilo se odstranit dočasný soubor stahování {}: {}", spoolFile, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Opens a stream reading the download from its beginning, the stream releases its reference to the download when closed.
+     * The caller must hold a reference acquired for the stream.
+     *
+     * @return stream of the downloaded file
+     */
+    public InputStream openStream() {
+        return new SpoolInputStream();
+    }
+
+    /**
+     * Appends the bytes read from the backend to the spool and wakes up the waiting streams.
+     * The spool moves to a temporary file once it would exceed the memory limit.
+     *
+     * @param buffer buffer holding the bytes
+     * @param count  number of bytes in the buffer
+     * @throws IOException if writing the temporary file fails
+     */
+    private synchronized void append(byte[] buffer, int count) throws IOException {
+        if (spoolChannel == null && length + count > memoryLimit) {
+            spoolToFile();
+        }
+        if (spoolChannel != null) {
+            writeFully(ByteBuffer.wrap(buffer, 0, count), length);
+        } else {
+            if (length + count > memory.length) {
+                memory = Arrays.copyOf(memory, (int) Math.min(memoryLimit, Math.max(length + count, Math.max(INITIAL_CAPACITY, memory.length * 2L))));
+            }
+            System.arraycopy(buffer, 0, memory, (int) length, count);
+        }
+        length += count;
+        notifyAll();
+    }
+
+    /**
+     * Moves the bytes held in memory to a new temporary file, the rest of the download is appended to it.
+     *
+     * @throws IOException if the temporary file cannot be created or written
+     */
+    private void spoolToFile() throws IOException {
+        spoolFile = Files.createTempFile("spooled-download-", ".tmp");
+        spoolChannel = FileChannel.open(spoolFile, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        writeFully(ByteBuffer.wrap(memory, 0, (int) length), 0);
+        memory = null;
+        log.debug("Stahování souboru {} překročilo {} B, pokračuje do dočasného souboru {}", fileName, memoryLimit, spoolFile);
+    }
+
+    /**
+     * Writes the whole buffer to the temporary file at the position.
+     *
+     * @param buffer   bytes to write
+     * @param position position in the file
+     * @throws IOException if writing fails
+     */
+    private void writeFully(ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += spoolChannel.write(buffer, position);
+        }
+    }
+
+    /**
+     * Stream of a single client reading the spool from its beginning, waiting for the bytes not downloaded yet.
+     */
+    private class SpoolInputStream extends InputStream {
+        private long position = 0;
+        private boolean closed = false;
+
+        /**
+         * Reads a single byte of the download.
+         *
+         * @return read byte or -1 at the end of the file
+         * @throws IOException if the download failed or stalled
+         */
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        /**
+         * Reads the downloaded bytes into the buffer, waiting for the next bytes when the stream caught up with the download.
+         *
+         * @param buffer buffer to read into
+         * @param offset offset in the buffer
+         * @param count  maximal number of bytes to read
+         * @return number of read bytes or -1 at the end of the file
+         * @throws IOException if the download failed or no bytes arrived within the read timeout
+         */
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            if (closed) {
+                throw new IOException("Stream stahovaného souboru je uzavřen");
+            }
+            if (count == 0) {
+                return 0;
+            }
+            FileChannel channel;
+            int available;
+            synchronized (SpooledDownload.this) {
+                awaitBytes();
+                if (position >= length) {
+                    if (failure != null) {
+                        throw new IOException("Stahování souboru " + fileName + " selhalo: " + failure.getMessage(), failure);
+                    }
+                    return -1;
+                }
+                available = (int) Math.min(count, length - position);
+                if (memory != null) {
+                    System.arraycopy(memory, (int) position, buffer, offset, available);
+                    position += available;
+                    return available;
+                }
+                channel = spoolChannel;
+            }
+            int read = channel.read(ByteBuffer.wrap(buffer, offset, available), position);
+            position += read;
+            return read;
+        }
+
+        /**
+         * Releases the reference of the stream to the download.
+         */
+        @Override
+        public void close() {
+            if (!closed) {
+                closed = true;
+                release();
+            }
+        }
+
+        /**
+         * Waits until the download has bytes beyond the position of the stream, finished or failed.
+         *
+         * @throws IOException if no bytes arrived within the read timeout or the waiting was interrupted
+         */
+        private void awaitBytes() throws IOException {
+            long deadline = System.nanoTime() + readTimeout.toNanos();
+            while (position >= length && !complete && failure == null) {
+                long remainingMs = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+                if (remainingMs <= 0) {
+                    throw new IOException("Stahování souboru " + fileName + " se zastavilo na " + length + " B");
+                }
+                try {
+                    SpooledDownload.this.wait(remainingMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Čekání na stahovaný soubor " + fileName + " bylo přerušeno");
+                }
+            }
+        }
+    }
+}
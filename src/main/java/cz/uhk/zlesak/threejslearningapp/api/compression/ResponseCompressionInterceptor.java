@@ -0,0 +1,95 @@
+package cz.uhk.zlesak.threejslearningapp.api.compression;
+
+import cz.uhk.zlesak.threejslearningapp.metrics.BackendApiMetrics;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * ResponseCompressionInterceptor negotiates gzip compressed responses of the backend metadata calls, e.g. the chapter JSON content,
+ * and decompresses them transparently for the API clients.
+ * File downloads are requested uncompressed, so their Content-Length is kept and the download progress can be reported to the browser.
+ * The interceptor is the first one of the RestTemplate, so the metrics record the transferred compressed bytes and the stale responses are
+ * stored compressed.
+ */
+@Component
+public class ResponseCompressionInterceptor implements ClientHttpRequestInterceptor {
+    private static final String GZIP = "gzip";
+
+    /**
+     * Asks the backend for a gzip compressed response of metadata GET calls and decompresses the response when it is compressed.
+     *
+     * @param request   the request
+     * @param body      the body of the request
+     * @param execution the request execution
+     * @return response with the decompressed body
+     * @throws IOException if the request fails
+     */
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (HttpMethod.GET.equals(request.getMethod())
+                && !BackendApiMetrics.endpointOf(request.getURI()).contains("download")
+                && !request.getHeaders().containsKey(HttpHeaders.ACCEPT_ENCODING)) {
+            request.getHeaders().set(HttpHeaders.ACCEPT_ENCODING, GZIP);
+        }
+        ClientHttpResponse response = execution.execute(request, body);
+        if (GZIP.equalsIgnoreCase(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING))) {
+            return new DecompressedResponse(response);
+        }
+        return response;
+    }
+
+    /**
+     * Response decompressing the gzip compressed body of the backend response.
+     * Content-Encoding and Content-Length describe the compressed body, so they are removed from the headers.
+     */
+    private static final class DecompressedResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final HttpHeaders headers = new HttpHeaders();
+        private InputStream body;
+
+        DecompressedResponse(ClientHttpResponse delegate) {
+            this.delegate = delegate;
+            this.headers.putAll(delegate.getHeaders());
+            this.headers.remove(HttpHeaders.CONTENT_ENCODING);
+            this.headers.remove(HttpHeaders.CONTENT_LENGTH);
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new GZIPInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            delegate.close();
+        }
+    }
+}
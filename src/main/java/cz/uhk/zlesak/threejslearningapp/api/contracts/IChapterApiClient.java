@@ -9,12 +9,12 @@ import java.util.List;
 /**
  * Interface for Chapter API Client
  * This interface defines methods for creating, updating, deleting, and retrieving chapters.
- * It extends the IApiClient interface to be able to get the address of the backend service based on the environment.
+ * It extends the IApiClient interface to address the backend service by its logical base URL.
  */
 public interface IChapterApiClient extends IApiClient {
     ChapterEntity createChapter(ChapterEntity chapterEntity) throws Exception;
-    void updateChapter(String chapterId, ChapterEntity chapterEntity) throws Exception;
-    void deleteChapter(String chapterId) throws Exception;
+    ChapterEntity updateChapter(String chapterId, ChapterEntity chapterEntity, String expectedVersion) throws Exception;
+    void deleteChapter(String chapterId, String expectedVersion) throws Exception;
     ChapterEntity getChapterById(String chapterId) throws Exception;
     PageResult<ChapterEntity> getChapters(int page, int limit, String orderBy, SortDirectionEnum sortDirection) throws Exception;
     List<String> getChaptersByAuthor(String authorId) throws Exception;
@@ -9,7 +9,7 @@ import java.util.List;
  * Interface for file-related API client operations.
  * This interface defines methods for creating, retrieving, uploading, downloading, and deleting file entities.
  * Files represent both models and its textures, thus this interface is used in both model and texture api clients.
- * It extends the IApiClient interface to be able to get the address of the backend service based on the environment.
+ * It extends the IApiClient interface to address the backend service by its logical base URL.
  */
 public interface IFileApiClient extends IApiClient {
     Entity getFileEntityById(String fileEntityId) throws Exception;
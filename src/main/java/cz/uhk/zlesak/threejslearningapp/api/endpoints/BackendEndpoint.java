@@ -0,0 +1,68 @@
+package cz.uhk.zlesak.threejslearningapp.api.endpoints;
+
+import lombok.Getter;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BackendEndpoint is a single backend instance known to the BackendEndpointRegistry.
+ * It keeps the health state of the instance and the number of requests currently in flight.
+ */
+public class BackendEndpoint {
+    @Getter
+    private final String baseUrl;
+    private final AtomicBoolean healthy = new AtomicBoolean(true);
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    /**
+     * Constructor for BackendEndpoint.
+     *
+     * @param baseUrl base URL of the backend API of the instance, ending with a slash
+     */
+    BackendEndpoint(String baseUrl) {
+        this.baseUrl = baseUrl;
+    }
+
+    /**
+     * Checks whether the instance passed its last health check.
+     *
+     * @return true if the instance is healthy
+     */
+    public boolean isHealthy() {
+        return healthy.get();
+    }
+
+    /**
+     * Sets the health state of the instance.
+     *
+     * @param healthy new health state
+     * @return true if the health state changed
+     */
+    boolean setHealthy(boolean healthy) {
+        return this.healthy.getAndSet(healthy) != healthy;
+    }
+
+    /**
+     * Returns the number of requests currently in flight.
+     *
+     * @return requests in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    /**
+     * Marks the start of a request sent to the instance.
+     */
+    void requestStarted() {
+        inFlight.incrementAndGet();
+    }
+
+    /**
+     * Marks the end of a request sent to the instance.
+     */
+    void requestFinished() {
+        inFlight.decrementAndGet();
+    }
+}
@@ -0,0 +1,115 @@
+package cz.uhk.zlesak.threejslearningapp.api.endpoints;
+
+import cz.uhk.zlesak.threejslearningapp.exceptions.BackendUnavailableException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * BackendEndpointInterceptor sends the requests addressed to the logical backend base URL to a backend instance chosen by the BackendEndpointRegistry.
+ * The request stays in flight until its response is closed, so streamed downloads are counted for their whole duration.
+ *
+ * @see BackendEndpointRegistry
+ */
+@Component
+public class BackendEndpointInterceptor implements ClientHttpRequestInterceptor {
+    private final BackendEndpointRegistry endpointRegistry;
+
+    /**
+     * Constructor for BackendEndpointInterceptor.
+     *
+     * @param endpointRegistry registry of the backend instances
+     */
+    public BackendEndpointInterceptor(BackendEndpointRegistry endpointRegistry) {
+        this.endpointRegistry = endpointRegistry;
+    }
+
+    /**
+     * Rewrites the request to the chosen backend instance and tracks it as in flight until the response is closed.
+     *
+     * @param request   the request
+     * @param body      the body of the request
+     * @param execution the request execution
+     * @return response of the backend instance
+     * @throws IOException if the backend instance cannot be reached
+     */
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        if (!endpointRegistry.isLogical(request.getURI())) {
+            return execution.execute(request, body);
+        }
+        BackendEndpoint endpoint = endpointRegistry.choose();
+        URI target = endpointRegistry.resolve(request.getURI(), endpoint);
+        endpoint.requestStarted();
+        try {
+            ClientHttpResponse response = execution.execute(new HttpRequestWrapper(request) {
+                @Override
+                public URI getURI() {
+                    return target;
+                }
+            }, body);
+            return new InFlightResponse(response, endpoint);
+        } catch (IOException | RuntimeException e) {
+            endpoint.requestFinished();
+            if (e instanceof IOException && !(e instanceof BackendUnavailableException)) {
+                endpointRegistry.connectionFailed(endpoint, e);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Response keeping the request in flight until it is closed.
+     */
+    private static final class InFlightResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final BackendEndpoint endpoint;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        InFlightResponse(ClientHttpResponse delegate, BackendEndpoint endpoint) {
+            this.delegate = delegate;
+            this.endpoint = endpoint;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    endpoint.requestFinished();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package cz.uhk.zlesak.threejslearningapp.api.endpoints;
+
+import cz.uhk.zlesak.threejslearningapp.api.contracts.IApiClient;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationContextException;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * BackendEndpointRegistry holds the backend instances the API clients send their requests to.
+ * The instances are read from the configuration once at startup, the API clients address the logical IApiClient.BASE_URL
+ * and the BackendEndpointInterceptor sends every request to an instance chosen by the configured balancing strategy.
+ * Instances are health checked periodically, an instance failing its health check or a connection is skipped until it passes the check again.
+ * The health check requires the backend to answer the configured backend.health-check.path with a 2xx status, e.g. the Spring Boot /actuator/health,
+ * a backend without such an endpoint needs the checks disabled by an empty path.
+ * When no instance is healthy, all instances are used, so a failing health check never stops the communication completely.
+ *
+ * @see BackendEndpointInterceptor
+ */
+@Slf4j
+@Component
+public class BackendEndpointRegistry {
+    private static final Duration HEALTH_CHECK_TIMEOUT = Duration.ofSeconds(2);
+
+    @Getter
+    private final List<BackendEndpoint> endpoints;
+    @Getter
+    private final String publicBaseUrl;
+    private final BalancingStrategy balancingStrategy;
+    private final String healthCheckPath;
+    private final Duration healthCheckInterval;
+    private final AtomicInteger nextIndex = new AtomicInteger();
+    private HttpClient healthCheckClient;
+    private ScheduledExecutorService healthCheckExecutor;
+
+    /**
+     * Constructor for BackendEndpointRegistry resolving the configured backend instances.
+     *
+     * @param urls                base URLs of the backend API of all instances
+     * @param balancingStrategy   strategy choosing the instance for a request
+     * @param healthCheckPath     path of the health endpoint resolved against the instance URL, empty to disable health checks
+     * @param healthCheckInterval interval between two health checks of an instance
+     * @param publicBaseUrl       base URL of the backend API as reachable from the browser, used for files downloaded by the client directly
+     * @param meterRegistry       registry the health and in flight gauges of the instances are registered to
+     */
+    @Autowired
+    public BackendEndpointRegistry(@Value("${backend.urls:http://kotlin-backend:8080/api/}") List<String> urls,
+                                   @Value("${backend.balancing:ROUND_ROBIN}") BalancingStrategy balancingStrategy,
+                                   @Value("${backend.health-check.path:/actuator/health}") String healthCheckPath,
+                                   @Value("${backend.health-check.interval:10s}") Duration healthCheckInterval,
+                                   @Value("${backend.public-url:http://localhost:8080/api/}") String publicBaseUrl,
+                                   MeterRegistry meterRegistry) {
+        List<String> normalizedUrls = urls.stream().map(String::trim).filter(url -> !url.isEmpty()).map(BackendEndpointRegistry::withSlash).distinct().toList();
+        if (normalizedUrls.isEmpty()) {
+            throw new ApplicationContextException("Není nakonfigurována žádná instance backendu (backend.urls).");
+        }
+        this.endpoints = normalizedUrls.stream().map(BackendEndpoint::new).toList();
+        this.balancingStrategy = balancingStrategy;
+        this.healthCheckPath = healthCheckPath == null ? "" : healthCheckPath.trim();
+        this.healthCheckInterval = healthCheckInterval;
+        this.publicBaseUrl = withSlash(publicBaseUrl.trim());
+        for (BackendEndpoint endpoint : endpoints) {
+            Gauge.builder("backend.endpoint.healthy", endpoint, e -> e.isHealthy() ? 1 : 0)
+                    .description("Whether the backend instance passed its last health check")
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .register(meterRegistry);
+            Gauge.builder("backend.endpoint.in.flight", endpoint, BackendEndpoint::getInFlight)
+                    .description("Requests currently in flight to the backend instance")
+                    .tag("endpoint", endpoint.getBaseUrl())
+                    .register(meterRegistry);
+        }
+        log.info("Backend instance: {}, vyvažování {}", normalizedUrls, balancingStrategy);
+    }
+
+    /**
+     * Starts the periodic health checks, unless they are disabled.
+     */
+    @PostConstruct
+    void startHealthChecks() {
+        if (healthCheckPath.isEmpty() || healthCheckInterval.isZero() || healthCheckInterval.isNegative()) {
+            log.info("Kontrola dostupnosti instancí backendu je vypnuta");
+            return;
+        }
+        log.info("Kontrola dostupnosti instancí backendu na cestě {} každých {}", healthCheckPath, healthCheckInterval);
+        healthCheckClient = HttpClient.newBuilder().connectTimeout(HEALTH_CHECK_TIMEOUT).build();
+        healthCheckExecutor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("backend-health-check").factory());
+        healthCheckExecutor.scheduleWithFixedDelay(this::checkAll, 0, healthCheckInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic health checks.
+     */
+    @PreDestroy
+    void stopHealthChecks() {
+        if (healthCheckExecutor != null) {
+            healthCheckExecutor.shutdownNow();
+        }
+    }
+
+    /**
+     * Chooses the backend instance for a request.
+     *
+     * @return chosen instance
+     */
+    public BackendEndpoint choose() {
+        List<BackendEndpoint> candidates = endpoints.stream().filter(BackendEndpoint::isHealthy).toList();
+        if (candidates.isEmpty()) {
+            candidates = endpoints;
+        }
+        int start = Math.floorMod(nextIndex.getAndIncrement(), candidates.size());
+        if (balancingStrategy == BalancingStrategy.ROUND_ROBIN || candidates.size() == 1) {
+            return candidates.get(start);
+        }
+        BackendEndpoint best = candidates.get(start);
+        for (int i = 1; i < candidates.size(); i++) {
+            BackendEndpoint candidate = candidates.get((start + i) % candidates.size());
+            if (candidate.getInFlight() < best.getInFlight()) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Resolves the URL addressed to the logical backend base URL to the URL of the instance.
+     *
+     * @param logicalUrl URL starting with IApiClient.BASE_URL
+     * @param endpoint   instance the request is sent to
+     * @return URI of the request on the instance
+     */
+    public URI resolve(URI logicalUrl, BackendEndpoint endpoint) {
+        return URI.create(endpoint.getBaseUrl() + logicalUrl.toString().substring(IApiClient.BASE_URL.length()));
+    }
+
+    /**
+     * Checks whether the URL is addressed to the logical backend base URL.
+     *
+     * @param url request URL
+     * @return true if the request has to be sent to one of the instances
+     */
+    public boolean isLogical(URI url) {
+        return url.toString().startsWith(IApiClient.BASE_URL);
+    }
+
+    /**
+     * Marks the instance unhealthy after a failed connection, it is skipped until it passes the next health check.
+     * Without health checks the instance would never come back, so it stays in use in that case.
+     *
+     * @param endpoint instance the connection failed to
+     * @param cause    connection failure
+     */
+    public void connectionFailed(BackendEndpoint endpoint, Exception cause) {
+        if (healthCheckExecutor != null && endpoint.setHealthy(false)) {
+            log.warn("Instance backendu {} je nedostupná: {}", endpoint.getBaseUrl(), cause.getMessage());
+        }
+    }
+
+    /**
+     * Runs the health check of all instances.
+     */
+    private void checkAll() {
+        endpoints.forEach(this::check);
+    }
+
+    /**
+     * Runs the health check of a single instance, any 2xx response means the instance is healthy.
+     *
+     * @param endpoint checked instance
+     */
+    private void check(BackendEndpoint endpoint) {
+        boolean healthy;
+        int status = 0;
+        try {
+            HttpRequest request = HttpRequest.newBuilder(URI.create(endpoint.getBaseUrl()).resolve(healthCheckPath))
+                    .timeout(HEALTH_CHECK_TIMEOUT)
+                    .GET()
+                    .build();
+            status = healthCheckClient.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            healthy = status >= 200 && status < 300;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (Exception e) {
+            healthy = false;
+        }
+        if (endpoint.setHealthy(healthy)) {
+            if (healthy) {
+                log.info("Instance backendu {} je opět dostupná", endpoint.getBaseUrl());
+            } else if (status == 404) {
+                log.warn("Instance backendu {} nemá endpoint kontroly dostupnosti {}, nastavte backend.health-check.path nebo kontrolu vypněte prázdnou cestou",
+                        endpoint.getBaseUrl(), healthCheckPath);
+            } else {
+                log.warn("Instance backendu {} neprošla kontrolou dostupnosti", endpoint.getBaseUrl());
+            }
+        }
+    }
+
+    /**
+     * Appends the trailing slash to the base URL when missing.
+     *
+     * @param url base URL
+     * @return base URL ending with a slash
+     */
+    private static String withSlash(String url) {
+        return url.endsWith("/") ? url : url + "/";
+    }
+}
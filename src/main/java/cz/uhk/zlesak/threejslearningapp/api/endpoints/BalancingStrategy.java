@@ -0,0 +1,15 @@
+package cz.uhk.zlesak.threejslearningapp.api.endpoints;
+
+/**
+ * Strategy used by the BackendEndpointRegistry to choose a backend instance for a request.
+ */
+public enum BalancingStrategy {
+    /**
+     * Healthy instances are used one after another.
+     */
+    ROUND_ROBIN,
+    /**
+     * The healthy instance with the fewest requests in flight is used, ties are resolved in round robin order.
+     */
+    LEAST_IN_FLIGHT
+}
@@ -0,0 +1,426 @@
+package cz.uhk.zlesak.threejslearningapp.api.resilience;
+
+import cz.uhk.zlesak.threejslearningapp.cache.StaleResponseCache;
+import cz.uhk.zlesak.threejslearningapp.cache.StaleResponseCache.StaleResponse;
+import cz.uhk.zlesak.threejslearningapp.exceptions.BackendUnavailableException;
+import cz.uhk.zlesak.threejslearningapp.metrics.BackendApiMetrics;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.core.IntervalFunction;
+import io.github.resilience4j.micrometer.tagged.TaggedBulkheadMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedCircuitBreakerMetrics;
+import io.github.resilience4j.micrometer.tagged.TaggedRetryMetrics;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StreamUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * BackendResilienceInterceptor protects the frontend from a slow or failing backend.
+ * Every call passes a bulkhead limiting the concurrent calls of its kind, so large model and texture downloads cannot take
+ * all connections from the small metadata calls, and a circuit breaker of its endpoint group (API client and kind),
+ * which rejects the calls immediately while the group keeps failing.
+ * Idempotent GET calls are retried with an exponential jittered backoff on IO errors and 5xx responses.
+ * The last successful response of every metadata GET call is kept in the StaleResponseCache and served with a Warning header
+ * when the call is rejected or fails, so the listings and chapters stay readable during a backend outage.
+ * State of the circuit breakers, bulkheads and retries is published as Micrometer metrics.
+ * <p>
+ * The interceptor has to be the last one of the RestTemplate, so every retry executes the underlying request again.
+ *
+ * @see StaleResponseCache
+ */
+@Slf4j
+@Component
+public class BackendResilienceInterceptor implements ClientHttpRequestInterceptor {
+    static final String DOWNLOAD = "download";
+    static final String METADATA = "metadata";
+    private static final String API_PREFIX = "/api/";
+    private static final String STALE_WARNING = "110 - \"Response is Stale\"";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RetryRegistry retryRegistry;
+    private final Bulkhead downloadBulkhead;
+    private final Bulkhead metadataBulkhead;
+    private final StaleResponseCache staleResponseCache;
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for BackendResilienceInterceptor.
+     *
+     * @param downloadMaxConcurrent   maximal number of concurrent download calls
+     * @param downloadMaxWait         maximal time a download call waits for a free slot
+     * @param metadataMaxConcurrent   maximal number of concurrent metadata calls
+     * @param metadataMaxWait         maximal time a metadata call waits for a free slot
+     * @param failureRateThreshold    failure rate in percent opening the circuit breaker
+     * @param slidingWindowSize       number of calls the failure rate is computed from
+     * @param minimumNumberOfCalls    minimal number of calls before the failure rate is evaluated
+     * @param openStateDuration       time the circuit breaker stays open before it lets trial calls through
+     * @param slowCallDuration        duration after which a call is counted as slow
+     * @param retryMaxAttempts        maximal number of attempts of a GET call including the first one
+     * @param retryInitialBackoff     backoff before the first retry, doubled with every further retry and randomized by 50 %
+     * @param staleResponseCache      cache of the last successful metadata responses
+     * @param meterRegistry           registry the resilience metrics are published to
+     */
+    public BackendResilienceInterceptor(@Value("${backend.resilience.bulkhead.download.max-concurrent:16}") int downloadMaxConcurrent,
+                                        @Value("${backend.resilience.bulkhead.download.max-wait:2s}") Duration downloadMaxWait,
+                                        @Value("${backend.resilience.bulkhead.metadata.max-concurrent:64}") int metadataMaxConcurrent,
+                                        @Value("${backend.resilience.bulkhead.metadata.max-wait:200ms}") Duration metadataMaxWait,
+                                        @Value("${backend.resilience.circuit-breaker.failure-rate-threshold:50}") float failureRateThreshold,
+                                        @Value("${backend.resilience.circuit-breaker.sliding-window-size:20}") int slidingWindowSize,
+                                        @Value("${backend.resilience.circuit-breaker.minimum-number-of-calls:10}") int minimumNumberOfCalls,
+                                        @Value("${backend.resilience.circuit-breaker.open-state-duration:10s}") Duration openStateDuration,
+                                        @Value("${backend.resilience.circuit-breaker.slow-call-duration:5s}") Duration slowCallDuration,
+                                        @Value("${backend.resilience.retry.max-attempts:3}") int retryMaxAttempts,
+                                        @Value("${backend.resilience.retry.initial-backoff:100ms}") Duration retryInitialBackoff,
+                                        StaleResponseCache staleResponseCache,
+                                        MeterRegistry meterRegistry) {
+        this.staleResponseCache = staleResponseCache;
+        this.meterRegistry = meterRegistry;
+
+        this.circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(slidingWindowSize)
+                .minimumNumberOfCalls(minimumNumberOfCalls)
+                .failureRateThreshold(failureRateThreshold)
+                .slowCallDurationThreshold(slowCallDuration)
+                .waitDurationInOpenState(openStateDuration)
+                .permittedNumberOfCallsInHalfOpenState(3)
+                .automaticTransitionFromOpenToHalfOpenEnabled(true)
+                .build());
+
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+        this.downloadBulkhead = bulkheadRegistry.bulkhead(DOWNLOAD, BulkheadConfig.custom()
+                .maxConcurrentCalls(downloadMaxConcurrent)
+                .maxWaitDuration(downloadMaxWait)
+                .build());
+        this.metadataBulkhead = bulkheadRegistry.bulkhead(METADATA, BulkheadConfig.custom()
+                .maxConcurrentCalls(metadataMaxConcurrent)
+                .maxWaitDuration(metadataMaxWait)
+                .build());
+
+        this.retryRegistry = RetryRegistry.of(RetryConfig.<ClientHttpResponse>custom()
+                .maxAttempts(retryMaxAttempts)
+                .intervalFunction(IntervalFunction.ofExponentialRandomBackoff(retryInitialBackoff, 2.0, 0.5))
+                .retryOnException(e -> e instanceof IOException && !(e instanceof BackendUnavailableException))
+                .retryOnResult(BackendResilienceInterceptor::isServerError)
+                .build());
+
+        TaggedCircuitBreakerMetrics.ofCircuitBreakerRegistry(circuitBreakerRegistry).bindTo(meterRegistry);
+        TaggedBulkheadMetrics.ofBulkheadRegistry(bulkheadRegistry).bindTo(meterRegistry);
+        TaggedRetryMetrics.ofRetryRegistry(retryRegistry).bindTo(meterRegistry);
+    }
+
+    /**
+     * Executes the request guarded by the bulkhead and the circuit breaker of its endpoint group, retries idempotent calls
+     * and falls back to the stale response of metadata calls when the backend is unavailable.
+     *
+     * @param request   the request
+     * @param body      the body of the request
+     * @param execution the request execution
+     * @return response of the backend or the stale response
+     * @throws IOException if the backend is unavailable and no stale response exists
+     */
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        URI uri = request.getURI();
+        boolean download = BackendApiMetrics.endpointOf(uri).contains(DOWNLOAD);
+        String group = BackendApiMetrics.clientOf(uri) + "-" + (download ? DOWNLOAD : METADATA);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(group);
+        Bulkhead bulkhead = download ? downloadBulkhead : metadataBulkhead;
+        boolean idempotent = HttpMethod.GET.equals(request.getMethod());
+        boolean stalable = idempotent && !download;
+
+        ClientHttpResponse response;
+        try {
+            response = idempotent
+                    ? executeWithRetry(request, body, execution, group, circuitBreaker, bulkhead)
+                    : executeOnce(request, body, execution, circuitBreaker, bulkhead);
+        } catch (IOException e) {
+            ClientHttpResponse stale = stalable ? staleResponse(uri, group, e.getMessage()) : null;
+            if (stale == null) {
+                throw e;
+            }
+            return stale;
+        }
+
+        if (!stalable) {
+            return response;
+        }
+        if (isServerError(response)) {
+            ClientHttpResponse stale = staleResponse(uri, group, "HTTP " + response.getStatusCode().value());
+            if (stale != null) {
+                response.close();
+                return stale;
+            }
+            return response;
+        }
+        if (!response.getStatusCode().is2xxSuccessful()) {
+            return response;
+        }
+        return remember(uri, response);
+    }
+
+    /**
+     * Executes the GET request with the retry of its endpoint group.
+     *
+     * @param request        the request
+     * @param body           the body of the request
+     * @param execution      the request execution
+     * @param group          endpoint group of the request
+     * @param circuitBreaker circuit breaker of the endpoint group
+     * @param bulkhead       bulkhead of the request kind
+     * @return response of the last attempt
+     * @throws IOException if the last attempt fails
+     */
+    private ClientHttpResponse executeWithRetry(HttpRequest request, byte[] body, ClientHttpRequestExecution execution, String group,
+                                                CircuitBreaker circuitBreaker, Bulkhead bulkhead) throws IOException {
+        Retry retry = retryRegistry.retry(group);
+        Retry.Context<ClientHttpResponse> context = retry.context();
+        while (true) {
+            try {
+                ClientHttpResponse response = executeOnce(request, body, execution, circuitBreaker, bulkhead);
+                if (context.onResult(response)) {
+                    log.debug("Opakování volání backendu {} po odpovědi {}", request.getURI(), response.getStatusCode().value());
+                    response.close();
+                    continue;
+                }
+                context.onComplete();
+                return response;
+            } catch (IOException e) {
+                try {
+                    context.onError(e);
+                    log.debug("Opakování volání backendu {} po chybě: {}", request.getURI(), e.getMessage());
+                } catch (IOException | RuntimeException rethrown) {
+                    throw rethrown;
+                } catch (Exception other) {
+                    throw new IOException(other);
+                }
+            }
+        }
+    }
+
+    /**
+     * Executes a single attempt of the request inside the bulkhead and the circuit breaker.
+     * The bulkhead permit is held until the response is closed, so streamed downloads are limited for their whole duration.
+     *
+     * @param request        the request
+     * @param body           the body of the request
+     * @param execution      the request execution
+     * @param circuitBreaker circuit breaker of the endpoint group
+     * @param bulkhead       bulkhead of the request kind
+     * @return response of the backend
+     * @throws IOException if the call is rejected or the backend cannot be reached
+     */
+    private ClientHttpResponse executeOnce(HttpRequest request, byte[] body, ClientHttpRequestExecution execution,
+                                           CircuitBreaker circuitBreaker, Bulkhead bulkhead) throws IOException {
+        try {
+            bulkhead.acquirePermission();
+        } catch (BulkheadFullException e) {
+            throw new BackendUnavailableException("Překročen limit souběžných volání backendu: " + bulkhead.getName(), circuitBreaker.getName(), e);
+        }
+        try {
+            circuitBreaker.acquirePermission();
+        } catch (CallNotPermittedException e) {
+            bulkhead.onComplete();
+            throw new BackendUnavailableException("Volání backendu je dočasně pozastaveno: " + circuitBreaker.getName(), circuitBreaker.getName(), e);
+        }
+
+        long start = circuitBreaker.getCurrentTimestamp();
+        TimeUnit unit = circuitBreaker.getTimestampUnit();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException | RuntimeException e) {
+            circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start, unit, e);
+            bulkhead.onComplete();
+            throw e;
+        }
+        long duration = circuitBreaker.getCurrentTimestamp() - start;
+        if (isServerError(response)) {
+            circuitBreaker.onError(duration, unit, new IOException("Backend odpověděl chybou " + response.getStatusCode().value()));
+        } else {
+            circuitBreaker.onSuccess(duration, unit);
+        }
+        return new PermitReleasingResponse(response, bulkhead);
+    }
+
+    /**
+     * Reads the successful metadata response, keeps it as the stale fallback and returns its buffered copy.
+     *
+     * @param uri      URI of the request
+     * @param response successful response
+     * @return buffered response
+     * @throws IOException if the response body cannot be read
+     */
+    private ClientHttpResponse remember(URI uri, ClientHttpResponse response) throws IOException {
+        StaleResponse stored;
+        try (response) {
+            HttpHeaders headers = new HttpHeaders();
+            headers.putAll(response.getHeaders());
+            stored = new StaleResponse(response.getStatusCode().value(), headers, StreamUtils.copyToByteArray(response.getBody()));
+        }
+        staleResponseCache.put(staleKeyOf(uri), stored);
+        return new BufferedResponse(stored, null);
+    }
+
+    /**
+     * Returns the stale response of the request, if there is any.
+     *
+     * @param uri    URI of the request
+     * @param group  endpoint group of the request
+     * @param reason reason the backend response is not used
+     * @return stale response with the Warning header or null
+     */
+    private ClientHttpResponse staleResponse(URI uri, String group, String reason) {
+        StaleResponse stale = staleResponseCache.get(staleKeyOf(uri));
+        if (stale == null) {
+            return null;
+        }
+        log.warn("Backend je nedostupný ({}), použita uložená odpověď pro {}", reason, uri);
+        Counter.builder("backend.api.stale.responses")
+                .description("Počet odpovědí obsloužených z uložených dat kvůli nedostupnému backendu")
+                .tag("group", group)
+                .register(meterRegistry)
+                .increment();
+        return new BufferedResponse(stale, STALE_WARNING);
+    }
+
+    /**
+     * Returns the key of the stale response, which is the path after /api/ with the query,
+     * so the same call to any backend instance shares the stored response.
+     *
+     * @param uri URI of the request
+     * @return key of the stale response
+     */
+    private static String staleKeyOf(URI uri) {
+        String path = uri.getRawPath() == null ? "" : uri.getRawPath();
+        int apiIndex = path.indexOf(API_PREFIX);
+        String key = apiIndex == -1 ? path : path.substring(apiIndex + API_PREFIX.length());
+        return uri.getRawQuery() == null ? key : key + "?" + uri.getRawQuery();
+    }
+
+    /**
+     * Checks whether the response is a 5xx server error.
+     *
+     * @param response the response
+     * @return true for 5xx responses
+     */
+    private static boolean isServerError(ClientHttpResponse response) {
+        try {
+            return response.getStatusCode().is5xxServerError();
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Response releasing the bulkhead permit when it is closed.
+     */
+    private static final class PermitReleasingResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final Bulkhead bulkhead;
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        PermitReleasingResponse(ClientHttpResponse delegate, Bulkhead bulkhead) {
+            this.delegate = delegate;
+            this.bulkhead = bulkhead;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                if (closed.compareAndSet(false, true)) {
+                    bulkhead.onComplete();
+                }
+            }
+        }
+    }
+
+    /**
+     * Response served from a stored response body.
+     */
+    private static final class BufferedResponse implements ClientHttpResponse {
+        private final StaleResponse response;
+        private final HttpHeaders headers = new HttpHeaders();
+
+        BufferedResponse(StaleResponse response, String warning) {
+            this.response = response;
+            this.headers.putAll(response.headers());
+            if (warning != null) {
+                this.headers.add(HttpHeaders.WARNING, warning);
+            }
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() {
+            return HttpStatusCode.valueOf(response.status());
+        }
+
+        @Override
+        public String getStatusText() {
+            return "";
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public InputStream getBody() {
+            return new ByteArrayInputStream(response.body());
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package cz.uhk.zlesak.threejslearningapp.cache;
+
+import cz.uhk.zlesak.threejslearningapp.domain.chapter.ChapterEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * ChapterEntityCache is the application wide cache of chapter entities keyed by chapter ID.
+ * Chapter contents are shared by all sessions displaying the same chapter instead of being held by every view.
+ * Chapters changed on other nodes of a cluster are dropped by the broadcast invalidations, the maximal age bounds the staleness when one is lost.
+ * The invalidations are delivered on a best effort basis, so with an invalidation bus configured the chapters always expire,
+ * after the cluster maximal age unless a shorter maximal age is set.
+ */
+@Component
+public class ChapterEntityCache extends WeightedLruCache<String, ChapterEntity> {
+
+    /**
+     * Constructor for ChapterEntityCache.
+     *
+     * @param maxBytes              maximal size of all cached chapters in bytes
+     * @param maxAge                maximal age of a cached chapter, zero for chapters that never expire on a single node
+     * @param invalidationTransport transport of the invalidation bus, none for a single node deployment
+     * @param clusterMaxAge         maximal age of a cached chapter used with an invalidation bus when no shorter maximal age is set
+     */
+    public ChapterEntityCache(@Value("${cache.chapter.max-bytes:33554432}") long maxBytes,
+                              @Value("${cache.chapter.max-age:0s}") Duration maxAge,
+                              @Value("${cache.invalidation.transport:none}") String invalidationTransport,
+                              @Value("${cache.chapter.cluster-max-age:5m}") Duration clusterMaxAge) {
+        super("chapter", maxBytes, effectiveMaxAge(maxAge, invalidationTransport, clusterMaxAge), EntityWeigher::weigh);
+    }
+
+    /**
+     * Returns the maximal age of the cached chapters, bounded by the cluster maximal age when an invalidation bus is configured.
+     *
+     * @param maxAge                configured maximal age, zero or negative for chapters that never expire
+     * @param invalidationTransport transport of the invalidation bus
+     * @param clusterMaxAge         maximal age used with an invalidation bus
+     * @return maximal age of the cached chapters
+     */
+    static Duration effectiveMaxAge(Duration maxAge, String invalidationTransport, Duration clusterMaxAge) {
+        if ("none".equals(invalidationTransport) || !clusterMaxAge.isPositive()) {
+            return maxAge;
+        }
+        return maxAge.isPositive() && maxAge.compareTo(clusterMaxAge) < 0 ? maxAge : clusterMaxAge;
+    }
+}
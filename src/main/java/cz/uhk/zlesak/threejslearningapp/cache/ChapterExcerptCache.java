@@ -0,0 +1,21 @@
+package cz.uhk.zlesak.threejslearningapp.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * ChapterExcerptCache keeps the Markdown excerpts of chapters shown in the chapter listing, keyed by chapter ID and version.
+ * Every version of a chapter is converted once and the short excerpt is shared by all sessions listing the chapter.
+ */
+@Component
+public class ChapterExcerptCache extends WeightedLruCache<String, String> {
+
+    /**
+     * Constructor for ChapterExcerptCache.
+     *
+     * @param maxBytes maximal size of all cached excerpts in bytes
+     */
+    public ChapterExcerptCache(@Value("${cache.chapter-excerpt.max-bytes:1048576}") long maxBytes) {
+        super("chapter-excerpt", maxBytes, excerpt -> 64L + 2L * excerpt.length());
+    }
+}
@@ -0,0 +1,31 @@
+package cz.uhk.zlesak.threejslearningapp.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * CompressedAssetCache keeps gzip compressed variants of immutable assets streamed to the browser, keyed by the content hash of the asset.
+ * Every asset is compressed once and the compressed bytes are served to all clients accepting gzip.
+ * Only the bytes are shared by the hash, the file name of the asset is resolved by its ID.
+ */
+@Component
+public class CompressedAssetCache extends WeightedLruCache<String, CompressedAssetCache.CompressedAsset> {
+
+    /**
+     * Constructor for CompressedAssetCache.
+     *
+     * @param maxBytes maximal size of all cached compressed assets in bytes
+     */
+    public CompressedAssetCache(@Value("${cache.compressed-asset.max-bytes:67108864}") long maxBytes) {
+        super("compressed-asset", maxBytes, asset -> 256L + asset.content().length);
+    }
+
+    /**
+     * Compressed variant of an asset.
+     *
+     * @param content          gzip compressed content
+     * @param originalLength   length of the uncompressed content in bytes
+     */
+    public record CompressedAsset(byte[] content, long originalLength) {
+    }
+}
@@ -0,0 +1,136 @@
+package cz.uhk.zlesak.threejslearningapp.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * ContentHashIndex maps the backend IDs of models and textures to the hashes and file names of their content and the content of uploads
+ * to the entities the backend created for them.
+ * Services use it to link repeated uploads of identical assets to the existing entities, to send the hash as the ETag of the
+ * streamed files and to key the shared file caches by the content, so identical files stored under several IDs are cached once.
+ * Only the bytes are shared by the hash, the file name stays with the ID, so a file cached for one asset is served under the name of the requested one.
+ * The index knows the assets uploaded or downloaded since the start of the application and the assets whose metadata carried the content hash.
+ * A hash computed from the downloaded bytes is never replaced by the one from the metadata, which only versions the URLs of the assets not downloaded yet.
+ * Both mappings are bounded least recently used caches with every entry weighing one, the uploads expire after the configured maximal age.
+ */
+@Component
+public class ContentHashIndex {
+    private final WeightedLruCache<String, IndexedContent> contentsById;
+    private final WeightedLruCache<String, Object> uploadsByContent;
+
+    /**
+     * Constructor for ContentHashIndex.
+     *
+     * @param maxEntries   maximal number of entries of each mapping
+     * @param uploadMaxAge maximal age of a recorded upload
+     */
+    public ContentHashIndex(@Value("${cache.content-hash.max-entries:100000}") long maxEntries,
+                            @Value("${cache.content-upload.max-age:1h}") Duration uploadMaxAge) {
+        this.contentsById = new WeightedLruCache<>("content-hash", maxEntries, content -> 1L);
+        this.uploadsByContent = new WeightedLruCache<>("content-upload", maxEntries, uploadMaxAge, upload -> 1L);
+    }
+
+    /**
+     * Returns the content hash of the asset.
+     *
+     * @param assetId backend ID of the model or texture
+     * @return content hash or null when the content of the asset was not seen yet
+     */
+    public String getHash(String assetId) {
+        IndexedContent content = assetId == null ? null : contentsById.get(assetId);
+        return content != null ? content.hash() : null;
+    }
+
+    /**
+     * Returns the file name of the asset.
+     *
+     * @param assetId backend ID of the model or texture
+     * @return file name or null when the content of the asset was not seen yet
+     */
+    public String getFileName(String assetId) {
+        IndexedContent content = assetId == null ? null : contentsById.get(assetId);
+        return content != null ? content.fileName() : null;
+    }
+
+    /**
+     * Records the content hash and the file name of the asset.
+     *
+     * @param assetId  backend ID of the model or texture
+     * @param hash     content hash of the asset
+     * @param fileName file name of the asset
+     */
+    public void registerContent(String assetId, String hash, String fileName) {
+        if (assetId != null && hash != null) {
+            contentsById.put(assetId, new IndexedContent(hash, fileName));
+        }
+    }
+
+    /**
+     * Records the content hash of the asset taken from its metadata, unless the content of the asset is already known.
+     * The file name is not known from the metadata, it is recorded when the asset is downloaded.
+     *
+     * @param assetId backend ID of the model or texture
+     * @param hash    content hash of the asset, null when the metadata carry none
+     */
+    public void registerHash(String assetId, String hash) {
+        if (assetId != null && hash != null && !hash.isBlank() && contentsById.get(assetId) == null) {
+            contentsById.put(assetId, new IndexedContent(hash, null));
+        }
+    }
+
+    /**
+     * Returns the cache key of the asset, which is its content hash when known and its ID otherwise.
+     *
+     * @param assetId backend ID of the model or texture
+     * @return cache key of the asset
+     */
+    public String cacheKeyOf(String assetId) {
+        String hash = getHash(assetId);
+        return hash != null ? hash : assetId;
+    }
+
+    /**
+     * Returns the entity created by the backend for an identical upload.
+     *
+     * @param uploadKey key of the upload composed of the uploading user, the requested name and the content hashes of the uploaded files
+     * @param type      type of the entity
+     * @param <T>       type of the entity
+     * @return entity of the identical upload or null
+     */
+    public <T> T findUpload(String uploadKey, Class<T> type) {
+        Object upload = uploadsByContent.get(uploadKey);
+        return type.isInstance(upload) ? type.cast(upload) : null;
+    }
+
+    /**
+     * Records the entity created by the backend for the upload.
+     *
+     * @param uploadKey key of the upload composed of the content hashes of the uploaded files
+     * @param entity    entity created by the backend
+     */
+    public void registerUpload(String uploadKey, Object entity) {
+        if (entity != null) {
+            uploadsByContent.put(uploadKey, entity);
+        }
+    }
+
+    /**
+     * Forgets the upload, e.g. when its entity no longer exists.
+     *
+     * @param uploadKey key of the upload composed of the content hashes of the uploaded files
+     */
+    public void invalidateUpload(String uploadKey) {
+        uploadsByContent.invalidate(uploadKey);
+    }
+
+    /**
+     * Content of an asset.
+     *
+     * @param hash     content hash of the asset
+     * @param fileName file name of the asset
+     */
+    private record IndexedContent(String hash, String fileName) {
+    }
+}
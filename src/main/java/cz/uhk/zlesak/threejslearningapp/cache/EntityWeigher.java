@@ -0,0 +1,69 @@
+package cz.uhk.zlesak.threejslearningapp.cache;
+
+import cz.uhk.zlesak.threejslearningapp.domain.chapter.ChapterEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.common.Entity;
+import cz.uhk.zlesak.threejslearningapp.domain.model.QuickModelEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.texture.QuickTextureEntity;
+
+/**
+ * EntityWeigher provides approximate sizes of the entities in bytes used as weights in the shared caches.
+ * Strings are counted as two bytes per character, files by their size and a constant overhead is added for the object itself.
+ */
+public abstract class EntityWeigher {
+    private static final long ENTITY_OVERHEAD = 256;
+
+    /**
+     * Approximates the size of the chapter entity including its content and models metadata.
+     *
+     * @param chapterEntity chapter entity to weigh
+     * @return approximate size of the chapter in bytes
+     */
+    public static long weigh(ChapterEntity chapterEntity) {
+        long weight = weighEntity(chapterEntity) + stringWeight(chapterEntity.getContent()) + stringWeight(chapterEntity.getMetadata());
+        if (chapterEntity.getModels() != null) {
+            weight += chapterEntity.getModels().size() * ENTITY_OVERHEAD;
+        }
+        return weight;
+    }
+
+    /**
+     * Approximates the size of the model metadata including the texture areas of its textures.
+     *
+     * @param model model metadata to weigh
+     * @return approximate size of the model metadata in bytes
+     */
+    public static long weigh(QuickModelEntity model) {
+        long weight = ENTITY_OVERHEAD + stringWeight(model.getMetadataId());
+        if (model.getModel() != null) {
+            weight += stringWeight(model.getModel().getId()) + stringWeight(model.getModel().getName());
+        }
+        for (QuickTextureEntity texture : model.getAllTextures()) {
+            weight += ENTITY_OVERHEAD + stringWeight(texture.getTextureFileId()) + stringWeight(texture.getName()) + stringWeight(texture.getCsvContent());
+        }
+        return weight;
+    }
+
+    /**
+     * Approximates the size of the entity including its file.
+     *
+     * @param entity entity to weigh
+     * @return approximate size of the entity in bytes
+     */
+    public static long weighEntity(Entity entity) {
+        long weight = ENTITY_OVERHEAD + stringWeight(entity.getId()) + stringWeight(entity.getName()) + stringWeight(entity.getCreatorId());
+        if (entity.getFile() != null) {
+            weight += entity.getFile().getSize();
+        }
+        return weight;
+    }
+
+    /**
+     * Approximates the size of the string.
+     *
+     * @param value string to weigh, may be null
+     * @return approximate size of the string in bytes
+     */
+    private static long stringWeight(String value) {
+        return value == null ? 0 : 2L * value.length();
+    }
+}
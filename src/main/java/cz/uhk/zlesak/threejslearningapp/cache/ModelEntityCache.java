@@ -0,0 +1,32 @@
+package cz.uhk.zlesak.threejslearningapp.cache;
+
+import cz.uhk.zlesak.threejslearningapp.domain.model.ModelEntity;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * ModelEntityCache is the application wide cache of downloaded model files keyed by their content hash, or by model ID while the hash is not known.
+ * Model files are shared by all sessions and stream requests instead of being held by every service instance.
+ */
+@Component
+public class ModelEntityCache extends WeightedLruCache<String, ModelEntity> {
+
+    /**
+     * Maximal size of a single cached model file, larger files are streamed without being copied for the cache.
+     */
+    @Getter
+    private final long maxEntryBytes;
+
+    /**
+     * Constructor for ModelEntityCache.
+     *
+     * @param maxBytes      maximal size of all cached model files in bytes
+     * @param maxEntryBytes maximal size of a single cached model file in bytes, bounds the copy buffered while the file is downloaded
+     */
+    public ModelEntityCache(@Value("${cache.model.max-bytes:268435456}") long maxBytes,
+                            @Value("${cache.model.max-entry-bytes:33554432}") long maxEntryBytes) {
+        super("model", maxBytes, EntityWeigher::weighEntity);
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+    }
+}
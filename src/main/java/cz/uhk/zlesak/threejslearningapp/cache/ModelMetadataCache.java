@@ -0,0 +1,88 @@
+package cz.uhk.zlesak.threejslearningapp.cache;
+
+import cz.uhk.zlesak.threejslearningapp.domain.model.QuickModelEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.texture.QuickTextureEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * ModelMetadataCache is the application wide cache of the model metadata (model file, textures and their areas) keyed by the model ID.
+ * It lets any view resolve a model from its URL without the metadata being handed over in the session.
+ * Models the backend does not know are remembered for a short time as well (negative caching),
+ * so repeated requests of a wrong or deleted model URL do not reach the backend every time.
+ * The content hashes carried by the stored metadata are recorded in the ContentHashIndex, so the URLs of the model and texture files
+ * are versioned as soon as the metadata are known, e.g. from a chapter or a listing, without downloading the files on this node.
+ *
+ * @see ContentHashIndex
+ */
+@Component
+public class ModelMetadataCache extends WeightedLruCache<String, QuickModelEntity> {
+    private final WeightedLruCache<String, Boolean> missing;
+    private final ContentHashIndex contentHashIndex;
+
+    /**
+     * Constructor for ModelMetadataCache.
+     *
+     * @param maxBytes         maximal size of all cached model metadata in bytes
+     * @param maxAge           maximal age of the cached model metadata
+     * @param missingMaxAge    maximal age of a remembered unknown model
+     * @param missingMaxKeys   maximal number of remembered unknown models
+     * @param contentHashIndex index recording the content hashes carried by the metadata
+     */
+    public ModelMetadataCache(@Value("${cache.model-metadata.max-bytes:4194304}") long maxBytes,
+                              @Value("${cache.model-metadata.max-age:10m}") Duration maxAge,
+                              @Value("${cache.model-metadata.missing-max-age:30s}") Duration missingMaxAge,
+                              @Value("${cache.model-metadata.missing-max-keys:1024}") long missingMaxKeys,
+                              ContentHashIndex contentHashIndex) {
+        super("model-metadata", maxBytes, maxAge, EntityWeigher::weigh);
+        this.missing = new WeightedLruCache<>("model-metadata-missing", missingMaxKeys, missingMaxAge, ignored -> 1L);
+        this.contentHashIndex = contentHashIndex;
+    }
+
+    /**
+     * Returns the cached metadata of the model, loading them when they are missing.
+     * A model the loader does not find is remembered as unknown, until it expires or metadata of the model are stored.
+     *
+     * @param modelId ID of the model
+     * @param loader  loader of the model metadata, returns null when the model does not exist
+     * @return metadata of the model, empty if the model does not exist
+     * @throws Exception exception thrown by the loader
+     */
+    public Optional<QuickModelEntity> lookup(String modelId, CacheLoader<QuickModelEntity> loader) throws Exception {
+        QuickModelEntity cached = get(modelId);
+        if (cached != null) {
+            return Optional.of(cached);
+        }
+        if (missing.get(modelId) != null) {
+            return Optional.empty();
+        }
+        QuickModelEntity loaded = loader.load();
+        if (loaded == null) {
+            missing.put(modelId, Boolean.TRUE);
+            return Optional.empty();
+        }
+        put(modelId, loaded);
+        return Optional.of(loaded);
+    }
+
+    /**
+     * Stores the metadata of the model, records the content hashes of its files and forgets that the model was unknown.
+     *
+     * @param modelId ID of the model
+     * @param model   metadata of the model
+     */
+    @Override
+    public void put(String modelId, QuickModelEntity model) {
+        missing.invalidate(modelId);
+        if (model.getModel() != null) {
+            contentHashIndex.registerHash(model.getModel().getId(), model.getModel().getContentHash());
+        }
+        for (QuickTextureEntity texture : model.getAllTextures()) {
+            contentHashIndex.registerHash(texture.getTextureFileId(), texture.getContentHash());
+        }
+        super.put(modelId, model);
+    }
+}
@@ -0,0 +1,32 @@
+package cz.uhk.zlesak.threejslearningapp.cache;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+/**
+ * StaleResponseCache keeps the last successful response of every backend metadata GET call keyed by its URL.
+ * The responses are served as stale data when the backend is unavailable, so listings and chapters stay readable while the circuit breaker is open.
+ */
+@Component
+public class StaleResponseCache extends WeightedLruCache<String, StaleResponseCache.StaleResponse> {
+
+    /**
+     * Constructor for StaleResponseCache.
+     *
+     * @param maxBytes maximal size of all cached responses in bytes
+     */
+    public StaleResponseCache(@Value("${cache.stale-response.max-bytes:16777216}") long maxBytes) {
+        super("stale-response", maxBytes, response -> 256L + response.body().length);
+    }
+
+    /**
+     * Successful backend response.
+     *
+     * @param status  HTTP status code
+     * @param headers response headers
+     * @param body    response body
+     */
+    public record StaleResponse(int status, HttpHeaders headers, byte[] body) {
+    }
+}
@@ -0,0 +1,32 @@
+package cz.uhk.zlesak.threejslearningapp.cache;
+
+import cz.uhk.zlesak.threejslearningapp.domain.texture.TextureEntity;
+import lombok.Getter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * TextureEntityCache is the application wide cache of downloaded texture files keyed by their content hash, or by texture ID while the hash is not known.
+ * Texture files are shared by all sessions and stream requests instead of being held by every service instance.
+ */
+@Component
+public class TextureEntityCache extends WeightedLruCache<String, TextureEntity> {
+
+    /**
+     * Maximal size of a single cached texture file, larger files are streamed without being copied for the cache.
+     */
+    @Getter
+    private final long maxEntryBytes;
+
+    /**
+     * Constructor for TextureEntityCache.
+     *
+     * @param maxBytes      maximal size of all cached texture files in bytes
+     * @param maxEntryBytes maximal size of a single cached texture file in bytes, bounds the copy buffered while the file is downloaded
+     */
+    public TextureEntityCache(@Value("${cache.texture.max-bytes:134217728}") long maxBytes,
+                              @Value("${cache.texture.max-entry-bytes:16777216}") long maxEntryBytes) {
+        super("texture", maxBytes, EntityWeigher::weighEntity);
+        this.maxEntryBytes = Math.min(maxEntryBytes, maxBytes);
+    }
+}
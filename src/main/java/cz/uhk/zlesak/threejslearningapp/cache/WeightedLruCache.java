@@ -0,0 +1,256 @@
+package cz.uhk.zlesak.threejslearningapp.cache;
+
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * WeightedLruCache is a thread safe least recently used cache bounded by the summed weight of its values.
+ * It is the shared, application wide storage for bulk data (chapter contents, model and texture files) so that
+ * individual sessions and views only need to keep the ids of the data they display.
+ * Weight is usually the approximate size of the value in bytes, computed by the provided weigher.
+ * Optionally the values expire after a maximal age, which bounds the staleness of node local caches in a cluster
+ * when an invalidation broadcast by another node is lost.
+ *
+ * @param <K> type of the cache key
+ * @param <V> type of the cached value
+ */
+@Slf4j
+public class WeightedLruCache<K, V> {
+    @Getter
+    private final String name;
+    @Getter
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    @Getter
+    private final Duration maxAge;
+    private final LinkedHashMap<K, CacheEntry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long currentWeight = 0;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    /**
+     * Constructor for WeightedLruCache.
+     *
+     * @param name      name of the cache used in logs and diagnostics
+     * @param maxWeight maximal summed weight of all cached values
+     * @param weigher   function computing the weight of a single value
+     */
+    public WeightedLruCache(String name, long maxWeight, ToLongFunction<V> weigher) {
+        this(name, maxWeight, Duration.ZERO, weigher);
+    }
+
+    /**
+     * Constructor for WeightedLruCache with expiring values.
+     *
+     * @param name      name of the cache used in logs and diagnostics
+     * @param maxWeight maximal summed weight of all cached values
+     * @param maxAge    maximal age of a cached value, zero or negative for values that never expire
+     * @param weigher   function computing the weight of a single value
+     */
+    public WeightedLruCache(String name, long maxWeight, Duration maxAge, ToLongFunction<V> weigher) {
+        this.name = name;
+        this.maxWeight = maxWeight;
+        this.maxAge = maxAge;
+        this.weigher = weigher;
+    }
+
+    /**
+     * Returns the cached value for the key or null if it is not present.
+     *
+     * @param key key of the value
+     * @return cached value or null
+     */
+    public V get(K key) {
+        CacheEntry<V> entry;
+        synchronized (entries) {
+            entry = entries.get(key);
+            if (entry != null && isExpired(entry)) {
+                entries.remove(key);
+                currentWeight -= entry.weight();
+                entry = null;
+            }
+        }
+        if (entry == null) {
+            misses.incrementAndGet();
+            return null;
+        }
+        hits.incrementAndGet();
+        return entry.value();
+    }
+
+    /**
+     * Returns the cached value for the key, loading and caching it with the provided loader when it is missing.
+     * The loader is called outside the cache lock, so slow backend calls do not block other readers.
+     *
+     * @param key    key of the value
+     * @param loader loader used when the value is not cached
+     * @return cached or freshly loaded value
+     * @throws Exception exception thrown by the loader
+     */
+    public V getOrLoad(K key, CacheLoader<V> loader) throws Exception {
+        V value = get(key);
+        if (value != null) {
+            return value;
+        }
+        value = loader.load();
+        if (value != null) {
+            put(key, value);
+        }
+        return value;
+    }
+
+    /**
+     * Stores the value under the key and evicts least recently used values until the cache fits its maximal weight.
+     * Values heavier than the maximal weight of the whole cache are not stored at all.
+     *
+     * @param key   key of the value
+     * @param value value to store
+     */
+    public void put(K key, V value) {
+        long weight = Math.max(1, weigher.applyAsLong(value));
+        if (weight > maxWeight) {
+            log.debug("Hodnota {} je pro cache {} příliš velká ({} B)", key, name, weight);
+            return;
+        }
+        synchronized (entries) {
+            CacheEntry<V> previous = entries.put(key, new CacheEntry<>(value, weight, Instant.now()));
+            if (previous != null) {
+                currentWeight -= previous.weight();
+            }
+            currentWeight += weight;
+            evictIfNeeded();
+        }
+    }
+
+    /**
+     * Checks whether the entry is older than the maximal age of the cache.
+     *
+     * @param entry cache entry
+     * @return true if the entry expired
+     */
+    private boolean isExpired(CacheEntry<V> entry) {
+        return maxAge.isPositive() && entry.storedAt().plus(maxAge).isBefore(Instant.now());
+    }
+
+    /**
+     * Removes the value stored under the key.
+     *
+     * @param key key of the value to remove
+     */
+    public void invalidate(K key) {
+        synchronized (entries) {
+            CacheEntry<V> removed = entries.remove(key);
+            if (removed != null) {
+                currentWeight -= removed.weight();
+            }
+        }
+    }
+
+    /**
+     * Removes all values whose key matches the predicate, e.g. all versions of a changed entity.
+     *
+     * @param predicate predicate of the keys to remove
+     */
+    public void invalidateIf(Predicate<K> predicate) {
+        synchronized (entries) {
+            Iterator<Map.Entry<K, CacheEntry<V>>> iterator = entries.entrySet().iterator();
+            while (iterator.hasNext()) {
+                Map.Entry<K, CacheEntry<V>> entry = iterator.next();
+                if (predicate.test(entry.getKey())) {
+                    currentWeight -= entry.getValue().weight();
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes all values from the cache.
+     */
+    public void invalidateAll() {
+        synchronized (entries) {
+            entries.clear();
+            currentWeight = 0;
+        }
+    }
+
+    /**
+     * Returns the number of cached values.
+     *
+     * @return number of cached values
+     */
+    public int size() {
+        synchronized (entries) {
+            return entries.size();
+        }
+    }
+
+    /**
+     * Returns the summed weight of all cached values.
+     *
+     * @return current weight of the cache
+     */
+    public long getWeight() {
+        synchronized (entries) {
+            return currentWeight;
+        }
+    }
+
+    /**
+     * Returns the snapshot of the cache statistics.
+     *
+     * @return cache statistics
+     */
+    public CacheStats getStats() {
+        synchronized (entries) {
+            return new CacheStats(name, entries.size(), currentWeight, maxWeight, hits.get(), misses.get(), evictions.get());
+        }
+    }
+
+    /**
+     * Evicts the least recently used entries until the cache fits its maximal weight.
+     * Must be called while holding the lock on entries.
+     */
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<K, CacheEntry<V>>> iterator = entries.entrySet().iterator();
+        while (currentWeight > maxWeight && iterator.hasNext()) {
+            CacheEntry<V> eldest = iterator.next().getValue();
+            iterator.remove();
+            currentWeight -= eldest.weight();
+            evictions.incrementAndGet();
+        }
+    }
+
+    /**
+     * Loader of a value that is not present in the cache, usually a backend API call.
+     *
+     * @param <V> type of the loaded value
+     */
+    @FunctionalInterface
+    public interface CacheLoader<V> {
+        V load() throws Exception;
+    }
+
+    /**
+     * Single cache entry with its weight and time of storing.
+     */
+    record CacheEntry<V>(V value, long weight, Instant storedAt) {
+    }
+
+    /**
+     * Snapshot of the cache statistics used for diagnostics.
+     */
+    public record CacheStats(String name, int size, long weight, long maxWeight, long hits, long misses, long evictions) {
+    }
+}
@@ -0,0 +1,60 @@
+package cz.uhk.zlesak.threejslearningapp.cache.invalidation;
+
+import cz.uhk.zlesak.threejslearningapp.cache.ChapterEntityCache;
+import cz.uhk.zlesak.threejslearningapp.cache.ChapterExcerptCache;
+import cz.uhk.zlesak.threejslearningapp.cache.StaleResponseCache;
+import cz.uhk.zlesak.threejslearningapp.cache.warmup.ChapterAccessStats;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * ChapterCacheInvalidator drops the data of a changed chapter from every cache layer:
+ * the parsed chapter entity, its listing excerpts and the stale backend responses of the chapter, the chapter listings and the fulltext search.
+ * A deleted chapter is also forgotten by the access statistics, so the cache warm-up does not prefetch it.
+ *
+ * @see ChapterInvalidatedEvent
+ */
+@Slf4j
+@Component
+public class ChapterCacheInvalidator {
+    private final ChapterEntityCache chapterEntityCache;
+    private final ChapterExcerptCache chapterExcerptCache;
+    private final StaleResponseCache staleResponseCache;
+    private final ChapterAccessStats chapterAccessStats;
+
+    /**
+     * Constructor for ChapterCacheInvalidator.
+     *
+     * @param chapterEntityCache  cache of the chapter entities
+     * @param chapterExcerptCache cache of the chapter listing excerpts
+     * @param staleResponseCache  cache of the last successful backend responses
+     * @param chapterAccessStats  access statistics of the chapters
+     */
+    public ChapterCacheInvalidator(ChapterEntityCache chapterEntityCache, ChapterExcerptCache chapterExcerptCache,
+                                   StaleResponseCache staleResponseCache, ChapterAccessStats chapterAccessStats) {
+        this.chapterEntityCache = chapterEntityCache;
+        this.chapterExcerptCache = chapterExcerptCache;
+        this.staleResponseCache = staleResponseCache;
+        this.chapterAccessStats = chapterAccessStats;
+    }
+
+    /**
+     * Invalidates the cached data of the changed chapter.
+     *
+     * @param event event of the changed chapter
+     */
+    @EventListener
+    public void onChapterInvalidated(ChapterInvalidatedEvent event) {
+        String chapterId = event.chapterId();
+        chapterEntityCache.invalidate(chapterId);
+        chapterExcerptCache.invalidateIf(key -> key.startsWith(chapterId + "|"));
+        staleResponseCache.invalidateIf(key -> key.equals("chapter/" + chapterId)
+                || key.startsWith("chapter/list")
+                || key.startsWith("chapter/search-fulltext"));
+        if (event.deleted()) {
+            chapterAccessStats.forget(chapterId);
+        }
+        log.debug("Invalidována data kapitoly {} ve všech cache", chapterId);
+    }
+}
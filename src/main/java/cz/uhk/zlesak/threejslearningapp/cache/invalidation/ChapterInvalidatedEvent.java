@@ -0,0 +1,26 @@
+package cz.uhk.zlesak.threejslearningapp.cache.invalidation;
+
+/**
+ * Application event published after a chapter was created, updated or deleted,
+ * so every cache holding data derived from the chapter drops them.
+ * Events published on this node are broadcast to the other nodes of the cluster by the InvalidationBus,
+ * events received from the bus are published again locally as remote events, which are not broadcast anymore.
+ *
+ * @param chapterId ID of the changed chapter
+ * @param deleted   true if the chapter was deleted
+ * @param remote    true if the chapter was changed on another node
+ * @see ChapterCacheInvalidator
+ * @see ClusterInvalidationRelay
+ */
+public record ChapterInvalidatedEvent(String chapterId, boolean deleted, boolean remote) {
+
+    /**
+     * Constructor for the event of a chapter changed on this node.
+     *
+     * @param chapterId ID of the changed chapter
+     * @param deleted   true if the chapter was deleted
+     */
+    public ChapterInvalidatedEvent(String chapterId, boolean deleted) {
+        this(chapterId, deleted, false);
+    }
+}
@@ -0,0 +1,49 @@
+package cz.uhk.zlesak.threejslearningapp.cache.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * ClusterInvalidationRelay connects the local invalidation events with the InvalidationBus.
+ * Invalidations of the entities changed on this node are broadcast to the other nodes,
+ * invalidations received from the other nodes are published locally as remote events, so the same listeners drop the cached data.
+ * Without a configured bus (cache.invalidation.transport=none) the invalidations stay on this node.
+ *
+ * @see InvalidationBusConfiguration
+ */
+@Slf4j
+@Component
+public class ClusterInvalidationRelay {
+    private final InvalidationBus invalidationBus;
+
+    /**
+     * Constructor for ClusterInvalidationRelay subscribing to the invalidations of the other nodes.
+     *
+     * @param invalidationBus provider of the configured invalidation bus, empty for a single node deployment
+     * @param eventPublisher  publisher of the received invalidations
+     */
+    public ClusterInvalidationRelay(ObjectProvider<InvalidationBus> invalidationBus, ApplicationEventPublisher eventPublisher) {
+        this.invalidationBus = invalidationBus.getIfAvailable();
+        if (this.invalidationBus != null) {
+            this.invalidationBus.subscribe(event -> {
+                log.debug("Přijata invalidace kapitoly {} z jiného uzlu", event.chapterId());
+                eventPublisher.publishEvent(event);
+            });
+        }
+    }
+
+    /**
+     * Broadcasts the invalidation of the chapter changed on this node to the other nodes.
+     *
+     * @param event invalidation of the changed chapter
+     */
+    @EventListener
+    public void onChapterInvalidated(ChapterInvalidatedEvent event) {
+        if (invalidationBus != null && !event.remote()) {
+            invalidationBus.broadcast(event);
+        }
+    }
+}
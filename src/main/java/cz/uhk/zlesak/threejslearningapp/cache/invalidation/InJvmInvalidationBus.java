@@ -0,0 +1,56 @@
+package cz.uhk.zlesak.threejslearningapp.cache.invalidation;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * InvalidationBus connecting the nodes running in the same JVM, e.g. several application contexts started by tests.
+ * Every bus instance is a node, the invalidations are delivered synchronously to the receivers of all other instances.
+ */
+public class InJvmInvalidationBus implements InvalidationBus {
+    private static final List<InJvmInvalidationBus> NODES = new CopyOnWriteArrayList<>();
+
+    private final List<Consumer<ChapterInvalidatedEvent>> receivers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor for InJvmInvalidationBus joining the node to the other nodes in the JVM.
+     */
+    public InJvmInvalidationBus() {
+        NODES.add(this);
+    }
+
+    /**
+     * Delivers the invalidation to the receivers of the other nodes in the JVM.
+     *
+     * @param event invalidation of the entity changed on this node
+     */
+    @Override
+    public void broadcast(ChapterInvalidatedEvent event) {
+        ChapterInvalidatedEvent remoteEvent = new ChapterInvalidatedEvent(event.chapterId(), event.deleted(), true);
+        for (InJvmInvalidationBus node : NODES) {
+            if (node != this) {
+                node.receivers.forEach(receiver -> receiver.accept(remoteEvent));
+            }
+        }
+    }
+
+    /**
+     * Registers the receiver of the invalidations broadcast by the other nodes.
+     *
+     * @param receiver receiver of the invalidations
+     */
+    @Override
+    public void subscribe(Consumer<ChapterInvalidatedEvent> receiver) {
+        receivers.add(receiver);
+    }
+
+    /**
+     * Removes the node from the nodes in the JVM.
+     */
+    @Override
+    public void close() {
+        NODES.remove(this);
+        receivers.clear();
+    }
+}
@@ -0,0 +1,35 @@
+package cz.uhk.zlesak.threejslearningapp.cache.invalidation;
+
+import java.util.function.Consumer;
+
+/**
+ * InvalidationBus broadcasts the invalidations of the changed entities to the other nodes of the cluster,
+ * so their node local caches do not serve stale data after a change made on another node.
+ * The delivery is best effort, a lost invalidation is bounded by the maximal age of the cached entities.
+ *
+ * @see ClusterInvalidationRelay
+ * @see InJvmInvalidationBus
+ * @see MulticastInvalidationBus
+ */
+public interface InvalidationBus extends AutoCloseable {
+
+    /**
+     * Broadcasts the invalidation to the other nodes.
+     *
+     * @param event invalidation of the entity changed on this node
+     */
+    void broadcast(ChapterInvalidatedEvent event);
+
+    /**
+     * Registers the receiver of the invalidations broadcast by the other nodes.
+     *
+     * @param receiver receiver of the invalidations, called on the thread of the bus
+     */
+    void subscribe(Consumer<ChapterInvalidatedEvent> receiver);
+
+    /**
+     * Stops the bus, no invalidations are broadcast or received afterward.
+     */
+    @Override
+    void close();
+}
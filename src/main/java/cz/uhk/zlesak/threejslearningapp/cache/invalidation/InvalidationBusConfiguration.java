@@ -0,0 +1,47 @@
+package cz.uhk.zlesak.threejslearningapp.cache.invalidation;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+
+/**
+ * Configuration of the InvalidationBus selected by cache.invalidation.transport.
+ * The value none (default) configures no bus for a single node deployment, in-jvm connects the nodes running in the same JVM
+ * and multicast connects the nodes in the local network by UDP multicast.
+ */
+@Configuration
+public class InvalidationBusConfiguration {
+
+    /**
+     * Provides the bus connecting the nodes in the same JVM.
+     *
+     * @return in-JVM invalidation bus
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "in-jvm")
+    public InvalidationBus inJvmInvalidationBus() {
+        return new InJvmInvalidationBus();
+    }
+
+    /**
+     * Provides the bus connecting the nodes by UDP multicast.
+     *
+     * @param group            multicast group address
+     * @param port             port of the multicast group
+     * @param networkInterface name of the network interface used for the multicast, empty to use the default interface
+     * @param timeToLive       time to live of the datagrams
+     * @return multicast invalidation bus
+     * @throws IOException if the multicast group cannot be joined
+     */
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(name = "cache.invalidation.transport", havingValue = "multicast")
+    public InvalidationBus multicastInvalidationBus(@Value("${cache.invalidation.multicast.group:239.255.42.99}") String group,
+                                                    @Value("${cache.invalidation.multicast.port:45699}") int port,
+                                                    @Value("${cache.invalidation.multicast.interface:}") String networkInterface,
+                                                    @Value("${cache.invalidation.multicast.ttl:1}") int timeToLive) throws IOException {
+        return new MulticastInvalidationBus(group, port, networkInterface, timeToLive);
+    }
+}
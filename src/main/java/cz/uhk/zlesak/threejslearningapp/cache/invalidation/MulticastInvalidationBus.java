@@ -0,0 +1,126 @@
+package cz.uhk.zlesak.threejslearningapp.cache.invalidation;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.net.DatagramPacket;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.MulticastSocket;
+import java.net.NetworkInterface;
+import java.net.SocketException;
+import java.net.StandardSocketOptions;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * InvalidationBus broadcasting the invalidations as UDP multicast datagrams, so the nodes need no central server
+ * and only have to share the multicast group and port.
+ * Every datagram is a single text line with the ID of the sending node, the entity ID and the deleted flag separated by tabs,
+ * datagrams sent by this node are ignored. Multicast loopback is enabled, so several nodes can run on the same host.
+ */
+@Slf4j
+public class MulticastInvalidationBus implements InvalidationBus {
+    private static final int MAX_DATAGRAM_SIZE = 1024;
+
+    private final String nodeId = UUID.randomUUID().toString();
+    private final InetSocketAddress group;
+    private final NetworkInterface networkInterface;
+    private final MulticastSocket socket;
+    private final List<Consumer<ChapterInvalidatedEvent>> receivers = new CopyOnWriteArrayList<>();
+
+    /**
+     * Constructor for MulticastInvalidationBus joining the multicast group and starting the receiving thread.
+     *
+     * @param groupAddress     multicast group address, e.g. 239.1.2.3
+     * @param port             port of the multicast group
+     * @param networkInterface name of the network interface used for the multicast, empty to use the default interface
+     * @param timeToLive       time to live of the datagrams, 1 keeps them in the local network
+     * @throws IOException if the socket cannot be opened or the group cannot be joined
+     */
+    public MulticastInvalidationBus(String groupAddress, int port, String networkInterface, int timeToLive) throws IOException {
+        this.group = new InetSocketAddress(InetAddress.getByName(groupAddress), port);
+        this.networkInterface = networkInterface == null || networkInterface.isBlank() ? null : NetworkInterface.getByName(networkInterface.trim());
+        this.socket = new MulticastSocket(port);
+        socket.setOption(StandardSocketOptions.IP_MULTICAST_LOOP, true);
+        socket.setTimeToLive(timeToLive);
+        if (this.networkInterface != null) {
+            socket.setNetworkInterface(this.networkInterface);
+        }
+        socket.joinGroup(group, this.networkInterface);
+        Thread.ofPlatform().daemon().name("cache-invalidation-receiver").start(this::receive);
+        log.info("Invalidace cache mezi uzly přes multicast {} (uzel {})", group, nodeId);
+    }
+
+    /**
+     * Sends the invalidation to the multicast group.
+     * A failure is only logged, the invalidation of the other nodes is best effort.
+     *
+     * @param event invalidation of the entity changed on this node
+     */
+    @Override
+    public void broadcast(ChapterInvalidatedEvent event) {
+        byte[] message = (nodeId + "\t" + event.chapterId() + "\t" + event.deleted()).getBytes(StandardCharsets.UTF_8);
+        try {
+            socket.send(new DatagramPacket(message, message.length, group));
+        } catch (IOException e) {
+            log.warn("Invalidaci kapitoly {} nelze odeslat ostatním uzlům: {}", event.chapterId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Registers the receiver of the invalidations broadcast by the other nodes.
+     *
+     * @param receiver receiver of the invalidations, called on the receiving thread
+     */
+    @Override
+    public void subscribe(Consumer<ChapterInvalidatedEvent> receiver) {
+        receivers.add(receiver);
+    }
+
+    /**
+     * Leaves the multicast group and closes the socket, which stops the receiving thread.
+     */
+    @Override
+    public void close() {
+        try {
+            socket.leaveGroup(group, networkInterface);
+        } catch (IOException e) {
+            log.debug("Opuštění multicast skupiny {} selhalo: {}", group, e.getMessage());
+        }
+        socket.close();
+    }
+
+    /**
+     * Receives the datagrams until the socket is closed and passes the invalidations of the other nodes to the receivers.
+     */
+    private void receive() {
+        byte[] buffer = new byte[MAX_DATAGRAM_SIZE];
+        while (!socket.isClosed()) {
+            DatagramPacket packet = new DatagramPacket(buffer, buffer.length);
+            try {
+                socket.receive(packet);
+            } catch (SocketException e) {
+                break;
+            } catch (IOException e) {
+                log.warn("Příjem invalidace z multicast skupiny {} selhal: {}", group, e.getMessage());
+                continue;
+            }
+            String[] parts = new String(packet.getData(), packet.getOffset(), packet.getLength(), StandardCharsets.UTF_8).split("\t");
+            if (parts.length != 3 || parts[0].equals(nodeId)) {
+                continue;
+            }
+            ChapterInvalidatedEvent event = new ChapterInvalidatedEvent(parts[1], Boolean.parseBoolean(parts[2]), true);
+            for (Consumer<ChapterInvalidatedEvent> receiver : receivers) {
+                try {
+                    receiver.accept(event);
+                } catch (RuntimeException e) {
+                    log.warn("Zpracování invalidace kapitoly {} selhalo: {}", event.chapterId(), e.getMessage());
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package cz.uhk.zlesak.threejslearningapp.cache.warmup;
+
+import cz.uhk.zlesak.threejslearningapp.services.ChapterService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * CacheWarmup prefetches chapters into the shared chapter cache after startup,
+ * so the first users opening popular chapters after a redeploy do not pay the cold path to the backend.
+ * The model and texture files are not prefetched, as the chapter views let the browser download them from the backend directly,
+ * only the chapter entities carrying the metadata of their models are loaded.
+ * The chapters are taken from the configured list followed by the most accessed chapters of the ChapterAccessStats.
+ * Warm-up runs in the background with bounded concurrency, the WarmupHealthIndicator keeps the application out of
+ * the readiness group until the warm-up completes or its time budget passes.
+ *
+ * @see ChapterAccessStats
+ * @see WarmupHealthIndicator
+ */
+@Slf4j
+@Component
+public class CacheWarmup {
+    private final ChapterService chapterService;
+    private final ChapterAccessStats chapterAccessStats;
+    private final boolean enabled;
+    private final List<String> chapterIds;
+    private final int mostAccessed;
+    private final int concurrency;
+    private final Duration timeBudget;
+
+    private final Set<String> prefetchedModels = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile ExecutorService executor;
+    private volatile boolean finished = false;
+
+    /**
+     * Constructor for CacheWarmup.
+     *
+     * @param chapterService     service loading the chapters into the chapter cache
+     * @param chapterAccessStats access counts of the chapters from the previous run
+     * @param enabled            whether the warm-up runs at all
+     * @param chapterIds         IDs of the chapters always prefetched
+     * @param mostAccessed       number of the most accessed chapters prefetched in addition to the configured ones
+     * @param concurrency        maximal number of chapters prefetched at the same time
+     * @param timeBudget         time after which the application is reported ready even when the warm-up did not complete
+     */
+    public CacheWarmup(ChapterService chapterService, ChapterAccessStats chapterAccessStats,
+                       @Value("${cache.warmup.enabled:true}") boolean enabled,
+                       @Value("${cache.warmup.chapter-ids:}") List<String> chapterIds,
+                       @Value("${cache.warmup.most-accessed:10}") int mostAccessed,
+                       @Value("${cache.warmup.concurrency:4}") int concurrency,
+                       @Value("${cache.warmup.time-budget:60s}") Duration timeBudget) {
+        this.chapterService = chapterService;
+        this.chapterAccessStats = chapterAccessStats;
+        this.enabled = enabled;
+        this.chapterIds = chapterIds;
+        this.mostAccessed = mostAccessed;
+        this.concurrency = Math.max(1, concurrency);
+        this.timeBudget = timeBudget;
+    }
+
+    /**
+     * Starts the warm-up in the background once the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        Set<String> chapters = new LinkedHashSet<>();
+        chapterIds.stream().map(String::trim).filter(id -> !id.isEmpty()).forEach(chapters::add);
+        chapters.addAll(chapterAccessStats.getMostAccessed(mostAccessed));
+        if (!enabled || chapters.isEmpty()) {
+            finished = true;
+            return;
+        }
+
+        log.info("Předběžné načtení {} kapitol do cache (souběžnost {}, časový limit {})", chapters.size(), concurrency, timeBudget);
+        long start = System.nanoTime();
+        executor = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "cache-warmup");
+            thread.setDaemon(true);
+            return thread;
+        });
+        CompletableFuture<?>[] tasks = chapters.stream()
+                .map(chapterId -> CompletableFuture.runAsync(() -> prefetchChapter(chapterId), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture<Void> all = CompletableFuture.allOf(tasks);
+        all.thenRun(executor::shutdown);
+        CompletableFuture.anyOf(all, CompletableFuture.runAsync(() -> { }, CompletableFuture.delayedExecutor(timeBudget.toMillis(), TimeUnit.MILLISECONDS)))
+                .whenComplete((result, e) -> {
+                    finished = true;
+                    long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+                    if (all.isDone()) {
+                        log.info("Předběžné načtení dokončeno za {} ms: {} kapitol s {} modely, {} chyb",
+                                elapsedMs, chapters.size(), prefetchedModels.size(), failures.get());
+                    } else {
+                        log.warn("Předběžné načtení nestihlo časový limit {}, aplikace je připravena a načítání pokračuje na pozadí", timeBudget);
+                    }
+                });
+    }
+
+    /**
+     * Stops the warm-up still running on shutdown.
+     */
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Checks whether the warm-up completed or its time budget passed.
+     *
+     * @return true once the application can be reported ready
+     */
+    public boolean isFinished() {
+        return finished;
+    }
+
+    /**
+     * Returns the number of the chapters that could not be prefetched.
+     *
+     * @return number of failures
+     */
+    public int getFailures() {
+        return failures.get();
+    }
+
+    /**
+     * Prefetches the chapter with the metadata of its models.
+     * Failures are only logged, the data is then loaded on the first access as without the warm-up.
+     *
+     * @param chapterId ID of the chapter
+     */
+    private void prefetchChapter(String chapterId) {
+        try {
+            chapterService.getChaptersModels(chapterId).values().forEach(model -> prefetchedModels.add(model.getModel().getId()));
+        } catch (Exception e) {
+            failures.incrementAndGet();
+            log.warn("Předběžné načtení kapitoly {} selhalo: {}", chapterId, e.getMessage());
+        }
+    }
+}
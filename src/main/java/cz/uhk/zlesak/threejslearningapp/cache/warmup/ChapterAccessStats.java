@@ -0,0 +1,138 @@
+package cz.uhk.zlesak.threejslearningapp.cache.warmup;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * ChapterAccessStats counts how many times each chapter was opened.
+ * The counts are saved to a file on shutdown and loaded on startup, so the CacheWarmup can prefetch the chapters
+ * that were the most popular before the redeploy. Without the file configured the counts live only in memory.
+ * Only the openings of existing chapters are recorded and the number of counted chapters is bounded, once it reaches twice the limit
+ * only the most opened chapters up to the limit are kept.
+ *
+ * @see CacheWarmup
+ */
+@Slf4j
+@Component
+public class ChapterAccessStats {
+    private final Path statsFile;
+    private final int maxChapters;
+    private final ConcurrentHashMap<String, LongAdder> accesses = new ConcurrentHashMap<>();
+
+    /**
+     * Constructor for ChapterAccessStats.
+     *
+     * @param statsFile   file the counts are persisted to, empty value keeps the counts only in memory
+     * @param maxChapters maximal number of the chapters whose counts are kept
+     */
+    public ChapterAccessStats(@Value("${cache.warmup.access-stats-file:}") String statsFile,
+                              @Value("${cache.warmup.access-stats-max-chapters:1000}") int maxChapters) {
+        this.statsFile = statsFile.isBlank() ? null : Path.of(statsFile);
+        this.maxChapters = Math.max(1, maxChapters);
+    }
+
+    /**
+     * Loads the counts saved by the previous run.
+     * Every line of the file holds the chapter ID and its count separated by a space.
+     */
+    @PostConstruct
+    public void load() {
+        if (statsFile == null || !Files.isRegularFile(statsFile)) {
+            return;
+        }
+        try {
+            for (String line : Files.readAllLines(statsFile, StandardCharsets.UTF_8)) {
+                String[] parts = line.trim().split(" ");
+                if (parts.length == 2) {
+                    accesses.computeIfAbsent(parts[0], id -> new LongAdder()).add(Long.parseLong(parts[1]));
+                }
+            }
+            prune(maxChapters);
+            log.info("Načteny statistiky přístupů k {} kapitolám ze souboru {}", accesses.size(), statsFile);
+        } catch (IOException | NumberFormatException e) {
+            log.warn("Statistiky přístupů ke kapitolám ze souboru {} nelze načíst: {}", statsFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the counts for the next run.
+     */
+    @PreDestroy
+    public void save() {
+        if (statsFile == null) {
+            return;
+        }
+        List<String> lines = new ArrayList<>();
+        accesses.forEach((chapterId, count) -> lines.add(chapterId + " " + count.sum()));
+        try {
+            if (statsFile.getParent() != null) {
+                Files.createDirectories(statsFile.getParent());
+            }
+            Files.write(statsFile, lines, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.warn("Statistiky přístupů ke kapitolám nelze uložit do souboru {}: {}", statsFile, e.getMessage());
+        }
+    }
+
+    /**
+     * Records an opening of the chapter, called once the chapter was loaded, so unknown chapter IDs are never counted.
+     *
+     * @param chapterId ID of the opened chapter
+     */
+    public void recordAccess(String chapterId) {
+        if (!accesses.containsKey(chapterId) && accesses.size() >= 2 * maxChapters) {
+            prune(maxChapters);
+        }
+        accesses.computeIfAbsent(chapterId, id -> new LongAdder()).increment();
+    }
+
+    /**
+     * Keeps the counts of the most opened chapters only.
+     *
+     * @param limit number of the kept chapters
+     */
+    private synchronized void prune(int limit) {
+        if (accesses.size() <= limit) {
+            return;
+        }
+        accesses.keySet().retainAll(Set.copyOf(getMostAccessed(limit)));
+    }
+
+    /**
+     * Forgets the counts of the chapter, e.g. after the chapter was deleted.
+     *
+     * @param chapterId ID of the chapter
+     */
+    public void forget(String chapterId) {
+        accesses.remove(chapterId);
+    }
+
+    /**
+     * Returns the IDs of the most often opened chapters.
+     *
+     * @param limit maximal number of returned IDs
+     * @return chapter IDs ordered from the most opened one
+     */
+    public List<String> getMostAccessed(int limit) {
+        return accesses.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<String, LongAdder> entry) -> entry.getValue().sum()).reversed())
+                .limit(limit)
+                .map(Map.Entry::getKey)
+                .toList();
+    }
+}
@@ -0,0 +1,36 @@
+package cz.uhk.zlesak.threejslearningapp.cache.warmup;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * WarmupHealthIndicator reports the application out of service until the CacheWarmup completes or its time budget passes.
+ * It is part of the readiness health group, so the load balancer sends no users to an instance with cold caches.
+ *
+ * @see CacheWarmup
+ */
+@Component
+public class WarmupHealthIndicator implements HealthIndicator {
+    private final CacheWarmup cacheWarmup;
+
+    /**
+     * Constructor for WarmupHealthIndicator.
+     *
+     * @param cacheWarmup warm-up of the shared caches
+     */
+    public WarmupHealthIndicator(CacheWarmup cacheWarmup) {
+        this.cacheWarmup = cacheWarmup;
+    }
+
+    /**
+     * Returns UP once the warm-up is finished, OUT_OF_SERVICE before.
+     *
+     * @return health of the warm-up
+     */
+    @Override
+    public Health health() {
+        Health.Builder builder = cacheWarmup.isFinished() ? Health.up() : Health.outOfService();
+        return builder.withDetail("failures", cacheWarmup.getFailures()).build();
+    }
+}
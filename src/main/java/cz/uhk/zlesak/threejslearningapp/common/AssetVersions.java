@@ -0,0 +1,45 @@
+package cz.uhk.zlesak.threejslearningapp.common;
+
+import org.springframework.web.util.UriComponentsBuilder;
+
+/**
+ * AssetVersions is a utility class versioning the URLs of the model and texture files by the hashes of their content.
+ * A versioned URL carries the content hash in its v query parameter, so it always denotes the same content,
+ * and the renderer keeps the downloaded files in the persistent cache of the browser keyed by the hash.
+ * URLs of the files whose hash is not known are left unversioned and rely on the HTTP cache only.
+ *
+ * @see ContentHash
+ */
+public abstract class AssetVersions {
+    /**
+     * Name of the query parameter carrying the content hash.
+     */
+    public static final String VERSION_PARAMETER = "v";
+
+    /**
+     * Adds the content hash to the URL of the file.
+     *
+     * @param url         URL of the file
+     * @param contentHash content hash of the file, null when unknown
+     * @return versioned URL, or the URL unchanged when the hash is unknown
+     */
+    public static String versioned(String url, String contentHash) {
+        if (url == null || contentHash == null || contentHash.isBlank()) {
+            return url;
+        }
+        return UriComponentsBuilder.fromUriString(url).replaceQueryParam(VERSION_PARAMETER, contentHash).build().toUriString();
+    }
+
+    /**
+     * Reads the content hash from the versioned URL.
+     *
+     * @param url URL of the file
+     * @return content hash of the file, null when the URL is not versioned
+     */
+    public static String versionOf(String url) {
+        if (url == null || !url.contains("?")) {
+            return null;
+        }
+        return UriComponentsBuilder.fromUriString(url).build().getQueryParams().getFirst(VERSION_PARAMETER);
+    }
+}
@@ -0,0 +1,45 @@
+package cz.uhk.zlesak.threejslearningapp.common;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * ContentHash is a utility class computing the SHA-256 hashes identifying uploaded and downloaded files by their content.
+ * The hash is used to detect re-uploads of identical assets, as the ETag of the streamed files and as the key of the shared file caches.
+ */
+public abstract class ContentHash {
+
+    /**
+     * Creates a new SHA-256 digest, e.g. for a DigestInputStream hashing a file while it is read.
+     *
+     * @return new SHA-256 digest
+     */
+    public static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 není k dispozici", e);
+        }
+    }
+
+    /**
+     * Computes the hash of the content.
+     *
+     * @param content content to hash
+     * @return hexadecimal SHA-256 hash
+     */
+    public static String of(byte[] content) {
+        return toHex(newDigest().digest(content));
+    }
+
+    /**
+     * Formats the computed digest as the hash.
+     *
+     * @param digest computed SHA-256 digest
+     * @return hexadecimal SHA-256 hash
+     */
+    public static String toHex(byte[] digest) {
+        return HexFormat.of().formatHex(digest);
+    }
+}
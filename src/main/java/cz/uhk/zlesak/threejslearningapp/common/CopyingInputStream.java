@@ -0,0 +1,122 @@
+package cz.uhk.zlesak.threejslearningapp.common;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * CopyingInputStream passes the wrapped stream through and keeps a copy of the read bytes up to the given limit.
+ * It is used to fill the shared caches while a file is streamed to the client, the copy is usable only when the stream was read to its end.
+ */
+public class CopyingInputStream extends FilterInputStream {
+    private final long maxBytes;
+    private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+    private boolean complete = false;
+
+    /**
+     * Constructor for CopyingInputStream.
+     *
+     * @param inputStream stream to pass through
+     * @param maxBytes    maximal number of bytes to copy, longer streams are not copied at all
+     */
+    public CopyingInputStream(InputStream inputStream, long maxBytes) {
+        this(inputStream, -1, maxBytes);
+    }
+
+    /**
+     * Constructor for CopyingInputStream of a stream with the announced length, e.g. the Content-Length of the response.
+     * Streams announced longer than the limit are passed through without buffering anything.
+     *
+     * @param inputStream    stream to pass through
+     * @param expectedLength announced length of the stream, negative when unknown
+     * @param maxBytes       maximal number of bytes to copy, longer streams are not copied at all
+     */
+    public CopyingInputStream(InputStream inputStream, long expectedLength, long maxBytes) {
+        super(inputStream);
+        this.maxBytes = maxBytes;
+        if (expectedLength > maxBytes) {
+            copy = null;
+        }
+    }
+
+    /**
+     * Reads a single byte and copies it.
+     *
+     * @return read byte or -1 at the end of the stream
+     * @throws IOException if reading the wrapped stream fails
+     */
+    @Override
+    public int read() throws IOException {
+        int value = super.read();
+        if (value == -1) {
+            complete = true;
+        } else if (copy != null) {
+            copy.write(value);
+            checkLimit();
+        }
+        return value;
+    }
+
+    /**
+     * Reads bytes into the buffer and copies them.
+     *
+     * @param buffer buffer to read into
+     * @param offset offset in the buffer
+     * @param length maximal number of bytes to read
+     * @return number of read bytes or -1 at the end of the stream
+     * @throws IOException if reading the wrapped stream fails
+     */
+    @Override
+    public int read(byte[] buffer, int offset, int length) throws IOException {
+        int read = super.read(buffer, offset, length);
+        if (read == -1) {
+            complete = true;
+        } else if (copy != null) {
+            copy.write(buffer, offset, read);
+            checkLimit();
+        }
+        return read;
+    }
+
+    /**
+     * Skipping would leave holes in the copy, so skipped streams are not copied.
+     *
+     * @param n number of bytes to skip
+     * @return number of skipped bytes
+     * @throws IOException if skipping in the wrapped stream fails
+     */
+    @Override
+    public long skip(long n) throws IOException {
+        copy = null;
+        return super.skip(n);
+    }
+
+    /**
+     * Marking is not supported, as resetting the stream would duplicate bytes in the copy.
+     *
+     * @return always false
+     */
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    /**
+     * Returns the copy of the whole stream.
+     *
+     * @return copied bytes, or null when the stream was not read to its end or exceeded the limit
+     */
+    public byte[] getCompleteCopy() {
+        return complete && copy != null ? copy.toByteArray() : null;
+    }
+
+    /**
+     * Drops the copy once it exceeds the limit.
+     */
+    private void checkLimit() {
+        if (copy.size() > maxBytes) {
+            copy = null;
+        }
+    }
+}
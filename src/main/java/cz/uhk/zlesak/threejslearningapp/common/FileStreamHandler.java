@@ -0,0 +1,21 @@
+package cz.uhk.zlesak.threejslearningapp.common;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * FileStreamHandler consumes a file streamed from the backend or from a cache without loading it whole into memory.
+ * The input stream is valid only during the call, it is closed by the caller afterward.
+ */
+@FunctionalInterface
+public interface FileStreamHandler {
+    /**
+     * Handles the streamed file.
+     *
+     * @param fileName      name of the file, may be null when the backend does not provide it
+     * @param contentLength size of the file in bytes or -1 when unknown
+     * @param inputStream   stream with the content of the file
+     * @throws IOException if reading the stream or writing it elsewhere fails, e.g. when the client aborts the download
+     */
+    void handle(String fileName, long contentLength, InputStream inputStream) throws IOException;
+}
@@ -8,14 +8,18 @@ import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
 
 /**
  * A simple implementation of MultipartFile backed by in-memory bytes.
  * Used to handle file uploads for model or texture files.
  * Stores the file name and a display name (fallbacks to fileName).
+ * The SHA-256 hash of the content is computed while the input stream is read.
  */
 public class InputStreamMultipartFile implements MultipartFile {
     private final byte[] content;
+    private final String contentHash;
     private final String fileName;
     private String displayName;
 
@@ -29,20 +33,46 @@ public class InputStreamMultipartFile implements MultipartFile {
     @Builder
     public InputStreamMultipartFile(InputStream inputStream, String fileName, String displayName) {
         byte[] bytes;
+        MessageDigest digest = ContentHash.newDigest();
         if (inputStream == null) {
             bytes = new byte[0];
         } else {
-            try (InputStream is = inputStream) {
+            try (InputStream is = new DigestInputStream(inputStream, digest)) {
                 bytes = is.readAllBytes();
             } catch (IOException e) {
                 throw new IllegalStateException("Failed to read input stream", e);
             }
         }
         this.content = bytes;
+        this.contentHash = ContentHash.toHex(digest.digest());
         this.fileName = fileName;
         this.displayName = displayName != null ? displayName : fileName;
     }
 
+    /**
+     * Private constructor sharing already read content.
+     *
+     * @param content     the content of the file
+     * @param contentHash the SHA-256 hash of the content
+     * @param fileName    the name of the file
+     */
+    private InputStreamMultipartFile(byte[] content, String contentHash, String fileName) {
+        this.content = content;
+        this.contentHash = contentHash;
+        this.fileName = fileName;
+        this.displayName = fileName;
+    }
+
+    /**
+     * Returns the file with the same content under another name, the content is shared and not copied.
+     *
+     * @param fileName the name of the returned file
+     * @return the renamed file
+     */
+    public InputStreamMultipartFile renamed(String fileName) {
+        return new InputStreamMultipartFile(content, contentHash, fileName);
+    }
+
     /**
      * Override of method for the name getter
      * @return FILE NAME!
@@ -117,6 +147,14 @@ public class InputStreamMultipartFile implements MultipartFile {
         return content.clone();
     }
 
+    /**
+     * Gets the SHA-256 hash of the file content
+     * @return hexadecimal SHA-256 hash
+     */
+    public String getContentHash() {
+        return contentHash;
+    }
+
     /**
      * Gets the InputStream of the file
      * @return InputStream of the file content
@@ -6,12 +6,16 @@ import elemental.json.JsonObject;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Scope;
 
+import java.util.Objects;
+
 /**
  * A component that represents an anchor element used for scrolling to a specific target in EditorJs.
  **/
 @Slf4j
 @Scope("prototype")
 public class LocatorAnchor extends Anchor {
+    private String displayedText;
+
     /**
      * Constructor that initializes the LocatorAnchorComponent with the provided content data and ID.
      * It sets the anchor's href to "#" and adds a click listener, allowing for custom scrolling behavior to the target element specified by contentDataId.
@@ -21,11 +25,26 @@ public class LocatorAnchor extends Anchor {
      */
     public LocatorAnchor(JsonObject contentData, String contentDataId, DomEventListener scrollClickListener) {
         this.setHref("#");
-        this.setText(contentData.getString("text"));
+        this.displayedText = contentData.getString("text");
+        this.setText(displayedText);
         this.setWidthFull();
         this.getStyle().set("display", "block");
         this.getElement().setAttribute("data-target-id", contentDataId);
         this.getElement().addEventListener("click", scrollClickListener)
                 .addEventData("event.preventDefault()");
     }
+
+    /**
+     * Updates the anchor with new content data of the same block.
+     * The text is sent to the client only when it differs from the displayed one.
+     *
+     * @param contentData the JSON object containing the new content data for the anchor.
+     */
+    public void update(JsonObject contentData) {
+        String text = contentData.getString("text");
+        if (!Objects.equals(displayedText, text)) {
+            displayedText = text;
+            setText(text);
+        }
+    }
 }
@@ -1,6 +1,5 @@
 package cz.uhk.zlesak.threejslearningapp.components.common;
 
-import com.google.gson.Gson;
 import com.vaadin.flow.component.ClientCallable;
 import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentEventListener;
@@ -8,19 +7,30 @@ import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.dependency.NpmPackage;
 import com.vaadin.flow.function.SerializableRunnable;
+import cz.uhk.zlesak.threejslearningapp.common.AssetVersions;
 import cz.uhk.zlesak.threejslearningapp.components.forms.ModelUploadForm;
 import cz.uhk.zlesak.threejslearningapp.components.notifications.InfoNotification;
+import cz.uhk.zlesak.threejslearningapp.events.threejs.ThreeJsClientTimings;
 import cz.uhk.zlesak.threejslearningapp.events.threejs.ThreeJsDoingActions;
 import cz.uhk.zlesak.threejslearningapp.events.threejs.ThreeJsFinishedActions;
+import cz.uhk.zlesak.threejslearningapp.events.threejs.ThreeJsLoadProgress;
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import elemental.json.JsonValue;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Scope;
 
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 
 /**
  * This component integrates Three.js into a Vaadin application.
  * It allows for rendering 3D models and handling user interactions.
  * This class main purpose is to provide a bridge between the Java backend and the JavaScript Three.js library.
+ * Files with URLs versioned by their content hash are announced to the client in an asset manifest before they are loaded,
+ * the client keeps them in the persistent Cache Storage of the browser keyed by the hash and loads unchanged files without any download.
  */
 @Slf4j
 @JsModule("./js/threejs/three-javascript.js")
@@ -30,6 +40,8 @@ import java.util.Map;
 public class ThreeJs extends Component {
 
     private Runnable onDisposedCallback;
+    private JsonArray pendingCommands = Json.createArray();
+    private boolean flushScheduled = false;
 
     /**
      * Default constructor for ThreeJsComponent.
@@ -60,11 +72,13 @@ public class ThreeJs extends Component {
      * This is crucial for cleaning up resources and preventing memory leaks and memory blockages.
      * It calls the JavaScript function to dispose of the Three.js scene and renderer.
      * After the disposal is complete, it triggers a server-side callback to notify that the component has been disposed of.
+     * Commands queued but not sent yet are dropped, as there is no scene left to apply them to.
      *
      * @param onDisposed a callback that will be executed after the component is disposed of.
      */
     public void dispose(SerializableRunnable onDisposed) {
         this.onDisposedCallback = onDisposed;
+        pendingCommands = Json.createArray();
         getElement().executeJs("""
                 window.disposeThree($0).then(() => {
                     $1.$server.notifyDisposed();
@@ -72,6 +86,16 @@ public class ThreeJs extends Component {
                 """, getElement(), this);
     }
 
+    /**
+     * Cancels all asset downloads currently running in the renderer.
+     * The client aborts its fetch requests, so the stream endpoints stop reading the files from the backend as well.
+     * Commands queued but not sent yet are dropped, loading started afterward works normally.
+     */
+    public void cancelLoading() {
+        pendingCommands = Json.createArray();
+        getElement().executeJs("window.cancelThreeLoading && window.cancelThreeLoading(this)");
+    }
+
     /**
      * This method is called from the JavaScript side to notify the server that the component has been disposed of.
      * It executes the onDisposedCallback if it is set, allowing for any additional cleanup or actions to be performed after disposal.
@@ -86,98 +110,66 @@ public class ThreeJs extends Component {
 
     /**
      * Loads a 3D model into the Three.js scene.
-     * This method expects a base64 encoded string of the model data.
-     * It calls the JavaScript function loadModel to handle the loading process.
+     * It queues the loadModel command handled by the client dispatcher.
      * Loading methods are now separated into two methods, one for basic models and one for advanced models.
      * This allows for more flexibility in handling different types of models  based on the selected model upload method.
      *
-     * @param modelUrl the base64 encoded string of the model data.
+     * @param modelUrl URL of the model data.
      * @param modelId  id of the loaded model.
      */
     private void loadModel(String modelUrl, String modelId) {
-        getElement().executeJs("""
-                try {
-                    if (typeof window.loadModel === 'function') {
-                        window.loadModel($0, $1);
-                    }
-                } catch (e) {
-                    console.error('[JS] Error in loadModel:', e);
-                }
-                """, getElement(), modelUrl, modelId);
+        registerAssetVersions(modelUrl);
+        enqueue(CommandType.LOAD_MODEL, modelUrl, modelId);
     }
 
     /**
      * Loads an advanced 3D model into the Three.js scene.
-     * This method expects two base64 encoded strings: one for the object data and one for the texture data.
-     * It calls the JavaScript function loadAdvancedModel to handle the loading process.
+     * It queues the loadAdvancedModel command handled by the client dispatcher.
      * This method is used for models that require both an object file and a texture file.
      * This allows for models to be loaded into the scene with multiple textures.
      * This loading methods needs only the main texture, as other may not be provided.
      * Other textures can be added later using the addOtherTexture method.
      *
-     * @param objectUrl  the base64 encoded string of the object data.
-     * @param textureUrl the base64 encoded string of the texture data.
+     * @param objectUrl  URL of the object data.
+     * @param textureUrl URL of the texture data.
      * @param modelId    id of the loaded model.
      */
     public void loadModel(String objectUrl, String textureUrl, String modelId) {
         if (textureUrl == null || textureUrl.isBlank()) {
             loadModel(objectUrl, modelId);
         } else {
-            getElement().executeJs("""
-                    try {
-                        if (typeof window.loadAdvancedModel === 'function') {
-                            window.loadAdvancedModel($0, $1, $2, $3);
-                        }
-                    } catch (e) {
-                        console.error('[JS] Error in loadAdvancedModel:', e);
-                    }
-                    """, getElement(), objectUrl, textureUrl, modelId);
+            registerAssetVersions(objectUrl, textureUrl);
+            enqueue(CommandType.LOAD_ADVANCED_MODEL, objectUrl, textureUrl, modelId);
         }
     }
 
     /**
-     * Clears the Three.js scene by executing the clear function defined in the JavaScript module.
+     * Clears the Three.js scene by queueing the clear command.
      * This method is used to remove all objects from the scene, effectively resetting it.
      * It is useful for starting fresh without reloading the entire component.
      */
     public void clear() {
-        getElement().executeJs("""
-                try {
-                    if (typeof window.clear === 'function') {
-                        window.clear($0);
-                    }
-                } catch (e) {
-                    console.error('[JS] Error in clearModel:', e);
-                }
-                """, getElement());
+        enqueue(CommandType.CLEAR);
     }
 
     /**
-     * Adds a texture to the Three.js scene.
-     * This method expects a base64 encoded string of the texture data.
-     * It calls the JavaScript function addTexture to handle the addition of the texture.
+     * Adds other textures of a model to the Three.js scene.
+     * The texture map is sent as a JSON object inside the command batch, so it does not need to be serialized separately.
      * This is used to apply textures to models in the scene.
      *
-     * @param otherTexturesUrl the base64 encoded string of the texture data.
+     * @param otherTexturesUrl map of texture IDs to texture URLs.
      * @param modelId          id of the loaded model.
      */
     public void addOtherTextures(Map<String, String> otherTexturesUrl, String modelId) {
         if (otherTexturesUrl.isEmpty()) return;
-        String jsonTextures = new Gson().toJson(otherTexturesUrl);
-        getElement().executeJs("""
-                try {
-                    if (typeof window.addOtherTextures === 'function') {
-                        window.addOtherTextures($0, $1, $2);
-                    }
-                } catch (e) {
-                    console.error('[JS] Error in addOtherTexture:', e);
-                }
-                """, getElement(), jsonTextures, modelId);
+        JsonObject textures = Json.createObject();
+        otherTexturesUrl.forEach((textureId, url) -> textures.put(textureId, url));
+        registerAssetVersions(otherTexturesUrl.values().toArray(String[]::new));
+        enqueue(CommandType.ADD_OTHER_TEXTURES, textures, Json.create(modelId));
     }
 
     /**
      * Removes a texture from the Three.js scene based on its identifier.
-     * This method calls the JavaScript function removeOtherTexture to handle the removal process.
      * It is used to delete textures that are no longer needed or to free up resources.
      *
      * @param textureId identification of the texture to be deleted
@@ -186,59 +178,32 @@ public class ThreeJs extends Component {
      */
     public void removeOtherTexture(String modelId, String textureId) {
         if (textureId.isEmpty() || modelId.isEmpty()) return;
-        getElement().executeJs("""
-                try {
-                    if (typeof window.removeOtherTexture === 'function') {
-                        window.removeOtherTexture($0, $1, $2);
-                    }
-                } catch (e) {
-                    console.error('[JS] Error in removeOtherTexture:', e);
-                }
-                """, getElement(), modelId, textureId);
+        enqueue(CommandType.REMOVE_OTHER_TEXTURE, modelId, textureId);
     }
 
     /**
      * Switches the currently displayed texture to another texture in the Three.js scene.
-     * This method calls the JavaScript function switchOtherTexture to handle the switching process.
      * It is used to change the texture of the currently selected model or object in the scene.
      *
      * @param textureId identification of the texture to be switched to
      * @param modelId   identification of the model the texture belongs to
      */
     public void switchOtherTexture(String modelId, String textureId) {
-        getElement().executeJs("""
-                try {
-                    if (typeof window.switchOtherTexture === 'function') {
-                        window.switchOtherTexture($0, $1, $2);
-                    }
-                } catch (e) {
-                    console.error('[JS] Error in switchOtherTexture:', e);
-                }
-                """, getElement(), modelId, textureId);
+        enqueue(CommandType.SWITCH_OTHER_TEXTURE, modelId, textureId);
     }
 
     /**
      * Switches the currently displayed 3D model in the Three.js scene.
-     * This method calls the JavaScript function showModel to handle the model switching process.
      * It is used to change the model being displayed in the scene.
      *
      * @param modelId identification of the model to be displayed
      */
     public void showModel(String modelId) {
-        getElement().executeJs("""
-                try {
-                    if (typeof window.showModel === 'function') {
-                        window.showModel($0, $1);
-                    }
-                } catch (e) {
-                    console.error('[JS] Error in switchOtherModel:', e);
-                }
-                """, getElement(), modelId);
+        enqueue(CommandType.SHOW_MODEL, modelId);
     }
 
     /**
      * Applies a mask to the main texture of the currently displayed model in the Three.js scene.
-     * This method calls the JavaScript function applyMaskToMainTexture to handle the masking process.
      * The maskColor parameter is expected to be a string representing the color to be applied as a mask.
      * This is used to visually modify the main texture by applying a color mask.
      * This is needed as the user can choose a color to be applied as a mask to the main texture based on the provided colours defining parts of the model.
@@ -249,15 +214,76 @@ public class ThreeJs extends Component {
      *
      */
     public void applyMaskToMainTexture(String modelId, String textureId, String maskColor) {
-        getElement().executeJs("""
-                try {
-                    if (typeof window.applyMaskToMainTexture === 'function') {
-                        window.applyMaskToMainTexture($0, $1, $2, $3, $4);
-                    }
-                } catch (e) {
-                    console.error('[JS] Error in applyMaskToMainTexture:', e);
-                }
-                """, getElement(), modelId, textureId, maskColor);
+        enqueue(CommandType.APPLY_MASK_TO_MAIN_TEXTURE, modelId, textureId, maskColor);
+    }
+
+    /**
+     * Queues the asset manifest of the versioned URLs among the given ones, mapping each URL to the content hash it is versioned by.
+     * The client uses the hashes as the keys of its persistent asset cache, unversioned URLs are fetched as before.
+     *
+     * @param urls URLs of the files about to be loaded, null values are skipped
+     */
+    private void registerAssetVersions(String... urls) {
+        JsonObject manifest = Json.createObject();
+        for (String url : urls) {
+            String version = AssetVersions.versionOf(url);
+            if (version != null) {
+                manifest.put(url, version);
+            }
+        }
+        if (manifest.keys().length > 0) {
+            enqueue(CommandType.ASSET_MANIFEST, manifest);
+        }
+    }
+
+    /**
+     * Queues a command with string arguments.
+     *
+     * @param type      type of the command
+     * @param arguments string arguments of the command, null values are sent as JSON null
+     */
+    private void enqueue(CommandType type, String... arguments) {
+        JsonValue[] values = new JsonValue[arguments.length];
+        for (int i = 0; i < arguments.length; i++) {
+            values[i] = arguments[i] == null ? Json.createNull() : Json.create(arguments[i]);
+        }
+        enqueue(type, values);
+    }
+
+    /**
+     * Queues a command to be sent to the client dispatcher.
+     * Commands queued during one server round-trip are sent together as one batch right before the response is written,
+     * each command is encoded as a compact array of its code followed by its arguments.
+     *
+     * @param type      type of the command
+     * @param arguments arguments of the command
+     */
+    private void enqueue(CommandType type, JsonValue... arguments) {
+        JsonArray command = Json.createArray();
+        command.set(0, type.code);
+        for (JsonValue argument : arguments) {
+            command.set(command.length(), argument);
+        }
+        pendingCommands.set(pendingCommands.length(), command);
+        if (!flushScheduled) {
+            flushScheduled = true;
+            getElement().getNode().runWhenAttached(ui -> ui.beforeClientResponse(this, context -> flushCommands()));
+        }
+    }
+
+    /**
+     * Sends all queued commands to the client dispatcher in a single JavaScript call.
+     * The dispatcher keeps the order of dependent commands (e.g. textures of a model after the model, the scene commands among themselves),
+     * while independent commands such as loading of different models and their textures run concurrently, clear waits for all commands before it.
+     */
+    private void flushCommands() {
+        flushScheduled = false;
+        if (pendingCommands.length() == 0) {
+            return;
+        }
+        JsonArray batch = pendingCommands;
+        pendingCommands = Json.createArray();
+        getElement().executeJs("window.dispatchThreeCommands && window.dispatchThreeCommands(this, $0)", batch);
     }
 
     /**
@@ -290,6 +316,40 @@ public class ThreeJs extends Component {
         fireEvent(new ThreeJsFinishedActions(this));
     }
 
+    /**
+     * This method is called from the JavaScript side to report the byte progress of a downloaded asset.
+     * The client throttles the reports, so it is called only a few times per second for each asset.
+     *
+     * @param assetUrl    URL of the downloaded asset.
+     * @param loadedBytes number of bytes downloaded so far.
+     * @param totalBytes  total size of the asset in bytes, zero when unknown.
+     */
+    @ClientCallable
+    public void loadProgress(String assetUrl, double loadedBytes, double totalBytes) {
+        fireEvent(new ThreeJsLoadProgress(this, assetUrl, (long) loadedBytes, (long) totalBytes));
+    }
+
+    /**
+     * This method is called from the JavaScript side to report timings of the renderer, e.g. asset downloads, model parsing and the first frame.
+     * Each timing is an object with name, asset, startMsAgo and endMsAgo, the times are relative to sending of the report.
+     *
+     * @param timings array of the measured timings.
+     */
+    @ClientCallable
+    public void reportTimings(JsonArray timings) {
+        long receivedAt = System.currentTimeMillis();
+        List<ThreeJsClientTimings.ClientTiming> clientTimings = new ArrayList<>();
+        for (int i = 0; i < timings.length(); i++) {
+            JsonObject timing = timings.getObject(i);
+            clientTimings.add(new ThreeJsClientTimings.ClientTiming(
+                    timing.getString("name"),
+                    timing.hasKey("asset") ? timing.getString("asset") : "",
+                    timing.getNumber("startMsAgo"),
+                    timing.getNumber("endMsAgo")));
+        }
+        fireEvent(new ThreeJsClientTimings(this, receivedAt, clientTimings));
+    }
+
     /**
      * Adds a listener for the ThreeJsDoingActions event.
      * This allows other components to react when the Three.js renderer starts performing actions.
@@ -309,4 +369,45 @@ public class ThreeJs extends Component {
     public void addThreeJsFinishedActionsListener(ComponentEventListener<ThreeJsFinishedActions> listener) {
         addListener(ThreeJsFinishedActions.class, listener);
     }
+
+    /**
+     * Adds a listener for the ThreeJsClientTimings event.
+     * This allows the page load tracing to include the timings measured by the renderer in the browser.
+     *
+     * @param listener the listener to be added for ThreeJsClientTimings events.
+     */
+    public void addThreeJsClientTimingsListener(ComponentEventListener<ThreeJsClientTimings> listener) {
+        addListener(ThreeJsClientTimings.class, listener);
+    }
+
+    /**
+     * Adds a listener for the ThreeJsLoadProgress event.
+     * This allows other components to display the download progress of the assets loaded by the renderer.
+     *
+     * @param listener the listener to be added for ThreeJsLoadProgress events.
+     */
+    public void addThreeJsLoadProgressListener(ComponentEventListener<ThreeJsLoadProgress> listener) {
+        addListener(ThreeJsLoadProgress.class, listener);
+    }
+
+    /**
+     * Types of commands understood by the client dispatcher, every type is sent as its short code.
+     */
+    private enum CommandType {
+        LOAD_MODEL("m"),
+        LOAD_ADVANCED_MODEL("a"),
+        CLEAR("c"),
+        ADD_OTHER_TEXTURES("t"),
+        REMOVE_OTHER_TEXTURE("r"),
+        SWITCH_OTHER_TEXTURE("s"),
+        SHOW_MODEL("v"),
+        APPLY_MASK_TO_MAIN_TEXTURE("k"),
+        ASSET_MANIFEST("h");
+
+        private final String code;
+
+        CommandType(String code) {
+            this.code = code;
+        }
+    }
 }
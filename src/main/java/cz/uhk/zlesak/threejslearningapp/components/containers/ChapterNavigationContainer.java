@@ -1,12 +1,12 @@
 package cz.uhk.zlesak.threejslearningapp.components.containers;
 
 import com.vaadin.flow.component.AttachEvent;
+import com.vaadin.flow.component.Component;
 import com.vaadin.flow.component.ComponentUtil;
 import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.button.Button;
 import com.vaadin.flow.component.button.ButtonVariant;
-import com.vaadin.flow.component.html.Anchor;
 import com.vaadin.flow.component.icon.VaadinIcon;
 import com.vaadin.flow.component.orderedlayout.Scroller;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
@@ -17,20 +17,21 @@ import cz.uhk.zlesak.threejslearningapp.components.common.LocatorAnchor;
 import cz.uhk.zlesak.threejslearningapp.components.selects.ChapterSelect;
 import cz.uhk.zlesak.threejslearningapp.components.inputs.textFields.SearchTextField;
 import cz.uhk.zlesak.threejslearningapp.events.chapter.SubChapterChangeEvent;
+import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import elemental.json.JsonValue;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Scope;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.util.*;
 
 /**
  * Component for displaying navigation content based on sub-chapters.
  * It initializes sub-chapter data and provides methods to show or hide sub-chapter navigation content.
  * The component listens for click events on individual "catch" points that then scroll to specific sub-chapter locations.
  * Includes a toggle button to collapse/expand the navigation content.
+ * Sub-chapter data are reconciled incrementally by block IDs and visibility changes are batched into a single client call per round-trip.
  */
 @Slf4j
 @Scope("prototype")
@@ -41,6 +42,15 @@ public class ChapterNavigationContainer extends VerticalLayout {
     private final VerticalLayout searchContainer;
     private boolean isExpanded = true;
     private final List<Registration> registrations = new ArrayList<>();
+    private final Map<String, VerticalLayout> subChapterLayouts = new LinkedHashMap<>();
+    private final Map<String, LocatorAnchor> locatorAnchors = new HashMap<>();
+    private final Map<String, Boolean> pendingVisibility = new LinkedHashMap<>();
+    private final Map<String, Boolean> appliedVisibility = new HashMap<>();
+    private boolean visibilityFlushScheduled = false;
+    private final DomEventListener scrollClickListener = event -> {
+        String dataIdToScroll = event.getSource().getAttribute("data-target-id");
+        UI.getCurrent().getPage().executeJs("window.scrollToDataId($0)", dataIdToScroll);
+    };
 
     /**
      * Constructor for NavigationContentComponent.
@@ -139,66 +149,155 @@ public class ChapterNavigationContainer extends VerticalLayout {
 
     /**
      * Initializes the sub-chapter data by parsing the provided JSON content.
-     * It creates a vertical layout for each sub-chapter and adds anchors for each content block.
+     * It keeps a vertical layout for each sub-chapter and an anchor for each content block.
      * Each anchor is set up with a click listener that scrolls to the corresponding sub-chapter location in EditorJs
+     * The data are reconciled with the already displayed ones by sub-chapter and block IDs,
+     * so only added, removed or changed blocks are sent to the client when the method is called repeatedly.
      *
      * @param subChaptersContent The JSON content containing sub-chapter data, including headings and content blocks.
      */
     public void initializeSubChapterData(JsonValue subChaptersContent) {
-        DomEventListener scrollClickListener = event -> {
-            String dataIdToScroll = event.getSource().getAttribute("data-target-id");
-            UI.getCurrent().getPage().executeJs("window.scrollToDataId($0)", dataIdToScroll);
-        };
-
-        if (subChaptersContent instanceof JsonArray jsonArray) {
-            for (int i = 0; i < jsonArray.length(); i++) {
-                JsonObject obj = jsonArray.getObject(i);
-                JsonObject h1 = obj.getObject("h1");
-                JsonArray content = obj.getArray("content");
-
-                VerticalLayout contentLayout = new VerticalLayout();
+        if (!(subChaptersContent instanceof JsonArray jsonArray)) {
+            return;
+        }
+        Map<String, VerticalLayout> reconciledLayouts = new LinkedHashMap<>();
+        Map<String, LocatorAnchor> reconciledAnchors = new HashMap<>();
+
+        for (int i = 0; i < jsonArray.length(); i++) {
+            JsonObject obj = jsonArray.getObject(i);
+            JsonObject h1 = obj.getObject("h1");
+            JsonArray content = obj.getArray("content");
+            String subChapterId = h1.getString("id");
+
+            VerticalLayout contentLayout = subChapterLayouts.get(subChapterId);
+            if (contentLayout == null) {
+                contentLayout = new VerticalLayout();
                 contentLayout.setPadding(false);
-                contentLayout.setId(h1.getString("id"));
-                Anchor mainHeadingAnchor = new LocatorAnchor(h1.getObject("data"), h1.getString("id"), scrollClickListener);
-                contentLayout.add(mainHeadingAnchor);
-
-                for (int j = 0; j < content.length(); j++) {
-                    JsonObject contentBlock = content.getObject(j);
-                    JsonObject contentData = contentBlock.getObject("data");
-                    String contentDataId = contentBlock.getString("id");
-                    Anchor contentLocationAnchor = new LocatorAnchor(contentData, contentDataId, scrollClickListener);
-                    contentLocationAnchor.setId(contentDataId);
-                    contentLayout.add(contentLocationAnchor);
-                }
-                hideSubchapterNavigationContent(h1.getString("id"));
-                contentContainer.add(contentLayout);
+                contentLayout.setId(subChapterId);
+                hideSubchapterNavigationContent(subChapterId);
+            }
+
+            List<Component> anchors = new ArrayList<>();
+            anchors.add(reconcileAnchor(h1.getObject("data"), subChapterId, false, reconciledAnchors));
+            for (int j = 0; j < content.length(); j++) {
+                JsonObject contentBlock = content.getObject(j);
+                anchors.add(reconcileAnchor(contentBlock.getObject("data"), contentBlock.getString("id"), true, reconciledAnchors));
+            }
+            reconcileChildren(contentLayout, anchors);
+            reconciledLayouts.put(subChapterId, contentLayout);
+        }
+
+        pendingVisibility.keySet().removeIf(id -> !reconciledLayouts.containsKey(id));
+        appliedVisibility.keySet().removeIf(id -> !reconciledLayouts.containsKey(id));
+        reconcileChildren(contentContainer, new ArrayList<>(reconciledLayouts.values()));
+
+        subChapterLayouts.clear();
+        subChapterLayouts.putAll(reconciledLayouts);
+        locatorAnchors.clear();
+        locatorAnchors.putAll(reconciledAnchors);
+    }
+
+    /**
+     * Returns the anchor for the block, reusing the already displayed one with the same block ID.
+     * The text of a reused anchor is updated only when it has changed.
+     *
+     * @param contentData       data of the block
+     * @param blockId           ID of the block
+     * @param setId             whether the anchor element should get the block ID as its ID
+     * @param reconciledAnchors anchors of the new state collected so far
+     * @return anchor for the block
+     */
+    private LocatorAnchor reconcileAnchor(JsonObject contentData, String blockId, boolean setId, Map<String, LocatorAnchor> reconciledAnchors) {
+        LocatorAnchor anchor = locatorAnchors.get(blockId);
+        if (anchor == null || reconciledAnchors.containsKey(blockId)) {
+            anchor = new LocatorAnchor(contentData, blockId, scrollClickListener);
+            if (setId) {
+                anchor.setId(blockId);
+            }
+        } else {
+            anchor.update(contentData);
+        }
+        reconciledAnchors.put(blockId, anchor);
+        return anchor;
+    }
+
+    /**
+     * Makes the children of the layout equal to the desired list while touching only the children that are added, removed or moved.
+     *
+     * @param layout  layout to reconcile
+     * @param desired desired children in the desired order
+     */
+    private void reconcileChildren(VerticalLayout layout, List<? extends Component> desired) {
+        Set<Component> desiredSet = Collections.newSetFromMap(new IdentityHashMap<>());
+        desiredSet.addAll(desired);
+        layout.getChildren().filter(child -> !desiredSet.contains(child)).toList().forEach(layout::remove);
+
+        for (int i = 0; i < desired.size(); i++) {
+            Component component = desired.get(i);
+            if (i >= layout.getComponentCount() || layout.getComponentAt(i) != component) {
+                layout.addComponentAtIndex(i, component);
             }
         }
     }
 
     /**
      * Hides the sub-chapter navigation by setting its display style to 'none'.
+     * The change is sent to the client together with all other visibility changes of the same round-trip.
      *
      * @param subchapterId The ID of the sub-chapter element to hide.
      */
     public void hideSubchapterNavigationContent(String subchapterId) {
-        UI.getCurrent().getPage().executeJs(
-                "const el = document.getElementById($0); if (el) { el.style.display = 'none'; }",
-                subchapterId
-        );
+        setSubchapterNavigationContentVisible(subchapterId, false);
     }
 
     /**
      * Shows the sub-chapter navigation by setting its display style to 'block'.
      * This method is used to make the sub-chapter navigation visible when needed.
+     * The change is sent to the client together with all other visibility changes of the same round-trip.
      *
      * @param subchapterId The ID of the sub-chapter element to show.
      */
     public void showSubchapterNavigationContent(String subchapterId) {
-        UI.getCurrent().getPage().executeJs(
-                "const el = document.getElementById($0); if (el) { el.style.display = 'block'; }",
-                subchapterId
-        );
+        setSubchapterNavigationContentVisible(subchapterId, true);
+    }
+
+    /**
+     * Records the requested visibility of the sub-chapter navigation and schedules the flush before the client response.
+     *
+     * @param subchapterId The ID of the sub-chapter element.
+     * @param visible      requested visibility
+     */
+    private void setSubchapterNavigationContentVisible(String subchapterId, boolean visible) {
+        pendingVisibility.put(subchapterId, visible);
+        if (!visibilityFlushScheduled) {
+            visibilityFlushScheduled = true;
+            UI.getCurrent().beforeClientResponse(this, context -> flushVisibilityChanges());
+        }
+    }
+
+    /**
+     * Sends all pending visibility changes that differ from the already applied ones in a single client call.
+     */
+    private void flushVisibilityChanges() {
+        visibilityFlushScheduled = false;
+        JsonObject changes = Json.createObject();
+        pendingVisibility.forEach((id, visible) -> {
+            if (!visible.equals(appliedVisibility.get(id))) {
+                changes.put(id, visible);
+                appliedVisibility.put(id, visible);
+            }
+        });
+        pendingVisibility.clear();
+        if (changes.keys().length == 0) {
+            return;
+        }
+        getElement().executeJs("""
+                const changes = $0;
+                for (const id of Object.keys(changes)) {
+                    const el = document.getElementById(id);
+                    if (el) { el.style.display = changes[id] ? 'block' : 'none'; }
+                }
+                """, changes);
     }
 
     @Override
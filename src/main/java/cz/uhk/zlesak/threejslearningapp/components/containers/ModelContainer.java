@@ -8,6 +8,7 @@ import cz.uhk.zlesak.threejslearningapp.components.common.ThreeJs;
 /**
  * ModelDiv is a custom Div component that contains a ThreeJsComponent for rendering 3D models,
  * along with an overlay progress bar and description for loading actions coming back from the ThreeJsComponent.
+ * While an asset with a known size is being downloaded, the progress bar shows its byte progress.
  *
  * @see ThreeJs
  */
@@ -62,6 +63,14 @@ public class ModelContainer extends Div {
             showOverlayProgressBar();
         });
         renderer.addThreeJsFinishedActionsListener(e -> hideOverlayProgressBar());
+        renderer.addThreeJsLoadProgressListener(e -> {
+            if (e.getTotalBytes() > 0 && e.getLoadedBytes() < e.getTotalBytes()) {
+                overlayProgressBar.setIndeterminate(false);
+                overlayProgressBar.setValue((double) e.getLoadedBytes() / e.getTotalBytes());
+            } else {
+                overlayProgressBar.setIndeterminate(true);
+            }
+        });
 
         return rendererContainer;
     }
@@ -136,6 +145,7 @@ public class ModelContainer extends Div {
      * This method makes the overlay background, progress bar, and action description invisible.
      */
     private void hideOverlayProgressBar() {
+        overlayProgressBar.setIndeterminate(true);
         overlayBackground.setVisible(false);
         overlayProgressBar.setVisible(false);
         actionDescription.setVisible(false);
@@ -0,0 +1,52 @@
+package cz.uhk.zlesak.threejslearningapp.components.dialogs;
+
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.dialog.Dialog;
+import cz.uhk.zlesak.threejslearningapp.common.SpringContextUtils;
+import cz.uhk.zlesak.threejslearningapp.drafts.ChapterDraft;
+import cz.uhk.zlesak.threejslearningapp.i18n.CustomI18NProvider;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.FormatStyle;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * DraftRestoreDialog Class - Provides a dialog offering to restore the autosaved draft of a chapter,
+ * e.g. after the page was reloaded or the connection to the server was lost while the chapter was being created.
+ */
+public class DraftRestoreDialog {
+    /**
+     * Open method - Displays the dialog offering to restore the draft
+     *
+     * @param draft     the autosaved draft
+     * @param onRestore a consumer receiving the draft when the user chooses to restore it
+     * @param onDiscard an action run when the user chooses to discard the draft
+     */
+    public static void open(ChapterDraft draft, Consumer<ChapterDraft> onRestore, Runnable onDiscard) {
+        CustomI18NProvider i18n = SpringContextUtils.getBean(CustomI18NProvider.class);
+        Locale locale = UI.getCurrent().getLocale();
+        String savedAt = DateTimeFormatter.ofLocalizedDateTime(FormatStyle.SHORT).withLocale(locale)
+                .format(Instant.ofEpochMilli(draft.savedAt()).atZone(ZoneId.systemDefault()));
+
+        Dialog restoreDialog = new Dialog();
+        restoreDialog.setHeaderTitle(i18n.getTranslation("draftRestoreDialog.title", locale));
+        restoreDialog.add(i18n.getTranslation("draftRestoreDialog.info", locale) + " (" + savedAt + ").");
+
+        Button restoreButton = new Button(i18n.getTranslation("draftRestoreDialog.restore", locale), e -> {
+            restoreDialog.close();
+            onRestore.accept(draft);
+        });
+        Button discardButton = new Button(i18n.getTranslation("draftRestoreDialog.discard", locale), e -> {
+            restoreDialog.close();
+            onDiscard.run();
+        });
+        restoreDialog.getFooter().add(restoreButton, discardButton);
+        restoreDialog.setCloseOnEsc(false);
+        restoreDialog.setCloseOnOutsideClick(false);
+        restoreDialog.open();
+    }
+}
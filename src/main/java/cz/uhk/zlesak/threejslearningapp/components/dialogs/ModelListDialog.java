@@ -11,6 +11,8 @@ import java.util.function.Consumer;
  * ModelListDialog Class - A dialog component that displays a list of 3D models for selection.
  * It utilizes the ModelListView to present the models and allows users to select one.
  * Upon selection, a listener is triggered to handle the selected model.
+ * The dialog can be reused for more targets, the listener can be provided on every opening via open(Consumer).
+ * The listing data are fetched only when the dialog is opened.
  */
 @Setter
 public class ModelListDialog extends Dialog {
@@ -47,5 +49,16 @@ public class ModelListDialog extends Dialog {
         modelListView.listModels(false);
         modelListView.setModelSelectedListener(this::onModelSelected);
     }
+
+    /**
+     * Opens the dialog for a specific target, the listener replaces any listener set before.
+     * Used when a single dialog instance is shared by more selects.
+     *
+     * @param modelSelectedListener listener to be called with the selected model
+     */
+    public void open(Consumer<QuickModelEntity> modelSelectedListener) {
+        this.modelSelectedListener = modelSelectedListener;
+        open();
+    }
 }
 
@@ -8,21 +8,24 @@ import com.vaadin.flow.component.dependency.JsModule;
 import com.vaadin.flow.component.dependency.NpmPackage;
 import com.vaadin.flow.shared.Registration;
 import cz.uhk.zlesak.threejslearningapp.components.inputs.textFields.SearchTextField;
+import cz.uhk.zlesak.threejslearningapp.domain.chapter.ChapterBlockDocument;
 import cz.uhk.zlesak.threejslearningapp.events.editor.MarkdownModeToggleEvent;
 import cz.uhk.zlesak.threejslearningapp.events.editor.MarkdownValueChangedEvent;
 import cz.uhk.zlesak.threejslearningapp.domain.model.QuickModelEntity;
 import cz.uhk.zlesak.threejslearningapp.domain.model.ModelForSelect;
 import cz.uhk.zlesak.threejslearningapp.domain.texture.TextureAreaForSelect;
 import cz.uhk.zlesak.threejslearningapp.domain.texture.TextureListingForSelect;
+import cz.uhk.zlesak.threejslearningapp.domain.parsers.EditorJsMarkdownConverter;
 import cz.uhk.zlesak.threejslearningapp.domain.parsers.ModelListingDataParser;
 import cz.uhk.zlesak.threejslearningapp.domain.parsers.TextureListingDataParser;
 import cz.uhk.zlesak.threejslearningapp.common.TextureMapHelper;
-import elemental.json.JsonValue;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Scope;
 
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 
 /**
@@ -31,34 +34,120 @@ import java.util.concurrent.CompletableFuture;
  * toggling read-only mode, and setting chapter content data.
  * It uses JavaScript interop to call methods defined in the Editor.js JavaScript module.
  * This is the heart of the Editor.js integration, allowing for rich text editing capabilities within a Vaadin application.
+ * Conversion between the blocks and Markdown is done on the server by the EditorJsMarkdownConverter.
+ * While the editor is editable, it sends block level deltas of its changes and the server keeps the canonical block list
+ * in the ChapterBlockDocument, so reading the content does not transfer the whole chapter from the browser.
+ *
+ * @see EditorJsMarkdownConverter
+ * @see ChapterBlockDocument
  */
+@Slf4j
 @Tag("editor-js")
 @JsModule("./js/editorjs/editor-js.ts")
 @NpmPackage(value = "@editorjs/editorjs", version = "2.30.8")
 @Scope("prototype")
 public class EditorJs extends Component implements HasSize, HasStyle {
     private final List<Registration> registrations = new ArrayList<>();
+    private final EditorJsMarkdownConverter markdownConverter = new EditorJsMarkdownConverter();
+    private final ChapterBlockDocument blockDocument = new ChapterBlockDocument();
+    private Runnable blocksChangedListener;
 
     /**
      * Default constructor for EditorJsComponent.
      * Does not take any parameters as they are not needed at the time of instantiation.
+     * Registers the listener of the block deltas sent by the editor.
      */
     public EditorJs() {
+        getElement().addEventListener("blocks-delta", event -> applyBlocksDelta(event.getEventData().getString("event.detail")))
+                .addEventData("event.detail");
     }
 
     /**
      * Retrieves data from the Editor.js instance as a JSON string.
+     * When the server side block list is in sync, only the changes not sent yet are requested from the editor
+     * and the content is serialized on the server, otherwise the whole content is requested from the editor.
      *
      * @return JSON as string with data retrieved from Editor.js.
      */
     public CompletableFuture<String> getData() {
-        return getElement().callJsFunction("getData").toCompletableFuture()
-                .thenApply(json -> {
-                    String result = json.asString();
-                    return (result == null || result.isEmpty()) ? "{}" : result;
+        return flushBlocks().thenCompose(inSync -> {
+            if (inSync) {
+                try {
+                    return CompletableFuture.completedFuture(blockDocument.toContent());
+                } catch (JsonProcessingException e) {
+                    log.warn("Obsah editoru nelze sestavit ze synchronizovaných bloků: {}", e.getMessage());
+                }
+            }
+            return getElement().callJsFunction("getData").toCompletableFuture()
+                    .thenApply(json -> {
+                        String result = json.asString();
+                        return (result == null || result.isEmpty()) ? "{}" : result;
+                    });
+        });
+    }
+
+    /**
+     * Requests the block changes not sent by the editor yet and applies them to the server side block list.
+     *
+     * @return future with true if the server side block list is in sync with the editor
+     */
+    private CompletableFuture<Boolean> flushBlocks() {
+        return getElement().callJsFunction("flushBlocks").toCompletableFuture()
+                .thenApply(pending -> {
+                    String delta = pending.asString();
+                    return (delta == null || delta.isEmpty()) ? blockDocument.isInSync() : applyBlocksDelta(delta);
                 });
     }
 
+    /**
+     * Sets the listener notified whenever a block delta sent by the editor is applied, e.g. to autosave the content.
+     *
+     * @param blocksChangedListener listener of the applied deltas, null to remove it
+     */
+    public void setBlocksChangedListener(Runnable blocksChangedListener) {
+        this.blocksChangedListener = blocksChangedListener;
+    }
+
+    /**
+     * Returns the content of the server side block list without calling the editor.
+     *
+     * @return Editor.js content as a JSON string, empty if the block list is not in sync with the editor
+     */
+    public Optional<String> getSyncedData() {
+        if (!blockDocument.isInSync()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(blockDocument.toContent());
+        } catch (JsonProcessingException e) {
+            log.warn("Obsah editoru nelze sestavit ze synchronizovaných bloků: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Applies the block delta sent by the editor to the server side block list.
+     * When the delta does not match the version of the list, the editor is asked to send its full state.
+     *
+     * @param delta block delta as a JSON string
+     * @return true if the delta was applied
+     */
+    private boolean applyBlocksDelta(String delta) {
+        try {
+            if (blockDocument.apply(delta)) {
+                if (blocksChangedListener != null) {
+                    blocksChangedListener.run();
+                }
+                return true;
+            }
+            log.debug("Změna bloků editoru neodpovídá verzi {} na serveru, vyžádán úplný stav", blockDocument.getVersion());
+        } catch (JsonProcessingException e) {
+            log.warn("Neplatná změna bloků editoru: {}", e.getMessage());
+        }
+        getElement().callJsFunction("resyncBlocks");
+        return false;
+    }
+
     /**
      * Toggles the read-only mode of the Editor.js instance.
      * When in read-only mode, users cannot edit the content.
@@ -66,6 +155,9 @@ public class EditorJs extends Component implements HasSize, HasStyle {
      * @param readOnly true to enable read-only mode, false to disable it.
      */
     public void toggleReadOnlyMode(boolean readOnly) {
+        if (readOnly) {
+            blockDocument.invalidate();
+        }
         getElement().callJsFunction("toggleReadOnlyMode", readOnly);
     }
 
@@ -74,9 +166,10 @@ public class EditorJs extends Component implements HasSize, HasStyle {
      * This method expects a JSON string that represents the chapter content.
      *
      * @param jsonData JSON string containing the chapter content data.
+     * @return future completed when the editor has rendered the content.
      */
-    public void setChapterContentData(String jsonData) {
-        getElement()
+    public CompletableFuture<Void> setChapterContentData(String jsonData) {
+        return getElement()
                 .callJsFunction("setChapterContentData", jsonData)
                 .toCompletableFuture()
                 .exceptionally(error -> {
@@ -177,41 +270,68 @@ public class EditorJs extends Component implements HasSize, HasStyle {
     }
 
     /**
-     * Loads provided Markdown string into the editor (converts it to EditorJS blocks).
+     * Loads provided Markdown string into the editor.
+     * The Markdown is converted to EditorJS blocks on the server, blocks not edited in Markdown keep their original IDs and data.
+     * The server side block list takes the converted blocks, so the editor continues sending deltas from them.
      *
      * @param markdown markdown content
      */
     public void loadMarkdown(String markdown) {
-        getElement().callJsFunction("loadMarkdown", markdown);
+        try {
+            loadData(markdownConverter.toEditorJs(markdown));
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Chyba při převodu markdown na bloky editoru: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Loads the Editor.js content into the editor, e.g. a restored draft.
+     * The server side block list takes the content, so the editor continues sending deltas from it.
+     *
+     * @param content Editor.js content as a JSON string
+     * @throws JsonProcessingException if the content is not a valid JSON
+     */
+    public void loadData(String content) throws JsonProcessingException {
+        getElement().callJsFunction("loadData", content, blockDocument.reset(content));
     }
 
     /**
-     * Retrieves current content as Markdown (converts blocks if in block mode).
+     * Retrieves current content as Markdown.
+     * The blocks are converted on the server, only the blocks changed since the last conversion are converted again.
      *
      * @return future with markdown string
      */
     public CompletableFuture<String> getMarkdown() {
-        return getElement()
-                .callJsFunction("getMarkdown")
-                .toCompletableFuture()
-                .thenApply(JsonValue::asString);
+        return getData().thenApply(json -> {
+            try {
+                return markdownConverter.toMarkdown(json);
+            } catch (JsonProcessingException e) {
+                throw new RuntimeException("Chyba při převodu bloků editoru na markdown: " + e.getMessage());
+            }
+        });
     }
 
     /**
      * Retrieves a map of subchapter IDs to their names from the Editor.js instance, that has not yet been saved into the database.
+     * The names are taken from the server side block list when it is in sync with the editor.
      *
      * @return CompletableFuture that resolves to a Map where keys are subchapter IDs and values are subchapter names.
      */
     public CompletableFuture<Map<String, String>> getSubchaptersNames() {
-        return getElement().callJsFunction("getSubchaptersNames").toCompletableFuture().thenApply(jsonValue -> {
-            String jsonString = jsonValue.asString();
-            ObjectMapper objectMapper = new ObjectMapper();
-            try {
-                return objectMapper.readValue(jsonString, new TypeReference<>() {
-                });
-            } catch (JsonProcessingException e) {
-                throw new RuntimeException("Chyba při parsování subchapter names JSON: " + e.getMessage());
+        return flushBlocks().thenCompose(inSync -> {
+            if (inSync) {
+                return CompletableFuture.completedFuture(blockDocument.getSubchaptersNames());
             }
+            return getElement().callJsFunction("getSubchaptersNames").toCompletableFuture().thenApply(jsonValue -> {
+                String jsonString = jsonValue.asString();
+                ObjectMapper objectMapper = new ObjectMapper();
+                try {
+                    return objectMapper.readValue(jsonString, new TypeReference<>() {
+                    });
+                } catch (JsonProcessingException e) {
+                    throw new RuntimeException("Chyba při parsování subchapter names JSON: " + e.getMessage());
+                }
+            });
         });
     }
 
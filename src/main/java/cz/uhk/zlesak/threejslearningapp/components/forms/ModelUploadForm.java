@@ -1,6 +1,7 @@
 package cz.uhk.zlesak.threejslearningapp.components.forms;
 
 import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.DetachEvent;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.checkbox.Checkbox;
 import com.vaadin.flow.component.orderedlayout.FlexComponent;
@@ -8,19 +9,22 @@ import com.vaadin.flow.component.orderedlayout.HorizontalLayout;
 import com.vaadin.flow.component.orderedlayout.Scroller;
 import com.vaadin.flow.component.orderedlayout.VerticalLayout;
 import com.vaadin.flow.component.textfield.TextField;
-import com.vaadin.flow.server.StreamRegistration;
-import com.vaadin.flow.server.StreamResource;
-import com.vaadin.flow.server.VaadinSession;
+import cz.uhk.zlesak.threejslearningapp.common.InputStreamMultipartFile;
+import cz.uhk.zlesak.threejslearningapp.common.SpringContextUtils;
 import cz.uhk.zlesak.threejslearningapp.components.containers.UploadLabelContainer;
 import cz.uhk.zlesak.threejslearningapp.components.inputs.files.FileUpload;
 import cz.uhk.zlesak.threejslearningapp.components.inputs.textFields.NameTextField;
+import cz.uhk.zlesak.threejslearningapp.components.notifications.ErrorNotification;
 import cz.uhk.zlesak.threejslearningapp.domain.texture.QuickTextureEntity;
 import cz.uhk.zlesak.threejslearningapp.events.model.ModelClearEvent;
 import cz.uhk.zlesak.threejslearningapp.events.model.ModelTextureChangeEvent;
 import cz.uhk.zlesak.threejslearningapp.events.model.ModelUploadEvent;
 import cz.uhk.zlesak.threejslearningapp.events.texture.OtherTextureLoadedEvent;
 import cz.uhk.zlesak.threejslearningapp.events.texture.OtherTextureRemovedEvent;
+import cz.uhk.zlesak.threejslearningapp.exceptions.PreviewQuotaExceededException;
 import cz.uhk.zlesak.threejslearningapp.i18n.I18nAware;
+import cz.uhk.zlesak.threejslearningapp.session.PreviewAssetRegistry;
+import cz.uhk.zlesak.threejslearningapp.session.PreviewAssetRegistry.PreviewAsset;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 
@@ -34,6 +38,7 @@ import java.util.*;
  * It extends the Scroller component to allow vertical scrolling of the form content.
  * The form includes fields for the model name, a checkbox for advanced upload options, and upload components for the model file and textures.
  * It also includes event handling for successful uploads and file removals, allowing integration with other parts of the application.
+ * The uploaded files are previewed through the PreviewAssetRegistry of the session, their previews are released when the files are removed or the form is detached.
  */
 @Slf4j
 public class ModelUploadForm extends Scroller implements I18nAware {
@@ -48,6 +53,10 @@ public class ModelUploadForm extends Scroller implements I18nAware {
     protected final FileUpload objFileUpload, mainTextureFileUpload, otherTexturesFileUpload, csvFileUpload;
     private final Map<String, QuickTextureEntity> quickTextureEntityMap = new HashMap<>();
     private final Map<String, String> csvMap = new HashMap<>();
+    private final PreviewAssetRegistry previewAssetRegistry;
+    private PreviewAsset modelPreview = null;
+    private PreviewAsset texturePreview = null;
+    private final Map<String, PreviewAsset> otherTexturePreviews = new HashMap<>();
     protected String modelUrl = null;
     protected String textureUrl = null;
     private String textureName = null;
@@ -63,6 +72,7 @@ public class ModelUploadForm extends Scroller implements I18nAware {
     public ModelUploadForm() {
         super(Scroller.ScrollDirection.VERTICAL);
         setContent(vl);
+        previewAssetRegistry = SpringContextUtils.getBean(PreviewAssetRegistry.class);
         objFileUpload = new FileUpload(List.of(".glb"), true, true);
         mainTextureFileUpload = new FileUpload(List.of(".jpg"), true, true);
         otherTexturesFileUpload = new FileUpload(List.of(".jpg"), false, true);
@@ -94,7 +104,14 @@ public class ModelUploadForm extends Scroller implements I18nAware {
                     } else {
                         contentType = "model/gltf-binary";
                     }
-                    modelUrl = registerStreamUrl(fileName, contentType, inputStreamMultipartFile.getInputStream());
+                    PreviewAsset preview = registerPreview(objFileUpload, fileName, contentType, inputStreamMultipartFile);
+                    if (preview == null) {
+                        isAdvanced.setReadOnly(false);
+                        return;
+                    }
+                    previewAssetRegistry.release(modelPreview);
+                    modelPreview = preview;
+                    modelUrl = modelPreview.url();
 
                     modelFileName = fileName;
 
@@ -111,6 +128,7 @@ public class ModelUploadForm extends Scroller implements I18nAware {
             isAdvanced.setReadOnly(false);
             mainTextureFileUpload.clear();
             otherTexturesFileUpload.clear();
+            releasePreviews();
             modelUrl = null;
             textureUrl = null;
             otherTexturesUrls.clear();
@@ -118,14 +136,20 @@ public class ModelUploadForm extends Scroller implements I18nAware {
 
         mainTextureFileUpload.setUploadListener(
                 (fileName, inputStreamMultipartFile) -> {
+                    PreviewAsset preview = registerPreview(mainTextureFileUpload, fileName, "image/jpeg", inputStreamMultipartFile);
+                    if (preview == null) {
+                        return;
+                    }
+                    previewAssetRegistry.release(texturePreview);
+                    texturePreview = preview;
                     isAdvanced.setReadOnly(true);
                     uploadOtherTexturesDiv.setEnabled(true);
                     csvOtherTexturesDiv.setEnabled(true);
-                    textureUrl = registerStreamUrl(fileName, "image/jpeg", inputStreamMultipartFile.getInputStream());
+                    textureUrl = texturePreview.url();
                     textureName = fileName;
                     if (modelUrl != null) {
                         ComponentUtil.fireEvent(UI.getCurrent(), new ModelUploadEvent(UI.getCurrent(), modelUrl, textureUrl, "modelId", modelFileName, textureName));
-                        this.quickTextureEntityMap.put("main", new QuickTextureEntity(fileName, fileName, this.csvMap.getOrDefault(fileName, null)));
+                        this.quickTextureEntityMap.put("main", new QuickTextureEntity(fileName, fileName, this.csvMap.getOrDefault(fileName, null), null));
                         ComponentUtil.fireEvent(UI.getCurrent(), new ModelTextureChangeEvent(UI.getCurrent(), this.quickTextureEntityMap));
                     }
                 }
@@ -137,22 +161,37 @@ public class ModelUploadForm extends Scroller implements I18nAware {
             ComponentUtil.fireEvent(UI.getCurrent(), new ModelTextureChangeEvent(UI.getCurrent(), this.quickTextureEntityMap));
             uploadOtherTexturesDiv.setEnabled(false);
             csvOtherTexturesDiv.setEnabled(false);
+            previewAssetRegistry.release(texturePreview);
+            texturePreview = null;
             textureUrl = null;
         });
 
         otherTexturesFileUpload.setUploadListener(
                 (fileName, inputStreamMultipartFile) -> {
-                    textureUrl = registerStreamUrl(fileName, "image/jpeg", inputStreamMultipartFile.getInputStream());
-                    otherTexturesUrls.add(textureUrl);
+                    PreviewAsset otherTexturePreview = registerPreview(otherTexturesFileUpload, fileName, "image/jpeg", inputStreamMultipartFile);
+                    if (otherTexturePreview == null) {
+                        return;
+                    }
+                    PreviewAsset replacedPreview = otherTexturePreviews.put(fileName, otherTexturePreview);
+                    if (replacedPreview != null) {
+                        otherTexturesUrls.remove(replacedPreview.url());
+                        previewAssetRegistry.release(replacedPreview);
+                    }
+                    otherTexturesUrls.add(otherTexturePreview.url());
                     Map<String, String> otherTextures = new HashMap<>();
-                    otherTextures.put(fileName, textureUrl);
+                    otherTextures.put(fileName, otherTexturePreview.url());
                     ComponentUtil.fireEvent(UI.getCurrent(), new OtherTextureLoadedEvent(UI.getCurrent(), otherTextures));
-                    this.quickTextureEntityMap.put(fileName, new QuickTextureEntity(fileName, fileName, this.csvMap.getOrDefault(fileName, null)));
+                    this.quickTextureEntityMap.put(fileName, new QuickTextureEntity(fileName, fileName, this.csvMap.getOrDefault(fileName, null), null));
                     ComponentUtil.fireEvent(UI.getCurrent(), new ModelTextureChangeEvent(UI.getCurrent(), this.quickTextureEntityMap));
                 });
 
         otherTexturesFileUpload.addFileRemovedListener(event -> {
             ComponentUtil.fireEvent(UI.getCurrent(), new OtherTextureRemovedEvent(UI.getCurrent(), event.getFileName()));
+            PreviewAsset otherTexturePreview = otherTexturePreviews.remove(event.getFileName());
+            if (otherTexturePreview != null) {
+                otherTexturesUrls.remove(otherTexturePreview.url());
+                previewAssetRegistry.release(otherTexturePreview);
+            }
             this.quickTextureEntityMap.remove(event.getFileName());
             ComponentUtil.fireEvent(UI.getCurrent(), new ModelTextureChangeEvent(UI.getCurrent(), this.quickTextureEntityMap));
         });
@@ -195,18 +234,46 @@ public class ModelUploadForm extends Scroller implements I18nAware {
     }
 
     /**
-     * Registers resource URL to provide files via streaming endpoint from front end side.
+     * Registers the preview of the uploaded file to provide it via streaming endpoint from front end side.
+     * When the preview would exceed the preview quota of the session, the file is discarded from the upload and the user is notified.
      *
+     * @param upload      upload component the file was uploaded with
      * @param fileName    name of the file
      * @param contentType content type of the file
-     * @param inputStream file in input stream format
-     * @return registered stream URL in Vaadin session
+     * @param file        uploaded file
+     * @return registered preview with its URL, null if the file was refused
+     */
+    private PreviewAsset registerPreview(FileUpload upload, String fileName, String contentType, InputStreamMultipartFile file) {
+        try {
+            return previewAssetRegistry.register(fileName, contentType, file);
+        } catch (PreviewQuotaExceededException e) {
+            upload.discard(file);
+            new ErrorNotification(e.getMessage(), 5000);
+            return null;
+        }
+    }
+
+    /**
+     * Releases all previews registered by the form.
+     */
+    private void releasePreviews() {
+        previewAssetRegistry.release(modelPreview);
+        previewAssetRegistry.release(texturePreview);
+        otherTexturePreviews.values().forEach(previewAssetRegistry::release);
+        modelPreview = null;
+        texturePreview = null;
+        otherTexturePreviews.clear();
+    }
+
+    /**
+     * Releases the previews of the uploaded files when the form is detached, e.g. when the user leaves the view.
+     *
+     * @param detachEvent the detach event
      */
-    private String registerStreamUrl(String fileName, String contentType, InputStream inputStream) {
-        StreamResource resource = new StreamResource(fileName, () -> inputStream);
-        resource.setContentType(contentType);
-        StreamRegistration registration = VaadinSession.getCurrent().getResourceRegistry().registerResource(resource);
-        return registration.getResourceUri().toString();
+    @Override
+    protected void onDetach(DetachEvent detachEvent) {
+        releasePreviews();
+        super.onDetach(detachEvent);
     }
 
     /**
@@ -58,7 +58,7 @@ public class FileUpload extends Upload implements I18nAware {
                     if (uploadListener != null) {
                         uploadListener.accept(fileName, uploadedMultipartFile);
                     }
-                    if (canNameFiles) {
+                    if (canNameFiles && uploadedFiles.contains(uploadedMultipartFile)) {
                         HorizontalLayout fileRow = getHorizontalLayout(fileName, uploadedMultipartFile);
                         fileListLayout.add(fileRow);
                     }
@@ -136,6 +136,16 @@ public class FileUpload extends Upload implements I18nAware {
         uploadedFiles.clear();
     }
 
+    /**
+     * Discards the uploaded file refused by the upload listener, e.g. when its preview cannot be registered.
+     * The file is not offered for naming and is not part of the uploaded files anymore.
+     *
+     * @param file the refused file
+     */
+    public void discard(InputStreamMultipartFile file) {
+        uploadedFiles.remove(file);
+    }
+
     /**
      * Sets the accepted file types for the upload component.
      *
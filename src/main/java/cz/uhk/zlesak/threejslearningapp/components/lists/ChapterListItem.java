@@ -22,7 +22,13 @@ import java.time.format.DateTimeFormatter;
 @Tag("div")
 public class ChapterListItem extends Div implements I18nAware {
 
-    public ChapterListItem(ChapterEntity chapter) {
+    /**
+     * Constructor for ChapterListItem.
+     *
+     * @param chapter the listed chapter
+     * @param excerpt the Markdown excerpt of the chapter content rendered on the server
+     */
+    public ChapterListItem(ChapterEntity chapter, String excerpt) {
         setWidthFull();
         getStyle().set("border", "1px solid #ccc");
         getStyle().set("border-radius", "8px");
@@ -84,13 +90,10 @@ public class ChapterListItem extends Div implements I18nAware {
         }
 
 
-        Button openButton = getOpenButton(chapter, text("button.open"));
+        Button openButton = getOpenButton(chapter.getId(), text("button.open"));
 
-        Markdown markdown = new Markdown(text("chapter.content.loading"));
+        Markdown markdown = new Markdown(excerpt);
         markdown.setWidthFull();
-        UI.getCurrent().getPage().executeJs(
-                "return window.convertEditorJsToMarkdown($0)", chapter.getContent()
-        ).toCompletableFuture().whenComplete((md, t) -> markdown.setContent(md.asString()));
 
 
         HorizontalLayout row = new HorizontalLayout();
@@ -106,14 +109,19 @@ public class ChapterListItem extends Div implements I18nAware {
         add(row);
     }
 
+    /**
+     * Creates the button opening the chapter detail.
+     * Only the chapter ID is captured by the listener, the chapter itself is loaded by the detail view from the shared cache.
+     *
+     * @param chapterId ID of the chapter to open
+     * @param label     label of the button
+     * @return the open button
+     */
     @NotNull
-    private static Button getOpenButton(ChapterEntity chapter, String label) {
+    private static Button getOpenButton(String chapterId, String label) {
         Button button = new Button(label);
         button.getStyle().set("margin", "12px").set("padding", "8px 24px");
-        button.addClickListener(e -> {
-            VaadinSession.getCurrent().setAttribute("chapterEntity", chapter);
-            UI.getCurrent().navigate("chapter/" + chapter.getId());
-        });
+        button.addClickListener(e -> UI.getCurrent().navigate("chapter/" + chapterId));
         return button;
     }
 }
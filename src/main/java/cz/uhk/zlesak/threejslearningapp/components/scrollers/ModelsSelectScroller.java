@@ -12,20 +12,24 @@ import cz.uhk.zlesak.threejslearningapp.views.model.ModelListView;
 import org.springframework.context.ApplicationContextException;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.Objects;
 import java.util.function.Consumer;
 
 /**
  * A scroller component that contains selects for choosing 3D models for the main chapter and its sub-chapters.
  * Each select is paired with a button to open a dialog for selecting already created models.
+ * All buttons share a single ModelListDialog, which is created lazily on the first click and fetches its data only when opened.
  * The component allows dynamic initialization of selects based on existing sub-chapters.
  *
  */
 public class ModelsSelectScroller extends Scroller implements I18nAware {
     private Select<QuickModelEntity> mainModelSelect;
-    private final Map<String, HorizontalLayout> otherModelsHorizontalLayouts = new HashMap<>();
+    private final Map<String, HorizontalLayout> otherModelsHorizontalLayouts = new LinkedHashMap<>();
     private final VerticalLayout scrollerLayout;
     private Consumer<Map<String, QuickModelEntity>> modelSelectConsumer;
+    private ModelListDialog modelListDialog;
 
     public ModelsSelectScroller() {
         super(new VerticalLayout(), ScrollDirection.VERTICAL);
@@ -60,6 +64,8 @@ public class ModelsSelectScroller extends Scroller implements I18nAware {
 
     /**
      * Initialize selects for main model and other models for sub-chapters.
+     * The selects are reconciled by sub-chapter IDs with the already displayed ones, so repeated calls
+     * only add, remove, relabel or move the rows whose sub-chapters changed and keep the already selected models.
      *
      * @param subChapterForSelectRecords Map of sub-chapter IDs to their names for which model selects should be created.
      *                                   Records are returned from backend to ensure only existing sub-chapters have selects.
@@ -77,11 +83,24 @@ public class ModelsSelectScroller extends Scroller implements I18nAware {
             return false;
         });
 
-        subChapterForSelectRecords.forEach((id, text) -> {
-            if (!otherModelsHorizontalLayouts.containsKey(id)) {
-                modelSelectHorizontalLayout(text("modelSelect.other.caption") + text, id, false);
+        int index = 1;
+        for (Map.Entry<String, String> record : subChapterForSelectRecords.entrySet()) {
+            String id = record.getKey();
+            String label = text("modelSelect.other.caption") + record.getValue();
+            HorizontalLayout horizontalLayout = otherModelsHorizontalLayouts.get(id);
+            if (horizontalLayout == null) {
+                horizontalLayout = modelSelectHorizontalLayout(label, id, false);
+            } else {
+                Select<QuickModelEntity> select = getSelect(horizontalLayout);
+                if (!Objects.equals(select.getHelperText(), label)) {
+                    select.setHelperText(label);
+                }
             }
-        });
+            if (index >= scrollerLayout.getComponentCount() || scrollerLayout.getComponentAt(index) != horizontalLayout) {
+                scrollerLayout.addComponentAtIndex(index, horizontalLayout);
+            }
+            index++;
+        }
     }
 
     /**
@@ -90,8 +109,9 @@ public class ModelsSelectScroller extends Scroller implements I18nAware {
      * @param label label for select component.
      * @param id    chapter header block ID for which the model is selected.
      * @param main  whether this is the main model select or sub-chapter model select.
+     * @return created horizontal layout.
      */
-    private void modelSelectHorizontalLayout(String label, String id, boolean main) {
+    private HorizontalLayout modelSelectHorizontalLayout(String label, String id, boolean main) {
         HorizontalLayout horizontalLayout = new HorizontalLayout();
         horizontalLayout.setWidthFull();
         Select<QuickModelEntity> select = getModelSelect(label, id);
@@ -106,29 +126,58 @@ public class ModelsSelectScroller extends Scroller implements I18nAware {
             otherModelsHorizontalLayouts.putIfAbsent(id, horizontalLayout);
         }
         scrollerLayout.add(horizontalLayout);
+        return horizontalLayout;
+    }
+
+    /**
+     * Get the model select of the select row.
+     *
+     * @param horizontalLayout select row created by modelSelectHorizontalLayout.
+     * @return model select of the row.
+     */
+    @SuppressWarnings("unchecked")
+    private Select<QuickModelEntity> getSelect(HorizontalLayout horizontalLayout) {
+        return (Select<QuickModelEntity>) horizontalLayout.getComponentAt(0);
     }
 
     /**
      * Get button to choose already created model.
-     * Using ModelListDialog to select model via paged model selector.
+     * Using the shared ModelListDialog to select model via paged model selector, the dialog is opened for the given select.
      *
      * @param modelSelect Select component to set the selected model to.
      * @return Button to open ModelListDialog.
      */
     private Button getChooseAlreadyCreatedModelButton(Select<QuickModelEntity> modelSelect) {
         Button chooseAlreadyCreatedModelButton = new Button(text("modelSelectButton.label"));
+        chooseAlreadyCreatedModelButton.addClickListener(e -> getModelListDialog().open(entity -> onModelChosen(modelSelect, entity)));
+        return chooseAlreadyCreatedModelButton;
+    }
 
-        ModelListDialog modelListDialog = new ModelListDialog(new ModelListView());
-        modelListDialog.setModelSelectedListener(entity -> {
-            modelSelect.setItems(entity);
-            modelSelect.setValue(entity);
-            if (modelSelect.getValue() != null) {
-                modelSelectConsumer.accept(getAllModelsMappedToChapterHeaderBlockId());
-            }
-        });
-        chooseAlreadyCreatedModelButton.addClickListener(e -> modelListDialog.open());
+    /**
+     * Get the model list dialog shared by all selects of this scroller.
+     * The dialog and its listing view are created on the first request only.
+     *
+     * @return shared ModelListDialog instance
+     */
+    private ModelListDialog getModelListDialog() {
+        if (modelListDialog == null) {
+            modelListDialog = new ModelListDialog(new ModelListView());
+        }
+        return modelListDialog;
+    }
 
-        return chooseAlreadyCreatedModelButton;
+    /**
+     * Sets the chosen model to the target select and notifies the model select consumer.
+     *
+     * @param modelSelect Select component the dialog was opened for.
+     * @param entity      chosen model.
+     */
+    private void onModelChosen(Select<QuickModelEntity> modelSelect, QuickModelEntity entity) {
+        modelSelect.setItems(entity);
+        modelSelect.setValue(entity);
+        if (modelSelect.getValue() != null && modelSelectConsumer != null) {
+            modelSelectConsumer.accept(getAllModelsMappedToChapterHeaderBlockId());
+        }
     }
 
     /**
@@ -146,7 +195,7 @@ public class ModelsSelectScroller extends Scroller implements I18nAware {
 
         Map<String, QuickModelEntity> models = new HashMap<>();
         for (HorizontalLayout layout : otherModelsHorizontalLayouts.values()) {
-            @SuppressWarnings("unchecked") Select<QuickModelEntity> select = ((Select<QuickModelEntity>) layout.getComponentAt(0));
+            Select<QuickModelEntity> select = getSelect(layout);
             QuickModelEntity selected = select.getValue();
             if (selected != null) {
                 models.put(select.getElement().getAttribute("block-id"), selected);
@@ -0,0 +1,221 @@
+package cz.uhk.zlesak.threejslearningapp.diagnostics;
+
+import org.springframework.core.annotation.AnnotatedElementUtils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+/**
+ * RetainedSizeEstimator approximates the number of bytes retained by an object graph.
+ * The graph is walked reflectively, objects already visited by the same estimator instance are not counted again,
+ * so a single instance can be used to attribute shared objects to the first root that reaches them.
+ * Walking stops at boundary objects (predicate provided per root), Spring beans, classes, threads and class loaders,
+ * as those are either shared by the whole application or attributed to another root.
+ * The sizes assume a 64-bit JVM with compressed references and are meant for comparison, not for exact accounting.
+ */
+public class RetainedSizeEstimator {
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int REFERENCE = 4;
+    private static final int COLLECTION_ENTRY_OVERHEAD = 32;
+    private static final Map<Class<?>, ClassLayout> LAYOUTS = new ConcurrentHashMap<>();
+
+    private final Set<Object> visited = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /**
+     * Estimates the bytes retained by the object graph starting at the root.
+     * Objects visited by previous calls of the same instance are not counted.
+     *
+     * @param root     root of the object graph
+     * @param boundary predicate marking objects where the walk stops, the root itself is never treated as boundary
+     * @return approximate retained size in bytes
+     */
+    public long estimate(Object root, Predicate<Object> boundary) {
+        if (root == null) {
+            return 0;
+        }
+        long total = 0;
+        Deque<Object> stack = new ArrayDeque<>();
+        stack.push(root);
+        while (!stack.isEmpty()) {
+            Object current = stack.pop();
+            if ((current != root && isBoundary(current, boundary)) || !visited.add(current)) {
+                continue;
+            }
+            total += shallowSizeAndChildren(current, stack);
+        }
+        return total;
+    }
+
+    /**
+     * Checks whether the walk should stop at the object.
+     *
+     * @param object   object to check
+     * @param boundary predicate marking the boundary objects of the current root
+     * @return true if the object is not part of the measured graph
+     */
+    private static boolean isBoundary(Object object, Predicate<Object> boundary) {
+        if (object instanceof Class<?> || object instanceof ClassLoader || object instanceof Thread || object instanceof Module) {
+            return true;
+        }
+        if (isSpringBean(object.getClass())) {
+            return true;
+        }
+        return boundary.test(object);
+    }
+
+    /**
+     * Computes the shallow size of the object and pushes all referenced objects to the stack.
+     *
+     * @param object object to measure
+     * @param stack  stack of objects to be visited
+     * @return shallow size of the object in bytes
+     */
+    private long shallowSizeAndChildren(Object object, Deque<Object> stack) {
+        Class<?> type = object.getClass();
+        if (object instanceof String string) {
+            return align(OBJECT_HEADER + 12) + align(ARRAY_HEADER + string.length());
+        }
+        if (type.isArray()) {
+            int length = Array.getLength(object);
+            Class<?> componentType = type.getComponentType();
+            if (!componentType.isPrimitive()) {
+                for (int i = 0; i < length; i++) {
+                    pushIfPresent(stack, Array.get(object, i));
+                }
+                return align(ARRAY_HEADER + (long) length * REFERENCE);
+            }
+            return align(ARRAY_HEADER + (long) length * primitiveSize(componentType));
+        }
+
+        ClassLayout layout = LAYOUTS.computeIfAbsent(type, ClassLayout::of);
+        for (Field field : layout.references()) {
+            try {
+                pushIfPresent(stack, field.get(object));
+            } catch (IllegalAccessException ignored) {
+                // field became inaccessible, its subgraph is not counted
+            }
+        }
+        long size = layout.shallowSize();
+        if (layout.hasInaccessibleReferences()) {
+            size += walkThroughPublicApi(object, stack);
+        }
+        return size;
+    }
+
+    /**
+     * Walks JDK collections and maps whose internals cannot be accessed reflectively through their public API.
+     *
+     * @param object object with inaccessible fields
+     * @param stack  stack of objects to be visited
+     * @return approximate size of the internal structures of the collection
+     */
+    private long walkThroughPublicApi(Object object, Deque<Object> stack) {
+        try {
+            if (object instanceof Map<?, ?> map) {
+                for (Map.Entry<?, ?> entry : map.entrySet()) {
+                    pushIfPresent(stack, entry.getKey());
+                    pushIfPresent(stack, entry.getValue());
+                }
+                return (long) map.size() * COLLECTION_ENTRY_OVERHEAD;
+            }
+            if (object instanceof Collection<?> collection) {
+                for (Object element : collection) {
+                    pushIfPresent(stack, element);
+                }
+                return (long) collection.size() * REFERENCE * 2;
+            }
+        } catch (RuntimeException ignored) {
+            // concurrent modification or unsupported operation, the collection content is not counted
+        }
+        return 0;
+    }
+
+    /**
+     * Pushes the object to the stack if it is not null and not visited yet.
+     *
+     * @param stack  stack of objects to be visited
+     * @param object object to push
+     */
+    private void pushIfPresent(Deque<Object> stack, Object object) {
+        if (object != null && !visited.contains(object)) {
+            stack.push(object);
+        }
+    }
+
+    /**
+     * Checks whether the class is a Spring managed bean, those are application singletons shared by all sessions.
+     *
+     * @param type class to check
+     * @return true if the class is annotated as a Spring component
+     */
+    private static boolean isSpringBean(Class<?> type) {
+        return AnnotatedElementUtils.hasAnnotation(type, org.springframework.stereotype.Component.class);
+    }
+
+    /**
+     * Returns the size of the primitive type in bytes.
+     *
+     * @param type primitive type
+     * @return size in bytes
+     */
+    private static int primitiveSize(Class<?> type) {
+        if (type == long.class || type == double.class) {
+            return 8;
+        }
+        if (type == int.class || type == float.class) {
+            return 4;
+        }
+        if (type == short.class || type == char.class) {
+            return 2;
+        }
+        return 1;
+    }
+
+    /**
+     * Aligns the size to the 8 byte boundary used by the JVM.
+     *
+     * @param size unaligned size
+     * @return aligned size
+     */
+    private static long align(long size) {
+        return (size + 7) & ~7L;
+    }
+
+    /**
+     * Cached reflective layout of a class.
+     *
+     * @param shallowSize               shallow size of the instance in bytes
+     * @param references                accessible reference fields
+     * @param hasInaccessibleReferences whether some reference fields could not be made accessible
+     */
+    private record ClassLayout(long shallowSize, List<Field> references, boolean hasInaccessibleReferences) {
+        static ClassLayout of(Class<?> type) {
+            long size = OBJECT_HEADER;
+            List<Field> references = new ArrayList<>();
+            boolean inaccessible = false;
+            for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+                for (Field field : current.getDeclaredFields()) {
+                    if (Modifier.isStatic(field.getModifiers())) {
+                        continue;
+                    }
+                    if (field.getType().isPrimitive()) {
+                        size += primitiveSize(field.getType());
+                    } else {
+                        size += REFERENCE;
+                        if (field.trySetAccessible()) {
+                            references.add(field);
+                        } else {
+                            inaccessible = true;
+                        }
+                    }
+                }
+            }
+            return new ClassLayout(align(size), List.copyOf(references), inaccessible);
+        }
+    }
+}
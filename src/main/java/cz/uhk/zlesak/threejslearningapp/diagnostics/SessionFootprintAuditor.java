@@ -0,0 +1,154 @@
+package cz.uhk.zlesak.threejslearningapp.diagnostics;
+
+import com.vaadin.flow.component.Component;
+import com.vaadin.flow.component.UI;
+import com.vaadin.flow.internal.StateNode;
+import com.vaadin.flow.internal.StateTree;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.server.WrappedSession;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.context.ApplicationContext;
+
+import java.util.*;
+
+/**
+ * SessionFootprintAuditor reports approximate bytes retained by a Vaadin session, split per UI and per component.
+ * Every component is measured without its child components, so the per component numbers show where the session memory is spent.
+ * Every object is counted once, an object shared by more components is attributed to the first one reaching it.
+ * The components of each UI are measured in depth first order before the UI itself, the session attributes are measured after all UIs.
+ * Spring beans and shared caches are not counted at all.
+ * The session must be locked by the caller, e.g. by calling the audit from a UI request or from UI.access.
+ *
+ * @see RetainedSizeEstimator
+ */
+public abstract class SessionFootprintAuditor {
+
+    /**
+     * Audits the provided session.
+     *
+     * @param session session to audit
+     * @return footprint of the session, its UIs and their components
+     */
+    public static SessionFootprint audit(VaadinSession session) {
+        RetainedSizeEstimator estimator = new RetainedSizeEstimator();
+        List<UiFootprint> uiFootprints = new ArrayList<>();
+        for (UI ui : session.getUIs()) {
+            uiFootprints.add(auditUi(ui, estimator));
+        }
+        long sessionBytes = estimator.estimate(session, object ->
+                isVaadinInfrastructure(object) || object instanceof UI || object instanceof Component || object instanceof StateTree);
+        long total = sessionBytes + uiFootprints.stream().mapToLong(UiFootprint::totalBytes).sum();
+        return new SessionFootprint(sessionBytes, total, uiFootprints);
+    }
+
+    /**
+     * Audits a single UI and all its components.
+     * Components are measured first, the UI itself is measured last so that it gets only the state not owned by any component.
+     *
+     * @param ui        UI to audit
+     * @param estimator estimator shared by the whole audit, so objects counted for a previous component or UI are not counted again
+     * @return footprint of the UI
+     */
+    private static UiFootprint auditUi(UI ui, RetainedSizeEstimator estimator) {
+        List<Component> components = new ArrayList<>();
+        Map<Component, Integer> depths = new IdentityHashMap<>();
+        collectComponents(ui, 0, components, depths);
+
+        Set<StateNode> componentNodes = Collections.newSetFromMap(new IdentityHashMap<>());
+        components.forEach(component -> componentNodes.add(component.getElement().getNode()));
+
+        List<ComponentFootprint> componentFootprints = new ArrayList<>();
+        long total = 0;
+        for (Component component : components) {
+            if (component == ui) {
+                continue;
+            }
+            StateNode ownNode = component.getElement().getNode();
+            long bytes = estimator.estimate(component, object ->
+                    isVaadinInfrastructure(object) || object instanceof StateTree
+                            || (object instanceof Component && object != component)
+                            || (object instanceof StateNode && object != ownNode && componentNodes.contains(object)));
+            total += bytes;
+            componentFootprints.add(new ComponentFootprint(describe(component), depths.get(component), bytes));
+        }
+
+        StateNode uiNode = ui.getElement().getNode();
+        long uiOwnBytes = estimator.estimate(ui, object ->
+                isVaadinInfrastructure(object)
+                        || (object instanceof Component && object != ui)
+                        || (object instanceof StateNode && object != uiNode && componentNodes.contains(object)));
+        total += uiOwnBytes;
+
+        String route = ui.getInternals().getActiveViewLocation() != null ? ui.getInternals().getActiveViewLocation().getPathWithQueryParameters() : "";
+        return new UiFootprint(ui.getUIId(), route, uiOwnBytes, total, componentFootprints);
+    }
+
+    /**
+     * Collects the component tree in depth first order.
+     *
+     * @param component  current component
+     * @param depth      depth of the current component in the tree
+     * @param components list collecting the components
+     * @param depths     map collecting the depths of the components
+     */
+    private static void collectComponents(Component component, int depth, List<Component> components, Map<Component, Integer> depths) {
+        components.add(component);
+        depths.put(component, depth);
+        component.getChildren().forEach(child -> collectComponents(child, depth + 1, components, depths));
+    }
+
+    /**
+     * Checks whether the object belongs to the Vaadin or servlet infrastructure shared by the whole application.
+     *
+     * @param object object to check
+     * @return true for infrastructure objects
+     */
+    private static boolean isVaadinInfrastructure(Object object) {
+        return object instanceof VaadinService || object instanceof WrappedSession || object instanceof HttpSession
+                || object instanceof ApplicationContext || object instanceof VaadinSession;
+    }
+
+    /**
+     * Creates a readable description of the component.
+     *
+     * @param component component to describe
+     * @return class name with the component ID when present
+     */
+    private static String describe(Component component) {
+        String name = component.getClass().getSimpleName().isEmpty() ? component.getClass().getName() : component.getClass().getSimpleName();
+        return component.getId().map(id -> name + "#" + id).orElse(name);
+    }
+
+    /**
+     * Footprint of the whole session.
+     *
+     * @param sessionBytes bytes retained by the session itself, e.g. by its attributes
+     * @param totalBytes   bytes retained by the session and all its UIs
+     * @param uis          footprints of the UIs of the session
+     */
+    public record SessionFootprint(long sessionBytes, long totalBytes, List<UiFootprint> uis) {
+    }
+
+    /**
+     * Footprint of a single UI.
+     *
+     * @param uiId       ID of the UI
+     * @param route      route currently displayed by the UI
+     * @param ownBytes   bytes retained by the UI itself and not by any of its components
+     * @param totalBytes bytes retained by the UI and all its components
+     * @param components footprints of the components in depth first order
+     */
+    public record UiFootprint(int uiId, String route, long ownBytes, long totalBytes, List<ComponentFootprint> components) {
+    }
+
+    /**
+     * Footprint of a single component without its child components.
+     *
+     * @param component description of the component
+     * @param depth     depth of the component in the UI tree
+     * @param bytes     bytes retained by the component
+     */
+    public record ComponentFootprint(String component, int depth, long bytes) {
+    }
+}
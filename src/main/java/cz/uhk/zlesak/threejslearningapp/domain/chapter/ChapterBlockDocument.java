@@ -0,0 +1,121 @@
+package cz.uhk.zlesak.threejslearningapp.domain.chapter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * ChapterBlockDocument holds the canonical list of Editor.js blocks of an edited chapter on the server side.
+ * The editor sends block level deltas (upserted blocks, removed block IDs and the block order after structural changes),
+ * so the synchronization cost scales with the size of the edit rather than with the size of the chapter.
+ * Every delta carries the version it was computed against, a delta not matching the current version is rejected
+ * and the editor is expected to send its full state as a reset delta.
+ * The document is not thread safe, every editor holds its own instance and uses it from the UI thread.
+ */
+public class ChapterBlockDocument {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final LinkedHashMap<String, JsonNode> blocks = new LinkedHashMap<>();
+    private String editorVersion = "";
+    @Getter
+    private int version = 0;
+    @Getter
+    private boolean inSync = false;
+
+    /**
+     * Replaces the blocks by the content pushed to the editor from the server.
+     *
+     * @param content Editor.js content as a JSON string
+     * @return new version of the document the editor continues from
+     * @throws JsonProcessingException if the content is not a valid JSON
+     */
+    public int reset(String content) throws JsonProcessingException {
+        JsonNode data = OBJECT_MAPPER.readTree(content);
+        blocks.clear();
+        data.path("blocks").forEach(block -> blocks.put(block.path("id").asText(), block));
+        editorVersion = data.path("version").asText("");
+        inSync = true;
+        return ++version;
+    }
+
+    /**
+     * Marks the document as out of sync, e.g. when the editor stops sending deltas in the read-only mode.
+     * The document is used again once the editor sends its full state.
+     */
+    public void invalidate() {
+        inSync = false;
+    }
+
+    /**
+     * Applies the delta sent by the editor.
+     * A reset delta replaces all blocks regardless of its base version.
+     *
+     * @param deltaJson delta as a JSON string with baseVersion, version, upserted, removed, optional order and reset flag
+     * @return true if the delta was applied, false if it does not match the current version and the full state is needed
+     * @throws JsonProcessingException if the delta is not a valid JSON
+     */
+    public boolean apply(String deltaJson) throws JsonProcessingException {
+        JsonNode delta = OBJECT_MAPPER.readTree(deltaJson);
+        boolean reset = delta.path("reset").asBoolean(false);
+        if (!reset && (!inSync || delta.path("baseVersion").asInt(-1) != version)) {
+            inSync = false;
+            return false;
+        }
+        if (reset) {
+            blocks.clear();
+        }
+        delta.path("removed").forEach(id -> blocks.remove(id.asText()));
+        delta.path("upserted").forEach(block -> blocks.put(block.path("id").asText(), block));
+        if (delta.has("order")) {
+            LinkedHashMap<String, JsonNode> ordered = new LinkedHashMap<>();
+            for (JsonNode id : delta.get("order")) {
+                JsonNode block = blocks.get(id.asText());
+                if (block == null) {
+                    inSync = false;
+                    return false;
+                }
+                ordered.put(id.asText(), block);
+            }
+            blocks.clear();
+            blocks.putAll(ordered);
+        }
+        version = delta.path("version").asInt(version + 1);
+        inSync = true;
+        return true;
+    }
+
+    /**
+     * Serializes the blocks to the Editor.js content.
+     *
+     * @return Editor.js content as a JSON string
+     * @throws JsonProcessingException if the content cannot be serialized
+     */
+    public String toContent() throws JsonProcessingException {
+        ObjectNode content = OBJECT_MAPPER.createObjectNode();
+        content.put("time", Instant.now().toEpochMilli());
+        content.putArray("blocks").addAll(blocks.values());
+        content.put("version", editorVersion);
+        return OBJECT_MAPPER.writeValueAsString(content);
+    }
+
+    /**
+     * Returns the sub-chapters of the document, which are the level 1 headers.
+     *
+     * @return map of the header block IDs to the header texts in the order of the document
+     */
+    public Map<String, String> getSubchaptersNames() {
+        Map<String, String> subchapters = new LinkedHashMap<>();
+        blocks.forEach((id, block) -> {
+            if ("header".equals(block.path("type").asText()) && block.path("data").path("level").asInt() == 1) {
+                subchapters.put(id, block.path("data").path("text").asText(""));
+            }
+        });
+        return subchapters;
+    }
+}
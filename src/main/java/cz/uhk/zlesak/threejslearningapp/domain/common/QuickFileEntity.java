@@ -10,6 +10,7 @@ import lombok.EqualsAndHashCode;
  * The reason behind this QickFileEntity is to provide a lightweight representation of a file without the need for it
  * having it loaded into the application.
  * Can be then used to fetch the certain file form the BE side when needed.
+ * The content hash of the file is optional, when the BE sends it, the URLs of the file are versioned without downloading it first.
  */
 @EqualsAndHashCode(callSuper = true)
 @Data
@@ -18,4 +19,5 @@ import lombok.EqualsAndHashCode;
 public class QuickFileEntity extends QuickFile {
     String id;
     String name;
+    String contentHash;
 }
@@ -0,0 +1,66 @@
+package cz.uhk.zlesak.threejslearningapp.domain.parsers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * EditorJsMarkdownConverter class - converter between the Editor.js content of a single editor and Markdown.
+ * It remembers the blocks of the last conversion keyed by their Markdown, so blocks whose Markdown was not edited are restored exactly
+ * as they were, keeping their IDs (used as sub-chapter IDs) and the data Markdown cannot hold, e.g. the model IDs of the headers.
+ * The converter is not thread safe, every editor holds its own instance.
+ *
+ * @see EditorJsMarkdownParser
+ */
+public class EditorJsMarkdownConverter {
+    private Map<String, Deque<JsonNode>> blocksByMarkdown = new HashMap<>();
+
+    /**
+     * Converts the Editor.js content to Markdown.
+     *
+     * @param content Editor.js content as a JSON string
+     * @return Markdown of the content
+     * @throws JsonProcessingException if the content is not a valid JSON
+     */
+    public String toMarkdown(String content) throws JsonProcessingException {
+        Map<String, Deque<JsonNode>> byMarkdown = new HashMap<>();
+        List<String> out = new ArrayList<>();
+        for (JsonNode block : EditorJsMarkdownParser.blocksOf(content)) {
+            String markdown = EditorJsMarkdownParser.blockToMarkdown(block).trim();
+            if (!markdown.isEmpty()) {
+                out.add(markdown);
+                byMarkdown.computeIfAbsent(markdown, md -> new ArrayDeque<>()).add(block);
+            }
+        }
+        blocksByMarkdown = byMarkdown;
+        return String.join("\n\n", out) + "\n";
+    }
+
+    /**
+     * Converts Markdown to the Editor.js content.
+     * Blocks whose Markdown is the same as in the last conversion are reused with their original ID and data,
+     * only the edited blocks are taken from the parsed Markdown.
+     *
+     * @param markdown Markdown to convert
+     * @return Editor.js content as a JSON string
+     * @throws JsonProcessingException if the content cannot be serialized
+     */
+    public String toEditorJs(String markdown) throws JsonProcessingException {
+        Map<String, Deque<JsonNode>> byMarkdown = new HashMap<>();
+        List<JsonNode> blocks = new ArrayList<>();
+        for (EditorJsMarkdownParser.MarkdownBlock parsed : EditorJsMarkdownParser.parseMarkdown(markdown)) {
+            Deque<JsonNode> unchanged = blocksByMarkdown.get(parsed.markdown());
+            JsonNode block = unchanged != null && !unchanged.isEmpty() ? unchanged.poll() : parsed.block();
+            blocks.add(block);
+            byMarkdown.computeIfAbsent(parsed.markdown(), md -> new ArrayDeque<>()).add(block);
+        }
+        blocksByMarkdown = byMarkdown;
+        return EditorJsMarkdownParser.toEditorJs(blocks);
+    }
+}
@@ -0,0 +1,914 @@
+package cz.uhk.zlesak.threejslearningapp.domain.parsers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * EditorJsMarkdownParser class - utility class converting the Editor.js content of chapters to Markdown and back on the server side.
+ * It converts the header, paragraph, list, table, quote, delimiter, image and linkTool blocks, texture color links of the inline text
+ * use the [[text|modelId|textureId|hexColor]] syntax. Other blocks are kept as EJ-BLOCK comments, so they survive the round trip.
+ * Used for the chapter excerpts shown in the chapter listing and for the Markdown mode of the editor, so neither needs
+ * the browser to convert the content.
+ *
+ * @see EditorJsMarkdownConverter
+ */
+public abstract class EditorJsMarkdownParser {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+    private static final String ELLIPSIS = "...";
+    private static final int LIST_INDENT = 2;
+
+    private static final Pattern BR = Pattern.compile("<br\\s*/?>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern LINK = Pattern.compile("<a\\b([^>]*)>(.*?)</a>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern MODEL_ID_ATTR = Pattern.compile("data-model-id=\"([^\"]+)\"", Pattern.CASE_INSENSITIVE);
+    private static final Pattern TEXTURE_ID_ATTR = Pattern.compile("data-texture-id=\"([^\"]+)\"", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HEX_COLOR_ATTR = Pattern.compile("data-hex-color=\"([^\"]+)\"", Pattern.CASE_INSENSITIVE);
+    private static final Pattern HREF_ATTR = Pattern.compile("href=\"([^\"]+)\"", Pattern.CASE_INSENSITIVE);
+    private static final Pattern BOLD = Pattern.compile("<(b|strong)\\b[^>]*>(.*?)</\\1>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern ITALIC = Pattern.compile("<(i|em)\\b[^>]*>(.*?)</\\1>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern UNDERLINE = Pattern.compile("<u\\b[^>]*>(.*?)</u>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern STRIKE = Pattern.compile("<(s|strike|del)\\b[^>]*>(.*?)</\\1>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern UNDERLINE_CLASS = Pattern.compile("<span\\b[^>]*class=\"[^\"]*(underline)[^\"]*\"[^>]*>(.*?)</span>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern STRIKE_CLASS = Pattern.compile("<span\\b[^>]*class=\"[^\"]*(strike|strikethrough)[^\"]*\"[^>]*>(.*?)</span>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern UNDERLINE_STYLE = Pattern.compile("<span\\b[^>]*style=\"[^\"]*text-decoration:\\s*underline[^\"]*\"[^>]*>(.*?)</span>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern STRIKE_STYLE = Pattern.compile("<span\\b[^>]*style=\"[^\"]*text-decoration:\\s*line-through[^\"]*\"[^>]*>(.*?)</span>", Pattern.CASE_INSENSITIVE | Pattern.DOTALL);
+    private static final Pattern TAG = Pattern.compile("<[^>]+>");
+
+    private static final Pattern MD_TEXTURE_LINK = Pattern.compile("\\[\\[((?:\\\\\\||[^|\\]])+?)\\|([^|\\]]+?)\\|([^|\\]]+?)\\|([^|\\]]+?)]]");
+    private static final Pattern MD_LINK = Pattern.compile("\\[([^\\]]+)]\\(([^)]+)\\)");
+    private static final Pattern MD_BOLD = Pattern.compile("\\*\\*(.*?)\\*\\*", Pattern.DOTALL);
+    private static final Pattern MD_STRIKE = Pattern.compile("~~(.*?)~~", Pattern.DOTALL);
+    private static final Pattern MD_UNDERLINE = Pattern.compile("__([^_].*?)__", Pattern.DOTALL);
+    private static final Pattern MD_ITALIC = Pattern.compile("\\*([^*].*?)\\*", Pattern.DOTALL);
+    private static final Pattern MD_BR = Pattern.compile("<br\\s*/??\\s*>", Pattern.CASE_INSENSITIVE);
+    private static final Pattern MD_HARD_BREAK = Pattern.compile(" {2,}\n|\\\\\n");
+    private static final Pattern MD_NEWLINES = Pattern.compile("\n+");
+
+    private static final Pattern MD_HEADER = Pattern.compile("(#{1,6})\\s+(.*)");
+    private static final Pattern MD_IMAGE = Pattern.compile("^!\\[([^\\]]*)]\\(([^)]+)\\)");
+    private static final Pattern MD_LINK_LINE = Pattern.compile("\\[([^\\]]+)]\\((https?:[^)]+)\\)");
+    private static final Pattern MD_URL_LINE = Pattern.compile("(https?://\\S+)");
+    private static final Pattern MD_QUOTE = Pattern.compile("^>\\s+");
+    private static final Pattern MD_QUOTE_CAPTION = Pattern.compile("^—\\s+");
+    private static final Pattern MD_TABLE_ROW = Pattern.compile("\\|.*\\|");
+    private static final Pattern MD_TABLE_SEPARATOR_CELL = Pattern.compile(":?-{3,}:?");
+    private static final Pattern MD_LIST_UNORDERED = Pattern.compile("(\\s*)([-+*])\\s+(.*)");
+    private static final Pattern MD_LIST_ORDERED = Pattern.compile("(\\s*)(\\d{1,9})\\.\\s+(.*)");
+    private static final Pattern MD_LIST_CHECK = Pattern.compile("(\\s*)([-+*])\\s+\\[([ xX])]\\s+(.*)");
+    private static final Pattern MD_LIST_META = Pattern.compile("<!--\\s*LISTMETA\\s+(\\{.*})\\s*-->");
+    private static final Pattern MD_FALLBACK = Pattern.compile("<!--\\s*EJ-BLOCK:([a-zA-Z0-9_-]+)\\s+(\\{.*})\\s*-->");
+    private static final Pattern MD_STRUCTURAL = Pattern.compile("^(?:#{1,6}\\s+|(?:-|\\*|\\+|\\d+\\.)\\s+|>\\s+|\\|.*\\|$|---$|!\\[[^\\]]*]\\([^)]*\\)|<!--\\s*EJ-BLOCK:)");
+
+    private static final List<BlockFromMarkdown> BLOCK_PARSERS = List.of(
+            EditorJsMarkdownParser::delimiterFromMarkdown,
+            EditorJsMarkdownParser::headerFromMarkdown,
+            EditorJsMarkdownParser::listFromMarkdown,
+            EditorJsMarkdownParser::quoteFromMarkdown,
+            EditorJsMarkdownParser::tableFromMarkdown,
+            EditorJsMarkdownParser::imageFromMarkdown,
+            EditorJsMarkdownParser::linkToolFromMarkdown,
+            EditorJsMarkdownParser::paragraphFromMarkdown,
+            EditorJsMarkdownParser::fallbackFromMarkdown
+    );
+
+    /**
+     * Converts the whole Editor.js content to Markdown.
+     * Blocks without a Markdown counterpart are kept as EJ-BLOCK comments, same as in the frontend converter.
+     *
+     * @param content Editor.js content as a JSON string
+     * @return Markdown of the content
+     * @throws JsonProcessingException if the content is not a valid JSON
+     */
+    public static String toMarkdown(String content) throws JsonProcessingException {
+        List<String> out = new ArrayList<>();
+        for (JsonNode block : blocksOf(content)) {
+            String md = blockToMarkdown(block).trim();
+            if (!md.isEmpty()) {
+                out.add(md);
+            }
+        }
+        return String.join("\n\n", out) + "\n";
+    }
+
+    /**
+     * Converts the beginning of the Editor.js content to a Markdown excerpt of at most maxLength characters (without the ellipsis).
+     * Only the blocks needed for the excerpt are converted. Images and blocks without a Markdown counterpart are skipped,
+     * as they carry no readable text and images may hold whole base64 encoded files.
+     * The block exceeding the length is cut at the last whitespace and the excerpt is ended by an ellipsis.
+     *
+     * @param content   Editor.js content as a JSON string
+     * @param maxLength maximal length of the excerpt
+     * @return Markdown excerpt of the content, empty for content without text
+     * @throws JsonProcessingException if the content is not a valid JSON
+     */
+    public static String toMarkdownExcerpt(String content, int maxLength) throws JsonProcessingException {
+        StringBuilder excerpt = new StringBuilder();
+        for (JsonNode block : blocksOf(content)) {
+            String type = block.path("type").asText();
+            if ("image".equals(type) || !isSupported(type)) {
+                continue;
+            }
+            String md = blockToMarkdown(block).trim();
+            if (md.isEmpty()) {
+                continue;
+            }
+            String separator = excerpt.isEmpty() ? "" : "\n\n";
+            int remaining = maxLength - excerpt.length() - separator.length();
+            if (md.length() > remaining) {
+                String cut = cutAtWhitespace(md, remaining);
+                if (!cut.isEmpty()) {
+                    excerpt.append(separator).append(cut);
+                }
+                return excerpt.append(ELLIPSIS).toString();
+            }
+            excerpt.append(separator).append(md);
+        }
+        return excerpt.toString();
+    }
+
+    /**
+     * Converts a single Editor.js block to Markdown.
+     *
+     * @param block Editor.js block with its type and data
+     * @return Markdown of the block, empty when the block holds nothing to convert
+     */
+    public static String blockToMarkdown(JsonNode block) {
+        JsonNode data = block.path("data");
+        return switch (block.path("type").asText()) {
+            case "delimiter" -> "---";
+            case "header" -> headerToMarkdown(data);
+            case "list" -> listToMarkdown(data);
+            case "quote" -> quoteToMarkdown(data);
+            case "table" -> tableToMarkdown(data);
+            case "image" -> imageToMarkdown(data);
+            case "linkTool" -> linkToolToMarkdown(data);
+            case "paragraph" -> inlineHtmlToMarkdown(data.path("text").asText("")).trim();
+            default -> fallbackToMarkdown(block);
+        };
+    }
+
+    /**
+     * Converts the inline HTML of the Editor.js blocks to Markdown.
+     * Texture color links become [[text|modelId|textureId|hexColor]], underline becomes __text__, all other unknown tags are removed.
+     *
+     * @param html inline HTML of a block
+     * @return Markdown of the inline HTML
+     */
+    public static String inlineHtmlToMarkdown(String html) {
+        if (html == null || html.isEmpty()) {
+            return "";
+        }
+        String out = BR.matcher(html).replaceAll("  \n");
+        out = LINK.matcher(out).replaceAll(match -> Matcher.quoteReplacement(linkToMarkdown(match.group(1), match.group(2))));
+        out = BOLD.matcher(out).replaceAll("**$2**");
+        out = ITALIC.matcher(out).replaceAll("*$2*");
+        out = UNDERLINE.matcher(out).replaceAll("__$1__");
+        out = STRIKE.matcher(out).replaceAll("~~$2~~");
+        out = UNDERLINE_CLASS.matcher(out).replaceAll("__$2__");
+        out = STRIKE_CLASS.matcher(out).replaceAll("~~$2~~");
+        out = UNDERLINE_STYLE.matcher(out).replaceAll("__$1__");
+        out = STRIKE_STYLE.matcher(out).replaceAll("~~$1~~");
+        return TAG.matcher(out).replaceAll("");
+    }
+
+    /**
+     * Converts Markdown to the Editor.js content.
+     *
+     * @param markdown Markdown to convert
+     * @return Editor.js content as a JSON string
+     * @throws JsonProcessingException if the content cannot be serialized
+     */
+    public static String toEditorJs(String markdown) throws JsonProcessingException {
+        return toEditorJs(parseMarkdown(markdown).stream().map(MarkdownBlock::block).toList());
+    }
+
+    /**
+     * Wraps the blocks into the Editor.js content.
+     *
+     * @param blocks Editor.js blocks
+     * @return Editor.js content as a JSON string
+     * @throws JsonProcessingException if the content cannot be serialized
+     */
+    public static String toEditorJs(List<? extends JsonNode> blocks) throws JsonProcessingException {
+        ObjectNode content = OBJECT_MAPPER.createObjectNode();
+        content.put("time", Instant.now().toEpochMilli());
+        content.put("version", "");
+        content.putArray("blocks").addAll(blocks);
+        return OBJECT_MAPPER.writeValueAsString(content);
+    }
+
+    /**
+     * Parses Markdown to Editor.js blocks, every block is returned together with the Markdown it was parsed from.
+     * Blank lines separate the blocks, lines matching no block syntax are parsed as paragraphs.
+     *
+     * @param markdown Markdown to parse
+     * @return parsed blocks in the order of the Markdown
+     */
+    public static List<MarkdownBlock> parseMarkdown(String markdown) {
+        List<String> lines = markdown == null ? List.of() : Arrays.asList(markdown.replaceAll("\r\n?", "\n").split("\n", -1));
+        List<MarkdownBlock> blocks = new ArrayList<>();
+        int i = 0;
+        while (i < lines.size()) {
+            if (lines.get(i).isBlank()) {
+                i++;
+                continue;
+            }
+            ParseResult result = null;
+            for (BlockFromMarkdown parser : BLOCK_PARSERS) {
+                result = parser.fromMarkdown(lines, i);
+                if (result != null) {
+                    break;
+                }
+            }
+            if (result == null) {
+                i++;
+                continue;
+            }
+            blocks.add(new MarkdownBlock(result.block(), String.join("\n", lines.subList(i, result.nextLine())).trim()));
+            i = result.nextLine();
+        }
+        return blocks;
+    }
+
+    /**
+     * Converts the inline Markdown to the inline HTML of the Editor.js blocks.
+     * [[text|modelId|textureId|hexColor]] becomes the texture color link, __text__ the underline of the Editor.js underline tool.
+     *
+     * @param markdown inline Markdown
+     * @return inline HTML
+     */
+    public static String inlineMarkdownToHtml(String markdown) {
+        if (markdown == null || markdown.isEmpty()) {
+            return "";
+        }
+        String out = MD_TEXTURE_LINK.matcher(markdown).replaceAll(match -> Matcher.quoteReplacement(
+                "<a href=\"#\" data-model-id=\"" + match.group(2) + "\" data-texture-id=\"" + match.group(3) + "\" data-hex-color=\"" + match.group(4) + "\">"
+                        + applyInlineFormatting(match.group(1).replace("\\|", "|")) + "</a>"));
+        out = MD_LINK.matcher(out).replaceAll(match -> Matcher.quoteReplacement("<a href=\"" + match.group(2) + "\">" + applyInlineFormatting(match.group(1)) + "</a>"));
+        out = MD_BR.matcher(out).replaceAll("<br>");
+        out = MD_HARD_BREAK.matcher(out).replaceAll("<br>");
+        out = applyInlineFormatting(out);
+        return MD_NEWLINES.matcher(out).replaceAll(" ").trim();
+    }
+
+    /**
+     * Generates a new block ID in the format of the Editor.js block IDs generated on the client.
+     *
+     * @return new block ID
+     */
+    public static String newBlockId() {
+        return "b_" + Long.toString(ThreadLocalRandom.current().nextLong(36L * 36 * 36 * 36 * 36 * 36 * 36, Long.MAX_VALUE), 36).substring(0, 8);
+    }
+
+    /**
+     * Parses the blocks of the Editor.js content.
+     *
+     * @param content Editor.js content as a JSON string
+     * @return blocks of the content, empty for empty content
+     * @throws JsonProcessingException if the content is not a valid JSON
+     */
+    static JsonNode blocksOf(String content) throws JsonProcessingException {
+        if (content == null || content.isBlank()) {
+            return OBJECT_MAPPER.createArrayNode();
+        }
+        return OBJECT_MAPPER.readTree(content).path("blocks");
+    }
+
+    /**
+     * Checks whether the block type has a Markdown counterpart.
+     *
+     * @param type type of the block
+     * @return true for the block types converted to Markdown syntax
+     */
+    private static boolean isSupported(String type) {
+        return switch (type) {
+            case "delimiter", "header", "list", "quote", "table", "image", "linkTool", "paragraph" -> true;
+            default -> false;
+        };
+    }
+
+    /**
+     * Converts an inline link to Markdown, texture color links to [[text|modelId|textureId|hexColor]] and other links to [text](href).
+     *
+     * @param attributes attributes of the a tag
+     * @param inner      inner HTML of the a tag
+     * @return Markdown of the link
+     */
+    private static String linkToMarkdown(String attributes, String inner) {
+        String modelId = attribute(MODEL_ID_ATTR, attributes);
+        String textureId = attribute(TEXTURE_ID_ATTR, attributes);
+        String hexColor = attribute(HEX_COLOR_ATTR, attributes);
+        if (modelId != null && textureId != null && hexColor != null) {
+            return "[[" + inlineHtmlToMarkdown(inner).replace("|", "\\|") + "|" + modelId + "|" + textureId + "|" + hexColor + "]]";
+        }
+        String href = attribute(HREF_ATTR, attributes);
+        if (href != null) {
+            return "[" + inlineHtmlToMarkdown(inner) + "](" + href + ")";
+        }
+        return inner;
+    }
+
+    /**
+     * Returns the value of the attribute matched by the pattern.
+     *
+     * @param pattern    pattern with the value as its first group
+     * @param attributes attributes of the tag
+     * @return value of the attribute or null
+     */
+    private static String attribute(Pattern pattern, String attributes) {
+        Matcher matcher = pattern.matcher(attributes);
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    /**
+     * Converts a header block to a Markdown heading of the same level.
+     *
+     * @param data data of the block
+     * @return Markdown of the block
+     */
+    private static String headerToMarkdown(JsonNode data) {
+        int level = Math.min(6, Math.max(1, data.path("level").asInt(1)));
+        return "#".repeat(level) + " " + inlineHtmlToMarkdown(data.path("text").asText("")).trim();
+    }
+
+    /**
+     * Converts a list block to a Markdown list, ordered lists with a custom start or counter type are preceded by a LISTMETA comment.
+     *
+     * @param data data of the block
+     * @return Markdown of the block
+     */
+    private static String listToMarkdown(JsonNode data) {
+        String style = data.path("style").asText("");
+        if (!"ordered".equals(style) && !"checklist".equals(style)) {
+            style = "unordered";
+        }
+        JsonNode items = data.path("items");
+        if (!items.isArray() || items.isEmpty()) {
+            return "";
+        }
+        List<String> lines = new ArrayList<>();
+        int start = 1;
+        if ("ordered".equals(style)) {
+            start = data.path("meta").path("start").asInt(1);
+            String counterType = data.path("meta").path("counterType").asText("");
+            if (start != 1 || !counterType.isEmpty()) {
+                StringBuilder meta = new StringBuilder("{");
+                if (start != 1) {
+                    meta.append("\"start\":").append(start);
+                }
+                if (!counterType.isEmpty()) {
+                    meta.append(start != 1 ? "," : "").append("\"counterType\":").append(OBJECT_MAPPER.valueToTree(counterType));
+                }
+                lines.add("<!-- LISTMETA " + meta.append("}") + " -->");
+            }
+        }
+        serializeListItems(items, style, 0, start, lines);
+        return String.join("\n", lines);
+    }
+
+    /**
+     * Serializes the list items and their nested items, every nesting level is indented by two spaces.
+     *
+     * @param items items of the list, either objects with content, items and meta or plain strings
+     * @param style unordered, ordered or checklist
+     * @param level nesting level of the items
+     * @param start number of the first item of ordered lists
+     * @param lines lines of the list the items are added to
+     */
+    private static void serializeListItems(JsonNode items, String style, int level, int start, List<String> lines) {
+        int counter = start;
+        String indent = " ".repeat(level * LIST_INDENT);
+        for (JsonNode item : items) {
+            String content = item.isTextual() ? item.asText() : item.has("content") ? item.path("content").asText("") : item.path("text").asText("");
+            String text = inlineHtmlToMarkdown(content).trim();
+            String line = switch (style) {
+                case "ordered" -> indent + counter + ". " + text;
+                case "checklist" -> indent + "- [" + (item.path("meta").path("checked").asBoolean(false) ? "x" : " ") + "] " + text;
+                default -> indent + "- " + text;
+            };
+            lines.add(line.stripTrailing());
+            JsonNode nested = item.path("items");
+            if (nested.isArray() && !nested.isEmpty()) {
+                serializeListItems(nested, style, level + 1, 1, lines);
+            }
+            counter++;
+        }
+    }
+
+    /**
+     * Converts a quote block to Markdown quote lines, the caption is added as the last line prefixed by a dash.
+     *
+     * @param data data of the block
+     * @return Markdown of the block
+     */
+    private static String quoteToMarkdown(JsonNode data) {
+        List<String> lines = new ArrayList<>();
+        for (String line : inlineHtmlToMarkdown(data.path("text").asText("")).split("\n+")) {
+            lines.add("> " + line);
+        }
+        String caption = data.path("caption").asText("");
+        if (!caption.isEmpty()) {
+            lines.add("> — " + inlineHtmlToMarkdown(caption).trim());
+        }
+        return String.join("\n", lines);
+    }
+
+    /**
+     * Converts a table block to a Markdown table, the first row becomes the heading when the table has headings.
+     *
+     * @param data data of the block
+     * @return Markdown of the block, empty for a table without rows
+     */
+    private static String tableToMarkdown(JsonNode data) {
+        JsonNode content = data.path("content");
+        if (!content.isArray() || content.isEmpty()) {
+            return "";
+        }
+        List<String> rows = new ArrayList<>();
+        boolean withHeadings = data.path("withHeadings").asBoolean(false);
+        for (int r = 0; r < content.size(); r++) {
+            List<String> cells = new ArrayList<>();
+            content.get(r).forEach(cell -> cells.add(inlineHtmlToMarkdown(cell.asText("")).trim()));
+            rows.add("| " + String.join(" | ", cells) + " |");
+            if (r == 0 && withHeadings) {
+                rows.add("| " + String.join(" | ", cells.stream().map(cell -> "---").toList()) + " |");
+            }
+        }
+        return String.join("\n", rows);
+    }
+
+    /**
+     * Converts an image block to a Markdown image with its caption as the alternative text.
+     *
+     * @param data data of the block
+     * @return Markdown of the block, empty for an image without URL
+     */
+    private static String imageToMarkdown(JsonNode data) {
+        String url = data.path("file").path("url").asText(data.path("url").asText(""));
+        if (url.isEmpty()) {
+            return "";
+        }
+        return "![" + data.path("caption").asText("").replace("]", "") + "](" + url + ")";
+    }
+
+    /**
+     * Converts a link tool block to a Markdown link titled by the link metadata, or to the plain URL without them.
+     *
+     * @param data data of the block
+     * @return Markdown of the block, empty for a block without link
+     */
+    private static String linkToolToMarkdown(JsonNode data) {
+        String link = data.path("link").asText("");
+        if (link.isEmpty()) {
+            return "";
+        }
+        String title = data.path("meta").path("title").asText("");
+        if (title.isEmpty()) {
+            title = data.path("meta").path("description").asText("");
+        }
+        return title.isEmpty() ? link : "[" + inlineHtmlToMarkdown(title).trim() + "](" + link + ")";
+    }
+
+    /**
+     * Keeps a block without Markdown counterpart as an EJ-BLOCK comment holding its type and data.
+     *
+     * @param block Editor.js block
+     * @return comment preserving the block
+     */
+    private static String fallbackToMarkdown(JsonNode block) {
+        JsonNode data = block.path("data");
+        return "<!-- EJ-BLOCK:" + block.path("type").asText() + " " + OBJECT_MAPPER.createObjectNode().set("data", data.isObject() ? data : OBJECT_MAPPER.createObjectNode()) + " -->";
+    }
+
+    /**
+     * Cuts the text to at most maxLength characters at the last whitespace, so no word is cut in half.
+     *
+     * @param text      text to cut
+     * @param maxLength maximal length of the result
+     * @return the cut text without trailing whitespace, empty when not even the first word fits
+     */
+    private static String cutAtWhitespace(String text, int maxLength) {
+        if (maxLength <= 0) {
+            return "";
+        }
+        int end = maxLength;
+        while (end > 0 && !Character.isWhitespace(text.charAt(end))) {
+            end--;
+        }
+        return text.substring(0, end).stripTrailing();
+    }
+
+    /**
+     * Applies the bold, strikethrough, underline and italic inline formatting.
+     *
+     * @param text inline Markdown
+     * @return text with the formatting converted to HTML
+     */
+    private static String applyInlineFormatting(String text) {
+        String out = MD_BOLD.matcher(text).replaceAll("<b>$1</b>");
+        out = MD_STRIKE.matcher(out).replaceAll("<s class=\"cdx-strikethrough\">$1</s>");
+        out = MD_UNDERLINE.matcher(out).replaceAll("<u class=\"cdx-underline\">$1</u>");
+        return MD_ITALIC.matcher(out).replaceAll("<i>$1</i>");
+    }
+
+    /**
+     * Creates a new Editor.js block.
+     *
+     * @param type type of the block
+     * @param data data of the block
+     * @return the block with a new ID
+     */
+    private static ObjectNode newBlock(String type, ObjectNode data) {
+        ObjectNode block = OBJECT_MAPPER.createObjectNode();
+        block.put("id", newBlockId());
+        block.put("type", type);
+        block.set("data", data);
+        return block;
+    }
+
+    /**
+     * Parses a delimiter line (---).
+     *
+     * @param lines lines of the Markdown
+     * @param start index of the first line of the block
+     * @return the parsed block or null when the line is not a delimiter
+     */
+    private static ParseResult delimiterFromMarkdown(List<String> lines, int start) {
+        if (!"---".equals(lines.get(start).trim())) {
+            return null;
+        }
+        return new ParseResult(newBlock("delimiter", OBJECT_MAPPER.createObjectNode()), start + 1);
+    }
+
+    /**
+     * Parses a heading line to a header block of the same level.
+     *
+     * @param lines lines of the Markdown
+     * @param start index of the first line of the block
+     * @return the parsed block or null when the line is not a heading
+     */
+    private static ParseResult headerFromMarkdown(List<String> lines, int start) {
+        Matcher matcher = MD_HEADER.matcher(lines.get(start));
+        if (!matcher.matches()) {
+            return null;
+        }
+        ObjectNode data = OBJECT_MAPPER.createObjectNode();
+        data.put("level", matcher.group(1).length());
+        data.put("text", inlineMarkdownToHtml(matcher.group(2).trim()));
+        return new ParseResult(newBlock("header", data), start + 1);
+    }
+
+    /**
+     * Parses the list lines, optionally preceded by a LISTMETA comment, to a list block.
+     * The style of the list is given by its first item, nested items are indented by two spaces per level.
+     *
+     * @param lines lines of the Markdown
+     * @param start index of the first line of the block
+     * @return the parsed block or null when the lines are not a list
+     */
+    private static ParseResult listFromMarkdown(List<String> lines, int start) {
+        int i = start;
+        JsonNode commentMeta = null;
+        Matcher metaMatcher = MD_LIST_META.matcher(lines.get(i));
+        if (metaMatcher.matches()) {
+            try {
+                commentMeta = OBJECT_MAPPER.readTree(metaMatcher.group(1));
+                i++;
+            } catch (JsonProcessingException ignored) {
+                // the comment is not list metadata, the line is parsed as a paragraph
+            }
+        }
+        if (i >= lines.size() || !isListLine(lines.get(i))) {
+            return null;
+        }
+
+        String first = lines.get(i);
+        String style = MD_LIST_CHECK.matcher(first).matches() ? "checklist" : MD_LIST_ORDERED.matcher(first).matches() ? "ordered" : "unordered";
+        Integer detectedStart = null;
+        Integer baseIndent = null;
+        ArrayNode root = OBJECT_MAPPER.createArrayNode();
+        List<ListLevel> stack = new ArrayList<>();
+        while (i < lines.size()) {
+            String raw = lines.get(i);
+            if (raw.isBlank() || !isListLine(raw)) {
+                break;
+            }
+            Matcher check = MD_LIST_CHECK.matcher(raw);
+            Matcher ordered = MD_LIST_ORDERED.matcher(raw);
+            Matcher unordered = MD_LIST_UNORDERED.matcher(raw);
+            int indent;
+            String content;
+            Boolean checked = null;
+            if (check.matches() && !"ordered".equals(style)) {
+                indent = check.group(1).length();
+                content = check.group(4);
+                checked = check.group(3).equalsIgnoreCase("x");
+            } else if (ordered.matches()) {
+                if (!"ordered".equals(style) && stack.isEmpty()) {
+                    break;
+                }
+                indent = ordered.group(1).length();
+                content = ordered.group(3);
+                if (detectedStart == null && stack.isEmpty() && Integer.parseInt(ordered.group(2)) != 1) {
+                    detectedStart = Integer.parseInt(ordered.group(2));
+                }
+            } else if (unordered.matches()) {
+                if ("ordered".equals(style) && stack.isEmpty()) {
+                    break;
+                }
+                indent = unordered.group(1).length();
+                content = unordered.group(3);
+            } else {
+                break;
+            }
+            if (baseIndent == null) {
+                baseIndent = indent;
+            }
+            int level = Math.max(0, (indent - baseIndent) / LIST_INDENT);
+
+            ObjectNode item = OBJECT_MAPPER.createObjectNode();
+            item.put("content", inlineMarkdownToHtml(content.trim()));
+            item.putArray("items");
+            ObjectNode itemMeta = item.putObject("meta");
+            if (checked != null) {
+                itemMeta.put("checked", checked);
+            }
+            while (!stack.isEmpty() && stack.getLast().level() >= level) {
+                stack.removeLast();
+            }
+            if (stack.isEmpty()) {
+                root.add(item);
+            } else {
+                ((ArrayNode) stack.getLast().item().get("items")).add(item);
+            }
+            stack.add(new ListLevel(level, item));
+            i++;
+        }
+        if (root.isEmpty()) {
+            return null;
+        }
+
+        ObjectNode data = OBJECT_MAPPER.createObjectNode();
+        data.put("style", style);
+        data.set("items", root);
+        ObjectNode meta = OBJECT_MAPPER.createObjectNode();
+        if (detectedStart != null) {
+            meta.put("start", detectedStart);
+        }
+        if (commentMeta instanceof ObjectNode commentMetaObject) {
+            meta.setAll(commentMetaObject);
+        }
+        if ("ordered".equals(style) && (meta.path("start").asInt(0) != 0 || !meta.path("counterType").asText("").isEmpty())) {
+            data.set("meta", meta);
+        }
+        return new ParseResult(newBlock("list", data), i);
+    }
+
+    /**
+     * Checks whether the line is an item of a list.
+     *
+     * @param line line of the Markdown
+     * @return true for unordered, ordered and checklist items
+     */
+    private static boolean isListLine(String line) {
+        return MD_LIST_CHECK.matcher(line).matches() || MD_LIST_ORDERED.matcher(line).matches() || MD_LIST_UNORDERED.matcher(line).matches();
+    }
+
+    /**
+     * Parses the quote lines to a quote block, the line prefixed by a dash becomes the caption.
+     *
+     * @param lines lines of the Markdown
+     * @param start index of the first line of the block
+     * @return the parsed block or null when the lines are not a quote
+     */
+    private static ParseResult quoteFromMarkdown(List<String> lines, int start) {
+        int i = start;
+        List<String> collected = new ArrayList<>();
+        String caption = "";
+        while (i < lines.size() && MD_QUOTE.matcher(lines.get(i)).find()) {
+            String content = MD_QUOTE.matcher(lines.get(i)).replaceFirst("");
+            if (MD_QUOTE_CAPTION.matcher(content).find()) {
+                caption = MD_QUOTE_CAPTION.matcher(content).replaceFirst("").trim();
+            } else {
+                collected.add(content);
+            }
+            i++;
+        }
+        if (collected.isEmpty() && caption.isEmpty()) {
+            return null;
+        }
+        ObjectNode data = OBJECT_MAPPER.createObjectNode();
+        data.put("text", inlineMarkdownToHtml(String.join("\n", collected)));
+        data.put("caption", inlineMarkdownToHtml(caption));
+        data.put("alignment", "left");
+        return new ParseResult(newBlock("quote", data), i);
+    }
+
+    /**
+     * Parses the table rows to a table block, the first row is the heading when it is followed by a separator row.
+     *
+     * @param lines lines of the Markdown
+     * @param start index of the first line of the block
+     * @return the parsed block or null when the lines are not a table
+     */
+    private static ParseResult tableFromMarkdown(List<String> lines, int start) {
+        int i = start;
+        List<String> rows = new ArrayList<>();
+        while (i < lines.size() && MD_TABLE_ROW.matcher(lines.get(i).trim()).matches()) {
+            rows.add(lines.get(i).trim());
+            i++;
+        }
+        if (rows.isEmpty()) {
+            return null;
+        }
+        boolean withHeadings = rows.size() >= 2 && tableCells(rows.get(1)).stream().allMatch(cell -> MD_TABLE_SEPARATOR_CELL.matcher(cell).matches());
+        if (withHeadings) {
+            rows.remove(1);
+        }
+        ArrayNode content = OBJECT_MAPPER.createArrayNode();
+        for (String row : rows) {
+            ArrayNode cells = content.addArray();
+            tableCells(row).forEach(cell -> cells.add(inlineMarkdownToHtml(cell)));
+        }
+        ObjectNode data = OBJECT_MAPPER.createObjectNode();
+        data.put("withHeadings", withHeadings);
+        data.set("content", content);
+        return new ParseResult(newBlock("table", data), i);
+    }
+
+    /**
+     * Splits the table row to its trimmed cells.
+     * Escaped pipes and the pipes of texture color links do not separate the cells.
+     *
+     * @param row trimmed table row starting and ending with a pipe
+     * @return cells of the row
+     */
+    private static List<String> tableCells(String row) {
+        List<String> cells = new ArrayList<>();
+        StringBuilder cell = new StringBuilder();
+        int end = row.length() - 1;
+        boolean inTextureLink = false;
+        for (int i = 1; i < end; i++) {
+            char c = row.charAt(i);
+            if (c == '\\' && i + 1 < end) {
+                cell.append(c).append(row.charAt(++i));
+                continue;
+            }
+            if (row.startsWith("[[", i)) {
+                inTextureLink = true;
+            } else if (row.startsWith("]]", i)) {
+                inTextureLink = false;
+            }
+            if (c == '|' && !inTextureLink) {
+                cells.add(cell.toString().trim());
+                cell.setLength(0);
+            } else {
+                cell.append(c);
+            }
+        }
+        cells.add(cell.toString().trim());
+        return cells;
+    }
+
+    /**
+     * Parses a Markdown image to an image block with its alternative text as the caption.
+     *
+     * @param lines lines of the Markdown
+     * @param start index of the first line of the block
+     * @return the parsed block or null when the line is not an image
+     */
+    private static ParseResult imageFromMarkdown(List<String> lines, int start) {
+        Matcher matcher = MD_IMAGE.matcher(lines.get(start).trim());
+        if (!matcher.find()) {
+            return null;
+        }
+        ObjectNode data = OBJECT_MAPPER.createObjectNode();
+        data.putObject("file").put("url", matcher.group(2));
+        data.put("caption", matcher.group(1));
+        data.put("withBorder", false);
+        data.put("withBackground", false);
+        data.put("stretched", false);
+        return new ParseResult(newBlock("image", data), start + 1);
+    }
+
+    /**
+     * Parses a line holding only a Markdown link or a plain URL to a link tool block.
+     *
+     * @param lines lines of the Markdown
+     * @param start index of the first line of the block
+     * @return the parsed block or null when the line is not a standalone link
+     */
+    private static ParseResult linkToolFromMarkdown(List<String> lines, int start) {
+        String line = lines.get(start).trim();
+        String url;
+        String title = null;
+        Matcher link = MD_LINK_LINE.matcher(line);
+        Matcher plainUrl = MD_URL_LINE.matcher(line);
+        if (link.matches()) {
+            title = link.group(1).trim();
+            url = link.group(2).trim();
+        } else if (plainUrl.matches()) {
+            url = plainUrl.group(1);
+        } else {
+            return null;
+        }
+        ObjectNode data = OBJECT_MAPPER.createObjectNode();
+        data.put("link", url);
+        ObjectNode meta = data.putObject("meta");
+        String titleHtml = title != null ? inlineMarkdownToHtml(title) : "";
+        meta.put("title", titleHtml.isEmpty() ? url : titleHtml);
+        meta.put("description", "");
+        meta.putObject("image").put("url", "");
+        return new ParseResult(newBlock("linkTool", data), start + 1);
+    }
+
+    /**
+     * Parses the lines up to the next blank line or block syntax to a paragraph block.
+     *
+     * @param lines lines of the Markdown
+     * @param start index of the first line of the block
+     * @return the parsed block or null when the line starts another block
+     */
+    private static ParseResult paragraphFromMarkdown(List<String> lines, int start) {
+        int i = start;
+        List<String> collected = new ArrayList<>();
+        while (i < lines.size() && !lines.get(i).isBlank() && !MD_STRUCTURAL.matcher(lines.get(i).trim()).find()) {
+            collected.add(lines.get(i));
+            i++;
+        }
+        if (collected.isEmpty()) {
+            return null;
+        }
+        ObjectNode data = OBJECT_MAPPER.createObjectNode();
+        data.put("text", inlineMarkdownToHtml(String.join("\n", collected)));
+        return new ParseResult(newBlock("paragraph", data), i);
+    }
+
+    /**
+     * Restores a block kept as an EJ-BLOCK comment.
+     *
+     * @param lines lines of the Markdown
+     * @param start index of the first line of the block
+     * @return the restored block or null when the line is not a valid EJ-BLOCK comment
+     */
+    private static ParseResult fallbackFromMarkdown(List<String> lines, int start) {
+        Matcher matcher = MD_FALLBACK.matcher(lines.get(start).trim());
+        if (!matcher.matches()) {
+            return null;
+        }
+        try {
+            JsonNode json = OBJECT_MAPPER.readTree(matcher.group(2));
+            JsonNode data = json.has("data") ? json.get("data") : json;
+            ObjectNode block = newBlock(matcher.group(1), OBJECT_MAPPER.createObjectNode());
+            block.set("data", data);
+            return new ParseResult(block, start + 1);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Editor.js block parsed from Markdown.
+     *
+     * @param block    the parsed block
+     * @param markdown Markdown the block was parsed from, without the surrounding blank lines
+     */
+    public record MarkdownBlock(ObjectNode block, String markdown) {
+    }
+
+    /**
+     * Result of a block parser.
+     *
+     * @param block    the parsed block
+     * @param nextLine index of the first line after the block
+     */
+    private record ParseResult(ObjectNode block, int nextLine) {
+    }
+
+    /**
+     * Item of a list being parsed together with its nesting level.
+     *
+     * @param level nesting level of the item
+     * @param item  the list item
+     */
+    private record ListLevel(int level, ObjectNode item) {
+    }
+
+    /**
+     * Parser of a single block type from Markdown.
+     */
+    @FunctionalInterface
+    private interface BlockFromMarkdown {
+        ParseResult fromMarkdown(List<String> lines, int start);
+    }
+}
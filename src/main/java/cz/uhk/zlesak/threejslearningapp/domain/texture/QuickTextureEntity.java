@@ -5,7 +5,7 @@ import lombok.*;
 
 /**
  * QuickTextureEntity is a data class that extends QuickFile to represent a texture entity with additional properties.
- * It includes fields for texture file ID, name, and CSV content.
+ * It includes fields for texture file ID, name, CSV content and the optional content hash of the texture file sent by the BE.
  */
 @EqualsAndHashCode(callSuper = true)
 @Data
@@ -17,4 +17,5 @@ public class QuickTextureEntity extends QuickFile {
     String textureFileId;
     String name;
     String csvContent;
+    String contentHash;
 }
@@ -0,0 +1,11 @@
+package cz.uhk.zlesak.threejslearningapp.drafts;
+
+/**
+ * ChapterDraft is an autosaved state of a chapter being created, which has not been sent to the backend yet.
+ *
+ * @param name    name of the chapter
+ * @param content Editor.js content of the chapter as a JSON string
+ * @param savedAt time of the autosave in epoch milliseconds
+ */
+public record ChapterDraft(String name, String content, long savedAt) {
+}
@@ -0,0 +1,200 @@
+package cz.uhk.zlesak.threejslearningapp.drafts;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.uhk.zlesak.threejslearningapp.common.ContentHash;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ChapterDraftStore keeps the autosaved drafts of the chapters being created, one draft per author.
+ * Autosaves only replace the draft in memory, so any number of autosaves between two flushes costs a single write.
+ * The drafts are written behind to the configured directory by a single background thread, at most a configured number per flush,
+ * and the written drafts are released from memory. Without the directory configured the drafts live only in memory.
+ * The drafts are never sent to the backend, the chapter is created there only once when the author saves it.
+ */
+@Slf4j
+@Component
+public class ChapterDraftStore {
+    private final ObjectMapper objectMapper;
+    private final Path directory;
+    private final Duration flushInterval;
+    private final int flushBatch;
+    private final ConcurrentHashMap<String, ChapterDraft> drafts = new ConcurrentHashMap<>();
+    private final Set<String> dirty = ConcurrentHashMap.newKeySet();
+    private ScheduledExecutorService flushExecutor;
+
+    /**
+     * Constructor for ChapterDraftStore.
+     *
+     * @param objectMapper  mapper serializing the drafts
+     * @param directory     directory the drafts are written to, empty value keeps the drafts only in memory
+     * @param flushInterval interval between two flushes of the changed drafts
+     * @param flushBatch    maximal number of drafts written by a single flush
+     */
+    @Autowired
+    public ChapterDraftStore(ObjectMapper objectMapper,
+                             @Value("${chapter.drafts.directory:}") String directory,
+                             @Value("${chapter.drafts.flush-interval:5s}") Duration flushInterval,
+                             @Value("${chapter.drafts.flush-batch:50}") int flushBatch) {
+        this.objectMapper = objectMapper;
+        this.directory = directory.isBlank() ? null : Path.of(directory);
+        this.flushInterval = flushInterval;
+        this.flushBatch = Math.max(1, flushBatch);
+    }
+
+    /**
+     * Starts the periodic flushes, unless the drafts are kept only in memory.
+     */
+    @PostConstruct
+    void startFlushing() {
+        if (directory == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            log.warn("Adresář konceptů kapitol {} nelze vytvořit: {}", directory, e.getMessage());
+        }
+        flushExecutor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("chapter-draft-flush").factory());
+        flushExecutor.scheduleWithFixedDelay(() -> flush(flushBatch), flushInterval.toMillis(), flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic flushes and writes all remaining drafts.
+     */
+    @PreDestroy
+    void stopFlushing() {
+        if (flushExecutor == null) {
+            return;
+        }
+        flushExecutor.shutdown();
+        try {
+            flushExecutor.awaitTermination(flushInterval.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(Integer.MAX_VALUE);
+    }
+
+    /**
+     * Autosaves the draft of the author, replacing the previous one.
+     *
+     * @param author  name of the author
+     * @param name    name of the chapter
+     * @param content Editor.js content of the chapter as a JSON string
+     */
+    public void save(String author, String name, String content) {
+        drafts.put(author, new ChapterDraft(name, content, System.currentTimeMillis()));
+        if (directory != null) {
+            dirty.add(author);
+        }
+    }
+
+    /**
+     * Finds the draft of the author.
+     *
+     * @param author name of the author
+     * @return draft of the author, empty if the author has no draft
+     */
+    public Optional<ChapterDraft> find(String author) {
+        ChapterDraft draft = drafts.get(author);
+        if (draft != null || directory == null) {
+            return Optional.ofNullable(draft);
+        }
+        Path file = fileOf(author);
+        if (!Files.isRegularFile(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(objectMapper.readValue(Files.readString(file, StandardCharsets.UTF_8), ChapterDraft.class));
+        } catch (IOException e) {
+            log.warn("Koncept kapitoly ze souboru {} nelze načíst: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Discards the draft of the author, e.g. after the chapter was created or the author refused to restore it.
+     *
+     * @param author name of the author
+     */
+    public void discard(String author) {
+        drafts.remove(author);
+        dirty.remove(author);
+        if (directory != null) {
+            deleteFile(author);
+        }
+    }
+
+    /**
+     * Writes the changed drafts to the directory and releases them from memory.
+     * A draft changed while it was written stays in memory and is written again by the next flush.
+     *
+     * @param limit maximal number of written drafts
+     */
+    void flush(int limit) {
+        Iterator<String> authors = dirty.iterator();
+        for (int written = 0; written < limit && authors.hasNext(); written++) {
+            String author = authors.next();
+            authors.remove();
+            ChapterDraft draft = drafts.get(author);
+            if (draft == null) {
+                continue;
+            }
+            Path file = fileOf(author);
+            Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+            try {
+                Files.writeString(tempFile, objectMapper.writeValueAsString(draft), StandardCharsets.UTF_8);
+                Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                dirty.add(author);
+                log.warn("Koncept kapitoly nelze uložit do souboru {}: {}", file, e.getMessage());
+                continue;
+            }
+            if (!drafts.remove(author, draft) && !drafts.containsKey(author)) {
+                deleteFile(author);
+            }
+        }
+    }
+
+    /**
+     * Deletes the written draft of the author.
+     *
+     * @param author name of the author
+     */
+    private void deleteFile(String author) {
+        try {
+            Files.deleteIfExists(fileOf(author));
+        } catch (IOException e) {
+            log.warn("Koncept kapitoly autora {} nelze smazat: {}", author, e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the file of the draft, named by the hash of the author, as the author name may contain any characters.
+     *
+     * @param author name of the author
+     * @return file of the draft
+     */
+    private Path fileOf(String author) {
+        return directory.resolve(ContentHash.of(author.getBytes(StandardCharsets.UTF_8)) + ".json");
+    }
+}
@@ -0,0 +1,34 @@
+package cz.uhk.zlesak.threejslearningapp.events.threejs;
+
+import com.vaadin.flow.component.ComponentEvent;
+import cz.uhk.zlesak.threejslearningapp.components.common.ThreeJs;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * Event carrying timings measured by the Three.js renderer in the browser, e.g. asset downloads, model parsing and the first rendered frame.
+ * The times are relative to the moment the client sent them, so they do not depend on the clock of the browser.
+ */
+@Getter
+public class ThreeJsClientTimings extends ComponentEvent<ThreeJs> {
+    private final long receivedAtEpochMs;
+    private final List<ClientTiming> timings;
+
+    public ThreeJsClientTimings(ThreeJs source, long receivedAtEpochMs, List<ClientTiming> timings) {
+        super(source, true);
+        this.receivedAtEpochMs = receivedAtEpochMs;
+        this.timings = timings;
+    }
+
+    /**
+     * Single timing measured by the client.
+     *
+     * @param name       name of the measured phase, e.g. asset.download, model.parse or three.first-render
+     * @param asset      asset or model the phase belongs to, empty when not related to any
+     * @param startMsAgo milliseconds between the start of the phase and sending of the timings
+     * @param endMsAgo   milliseconds between the end of the phase and sending of the timings
+     */
+    public record ClientTiming(String name, String asset, double startMsAgo, double endMsAgo) {
+    }
+}
@@ -0,0 +1,23 @@
+package cz.uhk.zlesak.threejslearningapp.events.threejs;
+
+import com.vaadin.flow.component.ComponentEvent;
+import cz.uhk.zlesak.threejslearningapp.components.common.ThreeJs;
+import lombok.Getter;
+
+/**
+ * Event reporting byte progress of a single asset downloaded by the Three.js renderer.
+ * The total size is zero when the server did not provide the Content-Length header.
+ */
+@Getter
+public class ThreeJsLoadProgress extends ComponentEvent<ThreeJs> {
+    private final String assetUrl;
+    private final long loadedBytes;
+    private final long totalBytes;
+
+    public ThreeJsLoadProgress(ThreeJs source, String assetUrl, long loadedBytes, long totalBytes) {
+        super(source, true);
+        this.assetUrl = assetUrl;
+        this.loadedBytes = loadedBytes;
+        this.totalBytes = totalBytes;
+    }
+}
@@ -0,0 +1,26 @@
+package cz.uhk.zlesak.threejslearningapp.exceptions;
+
+import lombok.Getter;
+
+import java.io.IOException;
+
+/**
+ * Exception thrown when a backend call is rejected without being sent, because the circuit breaker of the endpoint is open
+ * or the bulkhead of the endpoint is full.
+ * It is an IOException, so the RestTemplate reports it the same way as an unreachable backend.
+ */
+@Getter
+public class BackendUnavailableException extends IOException {
+    private final String endpointGroup;
+
+    /**
+     * Constructor for BackendUnavailableException.
+     * @param message message of the exception
+     * @param endpointGroup endpoint group whose call was rejected
+     * @param cause the rejection thrown by the circuit breaker or the bulkhead
+     */
+    public BackendUnavailableException(String message, String endpointGroup, Throwable cause) {
+        super(message, cause);
+        this.endpointGroup = endpointGroup;
+    }
+}
@@ -0,0 +1,24 @@
+package cz.uhk.zlesak.threejslearningapp.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a chapter is updated or deleted, but it was changed by someone else since it was read,
+ * so the change would overwrite the newer version of the chapter.
+ */
+@Getter
+public class ChapterVersionConflictException extends Exception {
+    private final String chapterId;
+    private final String expectedVersion;
+
+    /**
+     * Constructor for ChapterVersionConflictException.
+     * @param chapterId ID of the changed chapter
+     * @param expectedVersion version of the chapter the change was based on
+     */
+    public ChapterVersionConflictException(String chapterId, String expectedVersion) {
+        super("Kapitola " + chapterId + " byla mezitím změněna, načtěte ji prosím znovu.");
+        this.chapterId = chapterId;
+        this.expectedVersion = expectedVersion;
+    }
+}
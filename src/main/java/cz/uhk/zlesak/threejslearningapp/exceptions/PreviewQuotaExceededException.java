@@ -0,0 +1,24 @@
+package cz.uhk.zlesak.threejslearningapp.exceptions;
+
+import lombok.Getter;
+
+/**
+ * Exception thrown when a preview of an uploaded file would exceed the preview quota of the session,
+ * so the file is not made available to the renderer.
+ */
+@Getter
+public class PreviewQuotaExceededException extends Exception {
+    private final String fileName;
+    private final long quotaBytes;
+
+    /**
+     * Constructor for PreviewQuotaExceededException.
+     * @param fileName name of the file whose preview was refused
+     * @param quotaBytes preview quota of the session in bytes
+     */
+    public PreviewQuotaExceededException(String fileName, long quotaBytes) {
+        super("Náhled souboru " + fileName + " by překročil limit náhledů relace " + quotaBytes / (1024 * 1024) + " MB, odeberte prosím některé nahrané soubory.");
+        this.fileName = fileName;
+        this.quotaBytes = quotaBytes;
+    }
+}
@@ -0,0 +1,225 @@
+package cz.uhk.zlesak.threejslearningapp.metrics;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * BackendApiMetrics records Micrometer metrics of the calls to the backend API.
+ * A single call is split into the time to the response headers (backend latency), the time of reading the response body
+ * (transfer) and the time of decoding the JSON payload, so a slow page can be attributed to the right phase.
+ * All meters are tagged by the API client and the endpoint with IDs replaced by a placeholder to keep the cardinality low.
+ *
+ * @see BackendApiMetricsInterceptor
+ */
+@Component
+public class BackendApiMetrics {
+    private static final Pattern ID_SEGMENT = Pattern.compile("(?=.*\\d)[0-9a-zA-Z-]{8,}");
+    private static final String API_PREFIX = "/api/";
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for BackendApiMetrics.
+     *
+     * @param meterRegistry registry the metrics are recorded to
+     */
+    public BackendApiMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Records a finished exchange up to the received response headers.
+     *
+     * @param client        API client, e.g. chapter, model or texture
+     * @param endpoint      normalized endpoint
+     * @param method        HTTP method
+     * @param status        HTTP status code or IO_ERROR when no response was received
+     * @param contentLength Content-Length of the response or -1 when unknown
+     * @param nanos         duration of the exchange in nanoseconds
+     */
+    public void recordExchange(String client, String endpoint, String method, String status, long contentLength, long nanos) {
+        Timer.builder("backend.api.requests")
+                .description("Doba odpovědi backendu do přijetí hlaviček")
+                .tag("client", client)
+                .tag("endpoint", endpoint)
+                .tag("method", method)
+                .tag("status", status)
+                .tag("outcome", outcomeOf(status))
+                .tag("size", sizeClassOf(contentLength))
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Records the size of a request body sent to the backend.
+     *
+     * @param client   API client
+     * @param endpoint normalized endpoint
+     * @param method   HTTP method
+     * @param bytes    size of the request body in bytes
+     */
+    public void recordRequestSize(String client, String endpoint, String method, long bytes) {
+        DistributionSummary.builder("backend.api.request.size")
+                .description("Velikost těla požadavku na backend")
+                .baseUnit("bytes")
+                .tag("client", client)
+                .tag("endpoint", endpoint)
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(bytes);
+    }
+
+    /**
+     * Records the size and the transfer time of a response body read from the backend.
+     *
+     * @param client   API client
+     * @param endpoint normalized endpoint
+     * @param status   HTTP status code
+     * @param bytes    number of bytes read from the response body
+     * @param nanos    time between the response headers and closing the response in nanoseconds
+     */
+    public void recordResponseBody(String client, String endpoint, String status, long bytes, long nanos) {
+        DistributionSummary.builder("backend.api.response.size")
+                .description("Velikost těla odpovědi backendu")
+                .baseUnit("bytes")
+                .tag("client", client)
+                .tag("endpoint", endpoint)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(bytes);
+        Timer.builder("backend.api.response.transfer")
+                .description("Doba čtení těla odpovědi backendu")
+                .tag("client", client)
+                .tag("endpoint", endpoint)
+                .tag("status", status)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Decodes a backend payload and records the time spent in decoding.
+     *
+     * @param client   API client
+     * @param endpoint normalized endpoint, the same as used by the interceptor
+     * @param decoder  decoding call, usually ObjectMapper.readValue
+     * @param <T>      type of the decoded value
+     * @return decoded value
+     * @throws JsonProcessingException if the payload cannot be decoded
+     */
+    public <T> T timeDecoding(String client, String endpoint, Decoder<T> decoder) throws JsonProcessingException {
+        long start = System.nanoTime();
+        String outcome = "SUCCESS";
+        try {
+            return decoder.decode();
+        } catch (JsonProcessingException | RuntimeException e) {
+            outcome = "ERROR";
+            throw e;
+        } finally {
+            Timer.builder("backend.api.decode")
+                    .description("Doba dekódování JSON odpovědi backendu")
+                    .tag("client", client)
+                    .tag("endpoint", endpoint)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Returns the API client tag of the backend URI, which is the first path segment after /api/.
+     *
+     * @param uri backend URI
+     * @return API client tag
+     */
+    public static String clientOf(URI uri) {
+        String endpoint = endpointOf(uri);
+        int slash = endpoint.indexOf('/');
+        return slash == -1 ? endpoint : endpoint.substring(0, slash);
+    }
+
+    /**
+     * Returns the normalized endpoint of the backend URI.
+     * The path after /api/ is used without the query, segments looking like IDs are replaced by {id}.
+     *
+     * @param uri backend URI
+     * @return normalized endpoint, e.g. model/download/{id}
+     */
+    public static String endpointOf(URI uri) {
+        String path = uri.getPath() == null ? "" : uri.getPath();
+        int apiIndex = path.indexOf(API_PREFIX);
+        path = apiIndex == -1 ? path.replaceFirst("^/", "") : path.substring(apiIndex + API_PREFIX.length());
+        StringBuilder endpoint = new StringBuilder();
+        for (String segment : path.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            if (!endpoint.isEmpty()) {
+                endpoint.append('/');
+            }
+            endpoint.append(ID_SEGMENT.matcher(segment).matches() ? "{id}" : segment);
+        }
+        return endpoint.isEmpty() ? "unknown" : endpoint.toString();
+    }
+
+    /**
+     * Maps the status to the outcome tag.
+     *
+     * @param status HTTP status code or IO_ERROR
+     * @return outcome tag
+     */
+    private static String outcomeOf(String status) {
+        if (status.length() != 3) {
+            return "UNKNOWN";
+        }
+        return switch (status.charAt(0)) {
+            case '1', '2', '3' -> "SUCCESS";
+            case '4' -> "CLIENT_ERROR";
+            case '5' -> "SERVER_ERROR";
+            default -> "UNKNOWN";
+        };
+    }
+
+    /**
+     * Maps the payload size to a coarse size class tag.
+     *
+     * @param bytes payload size in bytes or -1 when unknown
+     * @return size class tag
+     */
+    static String sizeClassOf(long bytes) {
+        if (bytes < 0) {
+            return "unknown";
+        }
+        if (bytes < 64 * 1024) {
+            return "small";
+        }
+        if (bytes < 1024 * 1024) {
+            return "medium";
+        }
+        if (bytes < 16 * 1024 * 1024) {
+            return "large";
+        }
+        return "huge";
+    }
+
+    /**
+     * Decoding call of a backend payload.
+     *
+     * @param <T> type of the decoded value
+     */
+    @FunctionalInterface
+    public interface Decoder<T> {
+        T decode() throws JsonProcessingException;
+    }
+}
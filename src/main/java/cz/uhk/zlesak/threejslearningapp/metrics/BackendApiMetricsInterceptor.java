@@ -0,0 +1,153 @@
+package cz.uhk.zlesak.threejslearningapp.metrics;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.stereotype.Component;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * BackendApiMetricsInterceptor measures every call made through the shared RestTemplate.
+ * The exchange is timed up to the response headers, the response body is wrapped so its size and transfer time
+ * are recorded when the response is closed, which works for both buffered and streamed responses.
+ *
+ * @see BackendApiMetrics
+ */
+@Component
+public class BackendApiMetricsInterceptor implements ClientHttpRequestInterceptor {
+    private final BackendApiMetrics metrics;
+
+    /**
+     * Constructor for BackendApiMetricsInterceptor.
+     *
+     * @param metrics metrics of the backend API calls
+     */
+    public BackendApiMetricsInterceptor(BackendApiMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    /**
+     * Executes the request and records its metrics.
+     *
+     * @param request   the request
+     * @param body      body of the request
+     * @param execution execution of the request
+     * @return response with a metered body
+     * @throws IOException if the request fails
+     */
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+        String client = BackendApiMetrics.clientOf(request.getURI());
+        String endpoint = BackendApiMetrics.endpointOf(request.getURI());
+        String method = request.getMethod().name();
+        if (body.length > 0) {
+            metrics.recordRequestSize(client, endpoint, method, body.length);
+        }
+
+        long start = System.nanoTime();
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(request, body);
+        } catch (IOException e) {
+            metrics.recordExchange(client, endpoint, method, "IO_ERROR", -1, System.nanoTime() - start);
+            throw e;
+        }
+        String status = String.valueOf(response.getStatusCode().value());
+        metrics.recordExchange(client, endpoint, method, status, response.getHeaders().getContentLength(), System.nanoTime() - start);
+        return new MeteredResponse(response, client, endpoint, status);
+    }
+
+    /**
+     * Response counting the bytes read from its body and recording them when closed.
+     */
+    private class MeteredResponse implements ClientHttpResponse {
+        private final ClientHttpResponse delegate;
+        private final String client;
+        private final String endpoint;
+        private final String status;
+        private final long headersReceivedAt = System.nanoTime();
+        private CountingInputStream body;
+        private boolean recorded = false;
+
+        MeteredResponse(ClientHttpResponse delegate, String client, String endpoint, String status) {
+            this.delegate = delegate;
+            this.client = client;
+            this.endpoint = endpoint;
+            this.status = status;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            if (body == null) {
+                body = new CountingInputStream(delegate.getBody());
+            }
+            return body;
+        }
+
+        @Override
+        public void close() {
+            if (!recorded) {
+                recorded = true;
+                metrics.recordResponseBody(client, endpoint, status, body == null ? 0 : body.count, System.nanoTime() - headersReceivedAt);
+            }
+            delegate.close();
+        }
+    }
+
+    /**
+     * Input stream counting the bytes read through it.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+        private long count = 0;
+
+        CountingInputStream(InputStream inputStream) {
+            super(inputStream);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int value = super.read();
+            if (value != -1) {
+                count++;
+            }
+            return value;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                count += read;
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            count += skipped;
+            return skipped;
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package cz.uhk.zlesak.threejslearningapp.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * StreamMetrics copies files streamed to the browser and records the bytes streamed,
+ * the time to the first byte and the duration of the whole transfer, tagged by asset type and outcome.
+ */
+@Component
+public class StreamMetrics {
+    private static final int BUFFER_SIZE = 16 * 1024;
+
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * Constructor for StreamMetrics.
+     *
+     * @param meterRegistry registry the metrics are recorded to
+     */
+    public StreamMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Copies the input stream to the output stream and records the stream metrics.
+     * A transfer failing on either side, usually because the client aborted the download, is recorded with the interrupted outcome.
+     *
+     * @param assetType      type of the streamed asset, e.g. model or texture
+     * @param inputStream    stream to copy from
+     * @param outputStream   stream to copy to
+     * @param requestStartNs value of System.nanoTime() when the request was received
+     * @return number of copied bytes
+     * @throws IOException if reading or writing fails
+     */
+    public long copy(String assetType, InputStream inputStream, OutputStream outputStream, long requestStartNs) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long copied = 0;
+        String outcome = "interrupted";
+        try {
+            int read;
+            while ((read = inputStream.read(buffer)) != -1) {
+                outputStream.write(buffer, 0, read);
+                if (copied == 0) {
+                    outputStream.flush();
+                    Timer.builder("stream.time.to.first.byte")
+                            .description("Doba od přijetí požadavku do odeslání prvního bajtu souboru")
+                            .tag("asset", assetType)
+                            .publishPercentileHistogram()
+                            .register(meterRegistry)
+                            .record(System.nanoTime() - requestStartNs, TimeUnit.NANOSECONDS);
+                }
+                copied += read;
+            }
+            outputStream.flush();
+            outcome = "completed";
+            return copied;
+        } finally {
+            Counter.builder("stream.bytes")
+                    .description("Počet bajtů odeslaných prohlížeči")
+                    .baseUnit("bytes")
+                    .tag("asset", assetType)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry)
+                    .increment(copied);
+            Timer.builder("stream.duration")
+                    .description("Celková doba streamování souboru")
+                    .tag("asset", assetType)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry)
+                    .record(System.nanoTime() - requestStartNs, TimeUnit.NANOSECONDS);
+        }
+    }
+}
@@ -1,68 +1,206 @@
 package cz.uhk.zlesak.threejslearningapp.rest;
 
+import cz.uhk.zlesak.threejslearningapp.common.AssetVersions;
+import cz.uhk.zlesak.threejslearningapp.common.FileStreamHandler;
+import cz.uhk.zlesak.threejslearningapp.metrics.StreamMetrics;
 import cz.uhk.zlesak.threejslearningapp.services.ModelService;
 import cz.uhk.zlesak.threejslearningapp.services.TextureService;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.core.io.Resource;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.io.IOException;
+
 /**
  * ModelInputStreamController provides frontend endpoint for streaming 3D model and texture files.
  * It uses ModelService and TextureService to fetch the files and serves them with appropriate headers.
+ * Files are streamed through from the backend with their Content-Length, so the client can report download progress,
+ * and a download aborted by the client stops reading the file from the backend as well.
+ * When the content hash of the file is known, it is sent as a strong ETag and a matching If-None-Match is answered by 304 Not Modified.
+ * A request of a URL versioned by the current content hash (see AssetVersions) is answered as immutable, as the URL cannot denote other content.
+ * Advanced OBJ models are text and are served gzip compressed to clients accepting it, the compressed variant is prepared once per model.
  */
+@Slf4j
 @RestController
 public class ModelInputStreamController {
+    private static final String GZIP = "gzip";
 
     @Autowired
     private ModelService modelService;
     @Autowired
     private TextureService textureService;
+    @Autowired
+    private StreamMetrics streamMetrics;
 
     /**
      * Streams the 3D model file based on the provided ID.
      * If 'advanced' parameter is true, serves the model as .obj file; otherwise, serves as .glb file.
+     * The .obj file is sent gzip compressed when the client accepts it.
      * @param id the ID of the model to stream
      * @param advanced flag to determine the file format (.obj or .glb)
-     * @return ResponseEntity containing the model file as a Resource
+     * @param version content hash the URL is versioned by, if any
+     * @param acceptEncoding content encodings accepted by the client, if any
+     * @param ifNoneMatch ETag cached by the client, if any
+     * @param response servlet response the model file is written to
      */
     @GetMapping("/api/model/{id}/stream")
-    public ResponseEntity<Resource> streamModel(@PathVariable String id, @RequestParam(required = false, defaultValue = "false") boolean advanced) {
+    public void streamModel(@PathVariable String id, @RequestParam(required = false, defaultValue = "false") boolean advanced,
+                            @RequestParam(value = AssetVersions.VERSION_PARAMETER, required = false) String version,
+                            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+                            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch, HttpServletResponse response) {
+        long startNs = System.nanoTime();
+        String contentType = advanced ? MediaType.TEXT_PLAIN_VALUE : "model/gltf-binary";
+        String extension = advanced ? ".obj" : ".glb";
+        boolean gzip = advanced && acceptsGzip(acceptEncoding);
+        if (advanced) {
+            response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        }
+        if (notModified(modelService.getModelContentHash(id), gzip ? "-gzip" : "", version, ifNoneMatch, response)) {
+            return;
+        }
         try {
-            Resource resource = modelService.getInputStream(id);
-            String modelName = modelService.getModelName(id);
-            String headerValue = advanced ? "attachment; filename=\"" + modelName + ".obj\"" : "attachment; filename=\"" + modelName + ".glb\"";
-            MediaType contentType = advanced ? MediaType.TEXT_PLAIN : MediaType.parseMediaType("model/gltf-binary");
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, headerValue)
-                    .contentType(contentType)
-                    .body(resource);
+            if (gzip) {
+                response.setHeader(HttpHeaders.CONTENT_ENCODING, GZIP);
+                modelService.streamCompressedModelFile(id, writeTo(response, contentType, extension, "model", startNs));
+            } else {
+                modelService.streamModelFile(id, writeTo(response, contentType, extension, "model", startNs));
+            }
         } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            handleStreamError(response, "modelu", id, e);
         }
     }
 
     /**
      * Streams the texture file based on the provided ID.
      * @param id the ID of the texture to stream
-     * @return ResponseEntity containing the texture file as a Resource
+     * @param version content hash the URL is versioned by, if any
+     * @param ifNoneMatch ETag cached by the client, if any
+     * @param response servlet response the texture file is written to
      */
     @GetMapping("/api/texture/{id}/stream")
-    public ResponseEntity<Resource> streamTexture(@PathVariable String id) {
+    public void streamTexture(@PathVariable String id, @RequestParam(value = AssetVersions.VERSION_PARAMETER, required = false) String version,
+                              @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch, HttpServletResponse response) {
+        long startNs = System.nanoTime();
+        if (notModified(textureService.getTextureContentHash(id), "", version, ifNoneMatch, response)) {
+            return;
+        }
         try {
-            Resource resource = textureService.getInputStream(id);
-            String textureName = textureService.getTextureName(id);
-            return ResponseEntity.ok()
-                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + textureName + ".jpg\"")
-                    .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(resource);
+            textureService.streamTextureFile(id, writeTo(response, MediaType.APPLICATION_OCTET_STREAM_VALUE, ".jpg", "texture", startNs));
         } catch (Exception e) {
-            return ResponseEntity.notFound().build();
+            handleStreamError(response, "textury", id, e);
+        }
+    }
+
+    /**
+     * Sets the content hash as the ETag of the response and checks it against the ETag cached by the client.
+     * The client is asked to revalidate the file on every use, so a changed file is never served from its cache,
+     * unless the URL is versioned by the current content hash, then the file may be cached without revalidation.
+     * Every content encoding of the file has its own ETag distinguished by the suffix.
+     *
+     * @param contentHash content hash of the file or null when unknown
+     * @param suffix      suffix of the content encoding, empty for the uncompressed file
+     * @param version     content hash the URL is versioned by or null
+     * @param ifNoneMatch value of the If-None-Match header or null
+     * @param response    servlet response
+     * @return true when the client has the current file and 304 Not Modified was sent
+     */
+    private boolean notModified(String contentHash, String suffix, String version, String ifNoneMatch, HttpServletResponse response) {
+        if (contentHash == null) {
+            return false;
+        }
+        String etag = "\"" + contentHash + suffix + "\"";
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, contentHash.equals(version) ? "private, max-age=31536000, immutable" : "no-cache");
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.equals("*") || value.equals(etag) || value.equals("W/" + etag)) {
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks whether the client accepts gzip content encoding.
+     *
+     * @param acceptEncoding value of the Accept-Encoding header or null
+     * @return true when gzip is accepted with a non-zero quality
+     */
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String candidate : acceptEncoding.split(",")) {
+            String[] parts = candidate.trim().split(";");
+            String coding = parts[0].trim();
+            if (coding.equalsIgnoreCase(GZIP) || coding.equals("*")) {
+                for (int i = 1; i < parts.length; i++) {
+                    String parameter = parts[i].trim();
+                    if (parameter.startsWith("q=") && parameter.substring(2).matches("0(\\.0{0,3})?")) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a handler writing the streamed file to the servlet response.
+     * Headers are set before the first byte is written, the file is copied in chunks and never held whole in memory.
+     * The copy records bytes streamed and time to first byte through StreamMetrics.
+     *
+     * @param response    servlet response to write to
+     * @param contentType content type of the file
+     * @param extension   file extension used in the Content-Disposition header
+     * @param assetType   asset type tag of the stream metrics
+     * @param startNs     value of System.nanoTime() when the request was received
+     * @return handler writing the file to the response
+     */
+    private FileStreamHandler writeTo(HttpServletResponse response, String contentType, String extension, String assetType, long startNs) {
+        return (fileName, contentLength, inputStream) -> {
+            response.setContentType(contentType);
+            response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + fileName + extension + "\"");
+            if (contentLength >= 0) {
+                response.setContentLengthLong(contentLength);
+            }
+            streamMetrics.copy(assetType, inputStream, response.getOutputStream(), startNs);
+        };
+    }
+
+    /**
+     * Handles an error during streaming.
+     * When nothing was sent yet, the client gets 404 as before. Once the response is committed the download was
+     * most likely aborted by the client, which is an expected situation when the user leaves the view during loading.
+     *
+     * @param response servlet response
+     * @param fileType type of the streamed file used in the log message
+     * @param id       ID of the streamed file
+     * @param e        exception thrown during streaming
+     */
+    private void handleStreamError(HttpServletResponse response, String fileType, String id, Exception e) {
+        if (response.isCommitted()) {
+            log.debug("Stahování {} {} bylo přerušeno: {}", fileType, id, e.getMessage());
+            return;
+        }
+        log.warn("Chyba při streamování {} {}: {}", fileType, id, e.getMessage());
+        try {
+            response.reset();
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+        } catch (IOException ex) {
+            log.debug("Chybovou odpověď pro {} {} nelze odeslat: {}", fileType, id, ex.getMessage());
         }
     }
 }
@@ -4,18 +4,30 @@ import com.vaadin.flow.spring.security.VaadinAwareSecurityContextHolderStrategyC
 import com.vaadin.flow.spring.security.VaadinSecurityConfigurer;
 import cz.uhk.zlesak.threejslearningapp.views.auth.LoginView;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Import;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authorization.AuthorityAuthorizationManager;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationManagers;
+import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.provisioning.UserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+import org.springframework.security.web.util.matcher.IpAddressMatcher;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
+import java.util.List;
+
 /**
  * Security configuration for the application.
  * Sets up HTTP security, user details management, and password encoding.
@@ -27,6 +39,34 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @Import(VaadinAwareSecurityContextHolderStrategyConfiguration.class)
 class SecurityConfig {
 
+    /**
+     * Configures the security filter chain for the actuator endpoints, applied before the chain of the application.
+     * Only the liveness and readiness probes are accessible without login. The other endpoints, e.g. the Prometheus metrics and the full health,
+     * are accessible from the allowed addresses (the monitoring) or to administrators authenticated by HTTP Basic.
+     * @param http the HttpSecurity object to configure
+     * @param allowedAddresses IP addresses or CIDR ranges allowed to access the actuator endpoints without login
+     * @return the configured SecurityFilterChain
+     * @throws Exception if an error occurs during configuration
+     */
+    @Bean
+    @Order(1)
+    SecurityFilterChain actuatorSecurityFilterChain(HttpSecurity http, @Value("${management.allowed-addresses:127.0.0.1/32,::1/128}") List<String> allowedAddresses) throws Exception {
+        List<IpAddressMatcher> allowedAddressMatchers = allowedAddresses.stream()
+                .map(String::trim)
+                .filter(address -> !address.isEmpty())
+                .map(IpAddressMatcher::new)
+                .toList();
+        AuthorizationManager<RequestAuthorizationContext> fromAllowedAddress = (authentication, context) ->
+                new AuthorizationDecision(allowedAddressMatchers.stream().anyMatch(matcher -> matcher.matches(context.getRequest())));
+        http.securityMatcher("/actuator/**")
+                .authorizeHttpRequests(auth -> auth
+                        .requestMatchers("/actuator/health/liveness", "/actuator/health/readiness").permitAll()
+                        .anyRequest().access(AuthorizationManagers.anyOf(fromAllowedAddress, AuthorityAuthorizationManager.hasRole("ADMIN"))))
+                .httpBasic(Customizer.withDefaults())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS));
+        return http.build();
+    }
+
     /**
      * Configures the security filter chain for HTTP requests.
      * @param http the HttpSecurity object to configure
@@ -34,6 +74,7 @@ class SecurityConfig {
      * @throws Exception if an error occurs during configuration
      */
     @Bean
+    @Order(2)
     SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http.with(VaadinSecurityConfigurer.vaadin(), configurer -> configurer.loginView(LoginView.class));
         return http.build();
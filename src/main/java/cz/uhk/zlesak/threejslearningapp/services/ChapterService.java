@@ -4,21 +4,31 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.ObjectNode;
 import cz.uhk.zlesak.threejslearningapp.api.clients.ChapterApiClient;
+import cz.uhk.zlesak.threejslearningapp.api.coalescing.RequestCoalescer;
+import cz.uhk.zlesak.threejslearningapp.cache.ChapterEntityCache;
+import cz.uhk.zlesak.threejslearningapp.cache.ChapterExcerptCache;
+import cz.uhk.zlesak.threejslearningapp.cache.ModelMetadataCache;
+import cz.uhk.zlesak.threejslearningapp.cache.invalidation.ChapterInvalidatedEvent;
+import cz.uhk.zlesak.threejslearningapp.common.ContentHash;
 import cz.uhk.zlesak.threejslearningapp.components.notifications.ErrorNotification;
 import cz.uhk.zlesak.threejslearningapp.domain.chapter.ChapterEntity;
 import cz.uhk.zlesak.threejslearningapp.domain.chapter.SubChapterForSelect;
 import cz.uhk.zlesak.threejslearningapp.domain.common.FilterParameters;
 import cz.uhk.zlesak.threejslearningapp.domain.common.PageResult;
 import cz.uhk.zlesak.threejslearningapp.domain.model.QuickModelEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.parsers.EditorJsMarkdownParser;
+import cz.uhk.zlesak.threejslearningapp.exceptions.ChapterVersionConflictException;
 import elemental.json.Json;
 import elemental.json.JsonArray;
 import elemental.json.JsonObject;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.ApplicationContextException;
-import org.springframework.context.annotation.Scope;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.*;
 
@@ -26,25 +36,54 @@ import java.util.*;
  * Controller for managing chapters in the application.
  * This class provides methods to create chapters, retrieve chapter details, and manage sub-chapters.
  * Provides the connector to the ChapterApiClient for performing operations related to chapters on BE side.
+ * The service is a stateless singleton, chapter entities are kept in the shared ChapterEntityCache so views only hold chapter IDs.
+ * Updates and deletions are guarded by the version of the chapter they are based on and publish the ChapterInvalidatedEvent,
+ * which drops the data of the chapter from every cache layer.
+ * The models of the loaded and listed chapters prime the shared ModelMetadataCache, so opening a model of a chapter costs no extra call.
+ *
+ * @see ChapterEntityCache
+ * @see ChapterExcerptCache
+ * @see ModelMetadataCache
+ * @see ChapterInvalidatedEvent
  */
 @Slf4j
 @Service
-@Scope("prototype")
 public class ChapterService implements IService {
+    private static final String FALLBACK_ID_PREFIX = "fallback-";
+    private static final String PREAMBLE_ID = FALLBACK_ID_PREFIX + "preamble";
     private final ChapterApiClient chapterApiClient;
-    private ChapterEntity chapterEntity = null;
+    private final ChapterEntityCache chapterEntityCache;
     private final ObjectMapper objectMapper;
-    private final List<QuickModelEntity> uploadedModels = new ArrayList<>();
+    private final RequestCoalescer requestCoalescer;
+    private final ChapterExcerptCache chapterExcerptCache;
+    private final ModelMetadataCache modelMetadataCache;
+    private final int excerptMaxLength;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Constructor for ChapterService that initializes the ChapterApiClient.
      *
-     * @param chapterApiClient The API client used to interact with chapter-related operations.
+     * @param chapterApiClient    The API client used to interact with chapter-related operations.
+     * @param chapterEntityCache  The shared cache of chapter entities.
+     * @param objectMapper        The object mapper used for editor JSON processing.
+     * @param requestCoalescer    The coalescer collapsing concurrent identical chapter reads into one backend call.
+     * @param chapterExcerptCache The shared cache of chapter excerpts shown in the chapter listing.
+     * @param modelMetadataCache  The shared cache of model metadata primed by the models of the chapters.
+     * @param excerptMaxLength    The maximal length of the chapter excerpts in characters.
+     * @param eventPublisher      The publisher of the invalidation events of the changed chapters.
      */
     @Autowired
-    public ChapterService(ChapterApiClient chapterApiClient, ObjectMapper objectMapper) {
+    public ChapterService(ChapterApiClient chapterApiClient, ChapterEntityCache chapterEntityCache, ObjectMapper objectMapper, RequestCoalescer requestCoalescer,
+                          ChapterExcerptCache chapterExcerptCache, ModelMetadataCache modelMetadataCache, @Value("${chapter.excerpt.max-length:150}") int excerptMaxLength,
+                          ApplicationEventPublisher eventPublisher) {
         this.chapterApiClient = chapterApiClient;
+        this.chapterEntityCache = chapterEntityCache;
         this.objectMapper = objectMapper;
+        this.requestCoalescer = requestCoalescer;
+        this.chapterExcerptCache = chapterExcerptCache;
+        this.modelMetadataCache = modelMetadataCache;
+        this.excerptMaxLength = excerptMaxLength;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -59,6 +98,141 @@ public class ChapterService implements IService {
      * @throws Exception if there is an error during chapter creation or if validation fails
      */
     public String createChapter(String name, String content, Map<String, QuickModelEntity> allModels) throws Exception {
+        ChapterEntity chapter = buildChapter(name, content, allModels);
+        chapter.setCreated(Instant.now());
+        try {
+            String chapterId = chapterApiClient.createChapter(chapter).getId();
+            eventPublisher.publishEvent(new ChapterInvalidatedEvent(chapterId, false));
+            return chapterId;
+        } catch (Exception e) {
+            log.error("Chyba při vytváření kapitoly: {}", e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Updates the chapter with the specified name and content.
+     * The inputs are validated the same way as when the chapter is created.
+     * The update is based on the version of the chapter read before the editing, if the chapter was changed since then,
+     * a ChapterVersionConflictException is thrown and the chapter is not updated.
+     * The version is checked against the current chapter on the BE and sent as the If-Match precondition of the update.
+     *
+     * @param chapterId       the ID of the chapter to update
+     * @param name            the name of the chapter
+     * @param content         the content of the chapter in JSON format
+     * @param allModels       the models of the chapter mapped to the header block IDs
+     * @param expectedVersion the version of the chapter the update is based on, see getChapterVersion
+     * @return the version of the updated chapter
+     * @throws ChapterVersionConflictException if the chapter was changed since it was read
+     * @throws Exception if there is an error during chapter update or if validation fails
+     */
+    public String updateChapter(String chapterId, String name, String content, Map<String, QuickModelEntity> allModels, String expectedVersion) throws Exception {
+        ChapterEntity chapter = buildChapter(name, content, allModels);
+        try {
+            ChapterEntity current = chapterApiClient.getChapterById(chapterId);
+            if (!versionOf(current).equals(expectedVersion)) {
+                throw new ChapterVersionConflictException(chapterId, expectedVersion);
+            }
+            chapter.setId(chapterId);
+            chapter.setCreatorId(current.getCreatorId());
+            chapter.setCreated(current.getCreated());
+            chapter.setUpdated(Instant.now());
+            ChapterEntity updated = chapterApiClient.updateChapter(chapterId, chapter, expectedVersion);
+            return versionOf(updated != null ? updated : chapter);
+        } catch (ChapterVersionConflictException e) {
+            log.warn("Konflikt verzí při úpravě kapitoly {}: {}", chapterId, e.getMessage());
+            throw e;
+        } catch (Exception e) {
+            log.error("Chyba při úpravě kapitoly {}: {}", chapterId, e.getMessage(), e);
+            throw e;
+        } finally {
+            eventPublisher.publishEvent(new ChapterInvalidatedEvent(chapterId, false));
+        }
+    }
+
+    /**
+     * Deletes the chapter.
+     * The deletion is based on the version of the chapter read before, if the chapter was changed since then,
+     * a ChapterVersionConflictException is thrown and the chapter is not deleted.
+     * As for the update, the version is checked against the current chapter on the BE and sent as the If-Match precondition of the deletion.
+     *
+     * @param chapterId       the ID of the chapter to delete
+     * @param expectedVersion the version of the chapter the deletion is based on, see getChapterVersion
+     * @throws ChapterVersionConflictException if the chapter was changed since it was read
+     * @throws Exception if there is an error during chapter deletion
+     */
+    public void deleteChapter(String chapterId, String expectedVersion) throws Exception {
+        try {
+            ChapterEntity current = chapterApiClient.getChapterById(chapterId);
+            if (!versionOf(current).equals(expectedVersion)) {
+                throw new ChapterVersionConflictException(chapterId, expectedVersion);
+            }
+            chapterApiClient.deleteChapter(chapterId, expectedVersion);
+            eventPublisher.publishEvent(new ChapterInvalidatedEvent(chapterId, true));
+        } catch (ChapterVersionConflictException e) {
+            log.warn("Konflikt verzí při mazání kapitoly {}: {}", chapterId, e.getMessage());
+            eventPublisher.publishEvent(new ChapterInvalidatedEvent(chapterId, false));
+            throw e;
+        } catch (Exception e) {
+            log.error("Chyba při mazání kapitoly {}: {}", chapterId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves the IDs of the chapters created by the author.
+     *
+     * @param authorId the ID of the author
+     * @return the IDs of the chapters of the author
+     * @throws Exception if there is an error retrieving the chapters
+     */
+    public List<String> getChaptersByAuthor(String authorId) throws Exception {
+        try {
+            return chapterApiClient.getChaptersByAuthor(authorId);
+        } catch (Exception e) {
+            log.error("Chyba při získávání kapitol autora {}: {}", authorId, e.getMessage(), e);
+            throw e;
+        }
+    }
+
+    /**
+     * Retrieves the version of the chapter, which the update or deletion of the chapter is based on.
+     *
+     * @param chapterId the ID of the chapter
+     * @return the version of the chapter
+     * @throws Exception if there is an error retrieving the chapter or if the chapter does not exist
+     */
+    public String getChapterVersion(String chapterId) throws Exception {
+        return versionOf(getChapter(chapterId));
+    }
+
+    /**
+     * Computes the version (ETag) of the chapter, which is its last modification,
+     * or the hash of its content when the chapter carries no timestamps.
+     *
+     * @param chapter the chapter
+     * @return the version of the chapter as a quoted ETag
+     */
+    public static String versionOf(ChapterEntity chapter) {
+        Instant modified = chapter.getUpdated() != null ? chapter.getUpdated() : chapter.getCreated();
+        if (modified != null) {
+            return "\"" + modified.toEpochMilli() + "\"";
+        }
+        String content = chapter.getContent() == null ? "" : chapter.getContent();
+        return "\"" + ContentHash.of(content.getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Validates the inputs and builds the chapter entity sent to the BE.
+     * The models of the sub-chapters are written to the header blocks and the main model is placed first.
+     *
+     * @param name      the name of the chapter
+     * @param content   the content of the chapter in JSON format
+     * @param allModels the models of the chapter mapped to the header block IDs
+     * @return the chapter entity without ID and timestamps
+     * @throws ApplicationContextException if validation fails
+     */
+    private ChapterEntity buildChapter(String name, String content, Map<String, QuickModelEntity> allModels) {
 
         if (name == null || name.isEmpty()) {
             throw new ApplicationContextException("Název kapitoly nesmí být prázdný.");
@@ -111,69 +285,96 @@ public class ChapterService implements IService {
             addedModelIds.add(mainModel.getModel().getId());
         }
 
-        uploadedModels.addAll(modelsList);
-
-        ChapterEntity chapter = ChapterEntity.builder()
+        return ChapterEntity.builder()
                 .Name(name)
-                .Created(Instant.now())
                 .Content(content)
-                .Models(uploadedModels)
+                .Models(modelsList)
                 .build();
-        try {
-            return chapterApiClient.createChapter(chapter).getId();
-        } catch (Exception e) {
-            log.error("Chyba při vytváření kapitoly: {}", e.getMessage(), e);
-            throw e;
-        }
     }
 
     /**
-     * Retrieves a chapter by its ID via chapterApiClient from the BE.
-     * This method fetches the chapter details from the ChapterApiClient and stores it in the chapterEntity field.
+     * Retrieves a chapter by its ID from the shared cache or via chapterApiClient from the BE when it is not cached yet.
+     * Concurrent loads of the same chapter share a single backend call, the models of the loaded chapter prime the ModelMetadataCache.
      * If an error occurs during the retrieval, it logs the error and throws an Exception with a message indicating the failure.
      *
      * @param chapterId the ID of the chapter to be retrieved
+     * @return the chapter entity
      * @throws Exception if there is an error retrieving the chapter or if the chapter does not exist
      * @see ChapterApiClient#getChapterById(String)
      */
-    private void getChapter(String chapterId) throws Exception {
+    private ChapterEntity getChapter(String chapterId) throws Exception {
         try {
-            chapterEntity = chapterApiClient.getChapterById(chapterId);
+            return chapterEntityCache.getOrLoad(chapterId, () -> primeModelMetadata(requestCoalescer.execute("chapter/{id}", chapterId, () -> chapterApiClient.getChapterById(chapterId))));
         } catch (Exception e) {
             log.error("Chyba při získávání kapitoly: {}", e.getMessage(), e);
             throw new Exception("Chyba při získávání kapitoly: " + e.getMessage());
         }
     }
 
+    /**
+     * Stores the models of the chapter in the shared ModelMetadataCache.
+     *
+     * @param chapter the loaded or listed chapter, may be null
+     * @return the same chapter
+     */
+    private ChapterEntity primeModelMetadata(ChapterEntity chapter) {
+        if (chapter != null && chapter.getModels() != null) {
+            chapter.getModels().stream()
+                    .filter(model -> model != null && model.getModel() != null && model.getModel().getId() != null)
+                    .forEach(model -> modelMetadataCache.put(model.getModel().getId(), model));
+        }
+        return chapter;
+    }
+
     /**
      * Retrieves the name of a chapter by its ID.
-     * If the chapterEntity is not set or does not match the provided chapterId, it fetches the chapter details using the getChapter method.
-     * This method saves network calls by caching the chapterEntity after the first retrieval.
+     * The chapter is taken from the shared cache, so repeated calls do not cause additional network calls.
      *
      * @param chapterId the ID of the chapter whose name is to be retrieved
      * @return the name of the chapter
      * @throws Exception if there is an error retrieving the chapter or if the chapter does not exist
      */
     public String getChapterName(String chapterId) throws Exception {
-        if (chapterEntity == null || !Objects.equals(chapterEntity.getId(), chapterId)) {
-            getChapter(chapterId);
-        }
+        ChapterEntity chapterEntity = getChapter(chapterId);
         return chapterEntity.getName();
     }
 
     /**
      * Retrieves the content of a chapter.
-     * If the chapterEntity is not set or does not match the provided chapterId, it fetches the chapter details using the getChapter method.
+     * The chapter is taken from the shared cache or fetched using the getChapter method.
      *
+     * @param chapterId the ID of the chapter whose content is to be retrieved
      * @return the content of the chapter as a JSON string
      */
     public String getChapterContent(String chapterId) throws Exception {
-        if (chapterEntity == null || !Objects.equals(chapterEntity.getId(), chapterId)) {
-            getChapter(chapterId);
-        }
+        ChapterEntity chapterEntity = getChapter(chapterId);
         return chapterEntity.getContent();
     }
 
+    /**
+     * Retrieves the Markdown excerpt of the chapter shown in the chapter listing.
+     * The excerpt is rendered on the server from the beginning of the chapter content and cached per chapter ID and version,
+     * so the listing sends only the short excerpt to the browser instead of the whole content.
+     * The version is the last modification of the chapter, or the hash of its content when the chapter carries no timestamps.
+     * If the content cannot be parsed, it logs the error and returns an empty excerpt.
+     *
+     * @param chapter the listed chapter
+     * @return the Markdown excerpt of the chapter content
+     */
+    public String getChapterExcerpt(ChapterEntity chapter) {
+        String content = chapter.getContent();
+        if (content == null || content.isBlank()) {
+            return "";
+        }
+        String key = chapter.getId() + "|" + versionOf(chapter);
+        try {
+            return chapterExcerptCache.getOrLoad(key, () -> EditorJsMarkdownParser.toMarkdownExcerpt(content, excerptMaxLength));
+        } catch (Exception e) {
+            log.error("Chyba při vytváření náhledu kapitoly {}: {}", chapter.getId(), e.getMessage(), e);
+            return "";
+        }
+    }
+
     /**
      * Retrieves the names of sub-chapters from the chapter content.
      * It parses the chapter content to extract sub-chapter headers (level 1 headers).
@@ -185,9 +386,7 @@ public class ChapterService implements IService {
      * @see SubChapterForSelect
      */
     public List<SubChapterForSelect> getSubChaptersNames(String chapterId) throws Exception {
-        if (chapterEntity == null || !Objects.equals(chapterEntity.getId(), chapterId)) {
-            getChapter(chapterId);
-        }
+        ChapterEntity chapterEntity = getChapter(chapterId);
 
         List<SubChapterForSelect> subChapters = new ArrayList<>();
         try {
@@ -196,7 +395,7 @@ public class ChapterService implements IService {
             for (int i = 0; i < blocks.length(); i++) {
                 JsonObject block = blocks.getObject(i);
                 if ("header".equals(block.getString("type")) && block.getObject("data").getNumber("level") == 1) {
-                    String id = block.hasKey("id") ? block.getString("id") : "fallback-" + java.util.UUID.randomUUID().toString().substring(0, 7);
+                    String id = subChapterIdOf(block, i);
                     String text = block.getObject("data").getString("text");
                     String modelId = block.getObject("data").hasKey("modelId") ? block.getObject("data").getString("modelId") : null;
                     subChapters.add(new SubChapterForSelect(id, text, modelId));
@@ -217,9 +416,7 @@ public class ChapterService implements IService {
      * @throws Exception if there is an error retrieving the sub-chapter content or if the chapter does not exist
      */
     public JsonArray getSubChaptersContent(String chapterId) throws Exception {
-        if (chapterEntity == null || !Objects.equals(chapterEntity.getId(), chapterId)) {
-            getChapter(chapterId);
-        }
+        ChapterEntity chapterEntity = getChapter(chapterId);
 
         try {
             JsonArray blocks = Json.parse(chapterEntity.getContent()).getArray("blocks");
@@ -237,12 +434,13 @@ public class ChapterService implements IService {
                 if ("header".equals(block.getString("type")) && block.getObject("data").getNumber("level") == 1) {
                     oldHeaderBlock = newHeaderBlock;
                     newHeaderBlock = block;
+                    block.put("id", subChapterIdOf(block, objectIndex - 1));
                     JsonObject obj = Json.createObject();
                     if (oldHeaderBlock != null) {
                         obj.put("h1", oldHeaderBlock);
                     } else {
                         JsonObject noHeader = Json.createObject();
-                        noHeader.put("id", "fallback-" + java.util.UUID.randomUUID().toString().substring(0, 7));
+                        noHeader.put("id", PREAMBLE_ID);
                         noHeader.put("type", "header");
                         JsonObject data = Json.createObject();
                         data.put("text", "Obsah bez hlavního nadpisu");
@@ -266,7 +464,7 @@ public class ChapterService implements IService {
                         obj.put("h1", oldHeaderBlock);
                     } else {
                         JsonObject noHeader = Json.createObject();
-                        noHeader.put("id", "fallback-" + java.util.UUID.randomUUID().toString().substring(0, 7));
+                        noHeader.put("id", PREAMBLE_ID);
                         noHeader.put("type", "header");
                         JsonObject data = Json.createObject();
                         data.put("text", "Obsah bez hlavního nadpisu");
@@ -286,7 +484,7 @@ public class ChapterService implements IService {
                     obj.put("h1", oldHeaderBlock);
                 } else {
                     JsonObject noHeader = Json.createObject();
-                    noHeader.put("id", "fallback-" + java.util.UUID.randomUUID().toString().substring(0, 7));
+                    noHeader.put("id", PREAMBLE_ID);
                     noHeader.put("type", "header");
                     JsonObject data = Json.createObject();
                     data.put("text", "Obsah bez hlavního nadpisu");
@@ -304,21 +502,38 @@ public class ChapterService implements IService {
         }
     }
 
+    /**
+     * Returns the ID of the sub-chapter starting with the level 1 header block.
+     * Headers without an ID get a fallback ID derived from the position of the block, so the sub-chapter names,
+     * the sub-chapter contents and the selected sub-chapter content all use the same ID.
+     * The content preceding the first header uses its own fallback ID, which no block position can produce.
+     *
+     * @param block      level 1 header block
+     * @param blockIndex index of the block in the chapter content
+     * @return ID of the sub-chapter
+     */
+    private static String subChapterIdOf(JsonObject block, int blockIndex) {
+        return block.hasKey("id") ? block.getString("id") : FALLBACK_ID_PREFIX + blockIndex;
+    }
+
     /**
      * Retrieves the content of a selected sub-chapter by its ID.
      * It parses the chapter content to find the blocks associated with the specified sub-chapter header (level 1 header).
      * If the header with the specified ID does not exist, it returns the entire chapter content.
      * If the header exists, it collects all blocks until the next header of the same level (level 1) is found.
      *
-     * @param id the ID of the sub-chapter header to retrieve content for
+     * @param chapterId the ID of the chapter the sub-chapter belongs to
+     * @param id        the ID of the sub-chapter header to retrieve content for
      * @return the content of the selected sub-chapter as a JSON string
+     * @throws Exception if there is an error retrieving the chapter
      */
-    public String getSelectedSubChapterContent(String id) {
+    public String getSelectedSubChapterContent(String chapterId, String id) throws Exception {
+        ChapterEntity chapterEntity = getChapter(chapterId);
         JsonArray blocks = Json.parse(chapterEntity.getContent()).getArray("blocks");
         boolean headerExists = false;
         for (int i = 0; i < blocks.length(); i++) {
             JsonObject block = blocks.getObject(i);
-            if ("header".equals(block.getString("type")) && block.getObject("data").getNumber("level") == 1 && block.hasKey("id") && block.getString("id").equals(id)) {
+            if ("header".equals(block.getString("type")) && block.getObject("data").getNumber("level") == 1 && subChapterIdOf(block, i).equals(id)) {
                 headerExists = true;
                 break;
             }
@@ -332,7 +547,7 @@ public class ChapterService implements IService {
         for (int i = 0; i < blocks.length(); i++) {
             JsonObject block = blocks.getObject(i);
             if (!found) {
-                if ("header".equals(block.getString("type")) && block.getObject("data").getNumber("level") == 1 && block.hasKey("id") && block.getString("id").equals(id)) {
+                if ("header".equals(block.getString("type")) && block.getObject("data").getNumber("level") == 1 && subChapterIdOf(block, i).equals(id)) {
                     found = true;
                     content.set(contentIndex++, block);
                 }
@@ -347,7 +562,7 @@ public class ChapterService implements IService {
 
     /**
      * Retrieves a map of sub-chapter IDs to their corresponding QuickModelEntity objects for the specified chapter.
-     * If the chapterEntity is not set or does not match the provided chapterId, it fetches the chapter details using the getChapter method.
+     * The chapter is taken from the shared cache or fetched using the getChapter method.
      * It then iterates through the sub-chapters and maps their IDs to the corresponding QuickModelEntity objects.
      *
      * @param chapterId the ID of the chapter whose sub-chapter models are to be retrieved
@@ -355,9 +570,7 @@ public class ChapterService implements IService {
      * @throws Exception if there is an error retrieving the chapter or sub-chapter models
      */
     public Map<String, QuickModelEntity> getChaptersModels(String chapterId) throws Exception {
-        if (chapterEntity == null || !Objects.equals(chapterEntity.getId(), chapterId)) {
-            getChapter(chapterId);
-        }
+        ChapterEntity chapterEntity = getChapter(chapterId);
         try {
             List<SubChapterForSelect> subChaptersNames = getSubChaptersNames(chapterId);
             subChaptersNames.addFirst(new SubChapterForSelect("main", null, null));
@@ -383,6 +596,7 @@ public class ChapterService implements IService {
      * Retrieves a list of all chapters from the backend service.
      * This method uses the ChapterApiClient to fetch the list of chapters.
      * If there is an error during the retrieval, it throws an Exception with details about the error.
+     * The models of the listed chapters prime the ModelMetadataCache, so the model links of the listing open without an extra call.
      * @param filterParameters the filtering parameters including page number, page size, order by, and sort direction
      *
      * @return a list of ChapterEntity objects representing all chapters
@@ -391,7 +605,12 @@ public class ChapterService implements IService {
     public PageResult<ChapterEntity> getChapters(FilterParameters filterParameters) throws RuntimeException {
 
         try {
-            return chapterApiClient.getChapters(filterParameters.getPageNumber() - 1, filterParameters.getPageSize(), filterParameters.getOrderBy(), filterParameters.getSortDirection());
+            PageResult<ChapterEntity> chapters = requestCoalescer.execute("chapter/list", filterParameters.getPageNumber() + "|" + filterParameters.getPageSize() + "|" + filterParameters.getOrderBy() + "|" + filterParameters.getSortDirection(),
+                    () -> chapterApiClient.getChapters(filterParameters.getPageNumber() - 1, filterParameters.getPageSize(), filterParameters.getOrderBy(), filterParameters.getSortDirection()));
+            if (chapters != null && chapters.elements() != null) {
+                chapters.elements().forEach(this::primeModelMetadata);
+            }
+            return chapters;
         } catch (Exception e) {
             log.error("Chyba při získávání stránkování kapitol pro page {}, limit {}, error message: {}", filterParameters.getPageNumber(), filterParameters.getPageSize(), e.getMessage(), e);
             throw new RuntimeException("Chyba při získávání kapitol: " + e.getMessage(), e);
@@ -403,7 +622,7 @@ public class ChapterService implements IService {
             throw new ApplicationContextException("Text pro filtrování kapitol nesmí být prázdný.");
         }
         try {
-            return chapterApiClient.getChaptersFiltered(text);
+            return requestCoalescer.execute("chapter/search-fulltext", text, () -> chapterApiClient.getChaptersFiltered(text));
         } catch (Exception e) {
             log.error("Chyba při získávání kapitol filtrovaných pro text {}, error message: {}", text, e.getMessage(), e);
             throw new ApplicationContextException("Chyba při získávání kapitol: " + e.getMessage(), e);
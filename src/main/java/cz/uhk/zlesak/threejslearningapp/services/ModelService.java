@@ -1,6 +1,16 @@
 package cz.uhk.zlesak.threejslearningapp.services;
 
 import cz.uhk.zlesak.threejslearningapp.api.clients.ModelApiClient;
+import cz.uhk.zlesak.threejslearningapp.api.coalescing.RequestCoalescer;
+import cz.uhk.zlesak.threejslearningapp.api.coalescing.SharedDownloads;
+import cz.uhk.zlesak.threejslearningapp.cache.CompressedAssetCache;
+import cz.uhk.zlesak.threejslearningapp.cache.CompressedAssetCache.CompressedAsset;
+import cz.uhk.zlesak.threejslearningapp.cache.ContentHashIndex;
+import cz.uhk.zlesak.threejslearningapp.cache.ModelEntityCache;
+import cz.uhk.zlesak.threejslearningapp.cache.ModelMetadataCache;
+import cz.uhk.zlesak.threejslearningapp.common.AssetVersions;
+import cz.uhk.zlesak.threejslearningapp.common.CopyingInputStream;
+import cz.uhk.zlesak.threejslearningapp.common.FileStreamHandler;
 import cz.uhk.zlesak.threejslearningapp.common.InputStreamMultipartFile;
 import cz.uhk.zlesak.threejslearningapp.domain.common.Entity;
 import cz.uhk.zlesak.threejslearningapp.domain.common.FilterParameters;
@@ -12,46 +22,81 @@ import cz.uhk.zlesak.threejslearningapp.domain.common.PageResult;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContextException;
-import org.springframework.context.annotation.Scope;
 import org.springframework.core.io.InputStreamResource;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Controller for managing 3D models, including uploading and retrieving model files and textures.
  * This class handles the interaction with the model API client to upload models and textures,
  * and provides methods to retrieve model files, names, and base64 representations.
  * It also integrates with the textureService to manage textures associated with the models as the textures are an integral part of the model data.
+ * The service is a stateless singleton, downloaded model files are kept in the shared ModelEntityCache.
+ * Uploads identical to an earlier upload of the same user under the same name are linked to the existing model instead of being transferred again
+ * and the cached files are keyed by their content hash when it is known, see ContentHashIndex.
+ * The URLs of the model files handed to the renderer are versioned by the content hash when it is known, see AssetVersions.
  *
  * @see TextureService
+ * @see ModelEntityCache
+ * @see ModelMetadataCache
  */
 @Slf4j
 @Service
-@Scope("prototype")
 public class ModelService implements IService {
+    private static final String DOWNLOAD_ENDPOINT = "model/download/{id}";
     private final TextureService textureService;
     private final ModelApiClient modelApiClient;
-    private ModelEntity modelEntity = null;
+    private final ModelEntityCache modelEntityCache;
+    private final RequestCoalescer requestCoalescer;
+    private final ContentHashIndex contentHashIndex;
+    private final CompressedAssetCache compressedAssetCache;
+    private final ModelMetadataCache modelMetadataCache;
+    private final SharedDownloads sharedDownloads;
 
     /**
      * Constructor for ModelService.
      * Initializes controller with dependencies for texture management, model API client, and JSON processing.
      *
-     * @param textureService the controller for managing textures associated with models.
-     * @param modelApiClient    the API client for interacting with model-related endpoints.
+     * @param textureService   the controller for managing textures associated with models.
+     * @param modelApiClient   the API client for interacting with model-related endpoints.
+     * @param modelEntityCache the shared cache of downloaded model files.
+     * @param requestCoalescer the coalescer collapsing concurrent identical model reads into one backend call.
+     * @param contentHashIndex the index of the content hashes of uploaded and downloaded models.
+     * @param compressedAssetCache the shared cache of gzip compressed model files.
+     * @param modelMetadataCache the shared cache of the model metadata resolved by the model ID.
+     * @param sharedDownloads the downloads of model files shared by concurrent streams of the same model.
      */
     @Autowired
-    public ModelService(TextureService textureService, ModelApiClient modelApiClient) {
+    public ModelService(TextureService textureService, ModelApiClient modelApiClient, ModelEntityCache modelEntityCache, RequestCoalescer requestCoalescer,
+                        ContentHashIndex contentHashIndex, CompressedAssetCache compressedAssetCache, ModelMetadataCache modelMetadataCache,
+                        SharedDownloads sharedDownloads) {
         this.textureService = textureService;
         this.modelApiClient = modelApiClient;
+        this.modelEntityCache = modelEntityCache;
+        this.requestCoalescer = requestCoalescer;
+        this.contentHashIndex = contentHashIndex;
+        this.compressedAssetCache = compressedAssetCache;
+        this.modelMetadataCache = modelMetadataCache;
+        this.sharedDownloads = sharedDownloads;
     }
 
     /**
      * Uploads a 3D model with the specified name and input streams.
      * The method checks for valid model name and input streams, then uploads the model using the model API client.
      * It returns a QuickModelEntity containing the uploaded model's details as a proof of successful upload.
+     * When the same user already uploaded a model file with identical content under the same name, the existing model is returned and the file is not transferred again.
      *
      * @param modelName   as of the whole object with possible textures and CSVs.
      * @param inputStream the input stream representing the model file to be uploaded.
@@ -59,7 +104,27 @@ public class ModelService implements IService {
      * @throws RuntimeException if the model name is empty or the input streams are empty, or if an error occurs during the upload process.
      */
     public QuickModelEntity uploadModel(String modelName, InputStreamMultipartFile inputStream) throws RuntimeException {
+        String uploadKey = "model|" + currentUser() + "|" + modelName + "|" + inputStream.getContentHash();
+        QuickModelEntity existing = findExistingUpload(uploadKey);
+        if (existing != null) {
+            log.info("Model {} má stejný obsah jako již nahraný model {}, použije se existující model", modelName, existing.getModel().getId());
+            return existing;
+        }
+        QuickModelEntity uploadedModel = uploadModelFile(modelName, inputStream);
+        contentHashIndex.registerUpload(uploadKey, uploadedModel);
+        modelMetadataCache.put(uploadedModel.getModel().getId(), uploadedModel);
+        return uploadedModel;
+    }
 
+    /**
+     * Uploads the model file without looking for an identical upload and records the content hash of the created model.
+     *
+     * @param modelName   the name of the model.
+     * @param inputStream the model file to be uploaded.
+     * @return QuickModelEntity containing the details of the uploaded model.
+     * @throws RuntimeException if the model name is empty or the input streams are empty, or if an error occurs during the upload process.
+     */
+    private QuickModelEntity uploadModelFile(String modelName, InputStreamMultipartFile inputStream) throws RuntimeException {
         if (modelName.isEmpty()) {
             throw new ApplicationContextException("Název modelu nesmí být prázdný.");
         }
@@ -72,7 +137,9 @@ public class ModelService implements IService {
                     .Name(modelName)
                     .Created(Instant.now())
                     .build();
-            return modelApiClient.uploadFileEntity(inputStream, entity);
+            QuickModelEntity uploadedModel = modelApiClient.uploadFileEntity(inputStream, entity);
+            contentHashIndex.registerContent(uploadedModel.getModel().getId(), inputStream.getContentHash(), inputStream.getName());
+            return uploadedModel;
         } catch (Exception e) {
             throw new RuntimeException("Chyba při nahrávání modelu: " + e.getMessage(), e);
         }
@@ -83,6 +150,7 @@ public class ModelService implements IService {
      * This method handles the upload of the model file, main texture, other textures, and CSV files.
      * It validates the inputs and uses the textureService to manage texture uploads.
      * If any of the required inputs are empty, it throws an ApplicationContextException.
+     * When the same user already uploaded the same set of files under the same name, the existing model is returned and nothing is transferred again.
      *
      * @param modelName                    the name of the model to be uploaded.
      * @param modelInputStream             a map of input streams representing the model file to be uploaded, where the key is the file name and the value is the InputStream of the file.
@@ -104,7 +172,14 @@ public class ModelService implements IService {
         if (mainTextureInputStream.isEmpty()) {
             throw new ApplicationContextException("Hlavní textura nesmí být prázdná.");
         }
-        QuickModelEntity uploadedModel = uploadModel(modelName, modelInputStream);
+        String uploadKey = "model|" + currentUser() + "|" + modelName + "|" + modelInputStream.getContentHash() + "|" + mainTextureInputStream.getContentHash()
+                + "|" + uploadKeyOf(otherTexturesInputStreamList) + "|" + uploadKeyOf(csvInputStreamList);
+        QuickModelEntity existing = findExistingUpload(uploadKey);
+        if (existing != null) {
+            log.info("Model {} a jeho textury mají stejný obsah jako již nahraný model {}, použije se existující model", modelName, existing.getModel().getId());
+            return existing;
+        }
+        QuickModelEntity uploadedModel = uploadModelFile(modelName, modelInputStream);
 
         try {
             QuickTextureEntity mainTextureQuickFileEntity = textureService.uploadTexture(mainTextureInputStream, true, uploadedModel.getModel().getId(), null);
@@ -121,29 +196,148 @@ public class ModelService implements IService {
             log.error("Chyba při nahrávání vedlejších textur: {}", e.getMessage(), e);
             throw new RuntimeException("Chyba při nahrávání vedlejších textur: " + e.getMessage(), e);
         }
+        contentHashIndex.registerUpload(uploadKey, uploadedModel);
+        modelMetadataCache.put(uploadedModel.getModel().getId(), uploadedModel);
         return uploadedModel;
     }
 
+    /**
+     * Returns the model created by an identical upload, provided the model still exists.
+     * The upload key contains the uploading user and the requested name, so an upload is never linked to the model of another user
+     * or to a model with another name. A recorded upload whose model no longer exists is forgotten.
+     *
+     * @param uploadKey key of the upload
+     * @return the model of the identical upload or null
+     */
+    private QuickModelEntity findExistingUpload(String uploadKey) {
+        QuickModelEntity existing = contentHashIndex.findUpload(uploadKey, QuickModelEntity.class);
+        if (existing == null) {
+            return null;
+        }
+        try {
+            if (getModelMetadata(existing.getModel().getId()).isPresent()) {
+                return existing;
+            }
+        } catch (RuntimeException e) {
+            log.debug("Nepodařilo se ověřit existenci dříve nahraného modelu {}, model se nahraje znovu: {}", existing.getModel().getId(), e.getMessage());
+        }
+        contentHashIndex.invalidateUpload(uploadKey);
+        return null;
+    }
+
+    /**
+     * Returns the name of the user uploading the files, part of the upload keys.
+     *
+     * @return name of the authenticated user, empty when no user is authenticated
+     */
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    /**
+     * Composes the part of the upload key identifying the list of files by their names and content hashes.
+     * Names are part of the key, as the CSV files are matched to the textures by their names.
+     *
+     * @param files uploaded files
+     * @return sorted names and content hashes of the files
+     */
+    private static String uploadKeyOf(List<InputStreamMultipartFile> files) {
+        return files.stream()
+                .map(file -> file.getName() + ":" + file.getContentHash())
+                .sorted()
+                .collect(Collectors.joining(","));
+    }
+
     /**
      * Retrieves a model entity by its ID.
-     * This method uses the model API client to fetch the model entity from the BE.
+     * This method takes the model entity from the shared cache or uses the model API client to fetch it from the BE.
+     * Concurrent loads and streams of the same model share a single download, when the shared stream did not complete the model is downloaded again.
      *
      * @param modelId the ID of the model to be retrieved.
+     * @return the model entity including its file.
      * @throws RuntimeException if there is an error during the retrieval of the model entity.
      * @see ModelApiClient#getFileEntityById(String)
      */
-    private void getModel(String modelId) throws RuntimeException {
+    private ModelEntity getModel(String modelId) throws RuntimeException {
         try {
-            this.modelEntity = modelApiClient.getFileEntityById(modelId);
+            ModelEntity cached = getCachedModel(modelId);
+            if (cached != null) {
+                return cached;
+            }
+            ModelEntity shared = requestCoalescer.execute(DOWNLOAD_ENDPOINT, modelId, () -> cacheModel(modelId, modelApiClient.getFileEntityById(modelId)));
+            return shared != null ? shared : cacheModel(modelId, modelApiClient.getFileEntityById(modelId));
         } catch (Exception e) {
             log.error("Chyba při získávání modelu: {}", e.getMessage(), e);
             throw new RuntimeException("Chyba při získávání modelu: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Records the content hash and the file name of the downloaded model and stores it in the shared cache under its content hash.
+     *
+     * @param modelId the ID of the model.
+     * @param model   the downloaded model entity including its file.
+     * @return the stored model entity.
+     */
+    private ModelEntity cacheModel(String modelId, ModelEntity model) {
+        contentHashIndex.registerContent(modelId, model.getFile().getContentHash(), model.getName());
+        modelEntityCache.put(contentHashIndex.cacheKeyOf(modelId), model);
+        return model;
+    }
+
+    /**
+     * Returns the cached model file of the model.
+     * The cache shares only the bytes of identical files, a file cached for another model is returned under the ID and the file name of the requested model,
+     * unless the file name is not known yet, as the hash of the model comes from its metadata only.
+     *
+     * @param modelId the ID of the model.
+     * @return the model entity including its file, or null when the file is not cached.
+     */
+    private ModelEntity getCachedModel(String modelId) {
+        ModelEntity cached = modelEntityCache.get(contentHashIndex.cacheKeyOf(modelId));
+        if (cached == null || modelId.equals(cached.getId())) {
+            return cached;
+        }
+        String fileName = contentHashIndex.getFileName(modelId);
+        if (fileName == null) {
+            return null;
+        }
+        return modelEntityOf(modelId, fileName, cached.getFile().renamed(fileName));
+    }
+
+    /**
+     * Returns the content hash of the model file used as the ETag of the model stream.
+     *
+     * @param modelId the ID of the model.
+     * @return the content hash or null when the model was neither uploaded nor downloaded since the start of the application and its metadata carried no hash.
+     */
+    public String getModelContentHash(String modelId) {
+        return contentHashIndex.getHash(modelId);
+    }
+
+    /**
+     * Retrieves the metadata of the model by its ID, e.g. to open the model from its URL.
+     * The metadata are taken from the shared ModelMetadataCache or fetched from the BE, concurrent lookups of the same model share a single call.
+     * Unknown models are remembered for a short time, so a wrong URL does not call the BE repeatedly.
+     *
+     * @param modelId the ID of the model.
+     * @return the metadata of the model, empty if the model does not exist.
+     * @throws RuntimeException if there is an error during the retrieval of the metadata.
+     */
+    public Optional<QuickModelEntity> getModelMetadata(String modelId) throws RuntimeException {
+        try {
+            return modelMetadataCache.lookup(modelId, () -> requestCoalescer.execute("model/metadata/{id}", modelId, () -> modelApiClient.getModelMetadata(modelId)));
+        } catch (Exception e) {
+            log.error("Chyba při získávání metadat modelu {}: {}", modelId, e.getMessage(), e);
+            throw new RuntimeException("Chyba při získávání metadat modelu: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Retrieves models saved in the BE.
      * Currently, it retrieves only the first 10 models due to pagination.
+     * The listed models are stored in the shared ModelMetadataCache, so opening a listed model does not fetch its metadata again.
      *
      * @param filterParameters the filtering and pagination parameters.
      * @return List of QuickModelEntity representing the models.
@@ -151,7 +345,16 @@ public class ModelService implements IService {
      */
     public PageResult<QuickFile> getModels(FilterParameters filterParameters) throws RuntimeException {
         try {
-            return modelApiClient.getFileEntities(filterParameters.getPageNumber() - 1, filterParameters.getPageSize(), filterParameters.getOrderBy(), filterParameters.getSortDirection());
+            PageResult<QuickFile> models = requestCoalescer.execute("model/list-by", filterParameters.getPageNumber() + "|" + filterParameters.getPageSize() + "|" + filterParameters.getOrderBy() + "|" + filterParameters.getSortDirection(),
+                    () -> modelApiClient.getFileEntities(filterParameters.getPageNumber() - 1, filterParameters.getPageSize(), filterParameters.getOrderBy(), filterParameters.getSortDirection()));
+            if (models != null && models.elements() != null) {
+                models.elements().forEach(model -> {
+                    if (model instanceof QuickModelEntity quickModelEntity && quickModelEntity.getModel() != null) {
+                        modelMetadataCache.put(quickModelEntity.getModel().getId(), quickModelEntity);
+                    }
+                });
+            }
+            return models;
         } catch (Exception e) {
             log.error("Chyba při získávání stránkování modelů pro page {}, limit {}, error message: {}", filterParameters.getPageNumber(), filterParameters.getPageSize(), e.getMessage(), e);
             throw new RuntimeException("Chyba při získávání modelu: " + e.getMessage(), e);
@@ -160,57 +363,166 @@ public class ModelService implements IService {
 
     /**
      * Retrieves the InputStream of a model file by its ID.
-     * If the model entity is not already loaded or if the loaded entity does not match the requested ID,
-     * it fetches the model entity using the getModel method.
+     * The model entity is taken from the shared cache or fetched using the getModel method.
      *
      * @param modelId the ID of the model whose InputStream is to be retrieved.
      * @return the InputStream of the model file.
      */
     public InputStreamResource getInputStream(String modelId) {
-        if (this.modelEntity == null) {
-            this.getModel(modelId);
-        } else if (this.modelEntity.getId() == null || !this.modelEntity.getId().equals(modelId)) {
-            this.getModel(modelId);
+        return new InputStreamResource(getModel(modelId).getFile().getInputStream());
+    }
+
+    /**
+     * Streams the model file by its ID to the provided handler.
+     * A cached model is streamed from the shared cache, otherwise the file is downloaded from the backend in the background and streamed
+     * as its bytes arrive, see SharedDownloads. Concurrent streams of the same model share the download, so a slow or aborted client
+     * does not affect the others, and the model is stored in the cache only once it was downloaded completely.
+     * A stream whose shared download did not start within the wait timeout or failed downloads the file from the backend on its own.
+     *
+     * @param modelId the ID of the model whose file is to be streamed.
+     * @param handler handler consuming the streamed file.
+     * @throws Exception if the model is not found or streaming fails, including aborts of the download by the client.
+     * @see ModelApiClient#streamFileEntityById(String, FileStreamHandler)
+     */
+    public void streamModelFile(String modelId, FileStreamHandler handler) throws Exception {
+        ModelEntity cached = getCachedModel(modelId);
+        if (cached != null) {
+            streamCachedModel(cached, handler);
+            return;
+        }
+        boolean streamed = sharedDownloads.stream(DOWNLOAD_ENDPOINT, modelId, modelEntityCache.getMaxEntryBytes(),
+                downloadHandler -> modelApiClient.streamFileEntityById(modelId, downloadHandler),
+                (fileName, content) -> cacheModel(modelId, modelEntityOf(modelId, fileName, new InputStreamMultipartFile(new ByteArrayInputStream(content), fileName, fileName))),
+                handler);
+        if (!streamed) {
+            streamModelFromBackend(modelId, handler);
+        }
+    }
+
+    /**
+     * Streams the gzip compressed model file by its ID to the provided handler.
+     * The model is compressed once and the compressed variant is kept in the shared CompressedAssetCache under the content hash of the model,
+     * so further requests only copy the compressed bytes. The file name passed to the handler is the file name of the requested model,
+     * and the content length is the length of the compressed file.
+     *
+     * @param modelId the ID of the model whose file is to be streamed.
+     * @param handler handler consuming the compressed file.
+     * @throws Exception if the model is not found or streaming fails, including aborts of the download by the client.
+     */
+    public void streamCompressedModelFile(String modelId, FileStreamHandler handler) throws Exception {
+        CompressedAsset compressed = compressedAssetCache.get(contentHashIndex.cacheKeyOf(modelId));
+        String fileName = contentHashIndex.getFileName(modelId);
+        if (compressed == null || fileName == null) {
+            ModelEntity model = getModel(modelId);
+            fileName = model.getName();
+            if (compressed == null) {
+                compressed = new CompressedAsset(gzip(model.getFile().getBytes()), model.getFile().getSize());
+                compressedAssetCache.put(contentHashIndex.cacheKeyOf(modelId), compressed);
+                log.debug("Model {} komprimován z {} B na {} B", modelId, compressed.originalLength(), compressed.content().length);
+            }
+        }
+        try (InputStream inputStream = new ByteArrayInputStream(compressed.content())) {
+            handler.handle(fileName, compressed.content().length, inputStream);
+        }
+    }
+
+    /**
+     * Compresses the content with gzip.
+     *
+     * @param content content to compress.
+     * @return gzip compressed content.
+     * @throws IOException if the compression fails.
+     */
+    private static byte[] gzip(byte[] content) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 4 + 64);
+        try (GZIPOutputStream gzipOutputStream = new GZIPOutputStream(compressed)) {
+            gzipOutputStream.write(content);
+        }
+        return compressed.toByteArray();
+    }
+
+    /**
+     * Streams the model file held in memory to the handler.
+     *
+     * @param model   the model entity including its file.
+     * @param handler handler consuming the streamed file.
+     * @throws IOException if the handler fails.
+     */
+    private void streamCachedModel(ModelEntity model, FileStreamHandler handler) throws IOException {
+        try (InputStream inputStream = model.getFile().getInputStream()) {
+            handler.handle(model.getName(), model.getFile().getSize(), inputStream);
         }
-        return new InputStreamResource(modelEntity.getFile().getInputStream());
+    }
+
+    /**
+     * Streams the model file from the backend to the handler and stores its complete copy in the shared cache.
+     *
+     * @param modelId the ID of the model whose file is to be streamed.
+     * @param handler handler consuming the streamed file.
+     * @return the stored model entity, or null when the file was not read completely or exceeds the maximal size of a cached file.
+     * @throws Exception if the model is not found or streaming fails.
+     */
+    private ModelEntity streamModelFromBackend(String modelId, FileStreamHandler handler) throws Exception {
+        AtomicReference<ModelEntity> stored = new AtomicReference<>();
+        modelApiClient.streamFileEntityById(modelId, (fileName, contentLength, inputStream) -> {
+            CopyingInputStream copyingInputStream = new CopyingInputStream(inputStream, contentLength, modelEntityCache.getMaxEntryBytes());
+            handler.handle(fileName, contentLength, copyingInputStream);
+            byte[] content = copyingInputStream.getCompleteCopy();
+            if (content != null) {
+                stored.set(cacheModel(modelId, modelEntityOf(modelId, fileName, new InputStreamMultipartFile(new ByteArrayInputStream(content), fileName, fileName))));
+            }
+        });
+        return stored.get();
+    }
+
+    /**
+     * Creates the model entity of the downloaded model file.
+     *
+     * @param modelId  the ID of the model.
+     * @param fileName the name of the model file.
+     * @param file     the model file.
+     * @return the model entity including its file.
+     */
+    private static ModelEntity modelEntityOf(String modelId, String fileName, InputStreamMultipartFile file) {
+        return ModelEntity.builder()
+                .Id(modelId)
+                .Name(fileName)
+                .MainTextureEntity(null)
+                .TextureEntities(List.of())
+                .File(file)
+                .build();
     }
 
     /**
      * Constructs the endpoint URL for streaming the model file by its ID.
-     * If the model entity is not already loaded or if the loaded entity does not match the requested ID,
-     * it fetches the model entity using the getModel method.
+     * The URL is versioned by the content hash of the model file when it is known.
      *
      * @param modelId the ID of the model whose stream endpoint URL is to be constructed.
      * @return the endpoint URL for streaming the model file.
      */
     public String getModelStreamEndpoint(String modelId, boolean advanced) {
-        return "/api/model/" + modelId + "/stream" + (advanced ? "?advanced=true" : "?advanced=false");
+        return AssetVersions.versioned("/api/model/" + modelId + "/stream" + (advanced ? "?advanced=true" : "?advanced=false"), getModelContentHash(modelId));
     }
 
     /**
      * Retrieves the name of a model by its ID.
-     * If the model entity is not already loaded or if the loaded entity does not match the requested ID,
-     * it fetches the model entity using the getModel method.
+     * The model entity is taken from the shared cache or fetched using the getModel method.
      *
      * @param modelId the ID of the model whose name is to be retrieved.
      * @return the name of the model.
      */
     public String getModelName(String modelId) {
-        if (this.modelEntity == null) {
-            this.getModel(modelId);
-        } else if (this.modelEntity.getId() == null || !this.modelEntity.getId().equals(modelId)) {
-            this.getModel(modelId);
-        }
-        return this.modelEntity.getName();
+        return getModel(modelId).getName();
     }
 
     /**
-     * Retrieves the URL for texture file BE endpoint by texture ID.
+     * Retrieves the URL for model file BE endpoint by model ID.
+     * The URL is versioned by the content hash of the model file when it is known.
      *
-     * @param textureId the ID of the texture whose URL is to be retrieved.
-     * @return the URL for the texture file BE endpoint.
+     * @param modelId the ID of the model whose URL is to be retrieved.
+     * @return the URL for the model file BE endpoint.
      */
-    public String getModelFileBeEndpointUrl(String textureId) {
-        return modelApiClient.getModelFileBeEndpointUrl(textureId);
+    public String getModelFileBeEndpointUrl(String modelId) {
+        return AssetVersions.versioned(modelApiClient.getModelFileBeEndpointUrl(modelId), getModelContentHash(modelId));
     }
 }
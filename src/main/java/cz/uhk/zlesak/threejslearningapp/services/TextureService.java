@@ -2,6 +2,14 @@ package cz.uhk.zlesak.threejslearningapp.services;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import cz.uhk.zlesak.threejslearningapp.api.clients.TextureApiClient;
+import cz.uhk.zlesak.threejslearningapp.api.coalescing.RequestCoalescer;
+import cz.uhk.zlesak.threejslearningapp.api.coalescing.SharedDownloads;
+import cz.uhk.zlesak.threejslearningapp.cache.ContentHashIndex;
+import cz.uhk.zlesak.threejslearningapp.cache.TextureEntityCache;
+import cz.uhk.zlesak.threejslearningapp.common.AssetVersions;
+import cz.uhk.zlesak.threejslearningapp.common.ContentHash;
+import cz.uhk.zlesak.threejslearningapp.common.CopyingInputStream;
+import cz.uhk.zlesak.threejslearningapp.common.FileStreamHandler;
 import cz.uhk.zlesak.threejslearningapp.common.InputStreamMultipartFile;
 import cz.uhk.zlesak.threejslearningapp.domain.texture.TextureEntity;
 import cz.uhk.zlesak.threejslearningapp.domain.texture.TextureUploadEntity;
@@ -9,45 +17,66 @@ import cz.uhk.zlesak.threejslearningapp.domain.texture.QuickTextureEntity;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContextException;
-import org.springframework.context.annotation.Scope;
 import org.springframework.core.io.InputStreamResource;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
 import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * TextureService is responsible for handling texture-related operations such as uploading textures,
  * retrieving texture images, and managing texture data.
  * It interacts with the TextureApiClient to perform these operations.
+ * The service is a stateless singleton, downloaded texture files are kept in the shared TextureEntityCache.
+ * Uploads identical to an earlier upload of the same texture name to the same model are linked to the existing texture instead of being transferred again
+ * and the cached files are keyed by their content hash when it is known, see ContentHashIndex.
+ * The URLs of the texture files handed to the renderer are versioned by the content hash when it is known, see AssetVersions.
+ *
+ * @see TextureEntityCache
  */
 @Slf4j
 @Service
-@Scope("prototype")
 public class TextureService implements IService {
+    private static final String DOWNLOAD_ENDPOINT = "texture/download/{id}";
     protected final TextureApiClient textureApiClient;
     protected final ObjectMapper objectMapper;
-    private TextureEntity textureEntity = null;
+    private final TextureEntityCache textureEntityCache;
+    private final RequestCoalescer requestCoalescer;
+    private final ContentHashIndex contentHashIndex;
+    private final SharedDownloads sharedDownloads;
 
     /**
      * Constructor for TextureService.
      * Initializes the controller with the provided TextureApiClient and ObjectMapper.
      *
-     * @param textureApiClient client for interacting with the texture API
-     * @param objectMapper     object mapper for JSON serialization and deserialization
+     * @param textureApiClient   client for interacting with the texture API
+     * @param objectMapper       object mapper for JSON serialization and deserialization
+     * @param textureEntityCache shared cache of downloaded texture files
+     * @param requestCoalescer   coalescer collapsing concurrent identical texture reads into one backend call
+     * @param contentHashIndex   index of the content hashes of uploaded and downloaded textures
+     * @param sharedDownloads    downloads of texture files shared by concurrent streams of the same texture
      */
     @Autowired
-    public TextureService(TextureApiClient textureApiClient, ObjectMapper objectMapper) {
+    public TextureService(TextureApiClient textureApiClient, ObjectMapper objectMapper, TextureEntityCache textureEntityCache, RequestCoalescer requestCoalescer, ContentHashIndex contentHashIndex,
+                          SharedDownloads sharedDownloads) {
         this.textureApiClient = textureApiClient;
         this.objectMapper = objectMapper;
+        this.textureEntityCache = textureEntityCache;
+        this.requestCoalescer = requestCoalescer;
+        this.contentHashIndex = contentHashIndex;
+        this.sharedDownloads = sharedDownloads;
     }
 
     /**
      * Uploads a texture file along with its metadata to the server.
      * Validates the input file and constructs a TextureUploadEntity to send to the TextureApiClient.
+     * When the same texture with the same name and CSV was already uploaded to the model, the existing texture is returned and the file is not transferred again.
      *
      * @param inputStream the texture file to be uploaded
      * @param isPrimary   indicates if the texture is the primary texture
@@ -65,7 +94,14 @@ public class TextureService implements IService {
         }
 
         try {
-            String csvString = csv == null ? "" : new String(csv.readAllBytes(), StandardCharsets.UTF_8);
+            byte[] csvBytes = csv == null ? new byte[0] : csv.readAllBytes();
+            String uploadKey = "texture|" + modelId + "|" + isPrimary + "|" + inputStream.getDisplayName() + "|" + inputStream.getContentHash() + "|" + ContentHash.of(csvBytes);
+            QuickTextureEntity existing = contentHashIndex.findUpload(uploadKey, QuickTextureEntity.class);
+            if (existing != null) {
+                log.info("Textura {} má stejný obsah jako již nahraná textura {}, použije se existující textura", inputStream.getDisplayName(), existing.getTextureFileId());
+                return existing;
+            }
+            String csvString = new String(csvBytes, StandardCharsets.UTF_8);
             TextureEntity textureEntity = TextureEntity.builder()
                     .Name(inputStream.getDisplayName())
                     .Created(Instant.now())
@@ -76,7 +112,10 @@ public class TextureService implements IService {
                     .isPrimary(isPrimary)
                     .texture(textureEntity)
                     .build();
-            return textureApiClient.uploadFileEntity(inputStream, uploadedEntity);
+            QuickTextureEntity uploadedTexture = textureApiClient.uploadFileEntity(inputStream, uploadedEntity);
+            contentHashIndex.registerContent(uploadedTexture.getTextureFileId(), inputStream.getContentHash(), inputStream.getName());
+            contentHashIndex.registerUpload(uploadKey, uploadedTexture);
+            return uploadedTexture;
         } catch (Exception e) {
             throw new RuntimeException("Chyba při nahrávání textury: " + e.getMessage(), e);
         }
@@ -118,71 +157,188 @@ public class TextureService implements IService {
     }
 
     /**
-     * Retrieves a texture entity by its ID using the TextureApiClient.
-     * Caches the retrieved texture entity for future use.
+     * Retrieves a texture entity by its ID from the shared cache or using the TextureApiClient.
+     * The retrieved texture entity is cached for future use by all sessions.
+     * Concurrent loads and streams of the same texture share a single download, when the shared stream did not complete the texture is downloaded again.
      *
      * @param textureId the ID of the texture to be retrieved
+     * @return the texture entity including its file
      */
-    private void getTexture(String textureId) {
+    private TextureEntity getTexture(String textureId) {
         try {
-            this.textureEntity = textureApiClient.getFileEntityById(textureId);
+            TextureEntity cached = getCachedTexture(textureId);
+            if (cached != null) {
+                return cached;
+            }
+            TextureEntity shared = requestCoalescer.execute(DOWNLOAD_ENDPOINT, textureId, () -> cacheTexture(textureId, textureApiClient.getFileEntityById(textureId)));
+            return shared != null ? shared : cacheTexture(textureId, textureApiClient.getFileEntityById(textureId));
         } catch (Exception e) {
             log.error("Chyba při získávání textury: {}", e.getMessage(), e);
             throw new RuntimeException("Chyba při získávání textury: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Records the content hash and the file name of the downloaded texture and stores it in the shared cache under its content hash.
+     *
+     * @param textureId the ID of the texture
+     * @param texture   the downloaded texture entity including its file
+     * @return the stored texture entity
+     */
+    private TextureEntity cacheTexture(String textureId, TextureEntity texture) {
+        contentHashIndex.registerContent(textureId, texture.getFile().getContentHash(), texture.getName());
+        textureEntityCache.put(contentHashIndex.cacheKeyOf(textureId), texture);
+        return texture;
+    }
+
+    /**
+     * Returns the cached texture file of the texture.
+     * The cache shares only the bytes of identical files, a file cached for another texture is returned under the ID and the file name of the requested texture,
+     * unless the file name is not known yet, as the hash of the texture comes from its metadata only.
+     *
+     * @param textureId the ID of the texture
+     * @return the texture entity including its file, or null when the file is not cached
+     */
+    private TextureEntity getCachedTexture(String textureId) {
+        TextureEntity cached = textureEntityCache.get(contentHashIndex.cacheKeyOf(textureId));
+        if (cached == null || textureId.equals(cached.getId())) {
+            return cached;
+        }
+        String fileName = contentHashIndex.getFileName(textureId);
+        if (fileName == null) {
+            return null;
+        }
+        return textureEntityOf(textureId, fileName, cached.getFile().renamed(fileName));
+    }
+
+    /**
+     * Returns the content hash of the texture file used as the ETag of the texture stream.
+     *
+     * @param textureId the ID of the texture
+     * @return the content hash or null when the texture was neither uploaded nor downloaded since the start of the application and its metadata carried no hash
+     */
+    public String getTextureContentHash(String textureId) {
+        return contentHashIndex.getHash(textureId);
+    }
+
     /**
      * Retrieves the name of the texture by its ID.
-     * If the texture entity is not already cached or if the cached entity does not match the requested ID,
-     * it fetches the texture entity from the server.
+     * If the texture entity is not already cached, it fetches the texture entity from the server.
      *
      * @param textureId the ID of the texture whose name is to be retrieved
      * @return the name of the texture
      */
     public String getTextureName(String textureId) {
-        if (this.textureEntity == null) {
-            this.getTexture(textureId);
-        } else if (this.textureEntity.getId() == null || !this.textureEntity.getId().equals(textureId)) {
-            this.getTexture(textureId);
-        }
-        return this.textureEntity.getName();
+        return getTexture(textureId).getName();
     }
 
     /**
      * Retrieves the texture file as an InputStream by its ID.
-     * If the texture entity is not already cached or if the cached entity does not match the requested ID,
-     * it fetches the texture entity from the server.
+     * If the texture entity is not already cached, it fetches the texture entity from the server.
      *
      * @param textureId the ID of the texture to be retrieved
      * @return an InputStream of the texture file
      */
     public InputStreamResource getInputStream(String textureId) {
-        if (this.textureEntity == null) {
-            this.getTexture(textureId);
-        } else if (this.textureEntity.getId() == null || !this.textureEntity.getId().equals(textureId)) {
-            this.getTexture(textureId);
+        return new InputStreamResource(getTexture(textureId).getFile().getInputStream());
+    }
+
+    /**
+     * Streams the texture file by its ID to the provided handler.
+     * A cached texture is streamed from the shared cache, otherwise the file is downloaded from the backend in the background and streamed
+     * as its bytes arrive, see SharedDownloads. Concurrent streams of the same texture share the download, so a slow or aborted client
+     * does not affect the others, and the texture is stored in the cache only once it was downloaded completely.
+     * A stream whose shared download did not start within the wait timeout or failed downloads the file from the backend on its own.
+     *
+     * @param textureId the ID of the texture whose file is to be streamed
+     * @param handler   handler consuming the streamed file
+     * @throws Exception if the texture is not found or streaming fails, including aborts of the download by the client
+     * @see TextureApiClient#streamFileEntityById(String, FileStreamHandler)
+     */
+    public void streamTextureFile(String textureId, FileStreamHandler handler) throws Exception {
+        TextureEntity cached = getCachedTexture(textureId);
+        if (cached != null) {
+            streamCachedTexture(cached, handler);
+            return;
+        }
+        boolean streamed = sharedDownloads.stream(DOWNLOAD_ENDPOINT, textureId, textureEntityCache.getMaxEntryBytes(),
+                downloadHandler -> textureApiClient.streamFileEntityById(textureId, downloadHandler),
+                (fileName, content) -> cacheTexture(textureId, textureEntityOf(textureId, fileName, new InputStreamMultipartFile(new ByteArrayInputStream(content), fileName, fileName))),
+                handler);
+        if (!streamed) {
+            streamTextureFromBackend(textureId, handler);
+        }
+    }
+
+    /**
+     * Streams the texture file held in memory to the handler.
+     *
+     * @param texture the texture entity including its file
+     * @param handler handler consuming the streamed file
+     * @throws IOException if the handler fails
+     */
+    private void streamCachedTexture(TextureEntity texture, FileStreamHandler handler) throws IOException {
+        try (InputStream inputStream = texture.getFile().getInputStream()) {
+            handler.handle(texture.getName(), texture.getFile().getSize(), inputStream);
         }
-        return new InputStreamResource(textureEntity.getFile().getInputStream());
+    }
+
+    /**
+     * Streams the texture file from the backend to the handler and stores its complete copy in the shared cache.
+     *
+     * @param textureId the ID of the texture whose file is to be streamed
+     * @param handler   handler consuming the streamed file
+     * @return the stored texture entity, or null when the file was not read completely or exceeds the maximal size of a cached file
+     * @throws Exception if the texture is not found or streaming fails
+     */
+    private TextureEntity streamTextureFromBackend(String textureId, FileStreamHandler handler) throws Exception {
+        AtomicReference<TextureEntity> stored = new AtomicReference<>();
+        textureApiClient.streamFileEntityById(textureId, (fileName, contentLength, inputStream) -> {
+            CopyingInputStream copyingInputStream = new CopyingInputStream(inputStream, contentLength, textureEntityCache.getMaxEntryBytes());
+            handler.handle(fileName, contentLength, copyingInputStream);
+            byte[] content = copyingInputStream.getCompleteCopy();
+            if (content != null) {
+                stored.set(cacheTexture(textureId, textureEntityOf(textureId, fileName, new InputStreamMultipartFile(new ByteArrayInputStream(content), fileName, fileName))));
+            }
+        });
+        return stored.get();
+    }
+
+    /**
+     * Creates the texture entity of the downloaded texture file.
+     *
+     * @param textureId the ID of the texture
+     * @param fileName  the name of the texture file
+     * @param file      the texture file
+     * @return the texture entity including its file
+     */
+    private static TextureEntity textureEntityOf(String textureId, String fileName, InputStreamMultipartFile file) {
+        return TextureEntity.builder()
+                .Id(textureId)
+                .Name(fileName)
+                .File(file)
+                .build();
     }
 
     /**
      * Generates the endpoint URL for streaming the texture by its ID.
+     * The URL is versioned by the content hash of the texture file when it is known.
      *
      * @param textureId the ID of the texture
      * @return the endpoint URL for streaming the texture
      */
     public String getTextureStreamEndpointUrl(String textureId) {
-        return "/api/texture/" + textureId + "/stream";
+        return AssetVersions.versioned("/api/texture/" + textureId + "/stream", getTextureContentHash(textureId));
     }
 
     /**
      * Generates the backend endpoint URL for accessing the texture file by its ID.
+     * The URL is versioned by the content hash of the texture file when it is known.
      *
      * @param textureId the ID of the texture
      * @return the backend endpoint URL for the texture file
      */
     public String getTextureFileBeEndpointUrl(String textureId) {
-        return textureApiClient.getTextureStreamBeEndpointUrl(textureId);
+        return AssetVersions.versioned(textureApiClient.getTextureStreamBeEndpointUrl(textureId), getTextureContentHash(textureId));
     }
 }
@@ -0,0 +1,141 @@
+package cz.uhk.zlesak.threejslearningapp.session;
+
+import cz.uhk.zlesak.threejslearningapp.common.ContentHash;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * SessionStateStore keeping every snapshot in its own file of a directory, e.g. a volume shared by the nodes or a local directory for testing.
+ * Snapshots older than the maximal age are not loaded and are deleted when the store starts and then periodically,
+ * so the snapshots of the sessions that never came back do not pile up in the directory.
+ */
+@Slf4j
+public class FileSessionStateStore implements SessionStateStore {
+    private final Path directory;
+    private final Duration maxAge;
+    private final ScheduledExecutorService cleanupExecutor;
+
+    /**
+     * Constructor for FileSessionStateStore deleting the expired snapshots and scheduling their periodic deletion.
+     *
+     * @param directory       directory of the snapshots
+     * @param maxAge          maximal age of a snapshot
+     * @param cleanupInterval interval of the deletion of the expired snapshots
+     * @throws IOException if the directory cannot be created
+     */
+    public FileSessionStateStore(Path directory, Duration maxAge, Duration cleanupInterval) throws IOException {
+        this.directory = directory;
+        this.maxAge = maxAge;
+        Files.createDirectories(directory);
+        deleteExpired();
+        cleanupExecutor = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("session-state-cleanup").factory());
+        cleanupExecutor.scheduleWithFixedDelay(this::deleteExpired, cleanupInterval.toMillis(), cleanupInterval.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Stops the periodic deletion of the expired snapshots.
+     */
+    @PreDestroy
+    public void stop() {
+        cleanupExecutor.shutdownNow();
+    }
+
+    /**
+     * Writes the snapshot to a temporary file and moves it over the previous one, so a reading node never sees a partial snapshot.
+     *
+     * @param key      key of the session state
+     * @param snapshot serialized snapshot
+     */
+    @Override
+    public void save(String key, byte[] snapshot) {
+        Path file = fileOf(key);
+        Path tempFile = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            Files.write(tempFile, snapshot);
+            Files.move(tempFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.warn("Stav session nelze uložit do souboru {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Reads the snapshot, unless it expired.
+     *
+     * @param key key of the session state
+     * @return serialized snapshot, empty if there is none or it expired
+     */
+    @Override
+    public Optional<byte[]> load(String key) {
+        Path file = fileOf(key);
+        if (!Files.isRegularFile(file) || isExpired(file)) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(Files.readAllBytes(file));
+        } catch (IOException e) {
+            log.warn("Stav session ze souboru {} nelze načíst: {}", file, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Deletes the snapshot files older than the maximal age.
+     */
+    private void deleteExpired() {
+        try (Stream<Path> files = Files.list(directory)) {
+            files.filter(this::isExpired).forEach(this::delete);
+        } catch (IOException e) {
+            log.warn("Adresář stavů session {} nelze projít: {}", directory, e.getMessage());
+        }
+    }
+
+    /**
+     * Checks whether the snapshot file is older than the maximal age.
+     *
+     * @param file snapshot file
+     * @return true if the snapshot expired
+     */
+    private boolean isExpired(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().plus(maxAge).isBefore(Instant.now());
+        } catch (IOException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Deletes the snapshot file.
+     *
+     * @param file snapshot file
+     */
+    private void delete(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Soubor stavu session {} nelze smazat: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the file of the snapshot, named by the hash of the key, as the key comes from a cookie.
+     *
+     * @param key key of the session state
+     * @return snapshot file
+     */
+    private Path fileOf(String key) {
+        return directory.resolve(ContentHash.of(key.getBytes(StandardCharsets.UTF_8)) + ".json");
+    }
+}
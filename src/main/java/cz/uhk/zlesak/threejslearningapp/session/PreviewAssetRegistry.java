@@ -0,0 +1,96 @@
+package cz.uhk.zlesak.threejslearningapp.session;
+
+import com.vaadin.flow.server.StreamRegistration;
+import com.vaadin.flow.server.StreamResource;
+import com.vaadin.flow.server.VaadinSession;
+import com.vaadin.flow.spring.annotation.VaadinSessionScope;
+import cz.uhk.zlesak.threejslearningapp.common.InputStreamMultipartFile;
+import cz.uhk.zlesak.threejslearningapp.exceptions.PreviewQuotaExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * PreviewAssetRegistry manages the stream resources serving the previews of the uploaded files to the renderer, one registry per Vaadin session.
+ * Every fetch of a preview URL opens a new stream over the uploaded file, so the renderer may load the same preview repeatedly,
+ * and the registry holds no copy of the file content.
+ * The previews are unregistered when their file is removed or the form is detached, and the sum of the sizes of the registered previews
+ * is bounded by a per-session quota, so repeated upload and remove cycles cannot grow the session without limit.
+ * Previews still registered when the session ends are discarded together with its resource registry.
+ */
+@Slf4j
+@Component
+@VaadinSessionScope
+public class PreviewAssetRegistry {
+    private final long quotaBytes;
+    private final Set<PreviewAsset> assets = new LinkedHashSet<>();
+    private long usedBytes = 0;
+
+    /**
+     * Constructor for PreviewAssetRegistry.
+     *
+     * @param quotaBytes maximal sum of the sizes of the registered previews of a session in bytes
+     */
+    public PreviewAssetRegistry(@Value("${preview.assets.session-quota-bytes:157286400}") long quotaBytes) {
+        this.quotaBytes = quotaBytes;
+    }
+
+    /**
+     * Registers the preview of the uploaded file in the resource registry of the current session.
+     *
+     * @param fileName    name of the file
+     * @param contentType content type the preview is served with
+     * @param file        uploaded file the preview is read from
+     * @return registered preview with its URL
+     * @throws PreviewQuotaExceededException if the preview would exceed the quota of the session
+     */
+    public synchronized PreviewAsset register(String fileName, String contentType, InputStreamMultipartFile file) throws PreviewQuotaExceededException {
+        if (usedBytes + file.getSize() > quotaBytes) {
+            log.warn("Náhled souboru {} ({} B) překračuje limit náhledů relace, využito {} z {} B", fileName, file.getSize(), usedBytes, quotaBytes);
+            throw new PreviewQuotaExceededException(fileName, quotaBytes);
+        }
+        StreamResource resource = new StreamResource(fileName, file::getInputStream);
+        resource.setContentType(contentType);
+        StreamRegistration registration = VaadinSession.getCurrent().getResourceRegistry().registerResource(resource);
+        PreviewAsset asset = new PreviewAsset(registration.getResourceUri().toString(), file.getSize(), registration);
+        assets.add(asset);
+        usedBytes += asset.size();
+        return asset;
+    }
+
+    /**
+     * Unregisters the preview, its URL stops serving the file and its size is returned to the quota.
+     * Releasing an already released preview does nothing.
+     *
+     * @param asset preview to release, may be null
+     */
+    public synchronized void release(PreviewAsset asset) {
+        if (asset == null || !assets.remove(asset)) {
+            return;
+        }
+        asset.registration().unregister();
+        usedBytes -= asset.size();
+    }
+
+    /**
+     * Returns the sum of the sizes of the registered previews.
+     *
+     * @return used part of the quota in bytes
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    /**
+     * Registered preview of an uploaded file.
+     *
+     * @param url          URL serving the preview
+     * @param size         size of the previewed file in bytes
+     * @param registration registration of the stream resource in the session
+     */
+    public record PreviewAsset(String url, long size, StreamRegistration registration) {
+    }
+}
@@ -0,0 +1,35 @@
+package cz.uhk.zlesak.threejslearningapp.session;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Configuration of the SessionStateStore selected by session.state.store.
+ * The value none (default) keeps the session state only in the Vaadin session of the node, file stores the snapshots in a directory.
+ */
+@Configuration
+public class SessionStateConfiguration {
+
+    /**
+     * Provides the store keeping the snapshots in a directory.
+     *
+     * @param directory       directory of the snapshots, shared by the nodes
+     * @param maxAge          maximal age of a snapshot
+     * @param cleanupInterval interval of the deletion of the expired snapshots
+     * @return file session state store
+     * @throws IOException if the directory cannot be created
+     */
+    @Bean
+    @ConditionalOnProperty(name = "session.state.store", havingValue = "file")
+    public SessionStateStore fileSessionStateStore(@Value("${session.state.directory:./session-state}") String directory,
+                                                   @Value("${session.state.max-age:12h}") Duration maxAge,
+                                                   @Value("${session.state.cleanup-interval:1h}") Duration cleanupInterval) throws IOException {
+        return new FileSessionStateStore(Path.of(directory), maxAge, cleanupInterval);
+    }
+}
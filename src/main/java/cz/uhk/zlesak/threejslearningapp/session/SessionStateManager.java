@@ -0,0 +1,152 @@
+package cz.uhk.zlesak.threejslearningapp.session;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.vaadin.flow.server.ServiceInitEvent;
+import com.vaadin.flow.server.VaadinRequest;
+import com.vaadin.flow.server.VaadinResponse;
+import com.vaadin.flow.server.VaadinService;
+import com.vaadin.flow.server.VaadinServiceInitListener;
+import com.vaadin.flow.server.VaadinSession;
+import cz.uhk.zlesak.threejslearningapp.domain.model.QuickModelEntity;
+import jakarta.servlet.http.Cookie;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * SessionStateManager externalizes the state of the Vaadin sessions as compact snapshots, so a session continues on another node
+ * after a failover or a scale down instead of losing its state.
+ * A snapshot holds only the registered session attributes written by the compact serializers of the SessionStateModule,
+ * the shared data (chapters, models, textures) are loaded again by their IDs from the shared caches or the backend.
+ * The snapshot is keyed by the session state cookie, saved before every navigation when it changed
+ * and restored into a new Vaadin session of the same browser on any node.
+ * Without a configured store (session.state.store=none) the manager does nothing.
+ *
+ * @see SessionStateStore
+ * @see SessionStateModule
+ */
+@Slf4j
+@Component
+public class SessionStateManager implements VaadinServiceInitListener {
+    static final String COOKIE_NAME = "session-state";
+    private static final String KEY_ATTRIBUTE = SessionStateManager.class.getName() + ".key";
+    private static final String SAVED_ATTRIBUTE = SessionStateManager.class.getName() + ".saved";
+
+    /**
+     * Session attributes kept in the snapshots with their types.
+     * The model handed over to the model detail view is kept, so reloading the detail on another node works without the backend metadata lookup.
+     */
+    private static final Map<String, Class<?>> SNAPSHOT_ATTRIBUTES = Map.of(
+            "quickModelEntity", QuickModelEntity.class
+    );
+
+    private final SessionStateStore sessionStateStore;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Constructor for SessionStateManager.
+     *
+     * @param sessionStateStore provider of the configured session state store, empty to keep the state only on the node
+     * @param objectMapper      mapper copied and extended by the compact serializers of the domain objects
+     */
+    public SessionStateManager(ObjectProvider<SessionStateStore> sessionStateStore, ObjectMapper objectMapper) {
+        this.sessionStateStore = sessionStateStore.getIfAvailable();
+        this.objectMapper = objectMapper.copy().registerModule(new SessionStateModule());
+    }
+
+    /**
+     * Registers the restore of the new sessions and the snapshots before the navigations of their UIs.
+     *
+     * @param event Vaadin service initialization event
+     */
+    @Override
+    public void serviceInit(ServiceInitEvent event) {
+        if (sessionStateStore == null) {
+            return;
+        }
+        event.getSource().addSessionInitListener(sessionInit -> restore(sessionInit.getSession(), sessionInit.getRequest()));
+        event.getSource().addUIInitListener(uiInit -> uiInit.getUI().addBeforeEnterListener(beforeEnter -> save(uiInit.getUI().getSession())));
+    }
+
+    /**
+     * Assigns the session state key to the new session and restores the snapshot of the key, if the browser already has one.
+     *
+     * @param session new Vaadin session
+     * @param request request creating the session
+     */
+    private void restore(VaadinSession session, VaadinRequest request) {
+        String key = Optional.ofNullable(request.getCookies()).flatMap(cookies -> Arrays.stream(cookies)
+                        .filter(cookie -> COOKIE_NAME.equals(cookie.getName()))
+                        .map(Cookie::getValue)
+                        .findFirst())
+                .orElse(null);
+        if (key == null) {
+            key = UUID.randomUUID().toString();
+            VaadinResponse response = VaadinService.getCurrentResponse();
+            if (response != null) {
+                Cookie cookie = new Cookie(COOKIE_NAME, key);
+                cookie.setPath("/");
+                cookie.setHttpOnly(true);
+                cookie.setSecure(request.isSecure());
+                response.addCookie(cookie);
+            }
+        }
+        session.setAttribute(KEY_ATTRIBUTE, key);
+
+        Optional<byte[]> snapshot = sessionStateStore.load(key);
+        if (snapshot.isEmpty()) {
+            return;
+        }
+        try {
+            JsonNode attributes = objectMapper.readTree(snapshot.get());
+            SNAPSHOT_ATTRIBUTES.forEach((name, type) -> {
+                JsonNode value = attributes.get(name);
+                if (value != null && !value.isNull()) {
+                    try {
+                        session.setAttribute(name, objectMapper.treeToValue(value, type));
+                    } catch (IOException e) {
+                        log.warn("Atribut {} ze stavu session nelze obnovit: {}", name, e.getMessage());
+                    }
+                }
+            });
+            session.setAttribute(SAVED_ATTRIBUTE, attributes.toString());
+            log.debug("Obnoven stav session z uloženého snímku");
+        } catch (IOException e) {
+            log.warn("Uložený stav session nelze načíst: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Saves the snapshot of the session, unless it did not change since the last save.
+     *
+     * @param session Vaadin session, locked by the navigation
+     */
+    private void save(VaadinSession session) {
+        String key = (String) session.getAttribute(KEY_ATTRIBUTE);
+        if (key == null) {
+            return;
+        }
+        ObjectNode attributes = objectMapper.createObjectNode();
+        SNAPSHOT_ATTRIBUTES.forEach((name, type) -> {
+            Object value = session.getAttribute(name);
+            if (type.isInstance(value)) {
+                attributes.set(name, objectMapper.valueToTree(value));
+            }
+        });
+        String snapshot = attributes.toString();
+        if (snapshot.equals(session.getAttribute(SAVED_ATTRIBUTE))) {
+            return;
+        }
+        sessionStateStore.save(key, snapshot.getBytes(StandardCharsets.UTF_8));
+        session.setAttribute(SAVED_ATTRIBUTE, snapshot);
+    }
+}
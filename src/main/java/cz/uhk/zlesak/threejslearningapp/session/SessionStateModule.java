@@ -0,0 +1,125 @@
+package cz.uhk.zlesak.threejslearningapp.session;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import cz.uhk.zlesak.threejslearningapp.domain.common.QuickFileEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.model.QuickModelEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.texture.QuickTextureEntity;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Jackson module with the compact serializers of the domain objects kept in the session state snapshots.
+ * Only the IDs and the small metadata needed to display the objects are written, the content is loaded again by its ID after the restore.
+ * A QuickModelEntity is written with the IDs, names and texture areas of its files.
+ *
+ * @see SessionStateManager
+ */
+public class SessionStateModule extends SimpleModule {
+
+    /**
+     * Constructor for SessionStateModule registering the serializers of the domain objects.
+     */
+    public SessionStateModule() {
+        super("session-state");
+        addSerializer(QuickModelEntity.class, new QuickModelEntitySerializer());
+        addDeserializer(QuickModelEntity.class, new QuickModelEntityDeserializer());
+    }
+
+    /**
+     * Writes the model with the IDs and names of its model and texture files.
+     */
+    static class QuickModelEntitySerializer extends JsonSerializer<QuickModelEntity> {
+        @Override
+        public void serialize(QuickModelEntity model, JsonGenerator generator, SerializerProvider provider) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("metadataId", model.getMetadataId());
+            if (model.getModel() != null) {
+                generator.writeObjectFieldStart("model");
+                generator.writeStringField("id", model.getModel().getId());
+                generator.writeStringField("name", model.getModel().getName());
+                generator.writeEndObject();
+            }
+            if (model.getMainTexture() != null) {
+                generator.writeFieldName("mainTexture");
+                writeTexture(model.getMainTexture(), generator);
+            }
+            generator.writeArrayFieldStart("otherTextures");
+            if (model.getOtherTextures() != null) {
+                for (QuickTextureEntity texture : model.getOtherTextures()) {
+                    writeTexture(texture, generator);
+                }
+            }
+            generator.writeEndArray();
+            generator.writeEndObject();
+        }
+
+        /**
+         * Writes the texture with its file ID, name and texture areas.
+         *
+         * @param texture   texture to write
+         * @param generator generator of the JSON
+         * @throws IOException if the texture cannot be written
+         */
+        private static void writeTexture(QuickTextureEntity texture, JsonGenerator generator) throws IOException {
+            generator.writeStartObject();
+            generator.writeStringField("id", texture.getTextureFileId());
+            generator.writeStringField("name", texture.getName());
+            generator.writeStringField("csv", texture.getCsvContent());
+            generator.writeEndObject();
+        }
+    }
+
+    /**
+     * Reads the model written by the QuickModelEntitySerializer.
+     */
+    static class QuickModelEntityDeserializer extends JsonDeserializer<QuickModelEntity> {
+        @Override
+        public QuickModelEntity deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+            JsonNode node = parser.readValueAsTree();
+            JsonNode model = node.path("model");
+            List<QuickTextureEntity> otherTextures = new ArrayList<>();
+            node.path("otherTextures").forEach(texture -> otherTextures.add(readTexture(texture)));
+            return QuickModelEntity.builder()
+                    .metadataId(textOf(node, "metadataId"))
+                    .model(model.isObject() ? QuickFileEntity.builder().id(textOf(model, "id")).name(textOf(model, "name")).build() : null)
+                    .mainTexture(node.path("mainTexture").isObject() ? readTexture(node.get("mainTexture")) : null)
+                    .otherTextures(otherTextures)
+                    .build();
+        }
+
+        /**
+         * Reads the texture written by the QuickModelEntitySerializer.
+         *
+         * @param texture texture node
+         * @return texture entity
+         */
+        private static QuickTextureEntity readTexture(JsonNode texture) {
+            return QuickTextureEntity.builder()
+                    .textureFileId(textOf(texture, "id"))
+                    .name(textOf(texture, "name"))
+                    .csvContent(textOf(texture, "csv"))
+                    .build();
+        }
+    }
+
+    /**
+     * Returns the text of the field, or null when the field is missing or null.
+     *
+     * @param node  JSON object
+     * @param field name of the field
+     * @return text of the field or null
+     */
+    private static String textOf(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+}
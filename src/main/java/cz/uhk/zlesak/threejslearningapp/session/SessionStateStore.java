@@ -0,0 +1,29 @@
+package cz.uhk.zlesak.threejslearningapp.session;
+
+import java.util.Optional;
+
+/**
+ * SessionStateStore keeps the compact session state snapshots outside of the node, so a session can continue on another node
+ * after a failover or a scale down without serializing the whole Vaadin session.
+ *
+ * @see SessionStateManager
+ * @see FileSessionStateStore
+ */
+public interface SessionStateStore {
+
+    /**
+     * Saves the snapshot of the session, replacing the previous one.
+     *
+     * @param key      key of the session state, shared by all nodes
+     * @param snapshot serialized snapshot
+     */
+    void save(String key, byte[] snapshot);
+
+    /**
+     * Loads the snapshot of the session.
+     *
+     * @param key key of the session state
+     * @return serialized snapshot, empty if there is none or it expired
+     */
+    Optional<byte[]> load(String key);
+}
@@ -0,0 +1,105 @@
+package cz.uhk.zlesak.threejslearningapp.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+
+/**
+ * FileSpanExporter writes finished spans to a local file, one JSON object per line.
+ * It is a lightweight alternative to an OTLP collector for local analysis of page loads.
+ *
+ * @see TracingConfiguration
+ */
+@Slf4j
+public class FileSpanExporter implements SpanExporter {
+    private final ObjectMapper objectMapper;
+    private final BufferedWriter writer;
+
+    /**
+     * Constructor for FileSpanExporter, creates the file and its parent directories when missing.
+     *
+     * @param path         path of the file the spans are appended to
+     * @param objectMapper mapper used to write the JSON lines
+     * @throws IOException if the file cannot be opened
+     */
+    public FileSpanExporter(Path path, ObjectMapper objectMapper) throws IOException {
+        this.objectMapper = objectMapper;
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        this.writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Writes the spans to the file.
+     *
+     * @param spans finished spans
+     * @return result of the export
+     */
+    @Override
+    public synchronized CompletableResultCode export(Collection<SpanData> spans) {
+        try {
+            for (SpanData span : spans) {
+                ObjectNode line = objectMapper.createObjectNode();
+                line.put("traceId", span.getTraceId());
+                line.put("spanId", span.getSpanId());
+                line.put("parentSpanId", span.getParentSpanId());
+                line.put("name", span.getName());
+                line.put("startEpochNanos", span.getStartEpochNanos());
+                line.put("endEpochNanos", span.getEndEpochNanos());
+                line.put("durationMs", (span.getEndEpochNanos() - span.getStartEpochNanos()) / 1_000_000.0);
+                line.put("status", span.getStatus().getStatusCode().name());
+                ObjectNode attributes = line.putObject("attributes");
+                span.getAttributes().forEach((key, value) -> attributes.put(key.getKey(), String.valueOf(value)));
+                writer.write(objectMapper.writeValueAsString(line));
+                writer.newLine();
+            }
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            log.warn("Zápis spanů do souboru selhal: {}", e.getMessage());
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    /**
+     * Flushes the written spans.
+     *
+     * @return result of the flush
+     */
+    @Override
+    public synchronized CompletableResultCode flush() {
+        try {
+            writer.flush();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+
+    /**
+     * Closes the file.
+     *
+     * @return result of the shutdown
+     */
+    @Override
+    public synchronized CompletableResultCode shutdown() {
+        try {
+            writer.close();
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            return CompletableResultCode.ofFailure();
+        }
+    }
+}
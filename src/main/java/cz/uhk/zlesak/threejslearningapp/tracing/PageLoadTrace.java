@@ -0,0 +1,40 @@
+package cz.uhk.zlesak.threejslearningapp.tracing;
+
+import io.micrometer.tracing.Span;
+import lombok.Getter;
+
+/**
+ * PageLoadTrace holds the root span of a single page load of a UI.
+ * It is stored in the UI data, so all phases of the page load traced for the same UI share the same trace.
+ */
+@Getter
+class PageLoadTrace {
+    private final Span rootSpan;
+    private final long startedAtEpochMs;
+    private boolean ended = false;
+
+    /**
+     * Constructor for PageLoadTrace.
+     *
+     * @param rootSpan         started root span of the page load
+     * @param startedAtEpochMs time the page load started
+     */
+    PageLoadTrace(Span rootSpan, long startedAtEpochMs) {
+        this.rootSpan = rootSpan;
+        this.startedAtEpochMs = startedAtEpochMs;
+    }
+
+    /**
+     * Ends the root span with the given outcome, repeated calls are ignored.
+     *
+     * @param outcome outcome of the page load, e.g. rendered, left or replaced
+     */
+    synchronized void end(String outcome) {
+        if (ended) {
+            return;
+        }
+        ended = true;
+        rootSpan.tag("page.outcome", outcome);
+        rootSpan.end();
+    }
+}
@@ -0,0 +1,204 @@
+package cz.uhk.zlesak.threejslearningapp.tracing;
+
+import com.vaadin.flow.component.ComponentUtil;
+import com.vaadin.flow.component.UI;
+import cz.uhk.zlesak.threejslearningapp.events.threejs.ThreeJsClientTimings;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PageLoadTracer traces page loads of the views from the Vaadin navigation to the first frame rendered by Three.js.
+ * Every page load has a root span tagged with the UI id, server phases are traced as its child spans and the timings
+ * reported by the renderer in the browser are added as child spans with their measured start and end.
+ * Spans are exported by the OpenTelemetry bridge, either to an OTLP collector or to the file sink.
+ *
+ * @see FileSpanExporter
+ */
+@Component
+public class PageLoadTracer {
+    static final String FIRST_RENDER = "three.first-render";
+
+    private final Tracer tracer;
+
+    /**
+     * Constructor for PageLoadTracer.
+     *
+     * @param tracer tracer creating the spans
+     */
+    public PageLoadTracer(Tracer tracer) {
+        this.tracer = tracer;
+    }
+
+    /**
+     * Starts tracing a page load of the UI.
+     * An unfinished page load of the same UI is ended first, as the user navigated elsewhere before it finished.
+     *
+     * @param ui   UI the page is loaded in
+     * @param page name of the loaded page, e.g. the route with its parameters
+     */
+    public void begin(UI ui, String page) {
+        end(ui, "replaced");
+        Span rootSpan = tracer.spanBuilder()
+                .setNoParent()
+                .name("page.load")
+                .tag("ui.id", String.valueOf(ui.getUIId()))
+                .tag("page", page)
+                .start();
+        ComponentUtil.setData(ui, PageLoadTrace.class, new PageLoadTrace(rootSpan, System.currentTimeMillis()));
+    }
+
+    /**
+     * Ends the page load of the UI, if there is one in progress.
+     *
+     * @param ui      UI the page is loaded in
+     * @param outcome outcome of the page load, e.g. rendered or left
+     */
+    public void end(UI ui, String outcome) {
+        PageLoadTrace trace = ComponentUtil.getData(ui, PageLoadTrace.class);
+        if (trace != null) {
+            trace.end(outcome);
+            ComponentUtil.setData(ui, PageLoadTrace.class, null);
+        }
+    }
+
+    /**
+     * Traces a server phase of the page load as a child span, nested phases become its children.
+     * Without a page load in progress the call is executed without tracing.
+     *
+     * @param ui    UI the page is loaded in
+     * @param phase name of the phase
+     * @param call  traced call
+     * @param <T>   type of the result
+     * @return result of the call
+     * @throws Exception exception thrown by the call
+     */
+    public <T> T trace(UI ui, String phase, TracedCall<T> call) throws Exception {
+        Span span = startPhase(ui, phase);
+        if (span == null) {
+            return call.call();
+        }
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return call.call();
+        } catch (Exception e) {
+            span.error(e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+
+    /**
+     * Traces a server phase without a result.
+     *
+     * @param ui    UI the page is loaded in
+     * @param phase name of the phase
+     * @param call  traced call
+     * @throws Exception exception thrown by the call
+     */
+    public void trace(UI ui, String phase, TracedRunnable call) throws Exception {
+        trace(ui, phase, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    /**
+     * Traces an asynchronous phase, typically a JavaScript call, the span ends when the future completes.
+     *
+     * @param ui     UI the page is loaded in
+     * @param phase  name of the phase
+     * @param future future of the phase
+     * @param <T>    type of the result
+     * @return the same future
+     */
+    public <T> CompletableFuture<T> traceAsync(UI ui, String phase, CompletableFuture<T> future) {
+        Span span = startPhase(ui, phase);
+        if (span != null) {
+            future.whenComplete((result, error) -> {
+                if (error != null) {
+                    span.error(error);
+                }
+                span.end();
+            });
+        }
+        return future;
+    }
+
+    /**
+     * Adds the timings reported by the renderer as child spans of the page load.
+     * The page load ends when the timings contain the first rendered frame.
+     *
+     * @param ui     UI the page is loaded in
+     * @param event  event with the client timings
+     */
+    public void recordClientTimings(UI ui, ThreeJsClientTimings event) {
+        PageLoadTrace trace = ComponentUtil.getData(ui, PageLoadTrace.class);
+        if (trace == null) {
+            return;
+        }
+        List<ThreeJsClientTimings.ClientTiming> timings = event.getTimings();
+        boolean rendered = false;
+        for (ThreeJsClientTimings.ClientTiming timing : timings) {
+            long startMs = event.getReceivedAtEpochMs() - Math.round(timing.startMsAgo());
+            long endMs = event.getReceivedAtEpochMs() - Math.round(timing.endMsAgo());
+            Span.Builder builder = tracer.spanBuilder()
+                    .setParent(trace.getRootSpan().context())
+                    .name(timing.name())
+                    .tag("ui.id", String.valueOf(ui.getUIId()))
+                    .tag("span.source", "client")
+                    .startTimestamp(Math.max(startMs, trace.getStartedAtEpochMs()), TimeUnit.MILLISECONDS);
+            if (timing.asset() != null && !timing.asset().isEmpty()) {
+                builder.tag("asset", timing.asset());
+            }
+            builder.start().end(Math.max(endMs, trace.getStartedAtEpochMs()), TimeUnit.MILLISECONDS);
+            rendered |= FIRST_RENDER.equals(timing.name());
+        }
+        if (rendered) {
+            end(ui, "rendered");
+        }
+    }
+
+    /**
+     * Starts a child span of the page load in the current span scope.
+     *
+     * @param ui    UI the page is loaded in
+     * @param phase name of the phase
+     * @return started span or null when there is no page load in progress
+     */
+    private Span startPhase(UI ui, String phase) {
+        PageLoadTrace trace = ui == null ? null : ComponentUtil.getData(ui, PageLoadTrace.class);
+        if (trace == null) {
+            return null;
+        }
+        Span current = tracer.currentSpan();
+        Span.Builder builder = tracer.spanBuilder()
+                .name(phase)
+                .tag("ui.id", String.valueOf(ui.getUIId()));
+        builder.setParent(current != null && current.context().traceId().equals(trace.getRootSpan().context().traceId())
+                ? current.context() : trace.getRootSpan().context());
+        return builder.start();
+    }
+
+    /**
+     * Traced call with a result.
+     *
+     * @param <T> type of the result
+     */
+    @FunctionalInterface
+    public interface TracedCall<T> {
+        T call() throws Exception;
+    }
+
+    /**
+     * Traced call without a result.
+     */
+    @FunctionalInterface
+    public interface TracedRunnable {
+        void run() throws Exception;
+    }
+}
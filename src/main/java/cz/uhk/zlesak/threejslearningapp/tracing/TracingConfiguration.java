@@ -0,0 +1,33 @@
+package cz.uhk.zlesak.threejslearningapp.tracing;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Configuration of the span exporters used for page load tracing.
+ * The OTLP exporter is configured by Spring Boot when management.otlp.tracing.endpoint is set,
+ * the file sink is enabled by setting tracing.file-sink.path. Both can be used at the same time.
+ */
+@Configuration
+public class TracingConfiguration {
+
+    /**
+     * Provides the file span exporter, picked up by the OpenTelemetry tracing auto configuration.
+     *
+     * @param path         path of the file the spans are appended to
+     * @param objectMapper mapper used to write the JSON lines
+     * @return file span exporter
+     * @throws IOException if the file cannot be opened
+     */
+    @Bean
+    @ConditionalOnProperty(name = "tracing.file-sink.path")
+    public FileSpanExporter fileSpanExporter(@Value("${tracing.file-sink.path}") String path, ObjectMapper objectMapper) throws IOException {
+        return new FileSpanExporter(Path.of(path), objectMapper);
+    }
+}
@@ -0,0 +1,122 @@
+package cz.uhk.zlesak.threejslearningapp.views.admin;
+
+import com.vaadin.flow.component.Tag;
+import com.vaadin.flow.component.button.Button;
+import com.vaadin.flow.component.grid.Grid;
+import com.vaadin.flow.component.html.H3;
+import com.vaadin.flow.component.html.Span;
+import com.vaadin.flow.router.AfterNavigationEvent;
+import com.vaadin.flow.router.Route;
+import com.vaadin.flow.server.VaadinSession;
+import cz.uhk.zlesak.threejslearningapp.cache.ChapterEntityCache;
+import cz.uhk.zlesak.threejslearningapp.cache.ModelEntityCache;
+import cz.uhk.zlesak.threejslearningapp.cache.TextureEntityCache;
+import cz.uhk.zlesak.threejslearningapp.cache.WeightedLruCache;
+import cz.uhk.zlesak.threejslearningapp.diagnostics.SessionFootprintAuditor;
+import cz.uhk.zlesak.threejslearningapp.diagnostics.SessionFootprintAuditor.SessionFootprint;
+import cz.uhk.zlesak.threejslearningapp.views.layouts.BaseLayout;
+import jakarta.annotation.security.RolesAllowed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Scope;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SessionFootprintView is a diagnostic view showing the memory retained by the current session.
+ * Accessible at the route "/sessionFootprint" for admin users.
+ * Lists bytes retained per UI and per component of the current session and the state of the shared caches,
+ * which hold the bulk data outside the sessions.
+ *
+ * @see SessionFootprintAuditor
+ */
+@Route("sessionFootprint")
+@Tag("session-footprint-view")
+@Scope("prototype")
+@RolesAllowed(value = "ADMIN")
+public class SessionFootprintView extends BaseLayout {
+    private final List<WeightedLruCache<?, ?>> caches;
+    private final Span summary = new Span();
+    private final Grid<FootprintRow> footprintGrid = new Grid<>(FootprintRow.class, false);
+    private final Grid<WeightedLruCache.CacheStats> cacheGrid = new Grid<>(WeightedLruCache.CacheStats.class, false);
+
+    /**
+     * Constructor for SessionFootprintView.
+     *
+     * @param chapterEntityCache shared cache of chapters
+     * @param modelEntityCache   shared cache of model files
+     * @param textureEntityCache shared cache of texture files
+     */
+    @Autowired
+    public SessionFootprintView(ChapterEntityCache chapterEntityCache, ModelEntityCache modelEntityCache, TextureEntityCache textureEntityCache) {
+        this.caches = List.of(chapterEntityCache, modelEntityCache, textureEntityCache);
+
+        footprintGrid.addColumn(FootprintRow::ui).setHeader("UI").setAutoWidth(true);
+        footprintGrid.addColumn(FootprintRow::component).setHeader(text("sessionFootprint.component")).setFlexGrow(1);
+        footprintGrid.addColumn(FootprintRow::bytes).setHeader(text("sessionFootprint.bytes")).setAutoWidth(true).setSortable(true);
+
+        cacheGrid.addColumn(WeightedLruCache.CacheStats::name).setHeader(text("sessionFootprint.cache")).setAutoWidth(true);
+        cacheGrid.addColumn(WeightedLruCache.CacheStats::size).setHeader(text("sessionFootprint.entries")).setAutoWidth(true);
+        cacheGrid.addColumn(WeightedLruCache.CacheStats::weight).setHeader(text("sessionFootprint.bytes")).setAutoWidth(true);
+        cacheGrid.addColumn(WeightedLruCache.CacheStats::maxWeight).setHeader(text("sessionFootprint.maxBytes")).setAutoWidth(true);
+        cacheGrid.addColumn(WeightedLruCache.CacheStats::hits).setHeader(text("sessionFootprint.hits")).setAutoWidth(true);
+        cacheGrid.addColumn(WeightedLruCache.CacheStats::misses).setHeader(text("sessionFootprint.misses")).setAutoWidth(true);
+        cacheGrid.addColumn(WeightedLruCache.CacheStats::evictions).setHeader(text("sessionFootprint.evictions")).setAutoWidth(true);
+        cacheGrid.setAllRowsVisible(true);
+
+        Button refreshButton = new Button(text("sessionFootprint.refresh"), e -> refresh());
+
+        getContent().setSizeFull();
+        getContent().add(summary, refreshButton, footprintGrid, new H3(text("sessionFootprint.sharedCaches")), cacheGrid);
+    }
+
+    /**
+     * Provides the title for the page.
+     *
+     * @return the localized page title
+     */
+    @Override
+    public String getPageTitle() {
+        return text("page.title.sessionFootprintView");
+    }
+
+    /**
+     * Audits the session after the navigation is done, so the view itself is included in the report.
+     *
+     * @param event after navigation event with event details
+     */
+    @Override
+    public void afterNavigation(AfterNavigationEvent event) {
+        refresh();
+    }
+
+    /**
+     * Audits the current session and refreshes the displayed data.
+     */
+    private void refresh() {
+        SessionFootprint footprint = SessionFootprintAuditor.audit(VaadinSession.getCurrent());
+        summary.setText(text("sessionFootprint.total") + ": " + footprint.totalBytes() + " B, "
+                + text("sessionFootprint.sessionAttributes") + ": " + footprint.sessionBytes() + " B");
+
+        List<FootprintRow> rows = new ArrayList<>();
+        for (SessionFootprintAuditor.UiFootprint ui : footprint.uis()) {
+            String uiLabel = ui.uiId() + " /" + ui.route();
+            rows.add(new FootprintRow(uiLabel, "UI (" + text("sessionFootprint.total") + ")", ui.totalBytes()));
+            rows.add(new FootprintRow(uiLabel, "UI", ui.ownBytes()));
+            ui.components().forEach(component ->
+                    rows.add(new FootprintRow(uiLabel, "  ".repeat(component.depth()) + component.component(), component.bytes())));
+        }
+        footprintGrid.setItems(rows);
+        cacheGrid.setItems(caches.stream().<WeightedLruCache.CacheStats>map(WeightedLruCache::getStats).toList());
+    }
+
+    /**
+     * Single row of the footprint grid.
+     *
+     * @param ui        label of the UI the component belongs to
+     * @param component description of the component
+     * @param bytes     retained bytes
+     */
+    public record FootprintRow(String ui, String component, long bytes) {
+    }
+}
@@ -6,6 +6,7 @@ import com.vaadin.flow.component.Tag;
 import com.vaadin.flow.component.UI;
 import com.vaadin.flow.component.dependency.JavaScript;
 import com.vaadin.flow.router.*;
+import cz.uhk.zlesak.threejslearningapp.cache.warmup.ChapterAccessStats;
 import cz.uhk.zlesak.threejslearningapp.common.TextureMapHelper;
 import cz.uhk.zlesak.threejslearningapp.components.notifications.ErrorNotification;
 import cz.uhk.zlesak.threejslearningapp.domain.chapter.SubChapterForSelect;
@@ -14,6 +15,7 @@ import cz.uhk.zlesak.threejslearningapp.events.chapter.SubChapterChangeEvent;
 import cz.uhk.zlesak.threejslearningapp.services.ChapterService;
 import cz.uhk.zlesak.threejslearningapp.services.ModelService;
 import cz.uhk.zlesak.threejslearningapp.services.TextureService;
+import cz.uhk.zlesak.threejslearningapp.tracing.PageLoadTracer;
 import cz.uhk.zlesak.threejslearningapp.views.layouts.ChapterLayout;
 import jakarta.annotation.security.PermitAll;
 import lombok.extern.slf4j.Slf4j;
@@ -36,6 +38,8 @@ public class ChapterDetailView extends ChapterLayout {
     private final ModelService modelService;
     private final TextureService textureService;
     private final ChapterService chapterService;
+    private final PageLoadTracer pageLoadTracer;
+    private final ChapterAccessStats chapterAccessStats;
 
     private String chapterId;
     private Map<String, QuickModelEntity> modelsMap;
@@ -43,13 +47,18 @@ public class ChapterDetailView extends ChapterLayout {
     /**
      * ChapterView constructor - creates instance of chapter view instance that then accomplishes the goal of getting
      * and serving the user the requested chapter from proper backend API endpoint via chapterApiClient.
+     * The page load is traced by the PageLoadTracer, including the timings reported by the renderer.
+     * Every opening of a chapter is counted by the ChapterAccessStats, which drive the cache warm-up after a redeploy.
      */
     @Autowired
-    public ChapterDetailView(ChapterService chapterService, ModelService modelService, TextureService textureService) {
+    public ChapterDetailView(ChapterService chapterService, ModelService modelService, TextureService textureService, PageLoadTracer pageLoadTracer, ChapterAccessStats chapterAccessStats) {
         super(false);
         this.chapterService = chapterService;
         this.modelService = modelService;
         this.textureService = textureService;
+        this.pageLoadTracer = pageLoadTracer;
+        this.chapterAccessStats = chapterAccessStats;
+        modelDiv.renderer.addThreeJsClientTimingsListener(event -> pageLoadTracer.recordClientTimings(UI.getCurrent(), event));
     }
 
     /**
@@ -61,6 +70,7 @@ public class ChapterDetailView extends ChapterLayout {
     public void beforeLeave(BeforeLeaveEvent event) {
         BeforeLeaveEvent.ContinueNavigationAction postponed = event.postpone();
         UI ui = UI.getCurrent();
+        pageLoadTracer.end(ui, "left");
         if (modelDiv.renderer != null) {
             modelDiv.renderer.dispose(() -> ui.access(postponed::proceed));
         } else {
@@ -76,6 +86,7 @@ public class ChapterDetailView extends ChapterLayout {
      */
     @Override
     public void beforeEnter(BeforeEnterEvent event) {
+        pageLoadTracer.begin(event.getUI(), "chapter/" + event.getRouteParameters().get("chapterId").orElse(""));
         RouteParameters parameters = event.getRouteParameters();
         if (parameters.getParameterNames().isEmpty()) {
             event.forwardTo(ChapterListView.class);
@@ -111,11 +122,16 @@ public class ChapterDetailView extends ChapterLayout {
     public void afterNavigation(AfterNavigationEvent event) {
         configureReadOnlyMode();
 
+        UI ui = event.getLocationChangeEvent().getUI();
         try {
-            loadChapterData();
-            setupSubChapterModelMap();
-            loadAndDisplay3DModels();
+            pageLoadTracer.trace(ui, "afterNavigation", () -> {
+                loadChapterData(ui);
+                chapterAccessStats.recordAccess(chapterId);
+                setupSubChapterModelMap();
+                loadAndDisplay3DModels(ui);
+            });
         } catch (Exception e) {
+            pageLoadTracer.end(ui, "failed");
             handleChapterLoadError(e);
         }
     }
@@ -131,14 +147,17 @@ public class ChapterDetailView extends ChapterLayout {
 
     /**
      * Loads the main chapter data including name, content, and sub-chapters.
+     * Every service call and the rendering of the content in the editor are traced as separate phases of the page load.
      *
+     * @param ui UI the chapter is loaded in
      * @throws Exception if chapter data cannot be loaded
      */
-    private void loadChapterData() throws Exception {
-        nameTextField.setValue(chapterService.getChapterName(chapterId));
-        editorjs.setChapterContentData(chapterService.getChapterContent(chapterId));
-        chapterSelect.initializeChapterSelectionSelect(chapterService.getSubChaptersNames(chapterId));
-        navigationContentLayout.initializeSubChapterData(chapterService.getSubChaptersContent(chapterId));
+    private void loadChapterData(UI ui) throws Exception {
+        nameTextField.setValue(pageLoadTracer.trace(ui, "chapterService.getChapterName", () -> chapterService.getChapterName(chapterId)));
+        String content = pageLoadTracer.trace(ui, "chapterService.getChapterContent", () -> chapterService.getChapterContent(chapterId));
+        pageLoadTracer.traceAsync(ui, "editorjs.setChapterContentData", editorjs.setChapterContentData(content));
+        chapterSelect.initializeChapterSelectionSelect(pageLoadTracer.trace(ui, "chapterService.getSubChaptersNames", () -> chapterService.getSubChaptersNames(chapterId)));
+        navigationContentLayout.initializeSubChapterData(pageLoadTracer.trace(ui, "chapterService.getSubChaptersContent", () -> chapterService.getSubChaptersContent(chapterId)));
     }
 
     /**
@@ -166,7 +185,7 @@ public class ChapterDetailView extends ChapterLayout {
             }
 
             String subChapterId = newValue.id();
-            editorjs.setSelectedSubchapterData(chapterService.getSelectedSubChapterContent(subChapterId));
+            editorjs.setSelectedSubchapterData(chapterService.getSelectedSubChapterContent(chapterId, subChapterId));
 
             QuickModelEntity modelToShow = modelsMap.getOrDefault(subChapterId, modelsMap.get("main"));
             if (modelToShow != null) {
@@ -193,12 +212,17 @@ public class ChapterDetailView extends ChapterLayout {
     /**
      * Loads and displays all 3D models associated with the chapter.
      * For each model, loads the model file, textures, and sets up the renderer.
+     * A chapter without models has nothing more to render, so its page load ends here.
      *
+     * @param ui UI the chapter is loaded in
      * @throws Exception if models cannot be loaded or displayed
      */
-    private void loadAndDisplay3DModels() throws Exception {
+    private void loadAndDisplay3DModels(UI ui) throws Exception {
         try {
-            Map<String, QuickModelEntity> quickModelEntityMap = chapterService.getChaptersModels(chapterId);
+            Map<String, QuickModelEntity> quickModelEntityMap = pageLoadTracer.trace(ui, "chapterService.getChaptersModels", () -> chapterService.getChaptersModels(chapterId));
+            if (quickModelEntityMap.isEmpty()) {
+                pageLoadTracer.end(ui, "rendered");
+            }
 
             for (QuickModelEntity quickModelEntity : quickModelEntityMap.values()) {
                 loadModelWithTextures(quickModelEntity);
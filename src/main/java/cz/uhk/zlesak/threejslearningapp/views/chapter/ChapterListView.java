@@ -88,7 +88,7 @@ public class ChapterListView extends ListingLayout {
             List<ChapterEntity> chapterEntities = chapterEntityPageResult.elements().stream().toList();
 
             for (ChapterEntity chapter : chapterEntities) {
-                ChapterListItem itemComponent = new ChapterListItem(chapter);
+                ChapterListItem itemComponent = new ChapterListItem(chapter, chapterService.getChapterExcerpt(chapter));
                 itemListLayout.add(itemComponent);
             }
             Pagination pagination = new Pagination(filterParameters.getPageNumber(), filterParameters.getPageSize(), chapterEntityPageResult.total(),
@@ -110,7 +110,7 @@ public class ChapterListView extends ListingLayout {
         List<ChapterEntity> filteredChapters = chapterService.getChapters(filterParameters.getSearchText());
 
         for (ChapterEntity chapter : filteredChapters) {
-            ChapterListItem itemComponent = new ChapterListItem(chapter);
+            ChapterListItem itemComponent = new ChapterListItem(chapter, chapterService.getChapterExcerpt(chapter));
             itemListLayout.add(itemComponent);
         }
         Pagination pagination = new Pagination(1, filteredChapters.size(), filteredChapters.size(), null); //TODO BE needs to support paging of filtered results, otherwise pagination is pointless here
@@ -1,5 +1,6 @@
 package cz.uhk.zlesak.threejslearningapp.views.chapter;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.vaadin.flow.component.AttachEvent;
 import com.vaadin.flow.component.ComponentUtil;
 import com.vaadin.flow.component.Tag;
@@ -8,9 +9,12 @@ import com.vaadin.flow.router.BeforeLeaveEvent;
 import com.vaadin.flow.router.Route;
 import cz.uhk.zlesak.threejslearningapp.common.TextureMapHelper;
 import cz.uhk.zlesak.threejslearningapp.components.dialogs.BeforeLeaveActionDialog;
+import cz.uhk.zlesak.threejslearningapp.components.dialogs.DraftRestoreDialog;
 import cz.uhk.zlesak.threejslearningapp.components.forms.CreateChapterForm;
 import cz.uhk.zlesak.threejslearningapp.components.notifications.ErrorNotification;
 import cz.uhk.zlesak.threejslearningapp.domain.model.QuickModelEntity;
+import cz.uhk.zlesak.threejslearningapp.drafts.ChapterDraft;
+import cz.uhk.zlesak.threejslearningapp.drafts.ChapterDraftStore;
 import cz.uhk.zlesak.threejslearningapp.domain.texture.QuickTextureEntity;
 import cz.uhk.zlesak.threejslearningapp.events.chapter.CreateChapterEvent;
 import cz.uhk.zlesak.threejslearningapp.services.ChapterService;
@@ -22,6 +26,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.ApplicationContextException;
 import org.springframework.context.annotation.Scope;
+import org.springframework.security.core.context.SecurityContextHolder;
 
 import java.io.IOException;
 import java.util.ArrayList;
@@ -32,6 +37,7 @@ import java.util.Map;
  * CreateChapterView for creating a new chapter.
  * Accessible at the route "/createChapter".
  * Allows admin users to create chapters with content and associated 3D models.
+ * The chapter name and content are autosaved as a draft of the author, which is offered for restoring when the view is opened again.
  */
 @Slf4j
 @Route("createChapter")
@@ -42,7 +48,10 @@ public class CreateChapterView extends ChapterLayout {
     private final TextureService textureService;
     private final ModelService modelService;
     private final ChapterService chapterService;
+    private final ChapterDraftStore chapterDraftStore;
+    private final String author;
     private boolean skipBeforeLeaveDialog = false;
+    private boolean draftOffered = false;
 
     /**
      * Constructor for CreateChapterView.
@@ -51,14 +60,17 @@ public class CreateChapterView extends ChapterLayout {
      * @param chapterService service for handling chapter-related operations
      * @param modelService   service for handling model-related operations
      * @param textureService service for handling texture-related operations
+     * @param chapterDraftStore store of the autosaved chapter drafts
      */
     @Autowired
-    public CreateChapterView(ChapterService chapterService, ModelService modelService, TextureService textureService) {
+    public CreateChapterView(ChapterService chapterService, ModelService modelService, TextureService textureService, ChapterDraftStore chapterDraftStore) {
         super(true);
 
         this.modelService = modelService;
         this.textureService = textureService;
         this.chapterService = chapterService;
+        this.chapterDraftStore = chapterDraftStore;
+        this.author = SecurityContextHolder.getContext().getAuthentication().getName();
 
         initializeView();
     }
@@ -70,6 +82,7 @@ public class CreateChapterView extends ChapterLayout {
         configureVisibility();
         setupChapterForm();
         setupModelSelectionHandler();
+        setupAutosave();
     }
 
     /**
@@ -105,6 +118,53 @@ public class CreateChapterView extends ChapterLayout {
         });
     }
 
+    /**
+     * Sets up the autosave of the draft.
+     * The draft is saved whenever the editor synchronizes its changes or the user changes the chapter name.
+     */
+    private void setupAutosave() {
+        editorjs.setBlocksChangedListener(this::autosave);
+        nameTextField.addValueChangeListener(event -> {
+            if (event.isFromClient()) {
+                autosave();
+            }
+        });
+    }
+
+    /**
+     * Saves the current chapter name and content as the draft of the author.
+     * The content is taken from the server side copy of the editor blocks, so the autosave does not call the browser.
+     */
+    private void autosave() {
+        editorjs.getSyncedData().ifPresent(content -> chapterDraftStore.save(author, nameTextField.getValue(), content));
+    }
+
+    /**
+     * Offers the draft of the author for restoring, if there is any.
+     */
+    private void offerDraftRestore() {
+        if (draftOffered) {
+            return;
+        }
+        draftOffered = true;
+        chapterDraftStore.find(author).ifPresent(draft -> DraftRestoreDialog.open(draft, this::restoreDraft, () -> chapterDraftStore.discard(author)));
+    }
+
+    /**
+     * Restores the chapter name and content from the draft.
+     *
+     * @param draft the draft to restore
+     */
+    private void restoreDraft(ChapterDraft draft) {
+        nameTextField.setValue(draft.name() == null ? "" : draft.name());
+        try {
+            editorjs.loadData(draft.content());
+        } catch (JsonProcessingException e) {
+            log.error("Error restoring chapter draft: {}", e.getMessage(), e);
+            new ErrorNotification(text("draftRestoreDialog.restoreFailed") + ": " + e.getMessage(), 5000);
+        }
+    }
+
     /**
      * Called before leaving the view.
      * Shows a confirmation dialog if there are unsaved changes.
@@ -298,6 +358,7 @@ public class CreateChapterView extends ChapterLayout {
         try {
             String chapterName = nameTextField.getValue().trim();
             String chapterId = chapterService.createChapter(chapterName, bodyData, allModels);
+            chapterDraftStore.discard(author);
 
             skipBeforeLeaveDialog = true;
             UI.getCurrent().navigate("chapter/" + chapterId);
@@ -345,7 +406,7 @@ public class CreateChapterView extends ChapterLayout {
 
     /**
      * Handles component attachment to the UI.
-     * Registers a listener for CreateChapterEvent.
+     * Registers a listener for CreateChapterEvent and offers the draft of the author for restoring.
      *
      * @param attachEvent the attach event
      */
@@ -357,6 +418,7 @@ public class CreateChapterView extends ChapterLayout {
                 CreateChapterEvent.class,
                 this::createChapterConsumer
         ));
+        offerDraftRestore();
     }
 }
 
@@ -18,6 +18,7 @@ import cz.uhk.zlesak.threejslearningapp.components.buttons.ThemeModeToggleButton
 import cz.uhk.zlesak.threejslearningapp.components.lists.AvatarItem;
 import cz.uhk.zlesak.threejslearningapp.components.notifications.CookiesNotification;
 import cz.uhk.zlesak.threejslearningapp.views.MainPageView;
+import cz.uhk.zlesak.threejslearningapp.views.admin.SessionFootprintView;
 import cz.uhk.zlesak.threejslearningapp.views.chapter.ChapterListView;
 import cz.uhk.zlesak.threejslearningapp.views.chapter.CreateChapterView;
 import cz.uhk.zlesak.threejslearningapp.views.model.CreateModelView;
@@ -104,7 +105,8 @@ public class MainLayout extends AppLayout {
                         new MenuItemInfo("Vytvořit kapitolu", VaadinIcon.PENCIL.create(), CreateChapterView.class),
                         new MenuItemInfo("Nahrát model", VaadinIcon.FILE_ZIP.create(), CreateModelView.class),
                         new MenuItemInfo("Modely", VaadinIcon.FILE_TREE.create(), ModelListView.class),
-                        new MenuItemInfo("Kapitoly", VaadinIcon.MODAL_LIST.create(), ChapterListView.class)
+                        new MenuItemInfo("Kapitoly", VaadinIcon.MODAL_LIST.create(), ChapterListView.class),
+                        new MenuItemInfo("Paměť relace", VaadinIcon.DASHBOARD.create(), SessionFootprintView.class)
                 };
             } else if (authentication.getAuthorities().stream().anyMatch(auth -> "ROLE_USER".equals(auth.getAuthority()))) {
                 return new MenuItemInfo[]{
@@ -100,8 +100,8 @@ public class CreateModelView extends ModelLayout {
 
     /**
      * Navigates to the model detail view for the given model.
-     * Uses VaadinSession to temporarily store the model data.
-     * TODO: Replace session storage with proper route parameters once backend supports it
+     * The detail view looks the model up by its ID, the model is handed over in the VaadinSession as well,
+     * which the view falls back to while the backend does not provide the model metadata lookup.
      *
      * @param quickModelEntity the model to display
      */
@@ -10,6 +10,7 @@ import cz.uhk.zlesak.threejslearningapp.services.ModelService;
 import cz.uhk.zlesak.threejslearningapp.services.TextureService;
 import cz.uhk.zlesak.threejslearningapp.domain.model.QuickModelEntity;
 import cz.uhk.zlesak.threejslearningapp.common.TextureMapHelper;
+import cz.uhk.zlesak.threejslearningapp.tracing.PageLoadTracer;
 import cz.uhk.zlesak.threejslearningapp.views.layouts.ModelLayout;
 import jakarta.annotation.security.PermitAll;
 import lombok.extern.slf4j.Slf4j;
@@ -33,6 +34,7 @@ import java.util.Map;
 public class ModelDetailView extends ModelLayout {
     private final ModelService modelService;
     private final TextureService textureService;
+    private final PageLoadTracer pageLoadTracer;
     private QuickModelEntity quickModelEntity;
 
     /**
@@ -41,39 +43,63 @@ public class ModelDetailView extends ModelLayout {
      *
      * @param modelService   controller for handling model-related operations
      * @param textureService controller for handling texture-related operations
+     * @param pageLoadTracer tracer of the page load, including the timings reported by the renderer
      */
     @Autowired
-    public ModelDetailView(ModelService modelService, TextureService textureService) {
+    public ModelDetailView(ModelService modelService, TextureService textureService, PageLoadTracer pageLoadTracer) {
         super();
         this.modelService = modelService;
         this.textureService = textureService;
+        this.pageLoadTracer = pageLoadTracer;
+        modelDiv.renderer.addThreeJsClientTimingsListener(event -> pageLoadTracer.recordClientTimings(UI.getCurrent(), event));
     }
 
     /**
      * Handles actions before entering the view.
-     * It checks for the presence of a modelId parameter and attempts to load the corresponding model.
-     * If the modelId is missing or invalid, it forwards the user to the ModelListView.
-     * When coming from a creation view, the model is expected to be in the session.
+     * It checks for the presence of a modelId parameter and looks up the metadata of the corresponding model.
+     * If the modelId is missing or no such model exists, it forwards the user to the ModelListView.
+     * The detail URL is thus self-contained and can be bookmarked, shared or opened in a new tab.
+     * While the backend does not provide the model metadata lookup (GET model/metadata/{id}), the view falls back to the model
+     * handed over in the session by the list items and the creation view.
      *
      * @param event before navigation event with event details
      */
     @Override
     public void beforeEnter(BeforeEnterEvent event) {
+        pageLoadTracer.begin(event.getUI(), "model/" + event.getRouteParameters().get("modelId").orElse(""));
         RouteParameters parameters = event.getRouteParameters();
-        if (parameters.getParameterNames().isEmpty()) {
+        String modelId = parameters.get("modelId").orElse(null);
+        if (modelId == null) {
             event.forwardTo(ModelListView.class);
+            return;
         }
 
-        if (parameters.get("modelId").orElse(null) == null) {
+        try {
+            this.quickModelEntity = pageLoadTracer.trace(event.getUI(), "modelService.getModelMetadata", () -> modelService.getModelMetadata(modelId)).orElse(null);
+        } catch (Exception e) {
+            log.error("Chyba při načítání metadat modelu {}: {}", modelId, e.getMessage());
+            this.quickModelEntity = null;
+        }
+        if (quickModelEntity == null) {
+            quickModelEntity = handedOverModel(modelId);
+        }
+        if (quickModelEntity == null) {
             event.forwardTo(ModelListView.class);
         }
+    }
 
-        //TODO remove after BE implementation of geting model by modelEntityId
-        if (VaadinSession.getCurrent().getAttribute("quickModelEntity") != null) {
-            this.quickModelEntity = (QuickModelEntity) VaadinSession.getCurrent().getAttribute("quickModelEntity");
-        } else {
-            event.forwardTo(ModelListView.class);
+    /**
+     * Returns the model handed over in the session, if it is the requested one.
+     *
+     * @param modelId ID of the requested model
+     * @return the handed over model or null
+     */
+    private static QuickModelEntity handedOverModel(String modelId) {
+        if (VaadinSession.getCurrent().getAttribute("quickModelEntity") instanceof QuickModelEntity model
+                && model.getModel() != null && modelId.equals(model.getModel().getId())) {
+            return model;
         }
+        return null;
     }
 
     /**
@@ -86,6 +112,7 @@ public class ModelDetailView extends ModelLayout {
     @Override
     public void beforeLeave(BeforeLeaveEvent event) {
         BeforeLeaveEvent.ContinueNavigationAction postponed = event.postpone();
+        pageLoadTracer.end(event.getUI(), "left");
         modelDiv.renderer.dispose((SerializableRunnable) () -> UI.getCurrent().access(postponed::proceed));
     }
 
@@ -108,6 +135,22 @@ public class ModelDetailView extends ModelLayout {
      */
     @Override
     public void afterNavigation(AfterNavigationEvent event) {
+        UI ui = event.getLocationChangeEvent().getUI();
+        try {
+            pageLoadTracer.trace(ui, "afterNavigation", this::showModel);
+        } catch (RuntimeException e) {
+            pageLoadTracer.end(ui, "failed");
+            throw e;
+        } catch (Exception e) {
+            pageLoadTracer.end(ui, "failed");
+            throw new ApplicationContextException(e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Loads the looked up model into the renderer and populates the model name and texture selectors.
+     */
+    private void showModel() {
         try {
             String modelUrl = modelService.getModelFileBeEndpointUrl(quickModelEntity.getModel().getId());
             String textureUrl = null;
@@ -130,8 +173,6 @@ public class ModelDetailView extends ModelLayout {
             log.error(e.getMessage());
             new ErrorNotification(text("notification.modelLoadFailed") + e.getMessage(), 5000);
             throw e;
-        } finally {
-            VaadinSession.getCurrent().setAttribute("quickModelEntity", null);
         }
         modelUploadForm.listingMode();
     }
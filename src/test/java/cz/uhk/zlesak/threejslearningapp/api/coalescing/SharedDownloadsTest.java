@@ -0,0 +1,200 @@
+package cz.uhk.zlesak.threejslearningapp.api.coalescing;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the download shared by the client starting it and two clients joining it while the backend is still sending the file.
+ * The backend sends the first part of the file and holds the rest until both clients joined, so all three read the spool concurrently.
+ */
+class SharedDownloadsTest {
+    private static final String ENDPOINT = "model/download/{id}";
+    private static final byte[] CONTENT = content(256 * 1024);
+
+    private SimpleMeterRegistry meterRegistry;
+    private SharedDownloads sharedDownloads;
+    private ExecutorService clients;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        sharedDownloads = new SharedDownloads(List.of(ENDPOINT), Duration.ofSeconds(10), Duration.ofSeconds(10), meterRegistry);
+        clients = Executors.newFixedThreadPool(3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        clients.shutdownNow();
+        sharedDownloads.stop();
+    }
+
+    @Test
+    void joinedClientsReadTheDownloadAndCompletionGetsTheFile() throws Exception {
+        AtomicReference<byte[]> completed = new AtomicReference<>();
+        CountDownLatch completion = new CountDownLatch(1);
+
+        List<byte[]> read = streamByThreeClients(CONTENT.length * 2L, (fileName, content) -> {
+            completed.set(content);
+            completion.countDown();
+        });
+
+        read.forEach(content -> assertArrayEquals(CONTENT, content));
+        assertTrue(completion.await(10, TimeUnit.SECONDS));
+        assertArrayEquals(CONTENT, completed.get());
+    }
+
+    @Test
+    void joinedClientsReadTheDownloadSpooledToFile() throws Exception {
+        AtomicReference<byte[]> completed = new AtomicReference<>();
+
+        List<byte[]> read = streamByThreeClients(16 * 1024, (fileName, content) -> completed.set(content));
+
+        read.forEach(content -> assertArrayEquals(CONTENT, content));
+        assertNull(completed.get());
+    }
+
+    /**
+     * Streams the file by the client starting the download and two clients joining it, while the backend holds the rest of the file.
+     *
+     * @param memoryLimit maximal number of bytes of the download held in memory
+     * @param completion  consumer of the completely downloaded file
+     * @return contents read by the three clients
+     * @throws Exception if a client failed
+     */
+    private List<byte[]> streamByThreeClients(long memoryLimit, SharedDownloads.Completion completion) throws Exception {
+        AtomicInteger backendCalls = new AtomicInteger();
+        CountDownLatch downloadStarted = new CountDownLatch(1);
+        CountDownLatch clientsJoined = new CountDownLatch(1);
+        SharedDownloads.Download download = handler -> {
+            backendCalls.incrementAndGet();
+            downloadStarted.countDown();
+            handler.handle("model.obj", CONTENT.length, new HeldInputStream(CONTENT, 4096, clientsJoined));
+        };
+
+        Future<byte[]> starter = clients.submit(() -> stream(memoryLimit, download, completion));
+        assertTrue(downloadStarted.await(10, TimeUnit.SECONDS));
+        Future<byte[]> firstJoined = clients.submit(() -> stream(memoryLimit, download, completion));
+        Future<byte[]> secondJoined = clients.submit(() -> stream(memoryLimit, download, completion));
+        awaitCollapsed(2);
+        clientsJoined.countDown();
+
+        List<byte[]> read = List.of(starter.get(10, TimeUnit.SECONDS), firstJoined.get(10, TimeUnit.SECONDS), secondJoined.get(10, TimeUnit.SECONDS));
+        assertEquals(1, backendCalls.get());
+        return read;
+    }
+
+    /**
+     * Streams the file through the shared download and reads it whole.
+     *
+     * @param memoryLimit maximal number of bytes of the download held in memory
+     * @param download    the backend call
+     * @param completion  consumer of the completely downloaded file
+     * @return read content
+     * @throws Exception if the file was not streamed
+     */
+    private byte[] stream(long memoryLimit, SharedDownloads.Download download, SharedDownloads.Completion completion) throws Exception {
+        AtomicReference<byte[]> read = new AtomicReference<>();
+        boolean streamed = sharedDownloads.stream(ENDPOINT, "model-1", memoryLimit, download, completion,
+                (fileName, contentLength, inputStream) -> read.set(inputStream.readAllBytes()));
+        assertTrue(streamed);
+        return read.get();
+    }
+
+    /**
+     * Waits until the given number of clients joined the download.
+     *
+     * @param clients expected number of joined clients
+     * @throws InterruptedException if the waiting was interrupted
+     */
+    private void awaitCollapsed(int clients) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (System.nanoTime() < deadline) {
+            Counter collapsed = meterRegistry.find("backend.api.coalescing.calls").tag("role", "collapsed").counter();
+            if (collapsed != null && collapsed.count() >= clients) {
+                return;
+            }
+            Thread.sleep(10);
+        }
+        throw new AssertionError("Klienti se nepřipojili ke stahování");
+    }
+
+    /**
+     * Generates random content of the file.
+     *
+     * @param length length of the content
+     * @return content
+     */
+    private static byte[] content(int length) {
+        byte[] content = new byte[length];
+        new Random(42).nextBytes(content);
+        return content;
+    }
+
+    /**
+     * Backend stream sending the first part of the file immediately and the rest once released.
+     */
+    private static class HeldInputStream extends InputStream {
+        private final ByteArrayInputStream content;
+        private final CountDownLatch release;
+        private int held;
+
+        /**
+         * Constructor for HeldInputStream.
+         *
+         * @param content content of the file
+         * @param sent    number of bytes sent before the stream is held
+         * @param release latch releasing the rest of the file
+         */
+        HeldInputStream(byte[] content, int sent, CountDownLatch release) {
+            this.content = new ByteArrayInputStream(content);
+            this.release = release;
+            this.held = sent;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] single = new byte[1];
+            return read(single, 0, 1) == -1 ? -1 : single[0] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int count) throws IOException {
+            if (held <= 0) {
+                try {
+                    if (!release.await(10, TimeUnit.SECONDS)) {
+                        throw new IOException("Zbytek souboru nebyl uvolněn");
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException(e);
+                }
+                return content.read(buffer, offset, count);
+            }
+            int read = content.read(buffer, offset, Math.min(count, held));
+            held -= read;
+            return read;
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package cz.uhk.zlesak.threejslearningapp.cache.invalidation;
+
+import cz.uhk.zlesak.threejslearningapp.cache.ChapterEntityCache;
+import cz.uhk.zlesak.threejslearningapp.cache.ChapterExcerptCache;
+import cz.uhk.zlesak.threejslearningapp.cache.StaleResponseCache;
+import cz.uhk.zlesak.threejslearningapp.cache.warmup.ChapterAccessStats;
+import cz.uhk.zlesak.threejslearningapp.domain.chapter.ChapterEntity;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.event.EventListener;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the invalidations broadcast between two nodes connected by the in-JVM invalidation bus.
+ * Every node is an application context with its own chapter cache, relay and invalidator, as on separate cluster nodes.
+ */
+class InJvmInvalidationBusTest {
+    private AnnotationConfigApplicationContext nodeA;
+    private AnnotationConfigApplicationContext nodeB;
+
+    @BeforeEach
+    void startNodes() {
+        nodeA = node();
+        nodeB = node();
+    }
+
+    @AfterEach
+    void stopNodes() {
+        nodeA.close();
+        nodeB.close();
+    }
+
+    @Test
+    void changeOnOneNodeInvalidatesOtherNode() {
+        cacheOf(nodeA).put("chapter-1", chapter("chapter-1"));
+        cacheOf(nodeB).put("chapter-1", chapter("chapter-1"));
+        cacheOf(nodeB).put("chapter-2", chapter("chapter-2"));
+
+        nodeA.publishEvent(new ChapterInvalidatedEvent("chapter-1", false));
+
+        assertNull(cacheOf(nodeA).get("chapter-1"));
+        assertNull(cacheOf(nodeB).get("chapter-1"));
+        assertNotNull(cacheOf(nodeB).get("chapter-2"));
+    }
+
+    @Test
+    void receivedInvalidationIsNotBroadcastAgain() {
+        nodeA.publishEvent(new ChapterInvalidatedEvent("chapter-1", true));
+
+        List<ChapterInvalidatedEvent> localEvents = nodeA.getBean(RecordedInvalidations.class).events;
+        List<ChapterInvalidatedEvent> remoteEvents = nodeB.getBean(RecordedInvalidations.class).events;
+        assertEquals(List.of(new ChapterInvalidatedEvent("chapter-1", true, false)), localEvents);
+        assertEquals(List.of(new ChapterInvalidatedEvent("chapter-1", true, true)), remoteEvents);
+    }
+
+    @Test
+    void closedNodeReceivesNoInvalidations() {
+        ChapterEntityCache closedCache = cacheOf(nodeB);
+        RecordedInvalidations closedInvalidations = nodeB.getBean(RecordedInvalidations.class);
+        closedCache.put("chapter-1", chapter("chapter-1"));
+        nodeB.close();
+
+        nodeA.publishEvent(new ChapterInvalidatedEvent("chapter-1", false));
+
+        assertNotNull(closedCache.get("chapter-1"));
+        assertTrue(closedInvalidations.events.isEmpty());
+    }
+
+    @Test
+    void chaptersExpireWhenBusIsConfigured() {
+        Duration clusterMaxAge = Duration.ofMinutes(5);
+
+        assertEquals(clusterMaxAge, cacheOf(nodeA).getMaxAge());
+        assertEquals(Duration.ofMinutes(1), new ChapterEntityCache(1024, Duration.ofMinutes(1), "in-jvm", clusterMaxAge).getMaxAge());
+        assertEquals(clusterMaxAge, new ChapterEntityCache(1024, Duration.ofHours(1), "multicast", clusterMaxAge).getMaxAge());
+        assertFalse(new ChapterEntityCache(1024, Duration.ZERO, "none", clusterMaxAge).getMaxAge().isPositive());
+    }
+
+    /**
+     * Starts a node connected to the in-JVM invalidation bus.
+     *
+     * @return application context of the node
+     */
+    private static AnnotationConfigApplicationContext node() {
+        AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext();
+        context.registerBean(InvalidationBus.class, InJvmInvalidationBus::new);
+        context.registerBean(ChapterEntityCache.class, () -> new ChapterEntityCache(1024 * 1024, Duration.ZERO, "in-jvm", Duration.ofMinutes(5)));
+        context.registerBean(ChapterExcerptCache.class, () -> new ChapterExcerptCache(1024 * 1024));
+        context.registerBean(StaleResponseCache.class, () -> new StaleResponseCache(1024 * 1024));
+        context.registerBean(ChapterAccessStats.class, () -> new ChapterAccessStats("", 1000));
+        context.registerBean(ChapterCacheInvalidator.class);
+        context.registerBean(ClusterInvalidationRelay.class);
+        context.registerBean(RecordedInvalidations.class);
+        context.refresh();
+        return context;
+    }
+
+    /**
+     * Returns the chapter cache of the node.
+     *
+     * @param node application context of the node
+     * @return chapter cache
+     */
+    private static ChapterEntityCache cacheOf(AnnotationConfigApplicationContext node) {
+        return node.getBean(ChapterEntityCache.class);
+    }
+
+    /**
+     * Creates a chapter with the ID.
+     *
+     * @param chapterId ID of the chapter
+     * @return chapter entity
+     */
+    private static ChapterEntity chapter(String chapterId) {
+        return ChapterEntity.builder().Id(chapterId).Name("Kapitola " + chapterId).Content("{}").build();
+    }
+
+    /**
+     * Listener recording the invalidation events published on the node.
+     */
+    static class RecordedInvalidations {
+        final List<ChapterInvalidatedEvent> events = new CopyOnWriteArrayList<>();
+
+        @EventListener
+        public void onChapterInvalidated(ChapterInvalidatedEvent event) {
+            events.add(event);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package cz.uhk.zlesak.threejslearningapp.domain.parsers;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * Golden tests of the conversion between Markdown and the Editor.js content of chapters.
+ * The sample chapter.md converted to Editor.js and back must give chapter.roundtrip.md, which differs from the sample only by the
+ * line breaks inside the paragraphs joined to spaces, and further round trips must not change it.
+ */
+class EditorJsMarkdownParserTest {
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    @Test
+    void roundTripMatchesGolden() throws IOException {
+        String markdown = EditorJsMarkdownParser.toMarkdown(EditorJsMarkdownParser.toEditorJs(resource("chapter.md")));
+
+        assertEquals(resource("chapter.roundtrip.md"), markdown);
+    }
+
+    @Test
+    void roundTripIsStable() throws IOException {
+        String golden = resource("chapter.roundtrip.md");
+
+        assertEquals(golden, EditorJsMarkdownParser.toMarkdown(EditorJsMarkdownParser.toEditorJs(golden)));
+    }
+
+    @Test
+    void converterKeepsUnchangedBlocks() throws IOException {
+        String content = EditorJsMarkdownParser.toEditorJs(resource("chapter.md"));
+        EditorJsMarkdownConverter converter = new EditorJsMarkdownConverter();
+
+        String restored = converter.toEditorJs(converter.toMarkdown(content));
+
+        assertEquals(blocksOf(content), blocksOf(restored));
+    }
+
+    @Test
+    void converterReplacesOnlyEditedBlocks() throws IOException {
+        String content = EditorJsMarkdownParser.toEditorJs(resource("chapter.md"));
+        EditorJsMarkdownConverter converter = new EditorJsMarkdownConverter();
+        String markdown = converter.toMarkdown(content);
+
+        JsonNode original = blocksOf(content);
+        JsonNode edited = blocksOf(converter.toEditorJs(markdown.replace("# Nisi Nisl Aliquam Enim", "# Nisi Nisl")));
+
+        assertEquals(original.size(), edited.size());
+        for (int i = 0; i < original.size(); i++) {
+            if (original.get(i).path("data").path("text").asText().equals("Nisi Nisl Aliquam Enim")) {
+                assertNotEquals(original.get(i).path("id"), edited.get(i).path("id"));
+                assertEquals("Nisi Nisl", edited.get(i).path("data").path("text").asText());
+            } else {
+                assertEquals(original.get(i), edited.get(i));
+            }
+        }
+    }
+
+    /**
+     * Returns the blocks of the Editor.js content without the time of the conversion.
+     *
+     * @param content Editor.js content as a JSON string
+     * @return blocks of the content
+     * @throws IOException if the content is not a valid JSON
+     */
+    private static JsonNode blocksOf(String content) throws IOException {
+        return ((ObjectNode) OBJECT_MAPPER.readTree(content)).get("blocks");
+    }
+
+    /**
+     * Reads the test resource.
+     *
+     * @param name name of the resource
+     * @return content of the resource
+     * @throws IOException if the resource cannot be read
+     */
+    private static String resource(String name) throws IOException {
+        try (InputStream inputStream = EditorJsMarkdownParserTest.class.getResourceAsStream("/" + name)) {
+            if (inputStream == null) {
+                throw new IOException("Chybí testovací soubor " + name);
+            }
+            return new String(inputStream.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package cz.uhk.zlesak.threejslearningapp.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import cz.uhk.zlesak.threejslearningapp.api.clients.ChapterApiClient;
+import cz.uhk.zlesak.threejslearningapp.api.coalescing.RequestCoalescer;
+import cz.uhk.zlesak.threejslearningapp.cache.ChapterEntityCache;
+import cz.uhk.zlesak.threejslearningapp.cache.ChapterExcerptCache;
+import cz.uhk.zlesak.threejslearningapp.cache.ContentHashIndex;
+import cz.uhk.zlesak.threejslearningapp.cache.ModelMetadataCache;
+import cz.uhk.zlesak.threejslearningapp.domain.chapter.ChapterEntity;
+import cz.uhk.zlesak.threejslearningapp.domain.chapter.SubChapterForSelect;
+import cz.uhk.zlesak.threejslearningapp.metrics.BackendApiMetrics;
+import elemental.json.Json;
+import elemental.json.JsonArray;
+import elemental.json.JsonObject;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests of the sub-chapter IDs of a chapter whose level 1 headers have no ID, so their fallback IDs are derived from their positions.
+ * The chapter is served from the chapter cache, so no backend is called.
+ */
+class ChapterServiceTest {
+    private static final String CHAPTER_ID = "chapter-1";
+    private static final String CONTENT = """
+            {"blocks": [
+              {"type": "header", "data": {"text": "Úvod", "level": 1}},
+              {"type": "paragraph", "data": {"text": "Text úvodu"}},
+              {"type": "header", "data": {"text": "Podkapitola úvodu", "level": 2}},
+              {"type": "header", "data": {"text": "Závěr", "level": 1}},
+              {"type": "header", "data": {"text": "Podkapitola závěru", "level": 2}}
+            ]}
+            """;
+
+    @Test
+    void subChaptersOfLeadingHeaderWithoutIdHaveUniqueIds() throws Exception {
+        JsonArray subChapters = chapterService(CONTENT).getSubChaptersContent(CHAPTER_ID);
+
+        List<String> ids = new ArrayList<>();
+        for (int i = 0; i < subChapters.length(); i++) {
+            ids.add(subChapters.getObject(i).getObject("h1").getString("id"));
+        }
+        assertEquals(3, ids.size());
+        assertEquals(ids.size(), new HashSet<>(ids).size());
+    }
+
+    @Test
+    void subChapterNamesMatchSubChapterContents() throws Exception {
+        ChapterService chapterService = chapterService(CONTENT);
+        JsonArray subChapters = chapterService.getSubChaptersContent(CHAPTER_ID);
+        List<SubChapterForSelect> names = chapterService.getSubChaptersNames(CHAPTER_ID);
+
+        assertEquals(subChapters.length() - 1, names.size());
+        for (int i = 0; i < names.size(); i++) {
+            JsonObject h1 = subChapters.getObject(i + 1).getObject("h1");
+            assertEquals(h1.getString("id"), names.get(i).id());
+            JsonArray selected = Json.parse(chapterService.getSelectedSubChapterContent(CHAPTER_ID, names.get(i).id()));
+            assertEquals(h1.getObject("data").getString("text"), selected.getObject(0).getObject("data").getString("text"));
+        }
+        assertTrue(names.stream().noneMatch(name -> name.id().equals(subChapters.getObject(0).getObject("h1").getString("id"))));
+    }
+
+    /**
+     * Creates the chapter service serving the chapter with the content from its cache.
+     *
+     * @param content Editor.js content of the chapter
+     * @return chapter service
+     */
+    private static ChapterService chapterService(String content) {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        ObjectMapper objectMapper = new ObjectMapper();
+        ChapterEntityCache chapterEntityCache = new ChapterEntityCache(Long.MAX_VALUE, Duration.ZERO, "none", Duration.ZERO);
+        chapterEntityCache.put(CHAPTER_ID, ChapterEntity.builder().Id(CHAPTER_ID).Name("Kapitola").Content(content).build());
+        return new ChapterService(
+                new ChapterApiClient(new RestTemplate(), objectMapper, new BackendApiMetrics(meterRegistry)),
+                chapterEntityCache,
+                objectMapper,
+                new RequestCoalescer(List.of(), Duration.ofSeconds(10), meterRegistry),
+                new ChapterExcerptCache(Long.MAX_VALUE),
+                new ModelMetadataCache(Long.MAX_VALUE, Duration.ZERO, Duration.ZERO, 1, new ContentHashIndex(1, Duration.ZERO)),
+                150,
+                event -> {
+                });
+    }
+}